@@ -0,0 +1,82 @@
+package com.alura.alumind.benchmark;
+
+import com.alura.alumind.repository.FeatureCodeAliasRepository;
+import com.alura.alumind.repository.RequestedFeaturesRepository;
+import com.alura.alumind.service.FeatureCodeIndex;
+import com.alura.alumind.service.ReportRollupService;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatModel;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Shared stubs and payloads for the JMH benchmarks
+ * 
+ * The chat model never reaches the network: every call returns the same
+ * prebuilt response, so the benchmarks only measure the application code.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Create an OpenAiChatModel stub that always answers with the given text
+     * 
+     * @param responseText The assistant message returned by every call
+     * @return The stub chat model
+     */
+    static OpenAiChatModel stubChatModel(String responseText) {
+        ChatResponse response = new ChatResponse(List.of(new Generation(new AssistantMessage(responseText))));
+        OpenAiChatModel chatModel = mock(OpenAiChatModel.class, withSettings().stubOnly());
+        when(chatModel.call(any(Prompt.class))).thenReturn(response);
+        return chatModel;
+    }
+
+    /**
+     * Create an empty FeatureCodeIndex backed by repository stubs
+     * 
+     * @return The feature code index
+     */
+    static FeatureCodeIndex featureCodeIndex() {
+        return new FeatureCodeIndex(
+                mock(FeatureCodeAliasRepository.class, withSettings().stubOnly()),
+                mock(RequestedFeaturesRepository.class, withSettings().stubOnly()),
+                mock(ReportRollupService.class, withSettings().stubOnly()),
+                0.8, 30, false);
+    }
+
+    /**
+     * Build a feedback analysis response like the one returned by the model
+     * 
+     * @param featureCount The number of requested features in the response
+     * @param fenced Whether the JSON is wrapped in a ```json markdown fence
+     * @return The response text
+     */
+    static String analysisResponse(int featureCount, boolean fenced) {
+        String features = IntStream.range(0, featureCount)
+                .mapToObj(i -> String.format(
+                        "{\"code\": \"FUNCIONALIDADE_%d\", \"reason\": \"Motivo da funcionalidade %d\"}", i, i))
+                .collect(Collectors.joining(",\n    "));
+        String json = String.format("""
+                {
+                  "isSpam": false,
+                  "reason": "Feedback legítimo",
+                  "sentiment": "POSITIVO",
+                  "requestedFeatures": [
+                    %s
+                  ]
+                }""", features);
+        return fenced ? "```json\n" + json + "\n```" : json;
+    }
+}
@@ -0,0 +1,250 @@
+package com.alura.alumind.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of POST /feedbacks, to compare the servlet and the reactive profiles
+ * 
+ * Starts a fake OpenAI server that answers every chat completion, streamed or
+ * not, after a fixed latency, then submits distinct feedbacks to a running
+ * AluMind instance at growing concurrency levels. Each level is a closed loop
+ * of that many clients sending one request after the other for a fixed
+ * duration; success rate, throughput and latency percentiles are printed per
+ * level, followed by the highest level that met the success and p95 targets.
+ * 
+ * Start the application with spring.ai.openai.base-url pointing at the fake
+ * server and the same -Xmx for both profiles. Arguments are key=value pairs:
+ * target, llm-port, llm-latency, levels, duration, timeout, sla and min-success.
+ */
+public final class FeedbackLoadTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final String ANALYSIS = """
+            {"isSpam": false, "reason": "Feedback legítimo", "sentiment": "POSITIVO",
+             "requestedFeatures": [{"code": "EDITAR_PERFIL", "reason": "Usuário quer editar o perfil"}]}""";
+
+    private FeedbackLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        URI target = URI.create(options.getOrDefault("target", "http://localhost:8080") + "/feedbacks");
+        int llmPort = Integer.parseInt(options.getOrDefault("llm-port", "18080"));
+        Duration llmLatency = Duration.parse(options.getOrDefault("llm-latency", "PT1S"));
+        int[] levels = Arrays.stream(options.getOrDefault("levels", "25,50,100,200,400,800").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        Duration duration = Duration.parse(options.getOrDefault("duration", "PT20S"));
+        Duration timeout = Duration.parse(options.getOrDefault("timeout", "PT30S"));
+        Duration sla = Duration.parse(options.getOrDefault("sla", "PT5S"));
+        double minSuccess = Double.parseDouble(options.getOrDefault("min-success", "0.99"));
+
+        HttpServer llm = startFakeOpenAi(llmPort, llmLatency);
+        ExecutorService clientExecutor = Executors.newCachedThreadPool();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .executor(clientExecutor)
+                .build();
+
+        System.out.printf("Fake OpenAI on port %d answering after %d ms; target %s%n",
+                llmPort, llmLatency.toMillis(), target);
+        System.out.printf("%12s %10s %10s %12s %10s %10s %10s%n",
+                "concurrency", "requests", "success", "req/s", "p50 ms", "p95 ms", "p99 ms");
+
+        int sustained = 0;
+        AtomicLong sequence = new AtomicLong();
+        try {
+            for (int level : levels) {
+                LevelResult result = runLevel(client, target, level, duration, timeout, sequence);
+                System.out.printf("%12d %10d %9.1f%% %12.1f %10d %10d %10d%n", level, result.requests(),
+                        result.successRate() * 100, result.throughput(duration),
+                        result.percentile(0.50), result.percentile(0.95), result.percentile(0.99));
+                if (result.successRate() >= minSuccess && result.percentile(0.95) <= sla.toMillis()) {
+                    sustained = level;
+                }
+            }
+        } finally {
+            llm.stop(0);
+            clientExecutor.shutdownNow();
+        }
+
+        System.out.printf("Highest concurrency with >= %.1f%% success and p95 <= %d ms: %d%n",
+                minSuccess * 100, sla.toMillis(), sustained);
+    }
+
+    /**
+     * Keep the given number of submissions in flight until the duration passes
+     */
+    private static LevelResult runLevel(HttpClient client, URI target, int concurrency, Duration duration,
+            Duration timeout, AtomicLong sequence) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong requests = new AtomicLong();
+        AtomicLong successes = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        for (int i = 0; i < concurrency; i++) {
+            submit(client, target, timeout, sequence, deadline, latencies, requests, successes, done);
+        }
+        done.await();
+        return new LevelResult(requests.get(), successes.get(), latencies);
+    }
+
+    /**
+     * Send one feedback and, once it completes, the next one of the same client
+     */
+    private static void submit(HttpClient client, URI target, Duration timeout, AtomicLong sequence, long deadline,
+            List<Long> latencies, AtomicLong requests, AtomicLong successes, CountDownLatch done) {
+        if (System.nanoTime() >= deadline) {
+            done.countDown();
+            return;
+        }
+
+        String body = "{\"feedback\": \"Gostei do app, mas queria poder editar meu perfil (carga #"
+                + sequence.incrementAndGet() + ")\"}";
+        HttpRequest request = HttpRequest.newBuilder(target)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        long start = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            requests.incrementAndGet();
+            if (error == null && response.statusCode() / 100 == 2) {
+                successes.incrementAndGet();
+                latencies.add((System.nanoTime() - start) / 1_000_000);
+            }
+            submit(client, target, timeout, sequence, deadline, latencies, requests, successes, done);
+        });
+    }
+
+    /**
+     * Start an HTTP server answering /v1/chat/completions like OpenAI, after the given latency
+     * 
+     * Streamed requests get the answer as Server-Sent Events, in two chunks followed
+     * by a usage chunk; the others get a single chat completion.
+     */
+    private static HttpServer startFakeOpenAi(int port, Duration latency) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/v1/chat/completions", exchange -> {
+            try (exchange) {
+                String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                Thread.sleep(latency.toMillis());
+                if (request.contains("\"stream\":true")) {
+                    respondStreamed(exchange);
+                } else {
+                    respond(exchange);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static void respond(HttpExchange exchange) throws IOException {
+        Map<String, Object> completion = Map.of(
+                "id", "chatcmpl-load", "object", "chat.completion", "created", 0, "model", "gpt-4o-mini",
+                "choices", List.of(Map.of("index", 0, "finish_reason", "stop",
+                        "message", Map.of("role", "assistant", "content", ANALYSIS))),
+                "usage", usage());
+        byte[] body = OBJECT_MAPPER.writeValueAsBytes(completion);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static void respondStreamed(HttpExchange exchange) throws IOException {
+        int half = ANALYSIS.length() / 2;
+        List<Map<String, Object>> chunks = List.of(
+                chunk(Map.of("role", "assistant", "content", ANALYSIS.substring(0, half)), null),
+                chunk(Map.of("content", ANALYSIS.substring(half)), "stop"),
+                Map.of("id", "chatcmpl-load", "object", "chat.completion.chunk", "created", 0, "model", "gpt-4o-mini",
+                        "choices", List.of(), "usage", usage()));
+
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream output = exchange.getResponseBody();
+        for (Map<String, Object> chunk : chunks) {
+            output.write(("data: " + OBJECT_MAPPER.writeValueAsString(chunk) + "\n\n").getBytes(StandardCharsets.UTF_8));
+        }
+        output.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, Object> chunk(Map<String, Object> delta, String finishReason) {
+        Map<String, Object> choice = new HashMap<>();
+        choice.put("index", 0);
+        choice.put("delta", delta);
+        choice.put("finish_reason", finishReason);
+        return Map.of("id", "chatcmpl-load", "object", "chat.completion.chunk", "created", 0, "model", "gpt-4o-mini",
+                "choices", List.of(choice));
+    }
+
+    private static Map<String, Object> usage() {
+        return Map.of("prompt_tokens", 400, "completion_tokens", 40, "total_tokens", 440);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            options.put(arg.substring(0, separator).replaceFirst("^--", ""), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    /**
+     * Outcome of one concurrency level
+     */
+    private record LevelResult(long requests, long successes, List<Long> latencies) {
+
+        double successRate() {
+            return requests == 0 ? 0 : (double) successes / requests;
+        }
+
+        double throughput(Duration duration) {
+            return successes / (duration.toMillis() / 1000.0);
+        }
+
+        long percentile(double quantile) {
+            List<Long> sorted;
+            synchronized (latencies) {
+                sorted = new ArrayList<>(latencies);
+            }
+            if (sorted.isEmpty()) {
+                return 0;
+            }
+            Collections.sort(sorted);
+            return sorted.get((int) Math.ceil(sorted.size() * quantile) - 1);
+        }
+    }
+}
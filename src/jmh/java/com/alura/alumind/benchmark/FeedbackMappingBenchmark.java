@@ -0,0 +1,111 @@
+package com.alura.alumind.benchmark;
+
+import com.alura.alumind.dto.FeedbackAnalysis;
+import com.alura.alumind.dto.FeedbackRequest;
+import com.alura.alumind.dto.FeedbackResponse.FeedbackFullDto;
+import com.alura.alumind.dto.FeedbackResponse.FeedbackShortDto;
+import com.alura.alumind.model.Feedback;
+import com.alura.alumind.repository.FeedbackRepository;
+import com.alura.alumind.service.EntityCacheService;
+import com.alura.alumind.service.FeatureCodeIndex;
+import com.alura.alumind.service.FeedbackService;
+import com.alura.alumind.service.LLMBatchService;
+import com.alura.alumind.service.LLMCallGuard;
+import com.alura.alumind.service.LLMResponseBinder;
+import com.alura.alumind.service.LLMResponseCache;
+import com.alura.alumind.service.LLMService;
+import com.alura.alumind.service.LocalFeedbackClassifier;
+import com.alura.alumind.service.PromptBudget;
+import com.alura.alumind.service.ReportRollupService;
+import com.alura.alumind.utils.LLMPrompts.PromptType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Benchmark of the FeedbackService entity and DTO mapping paths
+ * 
+ * buildAnalyzedFeedback measures the analysis-to-entity mapping, getFeedbackById
+ * the entity-to-FeedbackFullDto mapping, and analyzeFeedback the whole
+ * synchronous submission (stub model calls, entity mapping and FeedbackShortDto).
+ * The repository and rollups are stubs, so no database is involved.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FeedbackMappingBenchmark {
+
+    private static final String CONTENT = "Gostaria de receber notificações quando houver novas aulas disponíveis";
+
+    @Param({"0", "5", "25"})
+    private int featureCount;
+
+    private FeedbackService feedbackService;
+    private FeedbackAnalysis analysis;
+    private FeedbackRequest request;
+
+    @Setup
+    public void setUp() {
+        String response = BenchmarkFixtures.analysisResponse(featureCount, false);
+        LLMResponseBinder responseBinder = new LLMResponseBinder();
+        analysis = responseBinder.bind(PromptType.FEEDBACK_ANALYSIS, response, FeedbackAnalysis.class);
+
+        LLMResponseCache responseCache = new LLMResponseCache(false, 0, Duration.ZERO);
+        FeatureCodeIndex featureCodeIndex = BenchmarkFixtures.featureCodeIndex();
+        LLMCallGuard callGuard = new LLMCallGuard(8, Duration.ofSeconds(1), Duration.ofSeconds(30), 1, Duration.ZERO, false, 16);
+        LLMService llmService = new LLMService(BenchmarkFixtures.stubChatModel(response), responseBinder, responseCache,
+                callGuard, featureCodeIndex, new PromptBudget(500, 300, 400, new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        FeedbackRepository feedbackRepository = mock(FeedbackRepository.class, withSettings().stubOnly());
+        feedbackService = new FeedbackService(feedbackRepository, new LLMBatchService(llmService, responseBinder, responseCache, callGuard),
+                new LocalFeedbackClassifier(false, 0.8), mock(ReportRollupService.class, withSettings().stubOnly()),
+                featureCodeIndex, mock(EntityCacheService.class, withSettings().stubOnly()), new SimpleMeterRegistry());
+
+        Feedback stored = feedbackService.buildAnalyzedFeedback(CONTENT, analysis);
+        stored.setId(1L);
+        when(feedbackRepository.findWithRequestedFeaturesById(1L)).thenReturn(Optional.of(stored));
+        when(feedbackRepository.save(any(Feedback.class))).thenAnswer(invocation -> {
+            Feedback feedback = invocation.getArgument(0);
+            feedback.setId(1L);
+            return feedback;
+        });
+
+        request = new FeedbackRequest();
+        request.setFeedback(CONTENT);
+    }
+
+    @Benchmark
+    public Feedback buildAnalyzedFeedback() {
+        return feedbackService.buildAnalyzedFeedback(CONTENT, analysis);
+    }
+
+    @Benchmark
+    public FeedbackFullDto getFeedbackById() {
+        return feedbackService.getFeedbackById(1L);
+    }
+
+    @Benchmark
+    public FeedbackShortDto analyzeFeedback() {
+        return feedbackService.analyzeFeedback(request);
+    }
+}
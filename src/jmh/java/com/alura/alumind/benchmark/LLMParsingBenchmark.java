@@ -0,0 +1,95 @@
+package com.alura.alumind.benchmark;
+
+import com.alura.alumind.dto.FeedbackAnalysis;
+import com.alura.alumind.dto.FeedbackAnalysis.Feature;
+import com.alura.alumind.model.Feedback.SentimentType;
+import com.alura.alumind.service.LLMCallGuard;
+import com.alura.alumind.service.LLMResponseBinder;
+import com.alura.alumind.service.LLMResponseCache;
+import com.alura.alumind.service.LLMService;
+import com.alura.alumind.service.PromptBudget;
+import com.alura.alumind.utils.LLMPrompts.PromptType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of LLMService response handling
+ * 
+ * bind measures the streaming {@link LLMResponseBinder} on model responses with a
+ * growing number of requested features, with and without a ```json fence.
+ * treeParse is the previous approach kept as a baseline: two regex passes to
+ * strip the fence, readTree and field-by-field reads from the tree.
+ * sendPromptAndBind adds prompt formatting and the {@link LLMCallGuard} hop
+ * around the stub model call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LLMParsingBenchmark {
+
+    @Param({"0", "5", "25"})
+    private int featureCount;
+
+    @Param({"false", "true"})
+    private boolean fenced;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LLMResponseBinder responseBinder = new LLMResponseBinder();
+    private LLMService llmService;
+    private String response;
+
+    @Setup
+    public void setUp() {
+        response = BenchmarkFixtures.analysisResponse(featureCount, fenced);
+        llmService = new LLMService(
+                BenchmarkFixtures.stubChatModel(response),
+                responseBinder,
+                new LLMResponseCache(false, 0, Duration.ZERO),
+                new LLMCallGuard(8, Duration.ofSeconds(1), Duration.ofSeconds(30), 1, Duration.ZERO, false, 16),
+                BenchmarkFixtures.featureCodeIndex(),
+                new PromptBudget(500, 300, 400, new SimpleMeterRegistry()),
+                new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public FeedbackAnalysis bind() {
+        return responseBinder.bind(PromptType.FEEDBACK_ANALYSIS, response, FeedbackAnalysis.class);
+    }
+
+    @Benchmark
+    public FeedbackAnalysis treeParse() throws Exception {
+        JsonNode tree = objectMapper.readTree(response.replaceAll("(?s)```json\\s*", "").replaceAll("```", ""));
+        List<Feature> features = new ArrayList<>();
+        for (JsonNode feature : tree.get("requestedFeatures")) {
+            features.add(new Feature(feature.get("code").asText(), feature.get("reason").asText()));
+        }
+        return new FeedbackAnalysis(tree.get("isSpam").asBoolean(),
+                SentimentType.valueOf(tree.get("sentiment").asText()), features);
+    }
+
+    @Benchmark
+    public FeedbackAnalysis sendPromptAndBind() {
+        return llmService.sendPromptAndBind(PromptType.FEEDBACK_ANALYSIS, "Gostaria de receber notificações",
+                FeedbackAnalysis.class);
+    }
+}
@@ -0,0 +1,160 @@
+package com.alura.alumind.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the weekly sentiment aggregation on PostgreSQL
+ *
+ * Compares the former four round trips (one total COUNT plus one COUNT per
+ * sentiment) with the single-pass COUNT(*) FILTER query, with and without an
+ * index on (created_at, sentiment). The queries run against feedbacks_benchmark,
+ * a copy of the columns of feedbacks seeded with BENCHMARK_ROWS rows (default
+ * 1,000,000) spread over two years, so the application tables and indexes are
+ * left untouched.
+ *
+ * Needs BENCHMARK_DB_URL (and BENCHMARK_DB_USER / BENCHMARK_DB_PASSWORD) to point
+ * at a PostgreSQL database, e.g.:
+ * BENCHMARK_DB_URL=jdbc:postgresql://localhost:5432/alumindBench \
+ * ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="SentimentAggregationBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SentimentAggregationBenchmark {
+
+    private static final String TABLE = "feedbacks_benchmark";
+    private static final String INDEX = "idx_feedbacks_benchmark_created_at_sentiment";
+
+    private static final String COUNT_BY_DATE =
+            "SELECT COUNT(*) FROM " + TABLE + " WHERE created_at BETWEEN ? AND ? AND status = 'ANALYZED'";
+    private static final String COUNT_BY_DATE_AND_SENTIMENT =
+            "SELECT COUNT(*) FROM " + TABLE + " WHERE created_at BETWEEN ? AND ? AND status = 'ANALYZED' AND sentiment = ?";
+    private static final String SINGLE_PASS = """
+            SELECT
+                COUNT(*),
+                COUNT(*) FILTER (WHERE sentiment = 'POSITIVO'),
+                COUNT(*) FILTER (WHERE sentiment = 'NEGATIVO'),
+                COUNT(*) FILTER (WHERE sentiment = 'INCONCLUSIVO')
+            FROM %s
+            WHERE created_at BETWEEN ? AND ? AND status = 'ANALYZED'
+            """.formatted(TABLE);
+
+    @Param({"false", "true"})
+    private boolean indexed;
+
+    private Connection connection;
+    private Timestamp from;
+    private Timestamp to;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = System.getenv("BENCHMARK_DB_URL");
+        if (url == null || url.isBlank()) {
+            throw new IllegalStateException("BENCHMARK_DB_URL must point at a PostgreSQL database");
+        }
+        connection = DriverManager.getConnection(url,
+                System.getenv("BENCHMARK_DB_USER"), System.getenv("BENCHMARK_DB_PASSWORD"));
+        seed(Integer.parseInt(System.getenv().getOrDefault("BENCHMARK_ROWS", "1000000")));
+
+        execute(indexed
+                ? "CREATE INDEX IF NOT EXISTS " + INDEX + " ON " + TABLE + " (created_at, sentiment)"
+                : "DROP INDEX IF EXISTS " + INDEX);
+        execute("ANALYZE " + TABLE);
+
+        LocalDateTime end = LocalDateTime.now();
+        from = Timestamp.valueOf(end.minusDays(7));
+        to = Timestamp.valueOf(end);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void fourQueries(Blackhole blackhole) throws SQLException {
+        blackhole.consume(count(COUNT_BY_DATE, null));
+        for (String sentiment : List.of("POSITIVO", "NEGATIVO", "INCONCLUSIVO")) {
+            blackhole.consume(count(COUNT_BY_DATE_AND_SENTIMENT, sentiment));
+        }
+    }
+
+    @Benchmark
+    public long singlePass() throws SQLException {
+        return count(SINGLE_PASS, null);
+    }
+
+    private void seed(int rows) throws SQLException {
+        execute("""
+                CREATE TABLE IF NOT EXISTS %s (
+                    id BIGSERIAL PRIMARY KEY,
+                    content VARCHAR(2000) NOT NULL,
+                    sentiment VARCHAR(255),
+                    status VARCHAR(255) NOT NULL DEFAULT 'ANALYZED',
+                    created_at TIMESTAMP NOT NULL
+                )
+                """.formatted(TABLE));
+
+        long existing = count("SELECT COUNT(*) FROM " + TABLE, null);
+        if (existing < rows) {
+            execute("""
+                    INSERT INTO %s (content, sentiment, status, created_at)
+                    SELECT
+                        'Feedback de benchmark ' || g,
+                        (ARRAY['POSITIVO', 'NEGATIVO', 'INCONCLUSIVO'])[1 + g %% 3],
+                        'ANALYZED',
+                        NOW() - (random() * INTERVAL '730 days')
+                    FROM generate_series(1, %d) AS g
+                    """.formatted(TABLE, rows - existing));
+        }
+    }
+
+    private long count(String sql, String sentiment) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            if (sql.contains("?")) {
+                statement.setTimestamp(1, from);
+                statement.setTimestamp(2, to);
+            }
+            if (sentiment != null) {
+                statement.setString(3, sentiment);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.alura.alumind.benchmark;
+
+import com.alura.alumind.dto.ReportResponse;
+import com.alura.alumind.model.Feedback.SentimentType;
+import com.alura.alumind.repository.DailyFeatureCountRepository.FeatureTotal;
+import com.alura.alumind.repository.FeedbackRepository;
+import com.alura.alumind.repository.RequestedFeaturesRepository;
+import com.alura.alumind.repository.RequestedFeaturesRepository.FeatureIdsRow;
+import com.alura.alumind.service.ReportRollupService;
+import com.alura.alumind.service.ReportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Benchmark of the top features section of the report
+ * 
+ * Measures the assembly of TopFeaturesDto from the rollup totals and feedback id
+ * arrays, and the JSON serialization of the resulting report, at a growing
+ * number of feedback ids per feature.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TopFeaturesBenchmark {
+
+    private static final int FEATURES = 20;
+
+    @Param({"10", "100", "500"})
+    private int idsPerFeature;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ReportService reportService;
+    private ReportResponse report;
+
+    @Setup
+    public void setUp() {
+        ReportRollupService rollupService = mock(ReportRollupService.class, withSettings().stubOnly());
+        RequestedFeaturesRepository requestedFeaturesRepository =
+                mock(RequestedFeaturesRepository.class, withSettings().stubOnly());
+
+        Map<SentimentType, Long> sentiments = new EnumMap<>(SentimentType.class);
+        sentiments.put(SentimentType.POSITIVO, 600L);
+        sentiments.put(SentimentType.NEGATIVO, 300L);
+        sentiments.put(SentimentType.INCONCLUSIVO, 100L);
+        when(rollupService.countBySentiment(isNull(), isNull())).thenReturn(sentiments);
+
+        List<FeatureTotal> totals = IntStream.range(0, FEATURES)
+                .mapToObj(i -> featureTotal("FUNCIONALIDADE_" + i, 1000L - i))
+                .toList();
+        when(rollupService.countByFeature(isNull(), isNull(), anyInt(), anyInt())).thenReturn(totals);
+
+        Long[] ids = LongStream.range(0, idsPerFeature).boxed().toArray(Long[]::new);
+        List<FeatureIdsRow> idRows = totals.stream()
+                .map(total -> featureIdsRow(total.getCode(), ids))
+                .toList();
+        when(requestedFeaturesRepository.findFeedbackIdsByCodes(any(String[].class), anyInt())).thenReturn(idRows);
+
+        reportService = new ReportService(rollupService, mock(FeedbackRepository.class, withSettings().stubOnly()),
+                requestedFeaturesRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(reportService, "maxLimit", 100);
+        ReflectionTestUtils.setField(reportService, "maxIdsCap", 500);
+
+        report = reportService.generateReport(FEATURES, 0, idsPerFeature);
+    }
+
+    @Benchmark
+    public ReportResponse generateReport() {
+        return reportService.generateReport(FEATURES, 0, idsPerFeature);
+    }
+
+    @Benchmark
+    public byte[] serializeReport() throws Exception {
+        return objectMapper.writeValueAsBytes(report);
+    }
+
+    private static FeatureTotal featureTotal(String code, long total) {
+        return new FeatureTotal() {
+            @Override
+            public String getCode() {
+                return code;
+            }
+
+            @Override
+            public long getTotal() {
+                return total;
+            }
+        };
+    }
+
+    private static FeatureIdsRow featureIdsRow(String code, Long[] feedbackIds) {
+        return new FeatureIdsRow() {
+            @Override
+            public String getCode() {
+                return code;
+            }
+
+            @Override
+            public Long[] getFeedbackIds() {
+                return feedbackIds;
+            }
+        };
+    }
+}
@@ -1,43 +1,137 @@
 package com.alura.alumind.controller;
 
+import com.alura.alumind.dto.EntityCacheStatsResponse;
 import com.alura.alumind.dto.FeedbackRequest;
 import com.alura.alumind.dto.FeedbackResponse.FeedbackFullDto;
+import com.alura.alumind.dto.FeedbackResponse.FeedbackPageDto;
 import com.alura.alumind.dto.FeedbackResponse.FeedbackShortDto;
+import com.alura.alumind.dto.PipelineStatsResponse;
+import com.alura.alumind.service.EntityCacheService;
+import com.alura.alumind.service.FeedbackBulkImportService;
+import com.alura.alumind.service.FeedbackIngestionService;
+import com.alura.alumind.service.FeedbackQueryService;
 import com.alura.alumind.service.FeedbackService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.time.LocalDate;
+
 /**
  * REST controller for handling user feedback operations
  * 
- * This controller provides endpoints for submitting new feedback and retrieving existing feedback.
- * Feedback is analyzed using AI to extract sentiment and feature requests.
+ * This controller provides endpoints for submitting new feedback and retrieving or listing existing feedback.
+ * Feedback is analyzed using AI to extract sentiment and feature requests, either
+ * synchronously or, when asynchronous ingestion is enabled, by a background worker pool.
+ * With the reactive profile {@link ReactiveFeedbackController} serves these endpoints instead.
  */
 @RestController
 @RequestMapping("/feedbacks")
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class FeedbackController {
 
     private final FeedbackService feedbackService;
+    private final FeedbackIngestionService feedbackIngestionService;
+    private final FeedbackBulkImportService feedbackBulkImportService;
+    private final FeedbackQueryService feedbackQueryService;
+    private final EntityCacheService entityCacheService;
+
+    public static final String NDJSON = "application/x-ndjson";
 
     /**
      * Submit and analyze new user feedback
      * 
+     * In asynchronous mode the feedback is stored as PENDING and the response is
+     * 202 Accepted with its id; its status can be polled through GET /feedbacks/{id}.
+     * 
      * @param request The feedback request containing user feedback text
      * @return A DTO with feedback analysis results including sentiment and any extracted feature requests
      */
     @PostMapping
     public ResponseEntity<FeedbackShortDto> submitFeedback(@Valid @RequestBody FeedbackRequest request) {
+        if (feedbackIngestionService.isEnabled()) {
+            return ResponseEntity.accepted().body(feedbackIngestionService.submit(request));
+        }
+
         FeedbackShortDto response = feedbackService.analyzeFeedback(request);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Import many feedbacks at once from an NDJSON body
+     * 
+     * Each line is a JSON object in the same format as POST /feedbacks. The response
+     * is streamed back as NDJSON, one result line per input line, while the import runs.
+     * 
+     * @param request The HTTP request carrying the NDJSON body
+     * @param response The HTTP response receiving the NDJSON results
+     * @throws IOException if reading the body or writing the results fails
+     */
+    @PostMapping(value = "/batch", consumes = NDJSON, produces = NDJSON)
+    public void importFeedbacks(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        feedbackBulkImportService.importNdjson(request.getInputStream(), response.getOutputStream());
+    }
+
+    /**
+     * List analyzed feedbacks, newest first, one page at a time
+     * 
+     * Pass the nextCursor of a page as cursor to get the following page; the
+     * last page has no nextCursor.
+     * 
+     * @param sentiment Only feedbacks with this sentiment (POSITIVO, NEGATIVO or INCONCLUSIVO)
+     * @param from The first creation day (inclusive)
+     * @param to The last creation day (inclusive)
+     * @param featureCode Only feedbacks requesting this feature code
+     * @param cursor The nextCursor of the previous page
+     * @param limit The maximum number of feedbacks in the page (default 20)
+     * @return A page of feedbacks with their requested features
+     */
+    @GetMapping
+    public ResponseEntity<FeedbackPageDto> listFeedbacks(
+            @RequestParam(required = false) String sentiment,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String featureCode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(feedbackQueryService.listFeedbacks(sentiment, from, to, featureCode, cursor, limit));
+    }
+
+    /**
+     * Retrieve queue depth, worker usage and per-stage latency of the asynchronous pipeline
+     * 
+     * @return The current pipeline statistics
+     */
+    @GetMapping("/pipeline")
+    public ResponseEntity<PipelineStatsResponse> getPipelineStats() {
+        return ResponseEntity.ok(feedbackIngestionService.getStats());
+    }
+
+    /**
+     * Retrieve size, hit, miss and put counters of the feedback entity cache
+     * 
+     * @return The current entity cache statistics
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<EntityCacheStatsResponse> getEntityCacheStats() {
+        return ResponseEntity.ok(entityCacheService.getStats());
+    }
     
     /**
      * Retrieve detailed information about a specific feedback by ID
@@ -0,0 +1,98 @@
+package com.alura.alumind.controller;
+
+import com.alura.alumind.dto.BatchStatsResponse;
+import com.alura.alumind.dto.CacheStatsResponse;
+import com.alura.alumind.dto.CascadeStatsResponse;
+import com.alura.alumind.dto.ParsingStatsResponse;
+import com.alura.alumind.dto.PromptStatsResponse;
+import com.alura.alumind.dto.ResilienceStatsResponse;
+import com.alura.alumind.service.LLMBatchService;
+import com.alura.alumind.service.LLMCallGuard;
+import com.alura.alumind.service.LLMResponseBinder;
+import com.alura.alumind.service.LLMResponseCache;
+import com.alura.alumind.service.LocalFeedbackClassifier;
+import com.alura.alumind.service.PromptBudget;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for inspecting the LLM integration
+ * 
+ * This controller exposes operational information about LLM calls,
+ * such as the response cache, micro-batching, local cascade, resilience, parsing and prompt size counters.
+ */
+@RestController
+@RequestMapping("/llm")
+@RequiredArgsConstructor
+public class LLMController {
+
+    private final LLMResponseCache responseCache;
+    private final LLMBatchService llmBatchService;
+    private final LocalFeedbackClassifier localClassifier;
+    private final LLMCallGuard callGuard;
+    private final LLMResponseBinder responseBinder;
+    private final PromptBudget promptBudget;
+
+    /**
+     * Retrieve hit, miss and eviction counters of the LLM response cache
+     * 
+     * @return The current cache statistics
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<CacheStatsResponse> getCacheStats() {
+        return ResponseEntity.ok(responseCache.getStats());
+    }
+
+    /**
+     * Retrieve batch count, average batch size and single-item fallbacks of the micro-batching stage
+     * 
+     * @return The current batching statistics
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<BatchStatsResponse> getBatchStats() {
+        return ResponseEntity.ok(llmBatchService.getStats());
+    }
+
+    /**
+     * Retrieve how often the local cascade classifier bypassed the LLM
+     * 
+     * @return The current cascade statistics
+     */
+    @GetMapping("/cascade")
+    public ResponseEntity<CascadeStatsResponse> getCascadeStats() {
+        return ResponseEntity.ok(localClassifier.getStats());
+    }
+
+    /**
+     * Retrieve timeouts, retries, hedges, bulkhead rejections and the adaptive concurrency limit of LLM calls
+     * 
+     * @return The current resilience statistics
+     */
+    @GetMapping("/resilience")
+    public ResponseEntity<ResilienceStatsResponse> getResilienceStats() {
+        return ResponseEntity.ok(callGuard.getStats());
+    }
+
+    /**
+     * Retrieve how many LLM responses were bound, repaired or rejected as unparseable
+     * 
+     * @return The current parsing statistics
+     */
+    @GetMapping("/parsing")
+    public ResponseEntity<ParsingStatsResponse> getParsingStats() {
+        return ResponseEntity.ok(responseBinder.getStats());
+    }
+
+    /**
+     * Retrieve estimated prompt sizes and tokens saved by the prompt budgets, per prompt type
+     * 
+     * @return The current prompt statistics
+     */
+    @GetMapping("/prompts")
+    public ResponseEntity<PromptStatsResponse> getPromptStats() {
+        return ResponseEntity.ok(promptBudget.getStats());
+    }
+}
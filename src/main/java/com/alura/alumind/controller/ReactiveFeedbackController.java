@@ -0,0 +1,158 @@
+package com.alura.alumind.controller;
+
+import com.alura.alumind.dto.EntityCacheStatsResponse;
+import com.alura.alumind.dto.FeedbackRequest;
+import com.alura.alumind.dto.FeedbackResponse.FeedbackFullDto;
+import com.alura.alumind.dto.FeedbackResponse.FeedbackPageDto;
+import com.alura.alumind.dto.FeedbackResponse.FeedbackShortDto;
+import com.alura.alumind.dto.PipelineStatsResponse;
+import com.alura.alumind.service.EntityCacheService;
+import com.alura.alumind.service.FeedbackBulkImportService;
+import com.alura.alumind.service.FeedbackIngestionService;
+import com.alura.alumind.service.FeedbackQueryService;
+import com.alura.alumind.service.ReactiveFeedbackService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+
+import static com.alura.alumind.controller.FeedbackController.NDJSON;
+
+/**
+ * WebFlux version of {@link FeedbackController}, active with the reactive profile
+ * 
+ * Submitting and reading a single feedback never block: the analysis goes
+ * through the streaming LLM API and the feedback is read and written through
+ * R2DBC. Listing, asynchronous ingestion and the bulk import keep using their
+ * JPA services, on the bounded elastic scheduler so the event loop is never blocked.
+ */
+@RestController
+@RequestMapping("/feedbacks")
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveFeedbackController {
+
+    private final ReactiveFeedbackService reactiveFeedbackService;
+    private final FeedbackIngestionService feedbackIngestionService;
+    private final FeedbackBulkImportService feedbackBulkImportService;
+    private final FeedbackQueryService feedbackQueryService;
+    private final EntityCacheService entityCacheService;
+
+    /**
+     * Submit and analyze new user feedback
+     * 
+     * In asynchronous mode the feedback is stored as PENDING and the response is
+     * 202 Accepted with its id; its status can be polled through GET /feedbacks/{id}.
+     * 
+     * @param request The feedback request containing user feedback text
+     * @return A DTO with feedback analysis results including sentiment and any extracted feature requests
+     */
+    @PostMapping
+    public Mono<ResponseEntity<FeedbackShortDto>> submitFeedback(@Valid @RequestBody FeedbackRequest request) {
+        if (feedbackIngestionService.isEnabled()) {
+            return Mono.fromCallable(() -> feedbackIngestionService.submit(request))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .map(response -> ResponseEntity.accepted().body(response));
+        }
+
+        return reactiveFeedbackService.analyzeFeedback(request).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Import many feedbacks at once from an NDJSON body
+     * 
+     * The body is handed to the bulk import as a stream and the NDJSON results
+     * are streamed back while the import runs, as in {@link FeedbackController}.
+     * 
+     * @param body The NDJSON body
+     * @param exchange The current exchange, providing the buffer factory of the response
+     * @return The NDJSON result lines
+     */
+    @PostMapping(value = "/batch", consumes = NDJSON, produces = NDJSON)
+    public Flux<DataBuffer> importFeedbacks(@RequestBody Flux<DataBuffer> body, ServerWebExchange exchange) {
+        DataBufferFactory bufferFactory = exchange.getResponse().bufferFactory();
+        InputStream input = DataBufferUtils.subscriberInputStream(body, 1);
+        return Flux.from(DataBufferUtils.outputStreamPublisher(output -> {
+            try {
+                feedbackBulkImportService.importNdjson(input, output);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, bufferFactory, Schedulers.boundedElastic()::schedule));
+    }
+
+    /**
+     * List analyzed feedbacks, newest first, one page at a time
+     * 
+     * @param sentiment Only feedbacks with this sentiment (POSITIVO, NEGATIVO or INCONCLUSIVO)
+     * @param from The first creation day (inclusive)
+     * @param to The last creation day (inclusive)
+     * @param featureCode Only feedbacks requesting this feature code
+     * @param cursor The nextCursor of the previous page
+     * @param limit The maximum number of feedbacks in the page (default 20)
+     * @return A page of feedbacks with their requested features
+     */
+    @GetMapping
+    public Mono<ResponseEntity<FeedbackPageDto>> listFeedbacks(
+            @RequestParam(required = false) String sentiment,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String featureCode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return Mono.fromCallable(() -> feedbackQueryService.listFeedbacks(sentiment, from, to, featureCode, cursor, limit))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Retrieve queue depth, worker usage and per-stage latency of the asynchronous pipeline
+     * 
+     * @return The current pipeline statistics
+     */
+    @GetMapping("/pipeline")
+    public ResponseEntity<PipelineStatsResponse> getPipelineStats() {
+        return ResponseEntity.ok(feedbackIngestionService.getStats());
+    }
+
+    /**
+     * Retrieve size, hit, miss and put counters of the feedback entity cache
+     * 
+     * @return The current entity cache statistics
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<EntityCacheStatsResponse> getEntityCacheStats() {
+        return ResponseEntity.ok(entityCacheService.getStats());
+    }
+
+    /**
+     * Retrieve detailed information about a specific feedback by ID
+     * 
+     * @param id The unique identifier of the feedback
+     * @return A DTO with complete feedback information
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<FeedbackFullDto>> getFeedbackById(@PathVariable Long id) {
+        return reactiveFeedbackService.getFeedbackById(id).map(ResponseEntity::ok);
+    }
+}
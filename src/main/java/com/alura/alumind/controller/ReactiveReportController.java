@@ -0,0 +1,146 @@
+package com.alura.alumind.controller;
+
+import com.alura.alumind.dto.LiveTopFeaturesResponse;
+import com.alura.alumind.dto.ReportResponse;
+import com.alura.alumind.dto.TrendResponse;
+import com.alura.alumind.service.LiveFeatureTracker;
+import com.alura.alumind.service.ReportService;
+import com.alura.alumind.service.SentimentTrendService;
+import com.alura.alumind.service.WeeklyReportService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * WebFlux version of {@link ReportController}, active with the reactive profile
+ * 
+ * Reports are read from the daily rollups through JPA; the short queries run on
+ * the bounded elastic scheduler, so the event loop is never blocked.
+ */
+@RestController
+@RequestMapping("/reports")
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveReportController {
+
+    private final ReportService reportService;
+    private final SentimentTrendService sentimentTrendService;
+    private final LiveFeatureTracker liveFeatureTracker;
+    private final WeeklyReportService weeklyReportService;
+
+    @Value("${alumind.report.stream.timeout:PT2M}")
+    private Duration streamTimeout;
+
+    /**
+     * Generate and retrieve a current feedback report
+     * 
+     * @param limit The maximum number of features to return
+     * @param offset The number of features to skip
+     * @param maxIdsPerFeature The maximum number of feedback ids per feature
+     * @return A report containing feedback statistics and top requested features
+     */
+    @GetMapping
+    public Mono<ResponseEntity<ReportResponse>> getReport(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(required = false) Integer maxIdsPerFeature) {
+        return Mono.fromCallable(() -> reportService.generateReport(
+                        limit != null ? limit : reportService.getDefaultLimit(),
+                        offset,
+                        maxIdsPerFeature != null ? maxIdsPerFeature : reportService.getDefaultMaxIds()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Get the approximate all-time top requested features, from memory
+     * 
+     * Same response as {@link ReportController#getLiveTopFeatures(Integer)}, and
+     * also 404 unless enabled; no query is run, so it is answered on the event loop.
+     * 
+     * @param limit The maximum number of features to return
+     * @return The top features, most requested first, with their error bounds
+     */
+    @GetMapping("/top-features/live")
+    public Mono<ResponseEntity<LiveTopFeaturesResponse>> getLiveTopFeatures(@RequestParam(required = false) Integer limit) {
+        return Mono.fromCallable(() -> liveFeatureTracker.getTopFeatures(limit != null ? limit : reportService.getDefaultLimit()))
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Get the number of analyzed feedbacks per sentiment over time
+     * 
+     * Same buckets as {@link ReportController#getTrend(LocalDate, LocalDate, String)};
+     * older buckets are read on the bounded elastic scheduler.
+     * 
+     * @param from The first day of the range (inclusive)
+     * @param to The last day of the range (inclusive)
+     * @param granularity The bucket size: hour, day or week
+     * @return The buckets of the range in chronological order
+     */
+    @GetMapping("/trend")
+    public Mono<ResponseEntity<TrendResponse>> getTrend(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        return Mono.fromCallable(() -> sentimentTrendService.getTrend(from != null ? from : end.minusDays(6), end, granularity))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * WARNING: This endpoint is for testing purposes only!
+     * 
+     * Generates and sends the weekly report of the current week, like
+     * {@link ReportController#sendEmail()}.
+     * 
+     * @return ResponseEntity<Void> with status 200 if the email is successfully sent
+     */
+    @GetMapping("/sendEmail")
+    public Mono<ResponseEntity<Void>> sendEmail() {
+        return Mono.fromRunnable(() -> weeklyReportService.sendWeeklyReport(LocalDate.now()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(Mono.just(ResponseEntity.ok().<Void>build()));
+    }
+
+    /**
+     * Stream the weekly report email HTML as it is generated
+     * 
+     * Same events as {@link ReportController#streamWeeklyReport()}: "chunk" events
+     * with the HTML, then "done", or "error" on failure or timeout. The report
+     * data is loaded on the bounded elastic scheduler.
+     * 
+     * @return A stream of Server-Sent Events carrying the HTML chunks
+     */
+    @GetMapping(value = "/weekly/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamWeeklyReport() {
+        return Flux.defer(() -> weeklyReportService.streamEmailContent(LocalDate.now()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .timeout(streamTimeout)
+                .map(chunk -> ServerSentEvent.builder(chunk).event("chunk").build())
+                .concatWith(Flux.just(ServerSentEvent.builder("").event("done").build()))
+                .onErrorResume(e -> {
+                    log.error("Error streaming weekly report", e);
+                    return Flux.just(ServerSentEvent.builder("Error generating weekly report").event("error").build());
+                });
+    }
+}
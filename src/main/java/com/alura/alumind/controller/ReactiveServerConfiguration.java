@@ -0,0 +1,23 @@
+package com.alura.alumind.controller;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Web server of the reactive profile
+ * 
+ * Tomcat stays on the classpath for the servlet controllers, and Spring Boot
+ * prefers it over Netty for reactive applications as well, so the Netty
+ * factory is declared explicitly. server.* properties still apply.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveServerConfiguration {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
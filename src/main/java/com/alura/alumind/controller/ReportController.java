@@ -1,20 +1,29 @@
 package com.alura.alumind.controller;
 
+import com.alura.alumind.dto.LiveTopFeaturesResponse;
 import com.alura.alumind.dto.ReportResponse;
-import com.alura.alumind.service.EmailService;
-import com.alura.alumind.service.LLMService;
+import com.alura.alumind.dto.TrendResponse;
+import com.alura.alumind.service.LiveFeatureTracker;
 import com.alura.alumind.service.ReportService;
-import com.alura.alumind.utils.LLMPrompts;
+import com.alura.alumind.service.SentimentTrendService;
+import com.alura.alumind.service.WeeklyReportService;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 
-import java.time.DayOfWeek;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.Duration;
+import java.time.LocalDate;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -22,24 +31,84 @@ import org.springframework.web.bind.annotation.RestController;
  * 
  * This controller provides endpoints for accessing aggregated feedback reports
  * including statistics and trending feature requests.
+ * With the reactive profile {@link ReactiveReportController} serves these endpoints instead.
  */
 @RestController
 @RequestMapping("/reports")
+@Profile("!reactive")
 @RequiredArgsConstructor
+@Slf4j
 public class ReportController {
 
     private final ReportService reportService;
-    private final EmailService emailService;
-    private final LLMService llmService;
+    private final SentimentTrendService sentimentTrendService;
+    private final LiveFeatureTracker liveFeatureTracker;
+    private final WeeklyReportService weeklyReportService;
+
+    @Value("${alumind.report.stream.timeout:PT2M}")
+    private Duration streamTimeout;
 
     /**
      * Generate and retrieve a current feedback report
      * 
+     * The top requested features are paginated and each one carries at most
+     * maxIdsPerFeature of its most recent feedback ids. Parameters that are not
+     * provided fall back to the configured defaults.
+     * 
+     * @param limit The maximum number of features to return
+     * @param offset The number of features to skip
+     * @param maxIdsPerFeature The maximum number of feedback ids per feature
      * @return A report containing feedback statistics and top requested features
      */
     @GetMapping
-    public ResponseEntity<ReportResponse> getReport() {
-        return ResponseEntity.ok(reportService.generateReport());
+    public ResponseEntity<ReportResponse> getReport(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(required = false) Integer maxIdsPerFeature) {
+        return ResponseEntity.ok(reportService.generateReport(
+                limit != null ? limit : reportService.getDefaultLimit(),
+                offset,
+                maxIdsPerFeature != null ? maxIdsPerFeature : reportService.getDefaultMaxIds()));
+    }
+
+    /**
+     * Get the approximate all-time top requested features, from memory
+     * 
+     * Meant for dashboards polling every few seconds: no query is run. Each
+     * feature carries its counted requests (an upper bound), its minimum count
+     * and whether it surely belongs to the top; maxError bounds the requests of
+     * any feature not listed. GET /reports and the weekly email keep the exact counts.
+     * 
+     * The counters only see the feedbacks of this instance, so the endpoint is
+     * opt-in (alumind.report.live-features.enabled) and answers 404 otherwise.
+     * 
+     * @param limit The maximum number of features to return
+     * @return The top features, most requested first, with their error bounds
+     */
+    @GetMapping("/top-features/live")
+    public ResponseEntity<LiveTopFeaturesResponse> getLiveTopFeatures(@RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(liveFeatureTracker.getTopFeatures(limit != null ? limit : reportService.getDefaultLimit()));
+    }
+
+    /**
+     * Get the number of analyzed feedbacks per sentiment over time
+     * 
+     * Each bucket holds the counts of one hour, day or week (Monday to Sunday)
+     * of the range, read from pre-bucketed counts instead of the feedbacks table.
+     * Without from and to, the last seven days up to today are returned.
+     * 
+     * @param from The first day of the range (inclusive)
+     * @param to The last day of the range (inclusive)
+     * @param granularity The bucket size: hour, day or week
+     * @return The buckets of the range in chronological order
+     */
+    @GetMapping("/trend")
+    public ResponseEntity<TrendResponse> getTrend(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        return ResponseEntity.ok(sentimentTrendService.getTrend(from != null ? from : end.minusDays(6), end, granularity));
     }
 
     /**
@@ -50,30 +119,38 @@ public class ReportController {
      * 
      * Simulates the generation and sending of a weekly report, using the current
      * date as a reference for the report period (from Monday to Sunday of the current
-     * week).
+     * week). The same flow as the weekly scheduler is used, so the stored HTML is
+     * reused while the report data is unchanged.
      * 
      * @return ResponseEntity<Void> with status 200 if the email is successfully sent
      */
     @GetMapping("/sendEmail")
     public ResponseEntity<Void> sendEmail() {
-        LocalDateTime startOfWeek = LocalDateTime.now().with(DayOfWeek.MONDAY).with(LocalTime.MIN);
-        LocalDateTime endOfWeek = LocalDateTime.now().with(DayOfWeek.SUNDAY).with(LocalTime.MAX);
-        ReportResponse reportData = reportService.generateWeeklyReport(startOfWeek, endOfWeek);
-
-        String prompt = String.format(
-                LLMPrompts.WEEKLY_REPORT_PROMPT,
-                startOfWeek.toLocalDate() + " - " + endOfWeek.toLocalDate(),
-                reportData.getStatistics().getTotalFeedbacks(),
-                reportData.getStatistics().getPercentPositive(),
-                reportData.getStatistics().getPercentNegative(),
-                reportData.getTopFeatures());
-
-        String emailContent = llmService.sendPrompt(prompt);
-
-        String reportPeriod = startOfWeek.toLocalDate() + " - " + endOfWeek.toLocalDate();
-        String subject = "AluMind - Relatório Semanal de Feedbacks (" + reportPeriod + ")";
-        emailService.sendEmail(subject, emailContent);
-
+        weeklyReportService.sendWeeklyReport(LocalDate.now());
         return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Stream the weekly report email HTML as it is generated
+     * 
+     * Uses the current week (Monday to Sunday) like /sendEmail, but instead of
+     * waiting for the whole email, each HTML chunk produced by the model is pushed
+     * as a Server-Sent Event named "chunk". HTML already generated from the same
+     * report data is sent as a single chunk. A final "done" event marks the end of
+     * the email, and an "error" event is sent if generation fails or exceeds
+     * alumind.report.stream.timeout. No email is sent.
+     * 
+     * @return A stream of Server-Sent Events carrying the HTML chunks
+     */
+    @GetMapping(value = "/weekly/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamWeeklyReport() {
+        return weeklyReportService.streamEmailContent(LocalDate.now())
+                .timeout(streamTimeout)
+                .map(chunk -> ServerSentEvent.builder(chunk).event("chunk").build())
+                .concatWith(Flux.just(ServerSentEvent.builder("").event("done").build()))
+                .onErrorResume(e -> {
+                    log.error("Error streaming weekly report", e);
+                    return Flux.just(ServerSentEvent.builder("Error generating weekly report").event("error").build());
+                });
+    }
+}
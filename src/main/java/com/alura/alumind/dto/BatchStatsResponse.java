@@ -0,0 +1,20 @@
+package com.alura.alumind.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStatsResponse {
+    private boolean enabled;
+    private int maxBatchSize;
+    private long maxWaitMs;
+    private long batches;
+    private long batchedItems;
+    private double avgBatchSize;
+    private long fallbacks;
+}
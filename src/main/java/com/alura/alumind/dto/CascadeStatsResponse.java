@@ -0,0 +1,22 @@
+package com.alura.alumind.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CascadeStatsResponse {
+    private boolean enabled;
+    private double confidenceThreshold;
+    private long spamChecks;
+    private long spamRejected;
+    private long spamAccepted;
+    private double spamBypassRate;
+    private long sentimentChecks;
+    private long sentimentClassified;
+    private double sentimentBypassRate;
+}
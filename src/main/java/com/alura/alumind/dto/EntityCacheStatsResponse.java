@@ -0,0 +1,30 @@
+package com.alura.alumind.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityCacheStatsResponse {
+    private boolean enabled;
+    private List<RegionStatsDto> regions;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RegionStatsDto {
+        private String region;
+        private long size;
+        private long hits;
+        private long misses;
+        private long puts;
+        private double hitRate;
+    }
+}
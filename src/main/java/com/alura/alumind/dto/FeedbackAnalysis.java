@@ -0,0 +1,28 @@
+package com.alura.alumind.dto;
+
+import com.alura.alumind.model.Feedback.SentimentType;
+
+import java.util.List;
+
+/**
+ * Feedback analysis returned by the LLM or by the local classifier
+ * 
+ * @param spam Whether the feedback is spam; only set by the fused analysis
+ * @param sentiment The overall sentiment of the feedback
+ * @param requestedFeatures The features requested in the feedback
+ */
+public record FeedbackAnalysis(boolean spam, SentimentType sentiment, List<Feature> requestedFeatures) {
+
+    public FeedbackAnalysis {
+        requestedFeatures = requestedFeatures == null ? List.of() : List.copyOf(requestedFeatures);
+    }
+
+    /**
+     * A feature requested in the feedback
+     * 
+     * @param code The feature code in UPPERCASE_WITH_UNDERSCORES format
+     * @param reason Why the feature is important to the user
+     */
+    public record Feature(String code, String reason) {
+    }
+}
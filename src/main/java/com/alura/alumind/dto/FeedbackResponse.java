@@ -18,8 +18,10 @@ public class FeedbackResponse {
     @Builder
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class FeedbackShortDto {
         private Long id;
+        private String status;
         private String sentiment;
         private List<RequestedFeatures> requestedFeatures;
     }
@@ -28,14 +30,26 @@ public class FeedbackResponse {
     @Builder
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class FeedbackFullDto {
         private Long id;
         private String content;
+        private String status;
         private String sentiment;
         private String createdAt;
         private List<RequestedFeatures> requestedFeatures;
     }
 
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class FeedbackPageDto {
+        private List<FeedbackFullDto> feedbacks;
+        private String nextCursor;
+    }
+
     @Data
     @Builder
     @NoArgsConstructor
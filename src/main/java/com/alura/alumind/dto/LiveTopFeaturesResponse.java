@@ -0,0 +1,31 @@
+package com.alura.alumind.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveTopFeaturesResponse {
+    private long totalRequests;
+    private int capacity;
+    private long maxError;
+    private List<LiveFeatureDto> features;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LiveFeatureDto {
+        private String code;
+        private long count;
+        private long minCount;
+        private long error;
+        private boolean guaranteed;
+    }
+}
@@ -0,0 +1,18 @@
+package com.alura.alumind.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParsingStatsResponse {
+    private long responses;
+    private long repaired;
+    private long failures;
+    private double repairRate;
+    private double failureRate;
+}
@@ -0,0 +1,34 @@
+package com.alura.alumind.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PipelineStatsResponse {
+    private boolean enabled;
+    private int workers;
+    private int activeWorkers;
+    private int queueDepth;
+    private int queueCapacity;
+    private long analyzed;
+    private long rejected;
+    private long failed;
+    private Map<String, StageStatsDto> stages;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StageStatsDto {
+        private long count;
+        private double avgMillis;
+        private double maxMillis;
+    }
+}
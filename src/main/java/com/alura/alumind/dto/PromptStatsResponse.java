@@ -0,0 +1,32 @@
+package com.alura.alumind.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromptStatsResponse {
+    private long calls;
+    private long truncations;
+    private long tokensSaved;
+    private long cachedPromptTokens;
+    private Map<String, PromptTypeStatsDto> promptTypes;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PromptTypeStatsDto {
+        private long calls;
+        private long systemTokens;
+        private long userTokens;
+        private long truncations;
+        private long tokensSaved;
+    }
+}
@@ -0,0 +1,37 @@
+package com.alura.alumind.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResilienceStatsResponse {
+    private long calls;
+    private long successes;
+    private long failures;
+    private long timeouts;
+    private long retries;
+    private long rateLimited;
+    private long bulkheadRejections;
+    private long hedges;
+    private long hedgeWins;
+    private int concurrencyLimit;
+    private int inFlight;
+    private Map<String, PromptTypeStatsDto> promptTypes;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PromptTypeStatsDto {
+        private int inFlight;
+        private int maxConcurrent;
+        private Double p95Millis;
+    }
+}
@@ -0,0 +1,10 @@
+package com.alura.alumind.dto;
+
+/**
+ * Spam check result returned by the LLM
+ * 
+ * @param spam Whether the feedback is spam or inappropriate content
+ * @param reason Brief explanation of the verdict
+ */
+public record SpamVerdict(boolean spam, String reason) {
+}
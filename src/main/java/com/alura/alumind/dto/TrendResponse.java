@@ -0,0 +1,31 @@
+package com.alura.alumind.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendResponse {
+    private String granularity;
+    private String from;
+    private String to;
+    private List<TrendBucketDto> buckets;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TrendBucketDto {
+        private String start;
+        private long totalFeedbacks;
+        private long positive;
+        private long negative;
+        private long inconclusive;
+    }
+}
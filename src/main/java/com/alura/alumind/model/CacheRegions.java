@@ -0,0 +1,17 @@
+package com.alura.alumind.model;
+
+import java.util.List;
+
+/**
+ * Names of the Hibernate second-level cache regions of the entities
+ */
+public final class CacheRegions {
+
+    public static final String FEEDBACK = "feedbacks";
+    public static final String REQUESTED_FEATURE = "requested-features";
+    public static final String FEEDBACK_FEATURES = "feedback-requested-features";
+    public static final List<String> ALL = List.of(FEEDBACK, REQUESTED_FEATURE, FEEDBACK_FEATURES);
+
+    private CacheRegions() {
+    }
+}
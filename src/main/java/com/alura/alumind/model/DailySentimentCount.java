@@ -0,0 +1,48 @@
+package com.alura.alumind.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Number of analyzed feedbacks per day and sentiment
+ */
+@Entity
+@Table(name = "daily_sentiment_counts")
+@IdClass(DailySentimentCount.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySentimentCount {
+
+    @Id
+    @Column(name = "rollup_day")
+    private LocalDate day;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private Feedback.SentimentType sentiment;
+
+    @Column(nullable = false)
+    private long feedbackCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private Feedback.SentimentType sentiment;
+    }
+}
@@ -0,0 +1,36 @@
+package com.alura.alumind.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A feature code produced by the LLM that is stored under another, canonical code
+ */
+@Entity
+@Table(name = "feature_code_aliases")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeatureCodeAlias {
+
+    @Id
+    private String alias;
+
+    @Column(nullable = false)
+    private String canonicalCode;
+
+    @Column(nullable = false)
+    private double similarity;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
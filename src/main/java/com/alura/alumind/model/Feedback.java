@@ -1,5 +1,6 @@
 package com.alura.alumind.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -8,19 +9,29 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "feedbacks")
+@Table(name = "feedbacks", indexes = {
+        @Index(name = "idx_feedbacks_created_at_sentiment", columnList = "created_at, sentiment"),
+        @Index(name = "idx_feedbacks_created_at_id", columnList = "created_at, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.FEEDBACK)
 @Data
 @Builder
 @NoArgsConstructor
@@ -28,17 +39,24 @@ import java.util.List;
 public class Feedback {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "feedback_id_generator")
+    @SequenceGenerator(name = "feedback_id_generator", sequenceName = "feedbacks_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 2000)
     private String content;
 
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
     private SentimentType sentiment;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @ColumnDefault("'ANALYZED'")
+    @Builder.Default
+    private FeedbackStatus status = FeedbackStatus.ANALYZED;
+
     @OneToMany(mappedBy = "feedback", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.FEEDBACK_FEATURES)
     @Builder.Default
     private List<RequestedFeature> requestedFeatures = new ArrayList<>();
 
@@ -53,4 +71,8 @@ public class Feedback {
     public enum SentimentType {
         POSITIVO, NEGATIVO, INCONCLUSIVO
     }
+
+    public enum FeedbackStatus {
+        PENDING, ANALYZED, REJECTED
+    }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.alura.alumind.model;
+
+import com.alura.alumind.model.Feedback.FeedbackStatus;
+import com.alura.alumind.model.Feedback.SentimentType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of the feedbacks table as read and written through R2DBC by the reactive profile
+ * 
+ * The table itself is mapped and created by the {@link Feedback} entity.
+ */
+@Table("feedbacks")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedbackRecord {
+
+    @Id
+    private Long id;
+
+    private String content;
+
+    private SentimentType sentiment;
+
+    private FeedbackStatus status;
+
+    private LocalDateTime createdAt;
+}
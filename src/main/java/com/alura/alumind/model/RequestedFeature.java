@@ -1,22 +1,37 @@
 package com.alura.alumind.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
 import jakarta.persistence.Entity;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "requested_features")
+@Table(name = "requested_features", indexes = {
+        @Index(name = "idx_requested_features_feedback_id_code", columnList = "feedback_id, code"),
+        @Index(name = "idx_requested_features_code_feedback_id", columnList = "code, feedback_id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.REQUESTED_FEATURE)
 @Data
 @Builder
 @NoArgsConstructor
@@ -24,7 +39,8 @@ import lombok.ToString;
 public class RequestedFeature {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requested_feature_id_generator")
+    @SequenceGenerator(name = "requested_feature_id_generator", sequenceName = "requested_features_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -33,9 +49,25 @@ public class RequestedFeature {
     @Column(nullable = false, length = 1000)
     private String reason;
 
+    /**
+     * Copy of the feedback creation time, the partition key of requested_features
+     * 
+     * Partitioned tables only allow unique keys that include the partition key,
+     * so feedback_id cannot reference feedbacks with a foreign key.
+     */
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
     @ManyToOne
-    @JoinColumn(name = "feedback_id")
+    @JoinColumn(name = "feedback_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @ToString.Exclude
     @JsonIgnore
     private Feedback feedback;
+
+    @PrePersist
+    void copyFeedbackCreatedAt() {
+        if (createdAt == null && feedback != null) {
+            createdAt = feedback.getCreatedAt();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.alura.alumind.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of the requested_features table as read and written through R2DBC by the reactive profile
+ * 
+ * The table itself is mapped and created by the {@link RequestedFeature} entity.
+ */
+@Table("requested_features")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestedFeatureRecord {
+
+    @Id
+    private Long id;
+
+    private Long feedbackId;
+
+    private String code;
+
+    private String reason;
+
+    private LocalDateTime createdAt;
+}
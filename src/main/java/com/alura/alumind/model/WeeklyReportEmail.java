@@ -0,0 +1,43 @@
+package com.alura.alumind.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Generated weekly report email HTML, one row per report period
+ * 
+ * The fingerprint identifies the report data the HTML was generated from, so
+ * the HTML is reused as long as the statistics and top features are unchanged.
+ */
+@Entity
+@Table(name = "weekly_report_emails")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WeeklyReportEmail {
+
+    @Id
+    private LocalDate periodStart;
+
+    @Column(nullable = false)
+    private LocalDate periodEnd;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String html;
+
+    @Column(nullable = false)
+    private LocalDateTime generatedAt;
+}
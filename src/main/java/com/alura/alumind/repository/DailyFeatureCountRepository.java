@@ -0,0 +1,75 @@
+package com.alura.alumind.repository;
+
+import com.alura.alumind.model.DailyFeatureCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DailyFeatureCountRepository extends JpaRepository<DailyFeatureCount, DailyFeatureCount.Key> {
+
+    interface FeatureTotal {
+        String getCode();
+
+        long getTotal();
+    }
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_feature_counts"))
+    @Query(value = """
+                INSERT INTO daily_feature_counts (rollup_day, code, feedback_count)
+                VALUES (:day, :code, :delta)
+                ON CONFLICT (rollup_day, code)
+                DO UPDATE SET feedback_count = daily_feature_counts.feedback_count + EXCLUDED.feedback_count
+            """, nativeQuery = true)
+    void increment(@Param("day") LocalDate day, @Param("code") String code, @Param("delta") long delta);
+
+    @Query("SELECT d.code AS code, SUM(d.feedbackCount) AS total FROM DailyFeatureCount d GROUP BY d.code ORDER BY total DESC, d.code LIMIT :limit OFFSET :offset")
+    List<FeatureTotal> sumByCode(int limit, int offset);
+
+    @Query("SELECT COALESCE(SUM(d.feedbackCount), 0) FROM DailyFeatureCount d")
+    long sumAll();
+
+    @Query("SELECT d.code AS code, SUM(d.feedbackCount) AS total FROM DailyFeatureCount d WHERE d.day BETWEEN :start AND :end GROUP BY d.code ORDER BY total DESC, d.code LIMIT :limit OFFSET :offset")
+    List<FeatureTotal> sumByCodeForDateRange(LocalDate start, LocalDate end, int limit, int offset);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_feature_counts"))
+    @Query(value = "DELETE FROM daily_feature_counts", nativeQuery = true)
+    void deleteAllRollups();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_feature_counts"))
+    @Query(value = "DELETE FROM daily_feature_counts WHERE rollup_day >= :since", nativeQuery = true)
+    void deleteRollupsSince(@Param("since") LocalDate since);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_feature_counts"))
+    @Query(value = """
+                INSERT INTO daily_feature_counts (rollup_day, code, feedback_count)
+                SELECT
+                    CAST(f.created_at AS DATE),
+                    rf.code,
+                    COUNT(DISTINCT f.id)
+                FROM
+                    requested_features rf
+                JOIN
+                    feedbacks f ON rf.feedback_id = f.id AND rf.created_at = f.created_at
+                WHERE
+                    f.status = 'ANALYZED'
+                    AND f.created_at >= :since
+                    AND rf.created_at >= :since
+                GROUP BY
+                    CAST(f.created_at AS DATE), rf.code
+            """, nativeQuery = true)
+    int rebuildFromFeedbacks(@Param("since") LocalDateTime since);
+}
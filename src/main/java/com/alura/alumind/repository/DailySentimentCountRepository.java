@@ -0,0 +1,73 @@
+package com.alura.alumind.repository;
+
+import com.alura.alumind.model.DailySentimentCount;
+import com.alura.alumind.model.Feedback;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DailySentimentCountRepository extends JpaRepository<DailySentimentCount, DailySentimentCount.Key> {
+
+    interface SentimentTotal {
+        Feedback.SentimentType getSentiment();
+
+        long getTotal();
+    }
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_sentiment_counts"))
+    @Query(value = """
+                INSERT INTO daily_sentiment_counts (rollup_day, sentiment, feedback_count)
+                VALUES (:day, :sentiment, :delta)
+                ON CONFLICT (rollup_day, sentiment)
+                DO UPDATE SET feedback_count = daily_sentiment_counts.feedback_count + EXCLUDED.feedback_count
+            """, nativeQuery = true)
+    void increment(@Param("day") LocalDate day, @Param("sentiment") String sentiment, @Param("delta") long delta);
+
+    @Query("SELECT d.sentiment AS sentiment, SUM(d.feedbackCount) AS total FROM DailySentimentCount d GROUP BY d.sentiment")
+    List<SentimentTotal> sumBySentiment();
+
+    @Query("SELECT d.sentiment AS sentiment, SUM(d.feedbackCount) AS total FROM DailySentimentCount d WHERE d.day BETWEEN :start AND :end GROUP BY d.sentiment")
+    List<SentimentTotal> sumBySentimentForDateRange(LocalDate start, LocalDate end);
+
+    @Query("SELECT d FROM DailySentimentCount d WHERE d.day BETWEEN :start AND :end")
+    List<DailySentimentCount> findForDateRange(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_sentiment_counts"))
+    @Query(value = "DELETE FROM daily_sentiment_counts", nativeQuery = true)
+    void deleteAllRollups();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_sentiment_counts"))
+    @Query(value = "DELETE FROM daily_sentiment_counts WHERE rollup_day >= :since", nativeQuery = true)
+    void deleteRollupsSince(@Param("since") LocalDate since);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_sentiment_counts"))
+    @Query(value = """
+                INSERT INTO daily_sentiment_counts (rollup_day, sentiment, feedback_count)
+                SELECT
+                    CAST(f.created_at AS DATE),
+                    f.sentiment,
+                    COUNT(*)
+                FROM
+                    feedbacks f
+                WHERE
+                    f.status = 'ANALYZED'
+                    AND f.created_at >= :since
+                GROUP BY
+                    CAST(f.created_at AS DATE), f.sentiment
+            """, nativeQuery = true)
+    int rebuildFromFeedbacks(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,83 @@
+package com.alura.alumind.repository;
+
+import com.alura.alumind.model.CacheRegions;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Provides the local cache regions of the Hibernate second-level cache
+ * 
+ * Feedback, RequestedFeature and the Feedback.requestedFeatures collection are
+ * cached in Caffeine through JCache, in the regions named in {@link CacheRegions}. Every region is bounded to
+ * alumind.cache.entities.max-size entries, evicted by frequency and recency,
+ * and entries expire alumind.cache.entities.ttl after being written.
+ * 
+ * Each application context gets its own cache manager, so regions are never
+ * shared between contexts living in the same JVM.
+ */
+@Component
+@Slf4j
+public class EntityCacheConfigurer implements HibernatePropertiesCustomizer {
+
+    private final CacheManager cacheManager;
+
+    public EntityCacheConfigurer(
+            @Value("${alumind.cache.entities.max-size:10000}") long maxSize,
+            @Value("${alumind.cache.entities.ttl:PT1H}") Duration ttl) {
+        CaffeineCachingProvider provider = (CaffeineCachingProvider) Caching.getCachingProvider(
+                CaffeineCachingProvider.class.getName());
+        this.cacheManager = provider.getCacheManager(
+                URI.create("alumind:entity-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        for (String region : CacheRegions.ALL) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+            cacheManager.createCache(region, configuration);
+        }
+        log.info("Entity cache regions {} created (max-size {}, ttl {})", CacheRegions.ALL, maxSize, ttl);
+    }
+
+    /// ======= Public methods ======= ///
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+
+    /**
+     * Get the estimated number of entries of a region
+     * 
+     * @param region The region name
+     * @return The estimated entry count, or 0 for an unknown region
+     */
+    public long estimatedSize(String region) {
+        Cache<Object, Object> cache = cacheManager.getCache(region);
+        if (cache == null) {
+            return 0;
+        }
+        return cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+    }
+
+    /// ======= Lifecycle ======= ///
+
+    @PreDestroy
+    void close() {
+        cacheManager.close();
+    }
+}
@@ -0,0 +1,9 @@
+package com.alura.alumind.repository;
+
+import com.alura.alumind.model.FeatureCodeAlias;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FeatureCodeAliasRepository extends JpaRepository<FeatureCodeAlias, String> {
+}
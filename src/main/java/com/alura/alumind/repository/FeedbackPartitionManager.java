@@ -0,0 +1,344 @@
+package com.alura.alumind.repository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Monthly range partitions of the feedbacks and requested_features tables
+ * 
+ * On PostgreSQL both tables are partitioned by month of created_at, so a query
+ * bounded on created_at only reads the partitions of its range: a weekly report
+ * touches one or two partitions of each table. Tables created by Hibernate as
+ * plain tables are converted on startup, their rows copied into partitions from
+ * the month of the oldest row onwards. Rows outside every monthly partition,
+ * such as a feedback dated in an archived month, land in the DEFAULT partition
+ * (feedbacks_default, requested_features_default) instead of failing, and are
+ * moved out of it when the partition of their month is created.
+ * 
+ * The maintenance job creates the partitions of the coming months ahead of time
+ * and moves partitions older than the retention window to feedbacks_archive and
+ * requested_features_archive. Moving is a detach followed by an attach, so no
+ * row is copied. Daily rollups of archived months are kept, so reports over
+ * those months still work.
+ * 
+ * Every change runs under a transaction-scoped advisory lock, so instances
+ * starting together do not convert the tables twice. Partitioning is opt-in:
+ * on other databases, or unless alumind.partitions.enabled is set, the tables
+ * stay plain and the maintenance is a no-op.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class FeedbackPartitionManager {
+
+    private static final List<String> TABLES = List.of("feedbacks", "requested_features");
+
+    private static final String ARCHIVE_SUFFIX = "_archive";
+
+    private static final String DEFAULT_SUFFIX = "_default";
+
+    private static final String LOCK = "SELECT pg_advisory_xact_lock(hashtext('alumind.partitions'))";
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("_p(\\d{4})_(\\d{2})$");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${alumind.partitions.enabled:false}")
+    private boolean enabled;
+
+    @Value("${alumind.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${alumind.partitions.retention-months:24}")
+    private int retentionMonths;
+
+    private boolean active;
+
+    /// ======= Lifecycle ======= ///
+
+    /**
+     * Convert plain tables to partitioned ones and create the upcoming partitions
+     * 
+     * Nothing is archived on startup: the rollups may still have to be
+     * backfilled from the feedbacks, so archiving waits for the scheduled job.
+     * 
+     * Requested features stored before created_at was added take the time of
+     * their feedback, even when partitioning is disabled, since the report
+     * queries bound both tables on created_at.
+     */
+    @PostConstruct
+    void initialize() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.execute(LOCK);
+            if (!isPartitioned("requested_features")) {
+                fillFeatureCreatedAt();
+            }
+        });
+        active = enabled;
+        if (!active) {
+            return;
+        }
+
+        YearMonth current = YearMonth.now();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.execute(LOCK);
+            for (String table : TABLES) {
+                if (!isPartitioned(table)) {
+                    partition(table, current);
+                }
+                jdbcTemplate.execute(String.format("CREATE TABLE IF NOT EXISTS %1$s%2$s PARTITION OF %1$s DEFAULT",
+                        table, DEFAULT_SUFFIX));
+                jdbcTemplate.execute(String.format(
+                        "CREATE TABLE IF NOT EXISTS %1$s%2$s (LIKE %1$s INCLUDING DEFAULTS INCLUDING CONSTRAINTS) PARTITION BY RANGE (created_at)",
+                        table, ARCHIVE_SUFFIX));
+                createPartitions(table, current, current.plusMonths(monthsAhead));
+            }
+        });
+    }
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Create the partitions of the coming months and archive the expired ones
+     * 
+     * Partitions are created up to alumind.partitions.months-ahead months after
+     * the current one, taking their rows out of the DEFAULT partition.
+     * Partitions whose month ended more than
+     * alumind.partitions.retention-months months ago are moved to the archive
+     * tables, one transaction per partition; a retention of zero keeps them all.
+     */
+    public void maintain() {
+        if (!active) {
+            return;
+        }
+
+        YearMonth current = YearMonth.now();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.execute(LOCK);
+            TABLES.forEach(table -> createPartitions(table, current, current.plusMonths(monthsAhead)));
+        });
+
+        if (retentionMonths <= 0) {
+            return;
+        }
+        for (String table : TABLES) {
+            for (String partition : listPartitions(table)) {
+                YearMonth month = monthOf(partition);
+                if (month != null && isExpired(month, current, retentionMonths)) {
+                    transaction.executeWithoutResult(status -> {
+                        jdbcTemplate.execute(LOCK);
+                        archive(table, partition, month);
+                    });
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the first day whose feedbacks are still in the partitioned tables
+     * 
+     * @return The first day after the newest archived month, or null when nothing was archived
+     */
+    public LocalDate getArchivedUntil() {
+        if (!active) {
+            return null;
+        }
+
+        return listPartitions(TABLES.get(0) + ARCHIVE_SUFFIX).stream()
+                .map(FeedbackPartitionManager::monthOf)
+                .filter(Objects::nonNull)
+                .max(YearMonth::compareTo)
+                .map(month -> month.plusMonths(1).atDay(1))
+                .orElse(null);
+    }
+
+    /// ======= Private methods ======= ///
+
+    private boolean isPartitioned(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT relkind = 'p' FROM pg_class WHERE oid = to_regclass(?)", Boolean.class, table));
+    }
+
+    /**
+     * Replace a plain table by a partitioned table with the same columns, rows and indexes
+     * 
+     * The primary key becomes (id, created_at), since unique keys of a
+     * partitioned table must include the partition key.
+     * 
+     * @param table The table to convert
+     * @param current The current month
+     */
+    private void partition(String table, YearMonth current) {
+        String plain = table + "_unpartitioned";
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT pg_get_indexdef(indexrelid) FROM pg_index WHERE indrelid = CAST(? AS regclass) AND NOT indisprimary",
+                String.class, table);
+        LocalDateTime oldest = jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM " + table, LocalDateTime.class);
+        LocalDateTime newest = jdbcTemplate.queryForObject("SELECT MAX(created_at) FROM " + table, LocalDateTime.class);
+        YearMonth last = current.plusMonths(monthsAhead);
+
+        jdbcTemplate.execute("ALTER TABLE " + table + " RENAME TO " + plain);
+        jdbcTemplate.execute("CREATE TABLE " + table + " (LIKE " + plain
+                + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS) PARTITION BY RANGE (created_at)");
+        createPartitions(table,
+                oldest == null ? current : YearMonth.from(oldest),
+                newest == null || YearMonth.from(newest).isBefore(last) ? last : YearMonth.from(newest));
+        int rows = jdbcTemplate.update("INSERT INTO " + table + " SELECT * FROM " + plain);
+        jdbcTemplate.execute("DROP TABLE " + plain + " CASCADE");
+        jdbcTemplate.execute("ALTER TABLE " + table + " ADD PRIMARY KEY (id, created_at)");
+        indexes.forEach(jdbcTemplate::execute);
+        log.info("Table {} partitioned by month: {} rows moved", table, rows);
+    }
+
+    /**
+     * Set created_at of the requested features stored before the column existed
+     * 
+     * Features without a feedback take the current time.
+     */
+    private void fillFeatureCreatedAt() {
+        int filled = jdbcTemplate.update("""
+                    UPDATE requested_features rf SET created_at = f.created_at
+                    FROM feedbacks f
+                    WHERE rf.feedback_id = f.id AND rf.created_at IS NULL
+                """);
+        filled += jdbcTemplate.update("UPDATE requested_features SET created_at = LOCALTIMESTAMP WHERE created_at IS NULL");
+        if (filled > 0) {
+            log.info("created_at filled for {} requested features", filled);
+        }
+    }
+
+    /**
+     * Create the missing monthly partitions of a table
+     * 
+     * A month whose rows already landed in the DEFAULT partition gets a plain
+     * table holding those rows, attached as its partition, since PostgreSQL
+     * refuses to create a partition for rows the DEFAULT partition holds.
+     * 
+     * @param table The partitioned table
+     * @param first The first month (inclusive)
+     * @param last The last month (inclusive)
+     */
+    private void createPartitions(String table, YearMonth first, YearMonth last) {
+        String defaultPartition = table + DEFAULT_SUFFIX;
+        boolean hasDefault = exists(defaultPartition);
+        for (YearMonth month : months(first, last)) {
+            String partition = partitionName(table, month);
+            LocalDateTime from = month.atDay(1).atStartOfDay();
+            LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+            if (hasDefault && !exists(partition) && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM " + defaultPartition + " WHERE created_at >= ? AND created_at < ?)",
+                    Boolean.class, from, to))) {
+                jdbcTemplate.execute(String.format(
+                        "CREATE TABLE %s (LIKE %s INCLUDING DEFAULTS INCLUDING CONSTRAINTS)", partition, table));
+                int rows = jdbcTemplate.update(String.format("""
+                            WITH moved AS (
+                                DELETE FROM %s WHERE created_at >= ? AND created_at < ? RETURNING *
+                            )
+                            INSERT INTO %s SELECT * FROM moved
+                        """, defaultPartition, partition), from, to);
+                jdbcTemplate.execute(String.format("ALTER TABLE %s ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')",
+                        table, partition, month.atDay(1), month.plusMonths(1).atDay(1)));
+                log.info("Partition {} created with {} rows moved from {}", partition, rows, defaultPartition);
+            } else {
+                jdbcTemplate.execute(String.format(
+                        "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                        partition, table, month.atDay(1), month.plusMonths(1).atDay(1)));
+            }
+        }
+    }
+
+    private boolean exists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+
+    /**
+     * Move a partition to the archive table of its table
+     * 
+     * @param table The partitioned table
+     * @param partition The partition to move
+     * @param month The month of the partition
+     */
+    private void archive(String table, String partition, YearMonth month) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+        jdbcTemplate.execute(String.format(
+                "ALTER TABLE %s%s ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')",
+                table, ARCHIVE_SUFFIX, partition, month.atDay(1), month.plusMonths(1).atDay(1)));
+        log.info("Partition {} moved to {}{}", partition, table, ARCHIVE_SUFFIX);
+    }
+
+    private List<String> listPartitions(String table) {
+        return jdbcTemplate.queryForList("""
+                    SELECT c.relname
+                    FROM pg_inherits i
+                    JOIN pg_class c ON c.oid = i.inhrelid
+                    WHERE i.inhparent = to_regclass(?)
+                    ORDER BY c.relname
+                """, String.class, table);
+    }
+
+    /**
+     * List the months whose partitions hold the rows created from the first to the last month
+     * 
+     * A range bounded on created_at only reads the partitions of these months.
+     * 
+     * @param first The first month (inclusive)
+     * @param last The last month (inclusive)
+     * @return The months in order
+     */
+    static List<YearMonth> months(YearMonth first, YearMonth last) {
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        return months;
+    }
+
+    /**
+     * Check whether a partition is past the retention window
+     * 
+     * @param month The month of the partition
+     * @param current The current month
+     * @param retentionMonths The number of past months kept in the partitioned tables
+     * @return true if the partition must be archived
+     */
+    static boolean isExpired(YearMonth month, YearMonth current, int retentionMonths) {
+        return month.isBefore(current.minusMonths(retentionMonths));
+    }
+
+    static String partitionName(String table, YearMonth month) {
+        return String.format("%s_p%d_%02d", table, month.getYear(), month.getMonthValue());
+    }
+
+    static YearMonth monthOf(String partition) {
+        Matcher matcher = PARTITION_NAME.matcher(partition);
+        return matcher.find()
+                ? YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)))
+                : null;
+    }
+}
@@ -1,21 +1,142 @@
 package com.alura.alumind.repository;
 
 import com.alura.alumind.model.Feedback;
+import com.alura.alumind.model.Feedback.FeedbackStatus;
+import com.alura.alumind.model.Feedback.SentimentType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface FeedbackRepository extends JpaRepository<Feedback, Long> {
 
-    @Query("SELECT COUNT(f) FROM Feedback f WHERE f.sentiment = :sentiment")
-    long countBySentiment(Feedback.SentimentType sentiment);
+    interface SentimentCounts {
+        long getTotal();
 
-    @Query("SELECT COUNT(f) FROM Feedback f WHERE f.createdAt BETWEEN :start AND :end")
-    long countByDate(LocalDateTime start, LocalDateTime end);
+        long getPositive();
 
-    @Query("SELECT COUNT(f) FROM Feedback f WHERE f.createdAt BETWEEN :start AND :end AND f.sentiment = :sentiment")
-    long countByDateAndSentiment(LocalDateTime start, LocalDateTime end, Feedback.SentimentType sentiment);
-}
\ No newline at end of file
+        long getNegative();
+
+        long getInconclusive();
+    }
+
+    interface FeedbackRow {
+        Long getId();
+
+        String getContent();
+
+        SentimentType getSentiment();
+
+        LocalDateTime getCreatedAt();
+    }
+
+    @Query("""
+                SELECT
+                    COUNT(f) AS total,
+                    COUNT(f) FILTER (WHERE f.sentiment = com.alura.alumind.model.Feedback.SentimentType.POSITIVO) AS positive,
+                    COUNT(f) FILTER (WHERE f.sentiment = com.alura.alumind.model.Feedback.SentimentType.NEGATIVO) AS negative,
+                    COUNT(f) FILTER (WHERE f.sentiment = com.alura.alumind.model.Feedback.SentimentType.INCONCLUSIVO) AS inconclusive
+                FROM
+                    Feedback f
+                WHERE
+                    f.status = com.alura.alumind.model.Feedback.FeedbackStatus.ANALYZED
+            """)
+    SentimentCounts countSentiments();
+
+    @Query("""
+                SELECT
+                    COUNT(f) AS total,
+                    COUNT(f) FILTER (WHERE f.sentiment = com.alura.alumind.model.Feedback.SentimentType.POSITIVO) AS positive,
+                    COUNT(f) FILTER (WHERE f.sentiment = com.alura.alumind.model.Feedback.SentimentType.NEGATIVO) AS negative,
+                    COUNT(f) FILTER (WHERE f.sentiment = com.alura.alumind.model.Feedback.SentimentType.INCONCLUSIVO) AS inconclusive
+                FROM
+                    Feedback f
+                WHERE
+                    f.createdAt BETWEEN :start AND :end
+                    AND f.status = com.alura.alumind.model.Feedback.FeedbackStatus.ANALYZED
+            """)
+    SentimentCounts countSentimentsForDateRange(LocalDateTime start, LocalDateTime end);
+
+    @Query("""
+                SELECT
+                    f.id AS id, f.content AS content, f.sentiment AS sentiment, f.createdAt AS createdAt
+                FROM
+                    Feedback f
+                WHERE
+                    f.status = com.alura.alumind.model.Feedback.FeedbackStatus.ANALYZED
+                    AND f.sentiment IN :sentiments
+                    AND f.createdAt >= :start AND f.createdAt < :end
+                    AND (f.createdAt, f.id) < (:afterCreatedAt, :afterId)
+                ORDER BY
+                    f.createdAt DESC, f.id DESC
+                LIMIT :limit
+            """)
+    List<FeedbackRow> findPage(
+            @Param("sentiments") Collection<SentimentType> sentiments,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") long afterId,
+            @Param("limit") int limit);
+
+    @Query("""
+                SELECT
+                    f.id AS id, f.content AS content, f.sentiment AS sentiment, f.createdAt AS createdAt
+                FROM
+                    Feedback f
+                WHERE
+                    f.status = com.alura.alumind.model.Feedback.FeedbackStatus.ANALYZED
+                    AND f.sentiment IN :sentiments
+                    AND f.createdAt >= :start AND f.createdAt < :end
+                    AND (f.createdAt, f.id) < (:afterCreatedAt, :afterId)
+                    AND EXISTS (SELECT 1 FROM RequestedFeature rf WHERE rf.feedback = f AND rf.createdAt = f.createdAt AND rf.code = :code)
+                ORDER BY
+                    f.createdAt DESC, f.id DESC
+                LIMIT :limit
+            """)
+    List<FeedbackRow> findPageByFeatureCode(
+            @Param("sentiments") Collection<SentimentType> sentiments,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") long afterId,
+            @Param("code") String code,
+            @Param("limit") int limit);
+
+    @Query("""
+                SELECT
+                    f.id AS id, f.content AS content, f.sentiment AS sentiment, f.createdAt AS createdAt
+                FROM
+                    Feedback f
+                WHERE
+                    f.status = com.alura.alumind.model.Feedback.FeedbackStatus.PENDING
+                    AND f.createdAt < :before
+                ORDER BY
+                    f.createdAt, f.id
+                LIMIT :limit
+            """)
+    List<FeedbackRow> findPending(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    @Modifying
+    @Query("""
+                UPDATE
+                    Feedback f
+                SET
+                    f.status = :status
+                WHERE
+                    f.id = :id
+                    AND f.status = com.alura.alumind.model.Feedback.FeedbackStatus.PENDING
+            """)
+    int claimPending(@Param("id") Long id, @Param("status") FeedbackStatus status);
+
+    @EntityGraph(attributePaths = "requestedFeatures")
+    Optional<Feedback> findWithRequestedFeaturesById(Long id);
+}
@@ -0,0 +1,54 @@
+package com.alura.alumind.repository;
+
+import com.alura.alumind.model.HourlySentimentCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface HourlySentimentCountRepository extends JpaRepository<HourlySentimentCount, HourlySentimentCount.Key> {
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "hourly_sentiment_counts"))
+    @Query(value = """
+                INSERT INTO hourly_sentiment_counts (rollup_hour, sentiment, feedback_count)
+                VALUES (:hour, :sentiment, :delta)
+                ON CONFLICT (rollup_hour, sentiment)
+                DO UPDATE SET feedback_count = hourly_sentiment_counts.feedback_count + EXCLUDED.feedback_count
+            """, nativeQuery = true)
+    void increment(@Param("hour") LocalDateTime hour, @Param("sentiment") String sentiment, @Param("delta") long delta);
+
+    @Query("SELECT h FROM HourlySentimentCount h WHERE h.hour >= :start AND h.hour < :end")
+    List<HourlySentimentCount> findForHourRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "hourly_sentiment_counts"))
+    @Query(value = "DELETE FROM hourly_sentiment_counts WHERE rollup_hour >= :since", nativeQuery = true)
+    void deleteRollupsSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "hourly_sentiment_counts"))
+    @Query(value = """
+                INSERT INTO hourly_sentiment_counts (rollup_hour, sentiment, feedback_count)
+                SELECT
+                    DATE_TRUNC('hour', f.created_at),
+                    f.sentiment,
+                    COUNT(*)
+                FROM
+                    feedbacks f
+                WHERE
+                    f.status = 'ANALYZED'
+                    AND f.created_at >= :since
+                GROUP BY
+                    DATE_TRUNC('hour', f.created_at), f.sentiment
+            """, nativeQuery = true)
+    int rebuildFromFeedbacks(@Param("since") LocalDateTime since);
+}
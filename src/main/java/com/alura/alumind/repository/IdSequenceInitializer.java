@@ -0,0 +1,50 @@
+package com.alura.alumind.repository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Aligns the id sequences with ids already present in the tables
+ * 
+ * Feedback and RequestedFeature ids come from pooled sequences so Hibernate can
+ * batch inserts. Databases created while the ids were IDENTITY columns already
+ * contain rows, so on PostgreSQL each sequence is moved past the current
+ * maximum id on startup. The sequence is never moved backwards.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class IdSequenceInitializer {
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "feedbacks_seq", "feedbacks",
+            "requested_features_seq", "requested_features");
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void alignSequences() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+
+        SEQUENCES.forEach((sequence, table) -> {
+            Long value = jdbcTemplate.queryForObject(String.format(
+                    "SELECT setval('%1$s', GREATEST((SELECT last_value FROM %1$s), (SELECT COALESCE(MAX(id), 0) FROM %2$s) + %3$d))",
+                    sequence, table, ALLOCATION_SIZE), Long.class);
+            log.debug("Sequence {} aligned to {}", sequence, value);
+        });
+    }
+}
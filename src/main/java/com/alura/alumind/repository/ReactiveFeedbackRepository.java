@@ -0,0 +1,48 @@
+package com.alura.alumind.repository;
+
+import com.alura.alumind.model.FeedbackRecord;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mirror of {@link FeedbackRepository} for the reactive profile
+ * 
+ * Ids come from the same pooled sequence as the JPA entity: each value v
+ * returned by the sequence reserves the ids v - 49 to v, like the pooled
+ * optimizer of Hibernate, so both stacks can insert into the same table.
+ */
+@Repository
+public interface ReactiveFeedbackRepository extends R2dbcRepository<FeedbackRecord, Long> {
+
+    int ID_BLOCK_SIZE = 50;
+
+    @Query("SELECT nextval('feedbacks_seq')")
+    Mono<Long> nextIdBlock();
+
+    @Modifying
+    @Query("""
+                INSERT INTO daily_sentiment_counts (rollup_day, sentiment, feedback_count)
+                VALUES (:day, :sentiment, :delta)
+                ON CONFLICT (rollup_day, sentiment)
+                DO UPDATE SET feedback_count = daily_sentiment_counts.feedback_count + EXCLUDED.feedback_count
+            """)
+    Mono<Integer> incrementSentimentCount(@Param("day") LocalDate day, @Param("sentiment") String sentiment,
+            @Param("delta") long delta);
+
+    @Modifying
+    @Query("""
+                INSERT INTO hourly_sentiment_counts (rollup_hour, sentiment, feedback_count)
+                VALUES (:hour, :sentiment, :delta)
+                ON CONFLICT (rollup_hour, sentiment)
+                DO UPDATE SET feedback_count = hourly_sentiment_counts.feedback_count + EXCLUDED.feedback_count
+            """)
+    Mono<Integer> incrementHourlySentimentCount(@Param("hour") LocalDateTime hour, @Param("sentiment") String sentiment,
+            @Param("delta") long delta);
+}
@@ -0,0 +1,37 @@
+package com.alura.alumind.repository;
+
+import com.alura.alumind.model.RequestedFeatureRecord;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * R2DBC mirror of {@link RequestedFeaturesRepository} for the reactive profile
+ * 
+ * Ids are reserved in blocks of {@link ReactiveFeedbackRepository#ID_BLOCK_SIZE}
+ * from the pooled sequence shared with the JPA entity.
+ */
+@Repository
+public interface ReactiveRequestedFeaturesRepository extends R2dbcRepository<RequestedFeatureRecord, Long> {
+
+    Flux<RequestedFeatureRecord> findByFeedbackIdOrderById(Long feedbackId);
+
+    @Query("SELECT nextval('requested_features_seq')")
+    Mono<Long> nextIdBlock();
+
+    @Modifying
+    @Query("""
+                INSERT INTO daily_feature_counts (rollup_day, code, feedback_count)
+                VALUES (:day, :code, :delta)
+                ON CONFLICT (rollup_day, code)
+                DO UPDATE SET feedback_count = daily_feature_counts.feedback_count + EXCLUDED.feedback_count
+            """)
+    Mono<Integer> incrementFeatureCount(@Param("day") LocalDate day, @Param("code") String code,
+            @Param("delta") long delta);
+}
@@ -1,51 +1,151 @@
 package com.alura.alumind.repository;
 
-import com.alura.alumind.dto.ReportResponse.TopFeaturesDto;
 import com.alura.alumind.model.RequestedFeature;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface RequestedFeaturesRepository extends JpaRepository<RequestedFeature, Long> {
 
+    interface TopFeatureRow {
+        String getCode();
+
+        Long[] getFeedbackIds();
+
+        Long getFeedbacksCounter();
+    }
+
+    interface FeatureIdsRow {
+        String getCode();
+
+        Long[] getFeedbackIds();
+    }
+
+    interface FeatureRow {
+        Long getFeedbackId();
+
+        String getCode();
+
+        String getReason();
+    }
+
+    interface CodeCount {
+        String getCode();
+
+        long getTotal();
+    }
+
+    @Query("""
+                SELECT
+                    rf.feedback.id AS feedbackId, rf.code AS code, rf.reason AS reason
+                FROM
+                    RequestedFeature rf
+                WHERE
+                    rf.feedback.id IN :feedbackIds
+                    AND rf.createdAt BETWEEN :start AND :end
+                ORDER BY
+                    rf.id
+            """)
+    List<FeatureRow> findByFeedbackIds(
+            @Param("feedbackIds") Collection<Long> feedbackIds,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    @Query("SELECT rf.code AS code, COUNT(rf) AS total FROM RequestedFeature rf GROUP BY rf.code ORDER BY total DESC, rf.code")
+    List<CodeCount> countByCode();
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE RequestedFeature rf SET rf.code = :canonical WHERE rf.code = :alias")
+    int renameCode(@Param("alias") String alias, @Param("canonical") String canonical);
+
     @Query(value = """
                 SELECT
                     rf.code as code,
-                    STRING_AGG(DISTINCT CAST(f.id AS TEXT), ',') as feedbackIds,
-                    COUNT(DISTINCT f.id) as feedbacksCounter
+                    (ARRAY_AGG(DISTINCT rf.feedback_id ORDER BY rf.feedback_id DESC))[1: CAST(:maxIds AS INT)] as feedbackIds,
+                    COUNT(DISTINCT rf.feedback_id) as feedbacksCounter
                 FROM
                     requested_features rf
-                JOIN
-                    feedbacks f ON rf.feedback_id = f.id
                 GROUP BY
                     rf.code
                 ORDER BY
-                    feedbacksCounter DESC
+                    feedbacksCounter DESC, rf.code
+                LIMIT :limit OFFSET :offset
             """, nativeQuery = true)
-    List<TopFeaturesDto> findRFWithFeedbackIds();
+    List<TopFeatureRow> findRFWithFeedbackIds(
+            @Param("limit") int limit,
+            @Param("offset") int offset,
+            @Param("maxIds") int maxIds);
 
     @Query(value = """
                 SELECT
                     rf.code as code,
-                    STRING_AGG(DISTINCT CAST(f.id AS TEXT), ',') as feedbackIds,
+                    (ARRAY_AGG(DISTINCT f.id ORDER BY f.id DESC))[1: CAST(:maxIds AS INT)] as feedbackIds,
                     COUNT(DISTINCT f.id) as feedbacksCounter
                 FROM
                     requested_features rf
                 JOIN
-                    feedbacks f ON rf.feedback_id = f.id
+                    feedbacks f ON rf.feedback_id = f.id AND rf.created_at = f.created_at
                 WHERE
                     f.created_at BETWEEN :startDate AND :endDate
+                    AND rf.created_at BETWEEN :startDate AND :endDate
                 GROUP BY
                     rf.code
                 ORDER BY
-                    feedbacksCounter DESC
+                    feedbacksCounter DESC, rf.code
+                LIMIT :limit OFFSET :offset
+            """, nativeQuery = true)
+    List<TopFeatureRow> findRFWithFeedbackIdsForDateRange(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("limit") int limit,
+            @Param("offset") int offset,
+            @Param("maxIds") int maxIds);
+
+    @Query(value = """
+                SELECT
+                    c.code as code,
+                    ARRAY(
+                        SELECT DISTINCT rf.feedback_id
+                        FROM requested_features rf
+                        WHERE rf.code = c.code
+                        ORDER BY rf.feedback_id DESC
+                        LIMIT :maxIds
+                    ) as feedbackIds
+                FROM
+                    UNNEST(CAST(:codes AS VARCHAR[])) AS c(code)
+            """, nativeQuery = true)
+    List<FeatureIdsRow> findFeedbackIdsByCodes(
+            @Param("codes") String[] codes,
+            @Param("maxIds") int maxIds);
+
+    @Query(value = """
+                SELECT
+                    c.code as code,
+                    ARRAY(
+                        SELECT DISTINCT rf.feedback_id
+                        FROM requested_features rf
+                        JOIN feedbacks f ON rf.feedback_id = f.id AND rf.created_at = f.created_at
+                        WHERE rf.code = c.code
+                            AND f.created_at BETWEEN :startDate AND :endDate
+                            AND rf.created_at BETWEEN :startDate AND :endDate
+                        ORDER BY rf.feedback_id DESC
+                        LIMIT :maxIds
+                    ) as feedbackIds
+                FROM
+                    UNNEST(CAST(:codes AS VARCHAR[])) AS c(code)
             """, nativeQuery = true)
-    List<TopFeaturesDto> findRFWithFeedbackIdsForDateRange(
+    List<FeatureIdsRow> findFeedbackIdsByCodesForDateRange(
+            @Param("codes") String[] codes,
             @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+            @Param("endDate") LocalDateTime endDate,
+            @Param("maxIds") int maxIds);
+}
@@ -0,0 +1,11 @@
+package com.alura.alumind.repository;
+
+import com.alura.alumind.model.WeeklyReportEmail;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface WeeklyReportEmailRepository extends JpaRepository<WeeklyReportEmail, LocalDate> {
+}
@@ -0,0 +1,40 @@
+package com.alura.alumind.scheduler;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.alura.alumind.repository.FeedbackPartitionManager;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Scheduler for the maintenance of the monthly feedback partitions
+ * 
+ * Creates the partitions of the coming months before feedback reaches them and
+ * moves the partitions past the retention window to the archive tables. It runs
+ * before the rollup rebuild, which then leaves the archived days untouched.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PartitionMaintenanceScheduler {
+
+    private final FeedbackPartitionManager partitionManager;
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Create upcoming partitions and archive expired ones
+     * 
+     * Runs on the cron configured by alumind.partitions.maintenance-cron (default: every day at 2:30 AM).
+     */
+    @Scheduled(cron = "${alumind.partitions.maintenance-cron:0 30 2 * * *}")
+    public void maintainPartitions() {
+        try {
+            partitionManager.maintain();
+        } catch (Exception e) {
+            log.error("Error maintaining feedback partitions", e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.alura.alumind.scheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.alura.alumind.service.FeedbackIngestionService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Scheduler for retrying the analysis of feedbacks left PENDING
+ * 
+ * With asynchronous ingestion, a feedback stays PENDING when its analysis
+ * fails for a reason other than spam or when the application stops before
+ * analyzing it. This job queues those feedbacks again on startup and then
+ * periodically.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PendingFeedbackScheduler {
+
+    private final FeedbackIngestionService ingestionService;
+
+    @Value("${alumind.feedback.async.retry-interval:PT5M}")
+    private Duration retryInterval;
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Queue every pending feedback on startup
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void requeueOnStartup() {
+        try {
+            ingestionService.requeuePending(LocalDateTime.now());
+        } catch (Exception e) {
+            log.error("Error queueing pending feedbacks", e);
+        }
+    }
+
+    /**
+     * Queue the feedbacks pending for longer than alumind.feedback.async.retry-interval
+     *
+     * Runs every alumind.feedback.async.retry-interval (default: 5 minutes).
+     */
+    @Scheduled(fixedDelayString = "${alumind.feedback.async.retry-interval:PT5M}",
+            initialDelayString = "${alumind.feedback.async.retry-interval:PT5M}")
+    public void retryPending() {
+        try {
+            ingestionService.requeuePending(LocalDateTime.now().minus(retryInterval));
+        } catch (Exception e) {
+            log.error("Error retrying pending feedbacks", e);
+        }
+    }
+}
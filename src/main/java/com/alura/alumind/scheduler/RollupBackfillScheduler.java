@@ -0,0 +1,64 @@
+package com.alura.alumind.scheduler;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.alura.alumind.service.ReportRollupService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Scheduler for rebuilding the daily report rollups
+ * 
+ * The rollups are maintained incrementally as feedback is analyzed; this job
+ * fills them for existing data on startup and periodically rebuilds them from
+ * the feedbacks table to correct any drift.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RollupBackfillScheduler {
+
+    private final ReportRollupService reportRollupService;
+
+    @Value("${alumind.rollup.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Backfill the rollups on startup when they are still empty
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!backfillOnStartup) {
+            return;
+        }
+
+        try {
+            if (reportRollupService.isEmpty()) {
+                reportRollupService.rebuild();
+            }
+        } catch (Exception e) {
+            log.error("Error backfilling report rollups", e);
+        }
+    }
+
+    /**
+     * Rebuild the rollups from the feedbacks table
+     * 
+     * Runs on the cron configured by alumind.rollup.rebuild-cron (default: every day at 3:00 AM).
+     */
+    @Scheduled(cron = "${alumind.rollup.rebuild-cron:0 0 3 * * *}")
+    public void rebuildRollups() {
+        try {
+            reportRollupService.rebuild();
+        } catch (Exception e) {
+            log.error("Error rebuilding report rollups", e);
+        }
+    }
+}
@@ -3,18 +3,12 @@ package com.alura.alumind.scheduler;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import com.alura.alumind.dto.ReportResponse;
-import com.alura.alumind.service.EmailService;
-import com.alura.alumind.service.LLMService;
-import com.alura.alumind.service.ReportService;
-import com.alura.alumind.utils.LLMPrompts;
+import com.alura.alumind.service.WeeklyReportService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import java.time.LocalDateTime;
-import java.time.DayOfWeek;
-import java.time.LocalTime;
+import java.time.LocalDate;
 
 /**
  * Scheduler for generating and sending weekly feedback reports
@@ -28,9 +22,7 @@ import java.time.LocalTime;
 @Slf4j
 public class WeeklyReportScheduler {
 
-    private final ReportService reportService;
-    private final LLMService llmService;
-    private final EmailService emailService;
+    private final WeeklyReportService weeklyReportService;
 
     /// ======= Public methods ======= ///
 
@@ -41,49 +33,16 @@ public class WeeklyReportScheduler {
      * It generates a report for the past week (Monday to Sunday),
      * formats it as an HTML email, and sends it to configured recipients.
      * 
-     * The email content is generated using an LLM for better formatting
-     * and human-readable analysis.
+     * The email HTML is rendered from a template, with a summary paragraph
+     * written by the LLM, and reused while the report data is unchanged.
      */
     @Scheduled(cron = "0 0 8 * * SUN") // Every Sunday at 8:00 AM
     public void sendWeeklyReport() {
         try {
-            LocalDateTime startOfWeek = LocalDateTime.now().with(DayOfWeek.MONDAY).with(LocalTime.MIN);
-            LocalDateTime endOfWeek = LocalDateTime.now().with(DayOfWeek.SUNDAY).with(LocalTime.MAX);
-            ReportResponse reportData = reportService.generateWeeklyReport(startOfWeek, endOfWeek);
-            String reportPeriod = startOfWeek.toLocalDate() + " - " + endOfWeek.toLocalDate();
-
-            String emailContent = generateEmailContent(reportData, reportPeriod);
-
-            String subject = "AluMind - Relatório Semanal de Feedbacks (" + reportPeriod + ")" ;
-            emailService.sendEmail(subject, emailContent);
-
+            weeklyReportService.sendWeeklyReport(LocalDate.now());
             log.info("Weekly report sent successfully");
         } catch (Exception e) {
             log.error("Error sending weekly report email", e);
         }
     }
-
-    /// ======= Private methods ======= ///
-
-        /**
-     * Generate formatted HTML email content for the weekly report
-     * 
-     * Uses an LLM to create a well-formatted and HTML email
-     * from the raw report data. 
-     * 
-     * @param reportData The report data to include in the email
-     * @param reportPeriod The period covered by the report
-     * @return HTML-formatted email content
-     */
-    private String generateEmailContent(ReportResponse reportData, String reportPeriod) {
-        String prompt = String.format(
-                LLMPrompts.WEEKLY_REPORT_PROMPT,
-                reportPeriod,
-                reportData.getStatistics().getTotalFeedbacks(),
-                reportData.getStatistics().getPercentPositive(),
-                reportData.getStatistics().getPercentNegative(),
-                reportData.getTopFeatures());
-
-        return llmService.sendPrompt(prompt);
-    }
-}
\ No newline at end of file
+}
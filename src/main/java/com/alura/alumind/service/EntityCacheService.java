@@ -0,0 +1,78 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.EntityCacheStatsResponse;
+import com.alura.alumind.dto.EntityCacheStatsResponse.RegionStatsDto;
+import com.alura.alumind.model.CacheRegions;
+import com.alura.alumind.repository.EntityCacheConfigurer;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Service for inspecting the Hibernate second-level cache
+ * 
+ * Hit, miss and put counters come from the Hibernate statistics, enabled with
+ * hibernate.generate_statistics (HIBERNATE_STATISTICS=true), and stay at 0
+ * otherwise; region sizes come from the Caffeine caches.
+ */
+@Service
+@RequiredArgsConstructor
+public class EntityCacheService {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityCacheConfigurer entityCacheConfigurer;
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Check whether an entity is currently held in the second-level cache
+     * 
+     * @param entityClass The entity class
+     * @param id The entity id
+     * @return true if the entity can be loaded without querying the database
+     */
+    public boolean isCached(Class<?> entityClass, Object id) {
+        return entityManagerFactory.getCache().contains(entityClass, id);
+    }
+
+    /**
+     * Get size, hit, miss and put counters of every entity cache region
+     * 
+     * @return The current entity cache statistics
+     */
+    public EntityCacheStatsResponse getStats() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Statistics statistics = sessionFactory.getStatistics();
+        boolean enabled = sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled();
+
+        List<RegionStatsDto> regions = CacheRegions.ALL.stream()
+                .map(region -> toRegionStats(region, enabled ? statistics.getDomainDataRegionStatistics(region) : null))
+                .toList();
+
+        return EntityCacheStatsResponse.builder()
+                .enabled(enabled)
+                .regions(regions)
+                .build();
+    }
+
+    /// ======= Private methods ======= ///
+
+    private RegionStatsDto toRegionStats(String region, CacheRegionStatistics regionStatistics) {
+        long hits = regionStatistics != null ? regionStatistics.getHitCount() : 0;
+        long misses = regionStatistics != null ? regionStatistics.getMissCount() : 0;
+
+        return RegionStatsDto.builder()
+                .region(region)
+                .size(entityCacheConfigurer.estimatedSize(region))
+                .hits(hits)
+                .misses(misses)
+                .puts(regionStatistics != null ? regionStatistics.getPutCount() : 0)
+                .hitRate(hits + misses > 0 ? (double) hits / (hits + misses) : 0)
+                .build();
+    }
+}
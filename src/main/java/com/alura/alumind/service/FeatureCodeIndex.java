@@ -0,0 +1,313 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.model.FeatureCodeAlias;
+import com.alura.alumind.repository.FeatureCodeAliasRepository;
+import com.alura.alumind.repository.RequestedFeaturesRepository;
+import com.alura.alumind.repository.RequestedFeaturesRepository.CodeCount;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory canonicalization index for the feature codes invented by the LLM
+ * 
+ * The model names the same request in slightly different ways (EDITAR_PERFIL,
+ * EDITAR_PERFIL_USUARIO, editar perfil...), which splits one feature into many
+ * groups in the reports. Every code is normalized (uppercase, no accents,
+ * underscores) and compared with the known canonical codes; a code at least
+ * alumind.features.canonical.similarity-threshold similar to a canonical code
+ * becomes its alias, otherwise it becomes a new canonical code.
+ * 
+ * Similarity is the larger of the Dice coefficient over character trigrams
+ * (spelling variants) and the word containment ratio (one code of three or
+ * more words extending the other). Candidates are looked up through a trigram
+ * inverted index.
+ * 
+ * Codes are never merged when they start with different words (usually the
+ * verb, as in ATIVAR_X and DESATIVAR_X), when one is negated and the other is
+ * not (NAO_, SEM_, REMOVER_, DES...), or when a word of one has no spelling
+ * variant in the other, however close their trigrams are.
+ * 
+ * Aliases are persisted in the feature_code_aliases table. On startup the
+ * existing codes are clustered, most used first. Requested features stored
+ * under an alias are only rewritten to the canonical code when
+ * alumind.features.canonical.rename-on-startup is enabled, since the rewrite
+ * cannot be undone.
+ */
+@Service
+@Slf4j
+public class FeatureCodeIndex {
+
+    private static final Set<String> STOP_WORDS = Set.of("DE", "DA", "DO", "DAS", "DOS", "E", "A", "O", "EM", "NO", "NA", "PARA", "COM");
+    private static final Set<String> NEGATIONS = Set.of("NAO", "SEM", "NUNCA", "REMOVER", "RETIRAR", "EXCLUIR",
+            "DESATIVAR", "DESATIVADO", "DESABILITAR", "DESABILITADO", "DESLIGAR", "DESLIGADO");
+    private static final String NEGATING_PREFIX = "DES";
+    private static final double WORD_SIMILARITY = 0.6;
+
+    private final FeatureCodeAliasRepository aliasRepository;
+    private final RequestedFeaturesRepository requestedFeaturesRepository;
+    private final ReportRollupService reportRollupService;
+    private final double similarityThreshold;
+    private final int promptCodes;
+    private final boolean renameOnStartup;
+
+    private final Map<String, String> aliases = new HashMap<>();
+    private final Map<String, Long> canonicalCounts = new HashMap<>();
+    private final Map<String, Set<String>> trigramIndex = new HashMap<>();
+
+    public FeatureCodeIndex(
+            FeatureCodeAliasRepository aliasRepository,
+            RequestedFeaturesRepository requestedFeaturesRepository,
+            ReportRollupService reportRollupService,
+            @Value("${alumind.features.canonical.similarity-threshold:0.8}") double similarityThreshold,
+            @Value("${alumind.features.canonical.prompt-codes:30}") int promptCodes,
+            @Value("${alumind.features.canonical.rename-on-startup:false}") boolean renameOnStartup) {
+        this.aliasRepository = aliasRepository;
+        this.requestedFeaturesRepository = requestedFeaturesRepository;
+        this.reportRollupService = reportRollupService;
+        this.similarityThreshold = similarityThreshold;
+        this.promptCodes = promptCodes;
+        this.renameOnStartup = renameOnStartup;
+    }
+
+    /// ======= Lifecycle ======= ///
+
+    /**
+     * Load the persisted aliases and cluster the codes already stored
+     * 
+     * Persisted aliases the merge rules no longer allow are deleted. With
+     * alumind.features.canonical.rename-on-startup, requested features stored
+     * under a code that turns out to be an alias are renamed to its canonical
+     * code, and the report rollups are rebuilt.
+     */
+    @PostConstruct
+    void load() {
+        for (FeatureCodeAlias alias : aliasRepository.findAll()) {
+            if (mergeable(alias.getAlias(), alias.getCanonicalCode())) {
+                aliases.put(alias.getAlias(), alias.getCanonicalCode());
+            } else {
+                aliasRepository.delete(alias);
+                log.info("Feature code alias {} -> {} dropped, the codes are not mergeable", alias.getAlias(), alias.getCanonicalCode());
+            }
+        }
+
+        Map<String, String> renames = new HashMap<>();
+        for (CodeCount codeCount : requestedFeaturesRepository.countByCode()) {
+            String canonical = resolve(codeCount.getCode(), codeCount.getTotal());
+            if (!canonical.equals(codeCount.getCode())) {
+                renames.put(codeCount.getCode(), canonical);
+            }
+        }
+
+        if (!renames.isEmpty() && !renameOnStartup) {
+            log.info("Feature codes canonicalized: {} codes are aliases, requested features left under their original code", renames.size());
+        } else if (!renames.isEmpty()) {
+            int renamed = renames.entrySet().stream()
+                    .mapToInt(rename -> requestedFeaturesRepository.renameCode(rename.getKey(), rename.getValue()))
+                    .sum();
+            reportRollupService.rebuild();
+            log.info("Feature codes canonicalized: {} codes merged, {} requested features renamed", renames.size(), renamed);
+        }
+        log.info("Feature code index loaded: {} canonical codes, {} aliases", canonicalCounts.size(), aliases.size());
+    }
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Get the canonical code for a feature code returned by the LLM
+     * 
+     * Unknown codes are either recorded as an alias of a similar canonical code
+     * or registered as a new canonical code.
+     * 
+     * @param code The feature code returned by the LLM
+     * @return The canonical code
+     */
+    public String canonicalize(String code) {
+        return resolve(code, 1);
+    }
+
+    /**
+     * List the most used canonical codes, to be offered to the LLM for reuse
+     * 
+     * @return Up to alumind.features.canonical.prompt-codes codes, most used first
+     */
+    public synchronized List<String> getTopCodes() {
+        return canonicalCounts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(promptCodes)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /// ======= Private methods ======= ///
+
+    /**
+     * Find or assign the canonical code of a code, counting its usages
+     * 
+     * @param code The raw feature code
+     * @param usages The number of usages to add to the canonical code
+     * @return The canonical code
+     */
+    private synchronized String resolve(String code, long usages) {
+        String normalized = normalize(code);
+        if (normalized.isEmpty()) {
+            return code;
+        }
+
+        String canonical = aliases.get(normalized);
+        if (canonical == null && !canonicalCounts.containsKey(normalized)) {
+            canonical = findSimilar(normalized);
+        }
+        if (canonical == null) {
+            canonical = normalized;
+            canonicalCounts.putIfAbsent(canonical, 0L);
+            trigrams(canonical).forEach(trigram -> trigramIndex.computeIfAbsent(trigram, key -> new HashSet<>()).add(normalized));
+        }
+
+        canonicalCounts.merge(canonical, usages, Long::sum);
+        return canonical;
+    }
+
+    /**
+     * Look for a canonical code similar enough to a new code and record the alias
+     * 
+     * @param normalized The normalized new code
+     * @return The matching canonical code, or null if none reaches the threshold
+     */
+    private String findSimilar(String normalized) {
+        Set<String> candidates = new HashSet<>();
+        trigrams(normalized).forEach(trigram -> candidates.addAll(trigramIndex.getOrDefault(trigram, Set.of())));
+
+        String best = null;
+        double bestSimilarity = 0;
+        for (String candidate : candidates.stream().sorted(Comparator.comparing(canonicalCounts::get).reversed()).toList()) {
+            double similarity = similarity(normalized, candidate);
+            if (similarity > bestSimilarity) {
+                best = candidate;
+                bestSimilarity = similarity;
+            }
+        }
+
+        if (best == null || bestSimilarity < similarityThreshold) {
+            return null;
+        }
+
+        aliases.put(normalized, best);
+        aliasRepository.save(FeatureCodeAlias.builder()
+                .alias(normalized)
+                .canonicalCode(best)
+                .similarity(bestSimilarity)
+                .createdAt(LocalDateTime.now())
+                .build());
+        log.info("Feature code {} mapped to {} (similarity {})", normalized, best, String.format(Locale.ROOT, "%.2f", bestSimilarity));
+        return best;
+    }
+
+    /**
+     * Compute the similarity between two normalized codes
+     * 
+     * @return The larger of the trigram Dice coefficient and the word containment
+     *         ratio, or 0 if the codes are not mergeable
+     */
+    double similarity(String first, String second) {
+        if (!mergeable(first, second)) {
+            return 0;
+        }
+        double dice = dice(trigrams(first), trigrams(second));
+
+        Set<String> firstWords = words(first);
+        Set<String> secondWords = words(second);
+        int smaller = Math.min(firstWords.size(), secondWords.size());
+        double containment = 0;
+        if (smaller >= 3) {
+            Set<String> sharedWords = new HashSet<>(firstWords);
+            sharedWords.retainAll(secondWords);
+            containment = (double) sharedWords.size() / smaller;
+        }
+
+        return Math.max(dice, containment);
+    }
+
+    /**
+     * Check whether two normalized codes may name the same feature
+     * 
+     * @return false if they start with different words, only one of them is
+     *         negated, or a word of the code with fewer words has no spelling
+     *         variant in the other; codes with a different number of words are
+     *         only mergeable from three words on
+     */
+    private boolean mergeable(String first, String second) {
+        List<String> firstWords = List.copyOf(words(first));
+        List<String> secondWords = List.copyOf(words(second));
+        if (firstWords.isEmpty() || secondWords.isEmpty() || !firstWords.get(0).equals(secondWords.get(0))) {
+            return false;
+        }
+        if (negated(firstWords, secondWords) != negated(secondWords, firstWords)) {
+            return false;
+        }
+
+        List<String> fewer = firstWords.size() <= secondWords.size() ? firstWords : secondWords;
+        List<String> more = fewer == firstWords ? secondWords : firstWords;
+        if (fewer.size() != more.size() && fewer.size() < 3) {
+            return false;
+        }
+        return fewer.stream().allMatch(word -> more.stream()
+                .anyMatch(other -> other.equals(word) || dice(trigrams(word), trigrams(other)) >= WORD_SIMILARITY));
+    }
+
+    /**
+     * Check whether a code is negated, either by a negation word or by a word
+     * that is the negating prefix DES followed by a word of the other code
+     */
+    private boolean negated(List<String> words, List<String> otherWords) {
+        return words.stream().anyMatch(word -> NEGATIONS.contains(word)
+                || (word.startsWith(NEGATING_PREFIX) && otherWords.contains(word.substring(NEGATING_PREFIX.length()))));
+    }
+
+    private double dice(Set<String> firstTrigrams, Set<String> secondTrigrams) {
+        Set<String> sharedTrigrams = new HashSet<>(firstTrigrams);
+        sharedTrigrams.retainAll(secondTrigrams);
+        return 2.0 * sharedTrigrams.size() / (firstTrigrams.size() + secondTrigrams.size());
+    }
+
+    /**
+     * Normalize a code to UPPERCASE_WITH_UNDERSCORES without accents
+     */
+    private String normalize(String code) {
+        if (code == null) {
+            return "";
+        }
+        String withoutAccents = Normalizer.normalize(code, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return withoutAccents.toUpperCase(Locale.ROOT)
+                .replaceAll("[^A-Z0-9]+", "_")
+                .replaceAll("^_+|_+$", "");
+    }
+
+    private Set<String> words(String normalized) {
+        return java.util.Arrays.stream(normalized.split("_"))
+                .filter(word -> !word.isEmpty() && !STOP_WORDS.contains(word))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private Set<String> trigrams(String normalized) {
+        String padded = "#" + normalized + "#";
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+}
@@ -0,0 +1,241 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.FeedbackAnalysis;
+import com.alura.alumind.dto.FeedbackRequest;
+import com.alura.alumind.model.Feedback;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service for bulk feedback import from NDJSON
+ * 
+ * The input is read one line at a time; each line is a JSON object in the
+ * same format as POST /feedbacks. At most alumind.feedback.bulk.concurrency
+ * lines are analyzed at once, and analyzed feedbacks are persisted in groups
+ * of alumind.feedback.bulk.batch-size, so memory use does not depend on the
+ * size of the input. One NDJSON result line is written per input line as
+ * soon as its outcome is known.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FeedbackBulkImportService {
+
+    private static final int MAX_CONTENT_LENGTH = 2000;
+
+    private final FeedbackService feedbackService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${alumind.feedback.bulk.concurrency:4}")
+    private int concurrency;
+
+    @Value("${alumind.feedback.bulk.batch-size:50}")
+    private int batchSize;
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Import the feedbacks of an NDJSON stream
+     * 
+     * Each result line has the input line number and a status: ANALYZED (with the
+     * id and sentiment), REJECTED (spam) or ERROR (invalid line or analysis failure).
+     * 
+     * @param input The NDJSON request body
+     * @param output The stream receiving the NDJSON results
+     * @throws IOException if reading the input or writing the results fails
+     */
+    public void importNdjson(InputStream input, OutputStream output) throws IOException {
+        ExecutorService analyzers = Executors.newFixedThreadPool(Math.max(1, concurrency));
+        Semaphore inFlight = new Semaphore(Math.max(1, concurrency));
+        BlockingQueue<LineResult> completed = new LinkedBlockingQueue<>();
+        List<LineResult> toPersist = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                inFlight.acquireUninterruptibly();
+                long currentLine = lineNumber;
+                String currentContent = line;
+                analyzers.execute(() -> {
+                    try {
+                        completed.add(analyzeLine(currentLine, currentContent));
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+
+                drain(completed, toPersist, output);
+            }
+
+            analyzers.shutdown();
+            awaitTermination(analyzers);
+            drain(completed, toPersist, output);
+            persist(toPersist, output);
+        } finally {
+            analyzers.shutdownNow();
+        }
+    }
+
+    /// ======= Private methods ======= ///
+
+    /**
+     * Parse, validate and analyze a single NDJSON line
+     * 
+     * @param lineNumber The 1-based line number in the input
+     * @param line The raw line
+     * @return The outcome of the line
+     */
+    private LineResult analyzeLine(long lineNumber, String line) {
+        String content;
+        try {
+            content = objectMapper.readValue(line, FeedbackRequest.class).getFeedback();
+        } catch (IOException e) {
+            return LineResult.error(lineNumber, "Invalid JSON line");
+        }
+
+        if (content == null || content.isBlank()) {
+            return LineResult.error(lineNumber, "Feedback content cannot be blank");
+        }
+        if (content.length() > MAX_CONTENT_LENGTH) {
+            return LineResult.error(lineNumber, "Feedback content cannot exceed 2000 characters");
+        }
+
+        try {
+            FeedbackAnalysis analysis = feedbackService.analyzeContent(content);
+            return LineResult.analyzed(lineNumber, feedbackService.buildAnalyzedFeedback(content, analysis));
+        } catch (SpamDetectedException e) {
+            return LineResult.rejected(lineNumber, e.getMessage());
+        } catch (Exception e) {
+            log.warn("Bulk import line {} failed: {}", lineNumber, e.getMessage());
+            return LineResult.error(lineNumber, "Analysis failed");
+        }
+    }
+
+    /**
+     * Write the outcome of finished lines, persisting analyzed ones once a batch is full
+     * 
+     * @param completed The lines finished by the analyzers
+     * @param toPersist The analyzed lines waiting to be persisted
+     * @param output The stream receiving the NDJSON results
+     * @throws IOException if writing the results fails
+     */
+    private void drain(BlockingQueue<LineResult> completed, List<LineResult> toPersist, OutputStream output)
+            throws IOException {
+        LineResult result;
+        while ((result = completed.poll()) != null) {
+            if (result.feedback() != null) {
+                toPersist.add(result);
+                if (toPersist.size() >= batchSize) {
+                    persist(toPersist, output);
+                }
+            } else {
+                write(output, result.toJson(null));
+            }
+        }
+        output.flush();
+    }
+
+    /**
+     * Persist the pending analyzed lines as one batch and write their results
+     * 
+     * @param toPersist The analyzed lines waiting to be persisted, cleared afterwards
+     * @param output The stream receiving the NDJSON results
+     * @throws IOException if writing the results fails
+     */
+    private void persist(List<LineResult> toPersist, OutputStream output) throws IOException {
+        if (toPersist.isEmpty()) {
+            return;
+        }
+
+        List<Feedback> saved;
+        try {
+            saved = feedbackService.saveAnalyzedFeedbacks(toPersist.stream().map(LineResult::feedback).toList());
+        } catch (Exception e) {
+            log.error("Error persisting bulk import batch of {} feedbacks", toPersist.size(), e);
+            for (LineResult result : toPersist) {
+                write(output, LineResult.error(result.lineNumber(), "Persistence failed").toJson(null));
+            }
+            toPersist.clear();
+            return;
+        }
+
+        for (int i = 0; i < toPersist.size(); i++) {
+            write(output, toPersist.get(i).toJson(saved.get(i)));
+        }
+        toPersist.clear();
+        output.flush();
+    }
+
+    private void write(OutputStream output, Map<String, Object> result) throws IOException {
+        output.write(objectMapper.writeValueAsBytes(result));
+        output.write('\n');
+    }
+
+    private void awaitTermination(ExecutorService analyzers) {
+        try {
+            while (!analyzers.awaitTermination(1, TimeUnit.SECONDS)) {
+                log.debug("Waiting for bulk import analyzers to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Outcome of one input line; feedback is only set for analyzed lines
+     */
+    private record LineResult(long lineNumber, String status, Feedback feedback, String error) {
+
+        static LineResult analyzed(long lineNumber, Feedback feedback) {
+            return new LineResult(lineNumber, Feedback.FeedbackStatus.ANALYZED.name(), feedback, null);
+        }
+
+        static LineResult rejected(long lineNumber, String error) {
+            return new LineResult(lineNumber, Feedback.FeedbackStatus.REJECTED.name(), null, error);
+        }
+
+        static LineResult error(long lineNumber, String error) {
+            return new LineResult(lineNumber, "ERROR", null, error);
+        }
+
+        Map<String, Object> toJson(Feedback saved) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("line", lineNumber);
+            json.put("status", status);
+            if (saved != null) {
+                json.put("id", saved.getId());
+                json.put("sentiment", saved.getSentiment().name());
+            }
+            if (error != null) {
+                json.put("error", error);
+            }
+            return json;
+        }
+    }
+}
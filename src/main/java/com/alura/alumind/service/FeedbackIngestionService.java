@@ -0,0 +1,291 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.FeedbackAnalysis;
+import com.alura.alumind.dto.FeedbackRequest;
+import com.alura.alumind.dto.FeedbackResponse.FeedbackShortDto;
+import com.alura.alumind.dto.PipelineStatsResponse;
+import com.alura.alumind.dto.PipelineStatsResponse.StageStatsDto;
+import com.alura.alumind.repository.FeedbackRepository.FeedbackRow;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service for asynchronous feedback ingestion
+ * 
+ * When enabled, submitted feedback is stored as PENDING and analyzed later by a
+ * bounded in-process worker pool, so request threads are not held during the
+ * LLM round trips. Each worker runs the spam check and analysis and then marks
+ * the feedback as ANALYZED, or REJECTED when it is classified as spam. A
+ * feedback whose analysis fails for any other reason, such as an LLM timeout
+ * or a database error, stays PENDING and is queued again by
+ * {@link #requeuePending(LocalDateTime)}, as are the feedbacks still queued
+ * when the application stopped.
+ * 
+ * The pool is configured through the alumind.feedback.async.* properties and
+ * its queue depth, worker usage and per-stage latency are exposed by {@link #getStats()}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FeedbackIngestionService {
+
+    private static final String STAGE_QUEUE = "queue";
+    private static final String STAGE_ANALYSIS = "analysis";
+    private static final String STAGE_PERSIST = "persist";
+
+    private final FeedbackService feedbackService;
+
+    @Value("${alumind.feedback.async.enabled:false}")
+    private boolean enabled;
+
+    @Value("${alumind.feedback.async.workers:4}")
+    private int workers;
+
+    @Value("${alumind.feedback.async.queue-capacity:100}")
+    private int queueCapacity;
+
+    private final Map<String, StageTimer> stages = new LinkedHashMap<>();
+    private final LongAdder analyzed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor executor;
+
+    /// ======= Lifecycle ======= ///
+
+    @PostConstruct
+    void start() {
+        stages.put(STAGE_QUEUE, new StageTimer());
+        stages.put(STAGE_ANALYSIS, new StageTimer());
+        stages.put(STAGE_PERSIST, new StageTimer());
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "feedback-worker-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Feedback workers did not finish in time, {} feedbacks left pending until the next startup",
+                    executor.getQueue().size());
+            executor.shutdownNow();
+        }
+    }
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Check whether asynchronous ingestion is enabled
+     * 
+     * @return true if POST /feedbacks should be handled asynchronously
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Store the feedback as PENDING and queue it for analysis
+     * 
+     * @param request The feedback request containing user feedback text
+     * @return A DTO with the id and PENDING status of the stored feedback
+     * @throws ResponseStatusException with status 503 if the queue is full
+     */
+    public FeedbackShortDto submit(FeedbackRequest request) {
+        FeedbackShortDto pending = feedbackService.createPendingFeedback(request);
+
+        try {
+            enqueue(pending.getId(), request.getFeedback());
+        } catch (RejectedExecutionException e) {
+            log.warn("Feedback queue is full ({} items), discarding feedback {}", queueCapacity, pending.getId());
+            feedbackService.discardPendingFeedback(pending.getId());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Feedback queue is full, try again later");
+        }
+
+        return pending;
+    }
+
+    /**
+     * Queue the feedbacks left PENDING for another analysis attempt
+     * 
+     * The oldest pending feedbacks are queued up to the free queue capacity;
+     * feedbacks already queued by this instance are skipped.
+     * 
+     * @param before Only feedbacks created before this time are queued
+     * @return The number of feedbacks queued
+     */
+    public int requeuePending(LocalDateTime before) {
+        int free = executor.getQueue().remainingCapacity();
+        if (!enabled || free == 0) {
+            return 0;
+        }
+
+        int requeued = 0;
+        for (FeedbackRow row : feedbackService.findPendingFeedbacks(before, free + queued.size())) {
+            if (requeued == free) {
+                break;
+            }
+            try {
+                if (enqueue(row.getId(), row.getContent())) {
+                    requeued++;
+                }
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+
+        if (requeued > 0) {
+            log.info("{} pending feedbacks queued again for analysis", requeued);
+        }
+        return requeued;
+    }
+
+    /**
+     * Get a snapshot of the worker pool and per-stage latency
+     * 
+     * @return The current pipeline statistics
+     */
+    public PipelineStatsResponse getStats() {
+        Map<String, StageStatsDto> stageStats = new LinkedHashMap<>();
+        stages.forEach((name, timer) -> stageStats.put(name, timer.snapshot()));
+
+        return PipelineStatsResponse.builder()
+                .enabled(enabled)
+                .workers(workers)
+                .activeWorkers(executor.getActiveCount())
+                .queueDepth(executor.getQueue().size())
+                .queueCapacity(queueCapacity)
+                .analyzed(analyzed.sum())
+                .rejected(rejected.sum())
+                .failed(failed.sum())
+                .stages(stageStats)
+                .build();
+    }
+
+    /// ======= Private methods ======= ///
+
+    /**
+     * Queue a pending feedback for analysis unless it is already queued
+     * 
+     * @param id The unique identifier of the pending feedback
+     * @param content The feedback content to analyze
+     * @return true if the feedback was queued, false if it already was
+     * @throws RejectedExecutionException if the queue is full
+     */
+    private boolean enqueue(Long id, String content) {
+        if (!queued.add(id)) {
+            return false;
+        }
+
+        long enqueuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> process(id, content, enqueuedAt));
+            return true;
+        } catch (RejectedExecutionException e) {
+            queued.remove(id);
+            throw e;
+        }
+    }
+
+    /**
+     * Analyze a queued feedback and persist the outcome
+     * 
+     * Only a spam verdict marks the feedback as REJECTED; on any other failure,
+     * including a spam check that could not reach the LLM or parse its answer,
+     * it stays PENDING to be queued again.
+     * 
+     * @param id The unique identifier of the pending feedback
+     * @param content The feedback content to analyze
+     * @param enqueuedAt The System.nanoTime() at which the feedback was queued
+     */
+    private void process(Long id, String content, long enqueuedAt) {
+        stages.get(STAGE_QUEUE).record(enqueuedAt);
+
+        try {
+            FeedbackAnalysis analysis;
+            long analysisStart = System.nanoTime();
+            try {
+                analysis = feedbackService.analyzeContent(content);
+            } finally {
+                stages.get(STAGE_ANALYSIS).record(analysisStart);
+            }
+
+            long persistStart = System.nanoTime();
+            feedbackService.completePendingFeedback(id, analysis);
+            stages.get(STAGE_PERSIST).record(persistStart);
+            analyzed.increment();
+        } catch (SpamDetectedException e) {
+            log.warn("Feedback {} rejected: {}", id, e.getMessage());
+            rejectQuietly(id);
+        } catch (Exception e) {
+            log.warn("Feedback {} left pending after a failed analysis: {}", id, e.getMessage());
+            failed.increment();
+        } finally {
+            queued.remove(id);
+        }
+    }
+
+    /**
+     * Mark a feedback as REJECTED, logging instead of propagating failures
+     * 
+     * @param id The unique identifier of the pending feedback
+     */
+    private void rejectQuietly(Long id) {
+        try {
+            feedbackService.rejectPendingFeedback(id);
+            rejected.increment();
+        } catch (Exception e) {
+            log.error("Error rejecting feedback {}", id, e);
+        }
+    }
+
+    /**
+     * Lock-free latency accumulator for a single pipeline stage
+     */
+    private static class StageTimer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+        void record(long startNanos) {
+            long elapsed = System.nanoTime() - startNanos;
+            count.increment();
+            totalNanos.add(elapsed);
+            maxNanos.accumulate(elapsed);
+        }
+
+        StageStatsDto snapshot() {
+            long samples = count.sum();
+            return StageStatsDto.builder()
+                    .count(samples)
+                    .avgMillis(samples > 0 ? totalNanos.sum() / 1e6 / samples : 0)
+                    .maxMillis(maxNanos.get() / 1e6)
+                    .build();
+        }
+    }
+}
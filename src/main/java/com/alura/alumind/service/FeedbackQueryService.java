@@ -0,0 +1,176 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.FeedbackResponse.FeedbackFullDto;
+import com.alura.alumind.dto.FeedbackResponse.FeedbackPageDto;
+import com.alura.alumind.dto.FeedbackResponse.RequestedFeatures;
+import com.alura.alumind.model.Feedback.FeedbackStatus;
+import com.alura.alumind.model.Feedback.SentimentType;
+import com.alura.alumind.repository.FeedbackRepository;
+import com.alura.alumind.repository.FeedbackRepository.FeedbackRow;
+import com.alura.alumind.repository.RequestedFeaturesRepository;
+import com.alura.alumind.repository.RequestedFeaturesRepository.FeatureRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service for listing analyzed feedbacks page by page
+ * 
+ * Pages are ordered from the newest feedback to the oldest and use keyset
+ * pagination on (created_at, id): the cursor holds the position of the last
+ * feedback of the previous page, so every page is an index range scan that
+ * costs the same no matter how deep it is.
+ * 
+ * Rows are read through projections, and the requested features of a whole
+ * page are loaded in a single query instead of one lazy load per feedback.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FeedbackQueryService {
+
+    private static final LocalDateTime MIN_CREATED_AT = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_CREATED_AT = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final FeedbackRepository feedbackRepository;
+    private final RequestedFeaturesRepository requestedFeaturesRepository;
+
+    @Value("${alumind.feedback.list.default-limit:20}")
+    private int defaultLimit;
+
+    @Value("${alumind.feedback.list.max-limit:100}")
+    private int maxLimit;
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * List a page of analyzed feedbacks, newest first
+     * 
+     * @param sentiment Only feedbacks with this sentiment, or null for all
+     * @param from The first creation day (inclusive), or null for no lower bound
+     * @param to The last creation day (inclusive), or null for no upper bound
+     * @param featureCode Only feedbacks requesting this feature code, or null for all
+     * @param cursor The nextCursor of the previous page, or null for the first page
+     * @param limit The maximum number of feedbacks in the page, or null for the default
+     * @return The page of feedbacks and the cursor of the next page, null on the last page
+     * @throws IllegalArgumentException if a filter, the cursor or the limit is invalid
+     */
+    @Transactional(readOnly = true)
+    public FeedbackPageDto listFeedbacks(String sentiment, LocalDate from, LocalDate to, String featureCode,
+            String cursor, Integer limit) {
+        int pageSize = limit != null ? limit : defaultLimit;
+        if (pageSize < 1 || pageSize > maxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit);
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+
+        Set<SentimentType> sentiments = parseSentiments(sentiment);
+        LocalDateTime start = from != null ? from.atStartOfDay() : MIN_CREATED_AT;
+        LocalDateTime end = to != null ? to.plusDays(1).atStartOfDay() : MAX_CREATED_AT;
+        Cursor after = cursor != null ? Cursor.decode(cursor) : new Cursor(MAX_CREATED_AT, Long.MAX_VALUE);
+
+        // One extra row tells whether there is a next page
+        List<FeedbackRow> rows = featureCode == null || featureCode.isBlank()
+                ? feedbackRepository.findPage(sentiments, start, end, after.createdAt(), after.id(), pageSize + 1)
+                : feedbackRepository.findPageByFeatureCode(sentiments, start, end, after.createdAt(), after.id(),
+                        featureCode.strip(), pageSize + 1);
+
+        boolean hasNext = rows.size() > pageSize;
+        List<FeedbackRow> page = hasNext ? rows.subList(0, pageSize) : rows;
+        Map<Long, List<RequestedFeatures>> featuresByFeedback = loadFeatures(page);
+
+        List<FeedbackFullDto> feedbacks = page.stream()
+                .map(row -> FeedbackFullDto.builder()
+                        .id(row.getId())
+                        .content(row.getContent())
+                        .status(FeedbackStatus.ANALYZED.name())
+                        .sentiment(row.getSentiment().name())
+                        .createdAt(row.getCreatedAt().toString())
+                        .requestedFeatures(featuresByFeedback.getOrDefault(row.getId(), List.of()))
+                        .build())
+                .toList();
+
+        FeedbackRow last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return FeedbackPageDto.builder()
+                .feedbacks(feedbacks)
+                .nextCursor(hasNext ? new Cursor(last.getCreatedAt(), last.getId()).encode() : null)
+                .build();
+    }
+
+    /// ======= Private methods ======= ///
+
+    /**
+     * Load the requested features of a page of feedbacks in a single query
+     * 
+     * The query is bounded on the creation times of the page, newest first, so
+     * it only reads the partitions the page spans.
+     * 
+     * @param page The feedback rows of the page
+     * @return The requested features keyed by feedback id
+     */
+    private Map<Long, List<RequestedFeatures>> loadFeatures(List<FeedbackRow> page) {
+        if (page.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Long> ids = page.stream().map(FeedbackRow::getId).toList();
+        LocalDateTime newest = page.get(0).getCreatedAt();
+        LocalDateTime oldest = page.get(page.size() - 1).getCreatedAt();
+        Map<Long, List<RequestedFeatures>> featuresByFeedback = new HashMap<>();
+        for (FeatureRow feature : requestedFeaturesRepository.findByFeedbackIds(ids, oldest, newest)) {
+            featuresByFeedback.computeIfAbsent(feature.getFeedbackId(), id -> new ArrayList<>())
+                    .add(new RequestedFeatures(feature.getCode(), feature.getReason()));
+        }
+        return featuresByFeedback;
+    }
+
+    private Set<SentimentType> parseSentiments(String sentiment) {
+        if (sentiment == null || sentiment.isBlank()) {
+            return EnumSet.allOf(SentimentType.class);
+        }
+        try {
+            return EnumSet.of(SentimentType.valueOf(sentiment.strip().toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("sentiment must be one of POSITIVO, NEGATIVO or INCONCLUSIVO");
+        }
+    }
+
+    /**
+     * Position of the last feedback of a page, encoded as an opaque URL-safe token
+     */
+    private record Cursor(LocalDateTime createdAt, long id) {
+
+        String encode() {
+            String position = createdAt + "," + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token) {
+            try {
+                String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = position.lastIndexOf(',');
+                return new Cursor(LocalDateTime.parse(position.substring(0, separator)),
+                        Long.parseLong(position.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+}
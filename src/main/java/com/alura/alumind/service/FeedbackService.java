@@ -1,23 +1,31 @@
 package com.alura.alumind.service;
 
+import com.alura.alumind.dto.FeedbackAnalysis;
+import com.alura.alumind.dto.FeedbackAnalysis.Feature;
 import com.alura.alumind.dto.FeedbackRequest;
 import com.alura.alumind.dto.FeedbackResponse.FeedbackFullDto;
 import com.alura.alumind.dto.FeedbackResponse.FeedbackShortDto;
 import com.alura.alumind.dto.FeedbackResponse.RequestedFeatures;
+import com.alura.alumind.dto.SpamVerdict;
 import com.alura.alumind.model.Feedback;
 import com.alura.alumind.model.RequestedFeature;
 import com.alura.alumind.repository.FeedbackRepository;
-import com.alura.alumind.utils.LLMPrompts;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.alura.alumind.repository.FeedbackRepository.FeedbackRow;
+import com.alura.alumind.utils.LLMPrompts.PromptType;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service for handling user feedback processing and analysis
@@ -29,6 +37,14 @@ import java.util.List;
  * - Extracting feature requests from feedback
  * - Persisting feedback and analysis results
  * - Retrieving feedback information
+ * 
+ * The spam check and the analysis can run as two separate LLM calls (default)
+ * or as a single fused call, controlled by the property alumind.llm.fused-analysis.
+ * When the local cascade classifier is enabled, obvious spam and obvious sentiment
+ * are decided locally and only the remaining steps reach the LLM.
+ * 
+ * Rejected spam is counted in alumind.feedback.spam.rejected, tagged with the
+ * classifier that rejected it (local or llm).
  */
 @Service
 @RequiredArgsConstructor
@@ -36,7 +52,17 @@ import java.util.List;
 public class FeedbackService {
 
     private final FeedbackRepository feedbackRepository;
-    private final LLMService llmService;
+    private final LLMBatchService llmBatchService;
+    private final LocalFeedbackClassifier localClassifier;
+    private final ReportRollupService reportRollupService;
+    private final FeatureCodeIndex featureCodeIndex;
+    private final EntityCacheService entityCacheService;
+    private final MeterRegistry meterRegistry;
+
+    public static final String SPAM_REJECTED_METRIC = "alumind.feedback.spam.rejected";
+
+    @Value("${alumind.llm.fused-analysis:false}")
+    private boolean fusedAnalysis;
 
     /// ======= Public methods ======= ///
 
@@ -48,40 +74,224 @@ public class FeedbackService {
      * 2. Analyzes feedback sentiment using the LLM
      * 3. Extracts feature requests
      * 4. Saves the feedback and analysis results to the database
+     *    and adds them to the daily report rollups
+     * 
+     * In fused mode steps 1 to 3 are answered by a single LLM call.
      * 
      * @param request The feedback request containing user feedback text
      * @return A DTO with feedback analysis results
-     * @throws IllegalArgumentException if the content is classified as spam
+     * @throws SpamDetectedException if the content is classified as spam
      */
     @Transactional
     public FeedbackShortDto analyzeFeedback(FeedbackRequest request) {
         String content = request.getFeedback();
         validateContent(content);
-        checkSpam(content);
 
-        JsonNode LLMAnalysis = analyzeWithLLM(content);
-        Feedback feedback = buildFeedback(content, LLMAnalysis);
+        FeedbackAnalysis analysis = analyzeContent(content);
+        Feedback feedback = buildFeedback(content, analysis);
         Feedback saved = feedbackRepository.save(feedback);
+        reportRollupService.recordFeedback(saved);
 
         return toShortDto(saved);
     }
 
+    /**
+     * Run the spam check and the LLM analysis for a feedback content
+     * 
+     * The local classifier answers first; the LLM is only called for the steps it
+     * is not confident about. Depending on alumind.llm.fused-analysis the remaining
+     * work is either a single fused LLM call or a spam check followed by the analysis
+     * call. Nothing is persisted.
+     * 
+     * @param content The feedback content to analyze
+     * @return The sentiment and requested features
+     * @throws SpamDetectedException if the content is classified as spam
+     */
+    public FeedbackAnalysis analyzeContent(String content) {
+        Optional<Boolean> localSpamVerdict = localClassifier.classifySpam(content);
+        if (localSpamVerdict.orElse(false)) {
+            log.warn("Spam detected locally: {}", content);
+            meterRegistry.counter(SPAM_REJECTED_METRIC, "classifier", "local").increment();
+            throw new SpamDetectedException();
+        }
+
+        Optional<FeedbackAnalysis> localAnalysis = localClassifier.classifySentiment(content);
+        if (localSpamVerdict.isEmpty()) {
+            if (fusedAnalysis && localAnalysis.isEmpty()) {
+                return analyzeFusedWithLLM(content);
+            }
+            checkSpam(content);
+        }
+
+        return localAnalysis.orElseGet(() -> analyzeWithLLM(content));
+    }
+
+    /**
+     * Build an analyzed Feedback entity without persisting it
+     * 
+     * @param content The original feedback content
+     * @param analysis The analysis results returned by {@link #analyzeContent(String)}
+     * @return A Feedback entity ready to be persisted
+     */
+    public Feedback buildAnalyzedFeedback(String content, FeedbackAnalysis analysis) {
+        return buildFeedback(content, analysis);
+    }
+
+    /**
+     * Persist a batch of analyzed feedbacks in a single transaction
+     * 
+     * Ids come from pooled sequences, so Hibernate sends the inserts as JDBC batches.
+     * The feedbacks are also added to the report rollups with one upsert per rollup row.
+     * 
+     * @param feedbacks The analyzed feedbacks to persist
+     * @return The persisted feedbacks, with their ids
+     */
+    @Transactional
+    public List<Feedback> saveAnalyzedFeedbacks(List<Feedback> feedbacks) {
+        List<Feedback> saved = feedbackRepository.saveAll(feedbacks);
+        reportRollupService.recordFeedbacks(saved);
+        return saved;
+    }
+
+    /**
+     * Store the raw feedback content as PENDING, without analyzing it
+     * 
+     * @param request The feedback request containing user feedback text
+     * @return A DTO with the id and PENDING status of the stored feedback
+     */
+    @Transactional
+    public FeedbackShortDto createPendingFeedback(FeedbackRequest request) {
+        String content = request.getFeedback();
+        validateContent(content);
+
+        Feedback feedback = new Feedback();
+        feedback.setContent(content);
+        feedback.setCreatedAt(LocalDateTime.now());
+        feedback.setStatus(Feedback.FeedbackStatus.PENDING);
+        Feedback saved = feedbackRepository.save(feedback);
+
+        return FeedbackShortDto.builder()
+                .id(saved.getId())
+                .status(saved.getStatus().name())
+                .build();
+    }
+
+    /**
+     * List the feedbacks still PENDING that were stored before a given time
+     * 
+     * @param before Only feedbacks created before this time are returned
+     * @param limit The maximum number of feedbacks to return
+     * @return The pending feedbacks, oldest first
+     */
+    @Transactional(readOnly = true)
+    public List<FeedbackRow> findPendingFeedbacks(LocalDateTime before, int limit) {
+        return feedbackRepository.findPending(before, limit);
+    }
+
+    /**
+     * Apply the LLM analysis to a PENDING feedback and mark it as ANALYZED
+     * 
+     * The feedback is claimed with a conditional update first, so when it was
+     * queued twice, by this instance or another one, only the first worker
+     * stores the requested features and adds it to the rollups. A feedback that
+     * is no longer PENDING, or no longer exists, is left unchanged.
+     * 
+     * @param id The unique identifier of the pending feedback
+     * @param analysis The LLM analysis results
+     */
+    @Transactional
+    public void completePendingFeedback(Long id, FeedbackAnalysis analysis) {
+        if (feedbackRepository.claimPending(id, Feedback.FeedbackStatus.ANALYZED) == 0) {
+            return;
+        }
+        Feedback feedback = findFeedback(id);
+        applyAnalysis(feedback, analysis);
+        feedback.setStatus(Feedback.FeedbackStatus.ANALYZED);
+        Feedback saved = feedbackRepository.save(feedback);
+        reportRollupService.recordFeedback(saved);
+    }
+
+    /**
+     * Mark a PENDING feedback classified as spam as REJECTED
+     * 
+     * A feedback that is no longer PENDING is left unchanged.
+     * 
+     * @param id The unique identifier of the pending feedback
+     */
+    @Transactional
+    public void rejectPendingFeedback(Long id) {
+        feedbackRepository.claimPending(id, Feedback.FeedbackStatus.REJECTED);
+    }
+
+    /**
+     * Delete a PENDING feedback that could not be queued for analysis
+     * 
+     * @param id The unique identifier of the pending feedback
+     */
+    @Transactional
+    public void discardPendingFeedback(Long id) {
+        feedbackRepository.deleteById(id);
+    }
+
     /**
      * Retrieve detailed feedback information by ID
      * 
+     * A feedback held in the second-level cache is assembled from the cache
+     * together with its requested features, without querying the database.
+     * Otherwise the feedback and its requested features are loaded with a
+     * single fetch join, which also populates the cache for the next read.
+     * 
      * @param id The unique identifier of the feedback
      * @return A DTO with complete feedback information
      * @throws ResponseStatusException if the feedback is not found
      */
+    @Transactional(readOnly = true)
     public FeedbackFullDto getFeedbackById(Long id) {
-        Feedback feedback = feedbackRepository.findById(id)
+        Optional<Feedback> feedback = entityCacheService.isCached(Feedback.class, id)
+                ? feedbackRepository.findById(id)
+                : feedbackRepository.findWithRequestedFeaturesById(id);
+
+        return feedback.map(this::toFullDto)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Feedback not found"));
+    }
 
-        return toFullDto(feedback);
+    /**
+     * Convert a Feedback entity to a short DTO
+     * 
+     * @param feedback The Feedback entity to convert
+     * @return A short DTO with basic feedback information
+     */
+    public FeedbackShortDto toShortDto(Feedback feedback) {
+        List<RequestedFeatures> features = feedback.getRequestedFeatures()
+                .stream()
+                .map(f -> RequestedFeatures.builder()
+                        .code(f.getCode())
+                        .reason(f.getReason())
+                        .build())
+                .toList();
+
+        return FeedbackShortDto.builder()
+                .id(feedback.getId())
+                .status(feedback.getStatus().name())
+                .sentiment(feedback.getSentiment() != null ? feedback.getSentiment().name() : null)
+                .requestedFeatures(features)
+                .build();
     }
 
     /// ======= Private methods ======= ///
 
+    /**
+     * Load a feedback entity by ID
+     * 
+     * @param id The unique identifier of the feedback
+     * @return The Feedback entity
+     * @throws ResponseStatusException if the feedback is not found
+     */
+    private Feedback findFeedback(Long id) {
+        return feedbackRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Feedback not found"));
+    }
+
     /**
      * Validate feedback content
      * 
@@ -99,26 +309,22 @@ public class FeedbackService {
     /**
      * Check if the feedback content is spam or inappropriate
      * 
-     * Uses an LLM to analyze the content and determine if it should be rejected
+     * Uses an LLM to analyze the content and determine if it should be rejected.
+     * A failed LLM call or an unparseable response is propagated as it is, so it
+     * is never mistaken for a spam verdict.
      * 
      * @param content The feedback content to check
-     * @throws IllegalArgumentException if the content is classified as spam
+     * @throws SpamDetectedException if the content is classified as spam
      */
     private void checkSpam(String content) {
+        SpamVerdict verdict;
         try {
-            String prompt = String.format(LLMPrompts.SPAM_ANALYSIS_PROMPT, content);
-            JsonNode result = llmService.sendPromptAndParseJson(prompt);
-
-            if (result.has("isSpam") && result.get("isSpam").asBoolean()) {
-                log.warn("Spam detected: {}", content);
-                throw new IllegalArgumentException("Content classified as spam");
-            }
-        } catch (IllegalArgumentException e) {
-            throw e;
-        } catch (Exception e) {
+            verdict = llmBatchService.sendPromptAndBind(PromptType.SPAM_ANALYSIS, content, SpamVerdict.class);
+        } catch (RuntimeException e) {
             log.error("Error checking spam: {}", e.getMessage(), e);
-            throw new IllegalArgumentException("Error validating content", e);
+            throw e;
         }
+        rejectIfSpam(content, verdict.spam());
     }
 
     /**
@@ -127,18 +333,56 @@ public class FeedbackService {
      * Sends the feedback to the LLM for sentiment analysis and feature extraction
      * 
      * @param content The feedback content to analyze
-     * @return A JsonNode containing the analysis results
+     * @return The analysis results
      */
-    private JsonNode analyzeWithLLM(String content) {
+    private FeedbackAnalysis analyzeWithLLM(String content) {
         try {
-            String prompt = String.format(LLMPrompts.FEEDBACK_ANALYSIS_PROMPT, content);
-            return llmService.sendPromptAndParseJson(prompt);
+            return llmBatchService.sendPromptAndBind(PromptType.FEEDBACK_ANALYSIS, content, FeedbackAnalysis.class);
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             log.error("LLM analysis error: {}", e.getMessage(), e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "LLM analysis failed: " + e.getMessage());
         }
     }
 
+    /**
+     * Check spam, classify sentiment and extract feature requests in a single LLM call
+     * 
+     * @param content The feedback content to analyze
+     * @return The analysis results
+     * @throws SpamDetectedException if the content is classified as spam
+     */
+    private FeedbackAnalysis analyzeFusedWithLLM(String content) {
+        FeedbackAnalysis result;
+        try {
+            result = llmBatchService.sendPromptAndBind(PromptType.FUSED_FEEDBACK_ANALYSIS, content, FeedbackAnalysis.class);
+        } catch (ResponseStatusException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("LLM fused analysis error: {}", e.getMessage(), e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "LLM analysis failed: " + e.getMessage());
+        }
+
+        rejectIfSpam(content, result.spam());
+        return result;
+    }
+
+    /**
+     * Reject the feedback if the LLM result flags it as spam
+     * 
+     * @param content The feedback content that was analyzed
+     * @param spam The spam flag of the LLM result
+     * @throws SpamDetectedException if the content is classified as spam
+     */
+    private void rejectIfSpam(String content, boolean spam) {
+        if (spam) {
+            log.warn("Spam detected: {}", content);
+            meterRegistry.counter(SPAM_REJECTED_METRIC, "classifier", "llm").increment();
+            throw new SpamDetectedException();
+        }
+    }
+
     /**
      * Build a Feedback entity from content and analysis results
      * 
@@ -146,44 +390,37 @@ public class FeedbackService {
      * @param analysis The LLM analysis results
      * @return A Feedback entity ready to be persisted
      */
-    private Feedback buildFeedback(String content, JsonNode analysis) {
+    private Feedback buildFeedback(String content, FeedbackAnalysis analysis) {
         Feedback feedback = new Feedback();
         feedback.setContent(content);
         feedback.setCreatedAt(LocalDateTime.now());
-        feedback.setSentiment(Feedback.SentimentType.valueOf(analysis.get("sentiment").asText()));
-
-        if (analysis.has("requestedFeatures")) {
-            for (JsonNode feature : analysis.get("requestedFeatures")) {
-                RequestedFeature rf = new RequestedFeature();
-                rf.setCode(feature.get("code").asText());
-                rf.setReason(feature.get("reason").asText());
-                feedback.addRequestedFeature(rf);
-            }
-        }
-
+        applyAnalysis(feedback, analysis);
         return feedback;
     }
 
     /**
-     * Convert a Feedback entity to a short DTO
+     * Copy the sentiment and requested features of an LLM analysis into a Feedback entity
      * 
-     * @param feedback The Feedback entity to convert
-     * @return A short DTO with basic feedback information
+     * Feature codes are replaced by their canonical code, and features that
+     * collapse into a code already requested by the same feedback are skipped.
+     * 
+     * @param feedback The Feedback entity to update
+     * @param analysis The LLM analysis results
      */
-    private FeedbackShortDto toShortDto(Feedback feedback) {
-        List<RequestedFeatures> features = feedback.getRequestedFeatures()
-                .stream()
-                .map(f -> RequestedFeatures.builder()
-                        .code(f.getCode())
-                        .reason(f.getReason())
-                        .build())
-                .toList();
+    private void applyAnalysis(Feedback feedback, FeedbackAnalysis analysis) {
+        feedback.setSentiment(analysis.sentiment());
 
-        return FeedbackShortDto.builder()
-                .id(feedback.getId())
-                .sentiment(feedback.getSentiment().name())
-                .requestedFeatures(features)
-                .build();
+        Set<String> codes = new HashSet<>();
+        for (Feature feature : analysis.requestedFeatures()) {
+            String code = featureCodeIndex.canonicalize(feature.code());
+            if (!codes.add(code)) {
+                continue;
+            }
+            RequestedFeature rf = new RequestedFeature();
+            rf.setCode(code);
+            rf.setReason(feature.reason());
+            feedback.addRequestedFeature(rf);
+        }
     }
 
     /**
@@ -204,7 +441,8 @@ public class FeedbackService {
         return FeedbackFullDto.builder()
                 .id(feedback.getId())
                 .content(feedback.getContent())
-                .sentiment(feedback.getSentiment().name())
+                .status(feedback.getStatus().name())
+                .sentiment(feedback.getSentiment() != null ? feedback.getSentiment().name() : null)
                 .createdAt(feedback.getCreatedAt().toString())
                 .requestedFeatures(features)
                 .build();
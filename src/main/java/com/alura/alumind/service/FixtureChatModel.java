@@ -0,0 +1,382 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.utils.LLMPrompts.PromptType;
+import com.alura.alumind.utils.TokenEstimator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Chat model answering from local fixtures, for tests without access to OpenAI
+ * 
+ * Active with the llm-fixtures profile, it replaces the OpenAI chat model in
+ * {@link LLMService} and {@link ReactiveLLMService}, so the whole analysis path
+ * runs as in production. Responses are keyed by the SHA-256 hash of the prompt
+ * messages and stored as one JSON file per prompt in alumind.llm.fixtures.dir.
+ * The mode is one of:
+ * - record: send the prompt to OpenAI and store the response with its latency
+ * - replay: answer with the stored response after the stored latency; a prompt
+ *   without fixture fails, or is synthesized with synthesize-missing=true
+ * - synthetic: answer with a valid response for the prompt type, drawn from the
+ *   prompt hash, after a log-normal latency with the configured median and p99
+ * 
+ * Streamed answers are split into a few chunks emitted after the latency, the
+ * last one carrying the estimated token usage.
+ */
+@Component
+@Primary
+@Profile("llm-fixtures")
+@Slf4j
+public class FixtureChatModel implements ChatModel {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final Pattern BATCH_ITEM = Pattern.compile("(?m)^\\[(\\d+)] (.*)$");
+
+    private static final double P99_Z_SCORE = 2.3263;
+
+    private static final int STREAM_CHUNKS = 4;
+
+    private static final List<String> SENTIMENTS = List.of(
+            "POSITIVO", "POSITIVO", "POSITIVO", "NEGATIVO", "NEGATIVO", "INCONCLUSIVO");
+
+    private static final Map<String, String> FEATURES = Map.of(
+            "EDITAR_PERFIL", "Permitir que o usuário mantenha seus dados atualizados",
+            "ADICIONAR_NOTIFICACOES", "Lembrar o usuário de suas práticas diárias",
+            "MODO_ESCURO", "Facilitar o uso do aplicativo à noite",
+            "EXPORTAR_HISTORICO", "Compartilhar a evolução com o terapeuta",
+            "MEDITACOES_GUIADAS", "Ampliar as opções de prática do usuário");
+
+    private static final List<String> FEATURE_CODES = FEATURES.keySet().stream().sorted().toList();
+
+    /**
+     * How the fixtures are used
+     */
+    public enum Mode {
+        RECORD, REPLAY, SYNTHETIC
+    }
+
+    /**
+     * A stored response and the time the provider took to give it
+     */
+    record Fixture(String promptType, String response, long latencyMs) {
+    }
+
+    private final OpenAiChatModel delegate;
+    private final Mode mode;
+    private final Path directory;
+    private final boolean synthesizeMissing;
+    private final Duration latencyMedian;
+    private final double latencySigma;
+    private final Map<String, Fixture> fixtures = new ConcurrentHashMap<>();
+
+    public FixtureChatModel(
+            OpenAiChatModel delegate,
+            @Value("${alumind.llm.fixtures.mode:synthetic}") Mode mode,
+            @Value("${alumind.llm.fixtures.dir:llm-fixtures}") Path directory,
+            @Value("${alumind.llm.fixtures.synthesize-missing:false}") boolean synthesizeMissing,
+            @Value("${alumind.llm.fixtures.latency.median:PT0.8S}") Duration latencyMedian,
+            @Value("${alumind.llm.fixtures.latency.p99:PT3S}") Duration latencyP99) {
+        this.delegate = delegate;
+        this.mode = mode;
+        this.directory = directory;
+        this.synthesizeMissing = synthesizeMissing;
+        this.latencyMedian = latencyMedian;
+        this.latencySigma = latencySigma(latencyMedian, latencyP99);
+        log.info("LLM answered from fixtures: mode {}, directory {}", mode, directory.toAbsolutePath());
+    }
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Answer a prompt from its fixture, recording it first in record mode
+     * 
+     * @param prompt The prompt
+     * @return The response, with the estimated token usage unless recorded
+     * @throws NonTransientAiException in replay mode, if the prompt has no fixture
+     */
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        String key = key(prompt);
+        if (mode == Mode.RECORD) {
+            long start = System.nanoTime();
+            ChatResponse response = delegate.call(prompt);
+            save(key, prompt, text(response), Duration.ofNanos(System.nanoTime() - start).toMillis());
+            return response;
+        }
+
+        Fixture fixture = resolve(key, prompt);
+        try {
+            Thread.sleep(fixture.latencyMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NonTransientAiException("Interrupted while waiting for the LLM fixture latency");
+        }
+        return response(prompt, fixture.response(), true);
+    }
+
+    /**
+     * Stream the answer of a prompt from its fixture, recording it first in record mode
+     * 
+     * @param prompt The prompt
+     * @return The response chunks, emitted after the fixture latency
+     */
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        String key = key(prompt);
+        if (mode == Mode.RECORD) {
+            return Flux.defer(() -> {
+                long start = System.nanoTime();
+                StringBuilder text = new StringBuilder();
+                return delegate.stream(prompt)
+                        .doOnNext(response -> text.append(text(response)))
+                        .doOnComplete(() -> save(key, prompt, text.toString(),
+                                Duration.ofNanos(System.nanoTime() - start).toMillis()));
+            });
+        }
+
+        return Flux.defer(() -> {
+            Fixture fixture = resolve(key, prompt);
+            List<String> chunks = chunks(fixture.response());
+            List<ChatResponse> responses = new ArrayList<>();
+            for (int i = 0; i < chunks.size(); i++) {
+                responses.add(response(prompt, chunks.get(i), i == chunks.size() - 1));
+            }
+            return Flux.fromIterable(responses).delaySubscription(Duration.ofMillis(fixture.latencyMs()));
+        });
+    }
+
+    /// ======= Private methods ======= ///
+
+    /**
+     * Find the fixture of a prompt, or synthesize one
+     * 
+     * @param key The prompt hash
+     * @param prompt The prompt
+     * @return The fixture to answer with
+     */
+    private Fixture resolve(String key, Prompt prompt) {
+        if (mode == Mode.REPLAY) {
+            Fixture fixture = fixtures.computeIfAbsent(key, this::load);
+            if (fixture != null) {
+                return fixture;
+            }
+            if (!synthesizeMissing) {
+                throw new NonTransientAiException("No LLM fixture for prompt " + key + " in " + directory);
+            }
+        }
+        return new Fixture(null, synthesize(prompt), sampleLatency().toMillis());
+    }
+
+    private Fixture load(String key) {
+        Path file = directory.resolve(key + ".json");
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.readValue(file.toFile(), Fixture.class);
+        } catch (IOException e) {
+            throw new NonTransientAiException("Unreadable LLM fixture " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Store a recorded response, replacing any previous fixture of the prompt
+     * 
+     * A failure to write is logged and does not fail the call.
+     */
+    private void save(String key, Prompt prompt, String response, long latencyMs) {
+        PromptType promptType = promptTypeOf(prompt);
+        Fixture fixture = new Fixture(promptType != null ? promptType.name() : null, response, latencyMs);
+        try {
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, key, ".tmp");
+            OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(temporary.toFile(), fixture);
+            Files.move(temporary, directory.resolve(key + ".json"), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            fixtures.put(key, fixture);
+        } catch (IOException e) {
+            log.warn("Could not record LLM fixture {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Build a valid response for the prompt type, drawn from the prompt hash
+     * 
+     * Batched prompts get a JSON array with one object per indexed item. Prompts
+     * of an unknown type get a plain text answer.
+     */
+    private String synthesize(Prompt prompt) {
+        PromptType promptType = promptTypeOf(prompt);
+        String userMessage = messageText(prompt, MessageType.USER);
+        if (promptType == null || promptType.getResultType() == String.class) {
+            return "Resposta sintética: os usuários seguem satisfeitos com o AluMind e pedem novas funcionalidades.";
+        }
+
+        try {
+            if (!promptType.getBatchSystemMessage().equals(messageText(prompt, MessageType.SYSTEM))) {
+                return OBJECT_MAPPER.writeValueAsString(analysis(promptType, userMessage, null));
+            }
+            List<Map<String, Object>> items = new ArrayList<>();
+            Matcher matcher = BATCH_ITEM.matcher(userMessage);
+            while (matcher.find()) {
+                items.add(analysis(promptType, matcher.group(2), Integer.parseInt(matcher.group(1))));
+            }
+            return OBJECT_MAPPER.writeValueAsString(items);
+        } catch (IOException e) {
+            throw new NonTransientAiException("Could not write synthetic response: " + e.getMessage());
+        }
+    }
+
+    private Map<String, Object> analysis(PromptType promptType, String content, Integer index) {
+        SplittableRandom random = new SplittableRandom(content.hashCode());
+        Map<String, Object> analysis = new LinkedHashMap<>();
+        if (index != null) {
+            analysis.put("index", index);
+        }
+        if (promptType.getRequiredFields().contains("isSpam")) {
+            analysis.put("isSpam", false);
+            analysis.put("reason", "Feedback legítimo sobre o aplicativo");
+        }
+        if (promptType.getRequiredFields().contains("sentiment")) {
+            analysis.put("sentiment", SENTIMENTS.get(random.nextInt(SENTIMENTS.size())));
+            List<Map<String, String>> features = new ArrayList<>();
+            int first = random.nextInt(FEATURE_CODES.size());
+            for (int i = 0, count = random.nextInt(3); i < count; i++) {
+                String code = FEATURE_CODES.get((first + i) % FEATURE_CODES.size());
+                features.add(Map.of("code", code, "reason", FEATURES.get(code)));
+            }
+            analysis.put("requestedFeatures", features);
+        }
+        return analysis;
+    }
+
+    private Duration sampleLatency() {
+        double factor = Math.exp(latencySigma * ThreadLocalRandom.current().nextGaussian());
+        return Duration.ofNanos((long) (latencyMedian.toNanos() * factor));
+    }
+
+    private ChatResponse response(Prompt prompt, String text, boolean last) {
+        Generation generation = new Generation(new AssistantMessage(text));
+        if (!last) {
+            return new ChatResponse(List.of(generation));
+        }
+        int promptTokens = prompt.getInstructions().stream()
+                .mapToInt(message -> TokenEstimator.estimate(message.getText()))
+                .sum();
+        ChatResponseMetadata metadata = ChatResponseMetadata.builder()
+                .usage(new DefaultUsage(promptTokens, TokenEstimator.estimate(text)))
+                .build();
+        return new ChatResponse(List.of(generation), metadata);
+    }
+
+    private static String text(ChatResponse response) {
+        return response.getResult() != null && response.getResult().getOutput() != null
+                && response.getResult().getOutput().getText() != null
+                ? response.getResult().getOutput().getText()
+                : "";
+    }
+
+    /**
+     * Hash the type and text of every message of a prompt
+     * 
+     * @param prompt The prompt
+     * @return The hex-encoded SHA-256 hash
+     */
+    static String key(Prompt prompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Message message : prompt.getInstructions()) {
+                digest.update(message.getMessageType().name().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(String.valueOf(message.getText()).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Find the prompt type whose system message, plain or batched, opens the prompt
+     * 
+     * @param prompt The prompt
+     * @return The prompt type, or null for a prompt without a known system message
+     */
+    static PromptType promptTypeOf(Prompt prompt) {
+        String systemMessage = messageText(prompt, MessageType.SYSTEM);
+        for (PromptType promptType : PromptType.values()) {
+            if (promptType.getSystemMessage().equals(systemMessage)
+                    || promptType.getBatchSystemMessage().equals(systemMessage)) {
+                return promptType;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Compute the log-normal sigma giving the wanted p99 for the given median
+     * 
+     * @param median The median latency
+     * @param p99 The 99th percentile latency; a value not above the median gives a fixed latency
+     * @return The standard deviation of the latency logarithm
+     */
+    static double latencySigma(Duration median, Duration p99) {
+        if (median.isZero() || p99.compareTo(median) <= 0) {
+            return 0;
+        }
+        return Math.log((double) p99.toNanos() / median.toNanos()) / P99_Z_SCORE;
+    }
+
+    private static String messageText(Prompt prompt, MessageType type) {
+        return prompt.getInstructions().stream()
+                .filter(message -> message.getMessageType() == type)
+                .map(Message::getText)
+                .findFirst()
+                .orElse("");
+    }
+
+    private static List<String> chunks(String text) {
+        List<String> chunks = new ArrayList<>();
+        int size = Math.max(1, (text.length() + STREAM_CHUNKS - 1) / STREAM_CHUNKS);
+        for (int start = 0; start < text.length(); start += size) {
+            chunks.add(text.substring(start, Math.min(text.length(), start + size)));
+        }
+        return chunks.isEmpty() ? List.of("") : chunks;
+    }
+}
@@ -0,0 +1,299 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.BatchStatsResponse;
+import com.alura.alumind.utils.LLMPrompts.PromptType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Micro-batching stage in front of {@link LLMService}
+ * 
+ * When enabled, concurrent requests for the same prompt type are gathered until
+ * alumind.llm.batch.max-size items are waiting or alumind.llm.batch.max-wait-ms
+ * has elapsed since the first one, and are then sent as a single prompt that
+ * returns a JSON array keyed by item index. This shares the fixed prompt
+ * instructions across the batch, cutting tokens per feedback and the number of
+ * requests sent to the provider.
+ * 
+ * Items missing from the batch response, or missing a required field, fall back
+ * to a single-item call; the rest of the batch is unaffected. A batch call that
+ * fails as a whole, because the guard rejected it, its retries ran out or its
+ * answer could not be parsed, fails every waiting caller with that error instead
+ * of multiplying the calls while the provider is overloaded.
+ * 
+ * Callers stop waiting after the batching delay plus twice the longest guarded
+ * call (the batch and a single-item fallback), so a stuck sender cannot hold
+ * request threads forever.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LLMBatchService {
+
+    private final LLMService llmService;
+    private final LLMResponseBinder responseBinder;
+    private final LLMResponseCache responseCache;
+    private final LLMCallGuard callGuard;
+
+    @Value("${alumind.llm.batch.enabled:false}")
+    private boolean enabled;
+
+    @Value("${alumind.llm.batch.max-size:10}")
+    private int maxBatchSize;
+
+    @Value("${alumind.llm.batch.max-wait-ms:50}")
+    private long maxWaitMs;
+
+    @Value("${alumind.llm.batch.max-concurrent-batches:4}")
+    private int maxConcurrentBatches;
+
+    private final Map<PromptType, Buffer> buffers = new EnumMap<>(PromptType.class);
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedItems = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private ScheduledExecutorService flushScheduler;
+    private ExecutorService batchSender;
+
+    /// ======= Lifecycle ======= ///
+
+    @PostConstruct
+    void start() {
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("llm-batch-flush-"));
+        batchSender = Executors.newFixedThreadPool(maxConcurrentBatches, daemonThreads("llm-batch-sender-"));
+    }
+
+    @PreDestroy
+    void stop() {
+        flushScheduler.shutdownNow();
+        batchSender.shutdown();
+    }
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Fill a prompt template with the given content, send it and bind the response
+     * 
+     * Cached results are returned immediately. Otherwise, with batching enabled,
+     * the calling thread waits until the batch containing its content is answered.
+     * 
+     * @param promptType The prompt template to use
+     * @param content The content to insert into the template
+     * @param type The result type of the prompt
+     * @return The typed result for this content
+     * @throws ResponseStatusException 504 if the batch is not answered in time
+     * @throws RuntimeException if the response cannot be obtained or bound
+     */
+    public <T> T sendPromptAndBind(PromptType promptType, String content, Class<T> type) {
+        if (!enabled || maxBatchSize <= 1) {
+            return llmService.sendPromptAndBind(promptType, content, type);
+        }
+
+        Optional<T> cached = responseCache.get(promptType, content, type);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        PendingItem item = new PendingItem(content, new CompletableFuture<>());
+        enqueue(promptType, item);
+
+        Duration wait = callGuard.getMaxCallDuration().multipliedBy(2).plusMillis(maxWaitMs);
+        try {
+            return type.cast(item.result().get(wait.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                    "LLM batch call timed out after " + wait.toMillis() + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the LLM batch", e);
+        }
+    }
+
+    /**
+     * Get batch count, batched item count and single-item fallbacks
+     * 
+     * @return The current batching statistics
+     */
+    public BatchStatsResponse getStats() {
+        long batchCount = batches.sum();
+        long itemCount = batchedItems.sum();
+
+        return BatchStatsResponse.builder()
+                .enabled(enabled)
+                .maxBatchSize(maxBatchSize)
+                .maxWaitMs(maxWaitMs)
+                .batches(batchCount)
+                .batchedItems(itemCount)
+                .avgBatchSize(batchCount > 0 ? (double) itemCount / batchCount : 0)
+                .fallbacks(fallbacks.sum())
+                .build();
+    }
+
+    /// ======= Private methods ======= ///
+
+    /**
+     * Add an item to the buffer of its prompt type, sending the batch when it is full
+     * 
+     * The first item of a batch schedules a flush after maxWaitMs; the generation
+     * counter keeps that timer from flushing a later batch early.
+     * 
+     * @param promptType The prompt template of the item
+     * @param item The item waiting for its result
+     */
+    private void enqueue(PromptType promptType, PendingItem item) {
+        List<PendingItem> ready = null;
+
+        synchronized (buffers) {
+            Buffer buffer = buffers.computeIfAbsent(promptType, type -> new Buffer());
+            buffer.items.add(item);
+
+            if (buffer.items.size() >= maxBatchSize) {
+                ready = buffer.drain();
+            } else if (buffer.items.size() == 1) {
+                long generation = buffer.generation;
+                flushScheduler.schedule(() -> flush(promptType, generation), maxWaitMs, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        if (ready != null) {
+            dispatch(promptType, ready);
+        }
+    }
+
+    /**
+     * Send the buffered items of a prompt type if the batch has not been sent yet
+     * 
+     * @param promptType The prompt template of the buffer
+     * @param generation The batch generation the timer was scheduled for
+     */
+    private void flush(PromptType promptType, long generation) {
+        List<PendingItem> ready = null;
+
+        synchronized (buffers) {
+            Buffer buffer = buffers.get(promptType);
+            if (buffer != null && buffer.generation == generation && !buffer.items.isEmpty()) {
+                ready = buffer.drain();
+            }
+        }
+
+        if (ready != null) {
+            dispatch(promptType, ready);
+        }
+    }
+
+    private void dispatch(PromptType promptType, List<PendingItem> items) {
+        batchSender.execute(() -> sendBatch(promptType, items));
+    }
+
+    /**
+     * Send a batch and complete each waiting item with its result
+     * 
+     * Only items missing from a parsed batch response are sent again on their
+     * own; when the batch call itself fails, every item fails with its error.
+     * 
+     * @param promptType The prompt template of the batch
+     * @param items The items in the batch, in index order
+     */
+    private void sendBatch(PromptType promptType, List<PendingItem> items) {
+        if (items.size() == 1) {
+            sendSingle(promptType, items.get(0));
+            return;
+        }
+
+        batches.increment();
+        batchedItems.add(items.size());
+
+        Map<Integer, Object> resultsByIndex;
+        try {
+            resultsByIndex = responseBinder.bindBatch(promptType,
+                    llmService.sendPrompt(promptType, promptType.getBatchSystemMessage(),
+                            llmService.formatBatchPrompt(promptType, items.stream().map(PendingItem::content).toList())));
+        } catch (RuntimeException e) {
+            log.warn("Batch of {} {} items failed: {}", items.size(), promptType, e.getMessage());
+            items.forEach(item -> item.result().completeExceptionally(e));
+            return;
+        }
+
+        for (int i = 0; i < items.size(); i++) {
+            PendingItem item = items.get(i);
+            Object result = resultsByIndex.get(i);
+
+            if (result != null) {
+                responseCache.put(promptType, item.content(), result);
+                item.result().complete(result);
+            } else {
+                fallbacks.increment();
+                sendSingle(promptType, item);
+            }
+        }
+    }
+
+    /**
+     * Send a single item through the regular (cached) LLMService path
+     * 
+     * @param promptType The prompt template of the item
+     * @param item The item waiting for its result
+     */
+    private void sendSingle(PromptType promptType, PendingItem item) {
+        try {
+            item.result().complete(llmService.sendPromptAndBind(promptType, item.content(), promptType.getResultType()));
+        } catch (Exception e) {
+            item.result().completeExceptionally(e);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record PendingItem(String content, CompletableFuture<Object> result) {
+    }
+
+    /**
+     * Items waiting for the next batch of a prompt type
+     */
+    private static class Buffer {
+        private List<PendingItem> items = new ArrayList<>();
+        private long generation;
+
+        List<PendingItem> drain() {
+            List<PendingItem> drained = items;
+            items = new ArrayList<>();
+            generation++;
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,691 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.ResilienceStatsResponse;
+import com.alura.alumind.dto.ResilienceStatsResponse.PromptTypeStatsDto;
+import com.alura.alumind.utils.LLMPrompts.PromptType;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Resilience layer around every chat model call made by {@link LLMService}
+ * 
+ * Each call goes through, in order:
+ * - a bulkhead of alumind.llm.resilience.bulkhead.max-concurrent calls per prompt type,
+ *   so one slow prompt type cannot hold every request thread
+ * - an adaptive concurrency limit shared by all prompt types, halved on every
+ *   429 from the provider and raised again by one per limit's worth of successes
+ * - a timeout of alumind.llm.resilience.timeout per attempt
+ * - up to alumind.llm.resilience.retry.max-attempts attempts on transient errors
+ *   (timeouts, 429, 5xx, I/O errors), waiting a fully jittered exponential backoff
+ * - optionally, a hedged second request once an attempt runs longer than the
+ *   p95 latency of its prompt type; the first successful response wins. The hedged
+ *   request takes its own bulkhead and limiter permits and is skipped when none is free
+ * 
+ * Callers waiting longer than alumind.llm.resilience.bulkhead.max-wait for a
+ * permit are rejected with 503 instead of queueing indefinitely.
+ * 
+ * Blocking requests run on a pool of bulkhead x prompt types threads. Each
+ * request holds its permits until it actually returns, not until its caller
+ * stops waiting, so a request abandoned on timeout still counts against the
+ * bulkhead and the limit until it ends.
+ * 
+ * Reactive callers go through {@link #executeAsync}, which applies the same
+ * bulkhead, limit, timeout and retry policies without parking a thread while
+ * waiting for a permit or backing off. Hedging is not applied there.
+ */
+@Component
+@Slf4j
+public class LLMCallGuard {
+
+    private static final int LATENCY_WINDOW = 100;
+    private static final int HEDGING_MIN_SAMPLES = 20;
+    private static final Duration PERMIT_POLL_INTERVAL = Duration.ofMillis(10);
+
+    private final int maxConcurrentPerType;
+    private final Duration maxWait;
+    private final Duration timeout;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final boolean hedgingEnabled;
+    private final int maxLimit;
+
+    private final Map<PromptType, PromptTypeState> states = new EnumMap<>(PromptType.class);
+    private final AdaptiveLimiter limiter;
+    private final ThreadPoolExecutor callExecutor;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder bulkheadRejections = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    public LLMCallGuard(
+            @Value("${alumind.llm.resilience.bulkhead.max-concurrent:8}") int maxConcurrentPerType,
+            @Value("${alumind.llm.resilience.bulkhead.max-wait:PT2S}") Duration maxWait,
+            @Value("${alumind.llm.resilience.timeout:PT30S}") Duration timeout,
+            @Value("${alumind.llm.resilience.retry.max-attempts:3}") int maxAttempts,
+            @Value("${alumind.llm.resilience.retry.initial-backoff:PT0.2S}") Duration initialBackoff,
+            @Value("${alumind.llm.resilience.hedging.enabled:false}") boolean hedgingEnabled,
+            @Value("${alumind.llm.resilience.adaptive.max-limit:16}") int maxLimit) {
+        this.maxConcurrentPerType = maxConcurrentPerType;
+        this.maxWait = maxWait;
+        this.timeout = timeout;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.hedgingEnabled = hedgingEnabled;
+        this.maxLimit = Math.max(1, maxLimit);
+        for (PromptType promptType : PromptType.values()) {
+            states.put(promptType, new PromptTypeState(new Semaphore(maxConcurrentPerType), new LatencyWindow()));
+        }
+        this.limiter = new AdaptiveLimiter(this.maxLimit);
+        // Each running request holds a bulkhead permit, so no more threads than permits are ever needed
+        int threads = Math.max(1, maxConcurrentPerType) * PromptType.values().length;
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.callExecutor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "llm-call-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.callExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void stop() {
+        callExecutor.shutdownNow();
+    }
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Run a chat model call under the bulkhead, limiter, timeout, retry and hedging policies
+     * 
+     * @param promptType The prompt type, selecting the bulkhead and latency window
+     * @param call The model call; it may run more than once and on another thread
+     * @return The result of the first successful attempt
+     * @throws ResponseStatusException 503 if no permit is available in time, 504 if
+     *         every attempt timed out
+     * @throws RuntimeException the last error when it is not transient or attempts run out
+     */
+    public String execute(PromptType promptType, Supplier<String> call) {
+        PromptTypeState state = states.get(promptType);
+        calls.increment();
+
+        for (int attempt = 1; ; attempt++) {
+            acquirePermits(promptType, state);
+            try {
+                String result = attemptWithHedging(state, call);
+                limiter.onSuccess();
+                successes.increment();
+                return result;
+            } catch (RuntimeException e) {
+                if (isRateLimited(e)) {
+                    rateLimited.increment();
+                    limiter.onRateLimited();
+                }
+                if (!isTransient(e) || attempt >= maxAttempts) {
+                    failures.increment();
+                    throw e;
+                }
+                log.warn("LLM call for {} failed on attempt {}/{}: {}", promptType, attempt, maxAttempts, e.getMessage());
+            }
+
+            retries.increment();
+            sleep(backoff(attempt));
+        }
+    }
+
+    /**
+     * Run a non-blocking chat model call under the bulkhead, limiter, timeout and retry policies
+     * 
+     * Permits are polled on a timer instead of blocking the subscribing thread,
+     * and retries are delayed on the timer as well, so the call can be composed
+     * on an event loop.
+     * 
+     * @param promptType The prompt type, selecting the bulkhead and latency window
+     * @param call Creates the model call; it is subscribed once per attempt
+     * @return A Mono with the result of the first successful attempt, failing with
+     *         503 if no permit is available in time or 504 if every attempt timed out
+     */
+    public Mono<String> executeAsync(PromptType promptType, Supplier<Mono<String>> call) {
+        PromptTypeState state = states.get(promptType);
+        return Mono.defer(() -> {
+            calls.increment();
+            return awaitPermit(() -> state.bulkhead().tryAcquire(), "Too many concurrent LLM calls for " + promptType)
+                    .flatMap(permit -> attemptAsync(promptType, state, call, 1)
+                            .doFinally(signal -> state.bulkhead().release()));
+        });
+    }
+
+    /**
+     * Get the longest time a blocking call can take before the guard gives up
+     * 
+     * Every attempt may wait for both permits and then run until its timeout,
+     * with the largest backoff between attempts.
+     * 
+     * @return The upper bound of {@link #execute} for a single call
+     */
+    public Duration getMaxCallDuration() {
+        Duration total = maxWait.multipliedBy(2).plus(timeout).multipliedBy(maxAttempts);
+        for (int attempt = 1; attempt < maxAttempts; attempt++) {
+            total = total.plusMillis(initialBackoff.toMillis() << Math.min(attempt - 1, 10));
+        }
+        return total;
+    }
+
+    /**
+     * Get counters, the adaptive limit and per prompt type latency
+     * 
+     * @return The current resilience statistics
+     */
+    public ResilienceStatsResponse getStats() {
+        Map<String, PromptTypeStatsDto> promptTypes = new LinkedHashMap<>();
+        states.forEach((promptType, state) -> promptTypes.put(promptType.name(), PromptTypeStatsDto.builder()
+                .inFlight(maxConcurrentPerType - state.bulkhead().availablePermits())
+                .maxConcurrent(maxConcurrentPerType)
+                .p95Millis(state.latencies().p95Nanos() < 0 ? null : state.latencies().p95Nanos() / 1_000_000.0)
+                .build()));
+
+        return ResilienceStatsResponse.builder()
+                .calls(calls.sum())
+                .successes(successes.sum())
+                .failures(failures.sum())
+                .timeouts(timeouts.sum())
+                .retries(retries.sum())
+                .rateLimited(rateLimited.sum())
+                .bulkheadRejections(bulkheadRejections.sum())
+                .hedges(hedges.sum())
+                .hedgeWins(hedgeWins.sum())
+                .concurrencyLimit(limiter.getLimit())
+                .inFlight(limiter.getInFlight())
+                .promptTypes(promptTypes)
+                .build();
+    }
+
+    /// ======= Private methods ======= ///
+
+    /**
+     * Wait for a bulkhead permit of the prompt type and a limiter permit
+     * 
+     * @param promptType The prompt type, used in the rejection reason
+     * @param state The bulkhead of the prompt type
+     * @throws ResponseStatusException 503 if either permit is not available in time
+     */
+    private void acquirePermits(PromptType promptType, PromptTypeState state) {
+        if (!acquire(state.bulkhead(), maxWait)) {
+            bulkheadRejections.increment();
+            failures.increment();
+            throw new PermitRejectedException("Too many concurrent LLM calls for " + promptType);
+        }
+        if (!limiter.acquire(maxWait)) {
+            state.bulkhead().release();
+            bulkheadRejections.increment();
+            failures.increment();
+            throw new PermitRejectedException("LLM concurrency limit reached");
+        }
+    }
+
+    private boolean tryAcquirePermits(PromptTypeState state) {
+        if (!state.bulkhead().tryAcquire()) {
+            return false;
+        }
+        if (!limiter.tryAcquire()) {
+            state.bulkhead().release();
+            return false;
+        }
+        return true;
+    }
+
+    private void releasePermits(PromptTypeState state) {
+        limiter.release();
+        state.bulkhead().release();
+    }
+
+    /**
+     * Run one attempt, hedging it with a second request once it exceeds the p95 latency
+     * 
+     * The attempt runs on the call executor so it can be abandoned on timeout; the
+     * losing or timed-out requests are interrupted. The permits acquired for the
+     * attempt are handed to its request, and the hedged request takes its own.
+     * 
+     * @param state The bulkhead and latency window of the prompt type
+     * @param call The model call
+     * @return The first successful response
+     */
+    private String attemptWithHedging(PromptTypeState state, Supplier<String> call) {
+        List<Future<?>> tasks = new ArrayList<>(2);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            CompletableFuture<String> primary = submit(state, call, tasks);
+
+            long hedgeDelay = hedgingEnabled ? state.latencies().p95Nanos() : -1;
+            if (hedgeDelay < 0 || hedgeDelay >= timeout.toNanos()) {
+                return await(primary, deadline);
+            }
+
+            try {
+                return primary.get(hedgeDelay, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // Slower than p95: race a second request against the first
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the LLM", e);
+            } catch (ExecutionException e) {
+                throw unwrap(e);
+            }
+
+            if (!tryAcquirePermits(state)) {
+                return await(primary, deadline);
+            }
+
+            hedges.increment();
+            CompletableFuture<String> hedge = submit(state, call, tasks);
+            CompletableFuture<String> winner = firstSuccessful(primary, hedge, hedgeWins::increment);
+            return await(winner, deadline);
+        } finally {
+            tasks.forEach(task -> task.cancel(true));
+        }
+    }
+
+    /**
+     * Run the call on the call executor, recording its latency on success
+     * 
+     * The caller must hold a bulkhead and a limiter permit, which the request
+     * releases once the call returns, or once it is cancelled before starting.
+     * 
+     * @param state The bulkhead and latency window of the prompt type
+     * @param call The model call
+     * @param tasks Collects the submitted task so it can be cancelled
+     * @return A future completed with the call outcome
+     */
+    private CompletableFuture<String> submit(PromptTypeState state, Supplier<String> call, List<Future<?>> tasks) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        AtomicBoolean started = new AtomicBoolean();
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                releasePermits(state);
+            }
+        };
+
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            started.set(true);
+            long start = System.nanoTime();
+            String response;
+            try {
+                response = call.get();
+                state.latencies().record(System.nanoTime() - start);
+            } catch (Throwable e) {
+                release.run();
+                result.completeExceptionally(e);
+                return;
+            }
+            // Released first, so a caller seeing the response can reuse the permits
+            release.run();
+            result.complete(response);
+        }, null) {
+            @Override
+            protected void done() {
+                if (isCancelled() && !started.get()) {
+                    release.run();
+                }
+            }
+        };
+
+        try {
+            callExecutor.execute(task);
+        } catch (RuntimeException e) {
+            release.run();
+            throw e;
+        }
+        tasks.add(task);
+        return result;
+    }
+
+    /**
+     * Combine two requests, completing with the first success or the last failure
+     * 
+     * @param first The original request
+     * @param second The hedged request
+     * @param onSecondWins Invoked when the hedged request provides the result
+     * @return A future completed by the first successful request
+     */
+    private CompletableFuture<String> firstSuccessful(CompletableFuture<String> first, CompletableFuture<String> second,
+            Runnable onSecondWins) {
+        CompletableFuture<String> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(2);
+        AtomicBoolean decided = new AtomicBoolean();
+        for (CompletableFuture<String> candidate : List.of(first, second)) {
+            candidate.whenComplete((response, error) -> {
+                if (error == null) {
+                    if (decided.compareAndSet(false, true)) {
+                        if (candidate == second) {
+                            onSecondWins.run();
+                        }
+                        winner.complete(response);
+                    }
+                } else if (pending.decrementAndGet() == 0) {
+                    winner.completeExceptionally(error);
+                }
+            });
+        }
+        return winner;
+    }
+
+    /**
+     * Wait for a future until the attempt deadline
+     * 
+     * @throws ResponseStatusException 504 when the deadline passes
+     */
+    private String await(CompletableFuture<String> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                    "LLM call timed out after " + timeout.toMillis() + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the LLM", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private RuntimeException unwrap(ExecutionException e) {
+        return e.getCause() instanceof RuntimeException runtime ? runtime : new RuntimeException(e.getCause());
+    }
+
+    /**
+     * Run one non-blocking attempt under the adaptive limit, retrying transient errors
+     * 
+     * @param promptType The prompt type, used in log messages
+     * @param state The bulkhead and latency window of the prompt type
+     * @param call Creates the model call
+     * @param attempt The attempt number, starting at 1
+     * @return A Mono with the first successful response
+     */
+    private Mono<String> attemptAsync(PromptType promptType, PromptTypeState state, Supplier<Mono<String>> call,
+            int attempt) {
+        return awaitPermit(limiter::tryAcquire, "LLM concurrency limit reached")
+                .flatMap(permit -> timedAsync(state, call).doFinally(signal -> limiter.release()))
+                .doOnNext(result -> {
+                    limiter.onSuccess();
+                    successes.increment();
+                })
+                .onErrorResume(e -> !isPermitRejection(e), e -> {
+                    if (isRateLimited(e)) {
+                        rateLimited.increment();
+                        limiter.onRateLimited();
+                    }
+                    if (!isTransient(e) || attempt >= maxAttempts) {
+                        failures.increment();
+                        return Mono.error(e);
+                    }
+                    log.warn("LLM call for {} failed on attempt {}/{}: {}", promptType, attempt, maxAttempts, e.getMessage());
+                    retries.increment();
+                    return Mono.delay(Duration.ofMillis(backoff(attempt)))
+                            .then(Mono.defer(() -> attemptAsync(promptType, state, call, attempt + 1)));
+                });
+    }
+
+    /**
+     * Subscribe to the call with the per-attempt timeout, recording its latency on success
+     * 
+     * @param state The bulkhead and latency window of the prompt type
+     * @param call Creates the model call
+     * @return A Mono with the response, failing with 504 when the timeout passes
+     */
+    private Mono<String> timedAsync(PromptTypeState state, Supplier<Mono<String>> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.get()
+                    .timeout(timeout)
+                    .doOnNext(response -> state.latencies().record(System.nanoTime() - start));
+        }).onErrorMap(TimeoutException.class, e -> {
+            timeouts.increment();
+            return new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                    "LLM call timed out after " + timeout.toMillis() + " ms");
+        });
+    }
+
+    /**
+     * Poll for a permit until alumind.llm.resilience.bulkhead.max-wait passes
+     * 
+     * @param tryAcquire Takes a permit if one is available
+     * @param rejection The reason of the 503 sent when no permit is available in time
+     * @return A Mono emitting once the permit is held
+     */
+    private Mono<Boolean> awaitPermit(BooleanSupplier tryAcquire, String rejection) {
+        return Mono.defer(() -> {
+            long deadline = System.nanoTime() + maxWait.toNanos();
+            return Mono.defer(() -> {
+                if (tryAcquire.getAsBoolean()) {
+                    return Mono.just(Boolean.TRUE);
+                }
+                if (System.nanoTime() >= deadline) {
+                    bulkheadRejections.increment();
+                    failures.increment();
+                    return Mono.error(new PermitRejectedException(rejection));
+                }
+                return Mono.<Boolean>empty();
+            }).repeatWhenEmpty(repeats -> repeats.delayElements(PERMIT_POLL_INTERVAL));
+        });
+    }
+
+    private boolean isPermitRejection(Throwable e) {
+        return e instanceof PermitRejectedException;
+    }
+
+    /**
+     * Check whether an error may succeed when retried
+     * 
+     * @param e The error thrown by an attempt
+     * @return true for timeouts, 429, 5xx and I/O errors
+     */
+    private boolean isTransient(Throwable e) {
+        if (isRateLimited(e)) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientAiException
+                    || cause instanceof HttpServerErrorException
+                    || cause instanceof ResourceAccessException
+                    || (cause instanceof ResponseStatusException status
+                            && status.getStatusCode() == HttpStatus.GATEWAY_TIMEOUT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether an error is a 429 from the provider
+     * 
+     * Spring AI reports client errors as a NonTransientAiException whose message
+     * starts with the status code, so both forms are recognized.
+     * 
+     * @param e The error thrown by an attempt
+     * @return true if the provider rejected the request with 429 Too Many Requests
+     */
+    private boolean isRateLimited(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpClientErrorException.TooManyRequests
+                    || (cause.getMessage() != null && cause.getMessage().startsWith("429"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compute the fully jittered exponential backoff before the next attempt
+     * 
+     * @param attempt The attempt that just failed, starting at 1
+     * @return A random delay between zero and initial-backoff * 2^(attempt - 1)
+     */
+    private long backoff(int attempt) {
+        long ceiling = initialBackoff.toMillis() << Math.min(attempt - 1, 10);
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off", e);
+        }
+    }
+
+    private boolean acquire(Semaphore semaphore, Duration wait) {
+        try {
+            return semaphore.tryAcquire(wait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 503 sent when no bulkhead or limiter permit is available in time, already counted as a failure
+     */
+    private static class PermitRejectedException extends ResponseStatusException {
+
+        PermitRejectedException(String reason) {
+            super(HttpStatus.SERVICE_UNAVAILABLE, reason);
+        }
+    }
+
+    /**
+     * Bulkhead and recent latencies of one prompt type
+     */
+    private record PromptTypeState(Semaphore bulkhead, LatencyWindow latencies) {
+    }
+
+    /**
+     * Ring buffer of the latest successful call latencies
+     */
+    private static class LatencyWindow {
+
+        private final long[] samples = new long[LATENCY_WINDOW];
+        private int next;
+        private int size;
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            size = Math.min(size + 1, samples.length);
+        }
+
+        /**
+         * @return The p95 latency in nanoseconds, or -1 with fewer than the minimum samples
+         */
+        synchronized long p95Nanos() {
+            if (size < HEDGING_MIN_SAMPLES) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(size * 0.95) - 1];
+        }
+    }
+
+    /**
+     * Additive-increase, multiplicative-decrease limit on concurrent model calls
+     */
+    private static class AdaptiveLimiter {
+
+        private final int maxLimit;
+        private double limit;
+        private int inFlight;
+
+        AdaptiveLimiter(int maxLimit) {
+            this.maxLimit = maxLimit;
+            this.limit = maxLimit;
+        }
+
+        synchronized boolean acquire(Duration wait) {
+            long deadline = System.nanoTime() + wait.toNanos();
+            while (inFlight >= (int) limit) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            inFlight++;
+            return true;
+        }
+
+        synchronized boolean tryAcquire() {
+            if (inFlight >= (int) limit) {
+                return false;
+            }
+            inFlight++;
+            return true;
+        }
+
+        synchronized void release() {
+            inFlight--;
+            notifyAll();
+        }
+
+        synchronized void onSuccess() {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+
+        synchronized void onRateLimited() {
+            limit = Math.max(1, limit / 2);
+        }
+
+        synchronized int getLimit() {
+            return (int) limit;
+        }
+
+        synchronized int getInFlight() {
+            return inFlight;
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.FeedbackAnalysis;
+import com.alura.alumind.dto.FeedbackAnalysis.Feature;
+import com.alura.alumind.dto.ParsingStatsResponse;
+import com.alura.alumind.dto.SpamVerdict;
+import com.alura.alumind.model.Feedback.SentimentType;
+import com.alura.alumind.utils.LLMPrompts.PromptType;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Binds raw LLM responses to typed results
+ * 
+ * The response is read token by token with a Jackson {@link JsonParser} straight
+ * into {@link SpamVerdict} or {@link FeedbackAnalysis}, without building a JSON
+ * tree first. Unknown fields are skipped and the fields required by the
+ * {@link PromptType} are validated.
+ * 
+ * Common model mistakes are repaired instead of failing the call:
+ * - Markdown fences and text before or after the JSON value
+ * - Trailing commas, single quotes, unquoted field names and comments
+ * - Field names in another case or with underscores (IsSpam, requested_features)
+ * - Sentiments in another case, with accents or in English (positivo, NEUTRAL)
+ * - Booleans sent as strings ("true", "sim")
+ * - Output truncated after the required fields (incomplete features are dropped)
+ */
+@Component
+@Slf4j
+public class LLMResponseBinder {
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .enable(JsonReadFeature.ALLOW_TRAILING_COMMA)
+            .enable(JsonReadFeature.ALLOW_SINGLE_QUOTES)
+            .enable(JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES)
+            .enable(JsonReadFeature.ALLOW_JAVA_COMMENTS)
+            .build();
+
+    private final LongAdder responses = new LongAdder();
+    private final LongAdder repaired = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Bind a response to the result type of its prompt
+     * 
+     * @param promptType The prompt the response answers
+     * @param response The raw text response from the model
+     * @param type The result type of the prompt
+     * @return The typed result
+     * @throws IllegalArgumentException if type is not the result type of the prompt
+     * @throws RuntimeException if the response cannot be parsed or misses a required field
+     */
+    public <T> T bind(PromptType promptType, String response, Class<T> type) {
+        checkResultType(promptType, type);
+        return type.cast(bind(promptType, response));
+    }
+
+    /**
+     * Bind a response to the result type of its prompt
+     * 
+     * @param promptType The prompt the response answers
+     * @param response The raw text response from the model
+     * @return The result, an instance of {@link PromptType#getResultType()}
+     * @throws RuntimeException if the response cannot be parsed or misses a required field
+     */
+    public Object bind(PromptType promptType, String response) {
+        responses.increment();
+        Repairs repairs = new Repairs();
+
+        try {
+            char[] chars = response.toCharArray();
+            int start = indexOf(chars, '{');
+            if (start < 0) {
+                throw new IllegalStateException("no JSON object in response");
+            }
+            repairs.repaired |= !isBlank(chars, 0, start);
+
+            Fields fields = new Fields();
+            try (JsonParser parser = JSON_FACTORY.createParser(chars, start, chars.length - start)) {
+                parser.nextToken();
+                try {
+                    readFields(parser, fields, repairs);
+                    int end = start + (int) parser.currentLocation().getCharOffset();
+                    repairs.repaired |= !isBlank(chars, end, chars.length);
+                } catch (JsonEOFException e) {
+                    repairs.repaired = true;
+                }
+            }
+
+            Object result = toResult(promptType, fields, repairs);
+            if (repairs.repaired) {
+                repaired.increment();
+            }
+            return result;
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            log.error("Error parsing AI response: {}", e.getMessage());
+            throw new RuntimeException("Error parsing AI response: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Bind a batch response, a JSON array of results tagged with an "index" field
+     * 
+     * Items without an index or missing a required field are left out, so the
+     * caller can retry them individually. Items after a truncation point are lost.
+     * 
+     * @param promptType The prompt applied to every item of the batch
+     * @param response The raw text response from the model
+     * @return The results, instances of {@link PromptType#getResultType()}, keyed by item index
+     * @throws RuntimeException if the response is not a JSON array
+     */
+    public Map<Integer, Object> bindBatch(PromptType promptType, String response) {
+        responses.increment();
+        Repairs repairs = new Repairs();
+        Map<Integer, Object> results = new HashMap<>();
+
+        try {
+            char[] chars = response.toCharArray();
+            int start = indexOf(chars, '[');
+            if (start < 0) {
+                throw new IllegalStateException("no JSON array in response");
+            }
+            repairs.repaired |= !isBlank(chars, 0, start);
+
+            try (JsonParser parser = JSON_FACTORY.createParser(chars, start, chars.length - start)) {
+                parser.nextToken();
+                JsonToken token;
+                while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                    if (token != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        continue;
+                    }
+
+                    Fields fields = new Fields();
+                    readFields(parser, fields, repairs);
+                    if (fields.index == null) {
+                        repairs.repaired = true;
+                        continue;
+                    }
+                    try {
+                        results.putIfAbsent(fields.index, toResult(promptType, fields, repairs));
+                    } catch (IllegalStateException e) {
+                        repairs.repaired = true;
+                    }
+                }
+            } catch (JsonEOFException e) {
+                repairs.repaired = true;
+            }
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            log.error("Error parsing AI batch response: {}", e.getMessage());
+            throw new RuntimeException("Error parsing AI batch response: " + e.getMessage(), e);
+        }
+
+        if (repairs.repaired) {
+            repaired.increment();
+        }
+        return results;
+    }
+
+    /**
+     * Get how many responses were bound, needed a repair or could not be bound
+     * 
+     * @return The current parsing statistics
+     */
+    public ParsingStatsResponse getStats() {
+        long total = responses.sum();
+        long repairedCount = repaired.sum();
+        long failureCount = failures.sum();
+
+        return ParsingStatsResponse.builder()
+                .responses(total)
+                .repaired(repairedCount)
+                .failures(failureCount)
+                .repairRate(total > 0 ? (double) repairedCount / total : 0)
+                .failureRate(total > 0 ? (double) failureCount / total : 0)
+                .build();
+    }
+
+    /// ======= Private methods ======= ///
+
+    /**
+     * Read the fields of the current JSON object into a field holder
+     * 
+     * Fields are stored as soon as they are read, so after a truncation the
+     * holder keeps everything that was complete.
+     * 
+     * @param parser The parser, positioned on the START_OBJECT token
+     * @param fields The holder receiving the known fields
+     * @param repairs Records whether any repair was needed
+     */
+    private void readFields(JsonParser parser, Fields fields, Repairs repairs) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            switch (fieldKey(name, repairs)) {
+                case "index" -> fields.index = readInt(parser, value);
+                case "isspam" -> fields.spam = readBoolean(parser, value, repairs);
+                case "reason" -> fields.reason = readText(parser, value);
+                case "sentiment" -> fields.sentiment = readSentiment(parser, value, repairs);
+                case "requestedfeatures" -> readFeatures(parser, value, fields.features, repairs);
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Read the requested features array, appending each complete feature
+     */
+    private void readFeatures(JsonParser parser, JsonToken value, List<Feature> features, Repairs repairs) throws IOException {
+        if (value != JsonToken.START_ARRAY) {
+            repairs.repaired |= value != JsonToken.VALUE_NULL;
+            parser.skipChildren();
+            return;
+        }
+
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.VALUE_STRING) {
+                repairs.repaired = true;
+                addFeature(features, parser.getText(), "", repairs);
+                continue;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                repairs.repaired = true;
+                parser.skipChildren();
+                continue;
+            }
+
+            String code = null;
+            String reason = "";
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken fieldValue = parser.nextToken();
+                switch (fieldKey(name, repairs)) {
+                    case "code" -> code = readText(parser, fieldValue);
+                    case "reason" -> reason = readText(parser, fieldValue);
+                    default -> parser.skipChildren();
+                }
+            }
+            addFeature(features, code, reason, repairs);
+        }
+    }
+
+    private void addFeature(List<Feature> features, String code, String reason, Repairs repairs) {
+        if (code == null || code.isBlank()) {
+            repairs.repaired = true;
+            return;
+        }
+        features.add(new Feature(code.strip(), reason == null ? "" : reason.strip()));
+    }
+
+    /**
+     * Validate the fields required by a prompt and build its result
+     * 
+     * @throws IllegalStateException if a required field is missing
+     */
+    private Object toResult(PromptType promptType, Fields fields, Repairs repairs) {
+        List<String> requiredFields = promptType.getRequiredFields();
+        if (requiredFields.contains("isSpam") && fields.spam == null) {
+            throw new IllegalStateException("missing required field isSpam");
+        }
+        if (requiredFields.contains("sentiment") && fields.sentiment == null) {
+            if (!Boolean.TRUE.equals(fields.spam)) {
+                throw new IllegalStateException("missing or invalid required field sentiment");
+            }
+            repairs.repaired = true;
+            fields.sentiment = SentimentType.INCONCLUSIVO;
+        }
+
+        if (promptType.getResultType() == SpamVerdict.class) {
+            return new SpamVerdict(fields.spam, fields.reason == null ? "" : fields.reason);
+        }
+        if (promptType.getResultType() == FeedbackAnalysis.class) {
+            return new FeedbackAnalysis(Boolean.TRUE.equals(fields.spam), fields.sentiment, fields.features);
+        }
+        throw new IllegalArgumentException("Prompt " + promptType + " has no JSON result");
+    }
+
+    private void checkResultType(PromptType promptType, Class<?> type) {
+        if (promptType.getResultType() != type) {
+            throw new IllegalArgumentException(
+                    "Prompt " + promptType + " returns " + promptType.getResultType().getSimpleName() + ", not " + type.getSimpleName());
+        }
+    }
+
+    /**
+     * Normalize a field name to lowercase without underscores
+     */
+    private String fieldKey(String name, Repairs repairs) {
+        String key = name.replace("_", "").toLowerCase(Locale.ROOT);
+        repairs.repaired |= !name.equals(key) && !name.equals("isSpam") && !name.equals("requestedFeatures");
+        return key;
+    }
+
+    private SentimentType readSentiment(JsonParser parser, JsonToken value, Repairs repairs) throws IOException {
+        String text = readText(parser, value);
+        if (text == null) {
+            return null;
+        }
+
+        String normalized = Normalizer.normalize(text.strip(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toUpperCase(Locale.ROOT);
+        SentimentType sentiment = switch (normalized) {
+            case "POSITIVO", "POSITIVE" -> SentimentType.POSITIVO;
+            case "NEGATIVO", "NEGATIVE" -> SentimentType.NEGATIVO;
+            case "INCONCLUSIVO", "INCONCLUSIVE", "NEUTRO", "NEUTRAL", "MISTO", "MIXED" -> SentimentType.INCONCLUSIVO;
+            default -> null;
+        };
+        repairs.repaired |= sentiment != null && !sentiment.name().equals(text);
+        return sentiment;
+    }
+
+    private Boolean readBoolean(JsonParser parser, JsonToken value, Repairs repairs) throws IOException {
+        if (value == JsonToken.VALUE_TRUE || value == JsonToken.VALUE_FALSE) {
+            return value == JsonToken.VALUE_TRUE;
+        }
+
+        String text = readText(parser, value);
+        if (text == null) {
+            return null;
+        }
+        repairs.repaired = true;
+        return switch (text.strip().toLowerCase(Locale.ROOT)) {
+            case "true", "sim", "yes" -> true;
+            case "false", "nao", "não", "no" -> false;
+            default -> null;
+        };
+    }
+
+    private Integer readInt(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        String text = readText(parser, value);
+        try {
+            return text == null ? null : Integer.valueOf(text.strip());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Read a scalar value as text, skipping objects and arrays
+     */
+    private String readText(JsonParser parser, JsonToken value) throws IOException {
+        if (value.isScalarValue() && value != JsonToken.VALUE_NULL) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static int indexOf(char[] chars, char target) {
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isBlank(char[] chars, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isWhitespace(chars[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Known fields read from a result object
+     */
+    private static class Fields {
+        private Integer index;
+        private Boolean spam;
+        private String reason;
+        private SentimentType sentiment;
+        private final List<Feature> features = new ArrayList<>();
+    }
+
+    private static class Repairs {
+        private boolean repaired;
+    }
+}
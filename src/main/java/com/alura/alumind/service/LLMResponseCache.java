@@ -0,0 +1,164 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.CacheStatsResponse;
+import com.alura.alumind.utils.LLMPrompts.PromptType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of typed LLM results
+ * 
+ * Entries are keyed by prompt type, prompt-template version and a SHA-256 hash of
+ * the normalized content (trimmed, with whitespace runs collapsed), so resubmitting
+ * the same feedback skips the model entirely. Eviction is LRU once alumind.llm.cache.max-size
+ * is reached, and entries older than alumind.llm.cache.ttl are treated as misses.
+ */
+@Component
+@Slf4j
+public class LLMResponseCache {
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final Duration ttl;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final Map<String, Entry> entries;
+
+    public LLMResponseCache(
+            @Value("${alumind.llm.cache.enabled:true}") boolean enabled,
+            @Value("${alumind.llm.cache.max-size:1000}") int maxSize,
+            @Value("${alumind.llm.cache.ttl:PT24H}") Duration ttl) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > LLMResponseCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Look up a cached result
+     * 
+     * @param promptType The prompt the content was sent with
+     * @param content The variable content inserted into the prompt
+     * @param type The result type of the prompt
+     * @return The cached result, or empty on a miss or when the cache is disabled
+     */
+    public <T> Optional<T> get(PromptType promptType, String content, Class<T> type) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        String key = key(promptType, content);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && !entry.isExpired(ttl)) {
+                hits.increment();
+                return Optional.of(type.cast(entry.value()));
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions.increment();
+            }
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Store a result
+     * 
+     * @param promptType The prompt the content was sent with
+     * @param content The variable content inserted into the prompt
+     * @param value The typed LLM result
+     */
+    public void put(PromptType promptType, String content, Object value) {
+        if (!enabled) {
+            return;
+        }
+
+        String key = key(promptType, content);
+        synchronized (entries) {
+            entries.put(key, new Entry(value, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Get hit, miss and eviction counters
+     * 
+     * @return The current cache statistics
+     */
+    public CacheStatsResponse getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+
+        return CacheStatsResponse.builder()
+                .enabled(enabled)
+                .size(size)
+                .maxSize(maxSize)
+                .hits(hitCount)
+                .misses(missCount)
+                .evictions(evictions.sum())
+                .hitRate(hitCount + missCount > 0 ? (double) hitCount / (hitCount + missCount) : 0)
+                .build();
+    }
+
+    /// ======= Private methods ======= ///
+
+    /**
+     * Build the cache key for a prompt type and content
+     * 
+     * @param promptType The prompt the content was sent with
+     * @param content The variable content inserted into the prompt
+     * @return The cache key
+     */
+    private String key(PromptType promptType, String content) {
+        return promptType.name() + ":" + promptType.getVersion() + ":" + sha256(normalize(content));
+    }
+
+    private static String normalize(String content) {
+        return content == null ? "" : content.strip().replaceAll("\\s+", " ");
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Entry(Object value, long createdAtNanos) {
+        boolean isExpired(Duration ttl) {
+            return System.nanoTime() - createdAtNanos > ttl.toNanos();
+        }
+    }
+}
@@ -1,20 +1,47 @@
 package com.alura.alumind.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.alura.alumind.utils.LLMPrompts.PromptType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.api.OpenAiApi;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Service for interacting with Large Language Models (LLMs)
  * 
  * This service provides methods to send prompts to OpenAI models and process
- * the responses. It supports both raw text responses and JSON-formatted responses.
+ * the responses. It supports raw text responses, streamed text responses and
+ * JSON responses bound to typed results by {@link LLMResponseBinder}.
+ * Typed results sent through a {@link PromptType} are cached by {@link LLMResponseCache}.
+ * Analysis prompts list the feature codes already in use, taken from
+ * {@link FeatureCodeIndex}, so the model reuses them instead of inventing variants.
+ * 
+ * Each prompt is sent as the fixed system message of its type followed by a user
+ * message with the variable input, so the instructions form a stable prefix the
+ * provider can cache. The variable input is kept within the budgets of
+ * {@link PromptBudget}.
+ * 
+ * Every call is timed in alumind.llm.calls and its token usage is counted in
+ * alumind.llm.tokens, both tagged with the prompt type. Streamed prompts are
+ * metered too, but they bypass {@link LLMCallGuard}.
+ * 
+ * The chat model is OpenAI's, or {@link FixtureChatModel} with the llm-fixtures
+ * profile, which answers from recorded or synthetic responses.
  * 
  * The service is used for:
  * - Analyzing feedback sentiment
@@ -27,37 +54,210 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class LLMService {
 
-    private final OpenAiChatModel chatModel;
-    private final ObjectMapper objectMapper;
+    private final ChatModel chatModel;
+    private final LLMResponseBinder responseBinder;
+    private final LLMResponseCache responseCache;
+    private final LLMCallGuard callGuard;
+    private final FeatureCodeIndex featureCodeIndex;
+    private final PromptBudget promptBudget;
+    private final MeterRegistry meterRegistry;
+
+    public static final String CALLS_METRIC = "alumind.llm.calls";
+    public static final String TOKENS_METRIC = "alumind.llm.tokens";
+
+    /// ======= Public methods ======= ///
 
     /**
-     * Send a prompt to the OpenAI model and get the response
+     * Send a prompt with the system message of its type and get the response
      *
-     * @param promptContent The content of the prompt to send
+     * @param promptType The prompt type, selecting the system message and the bulkhead the call runs in
+     * @param userMessage The variable part of the prompt
      * @return The raw text response from the model
      */
-    public String sendPrompt(String promptContent) {
-        ChatResponse aiResponse = chatModel.call(new Prompt(promptContent));
-        return aiResponse.getResult().getOutput().getText().trim();
+    public String sendPrompt(PromptType promptType, String userMessage) {
+        return sendPrompt(promptType, promptType.getSystemMessage(), userMessage);
     }
 
     /**
-     * Send a prompt to the OpenAI model and parse the response as JSON
+     * Send a system and a user message to the OpenAI model and get the response
+     * 
+     * The call goes through {@link LLMCallGuard}, which applies the bulkhead of the
+     * prompt type, the adaptive concurrency limit, timeouts, retries and hedging.
+     * The timer covers the whole guarded call, including queueing and retries,
+     * while tokens are counted for every attempt that got a response.
      *
-     * @param promptContent The content of the prompt to send
-     * @return The parsed JSON response
-     * @throws RuntimeException if the response cannot be parsed as JSON
+     * @param promptType The prompt type, selecting the bulkhead the call runs in
+     * @param systemMessage The fixed instructions of the prompt
+     * @param userMessage The variable part of the prompt
+     * @return The raw text response from the model
      */
-    public JsonNode sendPromptAndParseJson(String promptContent) {
-        String responseContent = sendPrompt(promptContent)
-                .replaceAll("(?s)```json\\s*", "")
-                .replaceAll("```", "");
-
+    public String sendPrompt(PromptType promptType, String systemMessage, String userMessage) {
+        promptBudget.recordPrompt(promptType, systemMessage, userMessage);
+        Prompt chatPrompt = new Prompt(List.of(new SystemMessage(systemMessage), new UserMessage(userMessage)));
+        String prompt = promptTag(promptType);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
         try {
-            return objectMapper.readTree(responseContent);
-        } catch (JsonProcessingException e) {
-            log.error("Error parsing AI response: {}", e.getMessage());
-            throw new RuntimeException("Error parsing AI response", e);
+            String response = callGuard.execute(promptType, () -> {
+                ChatResponse aiResponse = chatModel.call(chatPrompt);
+                recordTokens(prompt, aiResponse);
+                return aiResponse.getResult().getOutput().getText().trim();
+            });
+            outcome = "success";
+            return response;
+        } finally {
+            sample.stop(meterRegistry.timer(CALLS_METRIC, "prompt", prompt, "outcome", outcome));
+        }
+    }
+
+    /**
+     * Send a prompt to the OpenAI model and stream the response as it is generated
+     * 
+     * Uses the streaming chat API, so each element is a chunk of text emitted
+     * by the model as soon as it arrives. Empty chunks are skipped.
+     * 
+     * The stream does not go through {@link LLMCallGuard}: chunks already sent
+     * to the subscriber cannot be taken back, so it is neither retried nor hedged,
+     * and its only timeout is the one of the subscriber. It is still timed in
+     * alumind.llm.calls, from subscription until it completes, fails or is
+     * cancelled, and the tokens of the last chunk carrying usage are counted.
+     *
+     * @param promptType The prompt type, selecting the system message
+     * @param userMessage The variable part of the prompt
+     * @return A Flux of text chunks, completing when the model finishes
+     */
+    public Flux<String> streamPrompt(PromptType promptType, String userMessage) {
+        Prompt chatPrompt = new Prompt(List.of(new SystemMessage(promptType.getSystemMessage()), new UserMessage(userMessage)));
+        String prompt = promptTag(promptType);
+
+        return Flux.defer(() -> {
+            promptBudget.recordPrompt(promptType, promptType.getSystemMessage(), userMessage);
+            Timer.Sample sample = Timer.start(meterRegistry);
+            AtomicReference<ChatResponse> lastWithUsage = new AtomicReference<>();
+            return chatModel.stream(chatPrompt)
+                    .doOnNext(response -> {
+                        if (response.getMetadata() != null && response.getMetadata().getUsage() != null) {
+                            lastWithUsage.set(response);
+                        }
+                    })
+                    .doFinally(signal -> {
+                        if (lastWithUsage.get() != null) {
+                            recordTokens(prompt, lastWithUsage.get());
+                        }
+                        String outcome = switch (signal) {
+                            case ON_COMPLETE -> "success";
+                            case CANCEL -> "cancelled";
+                            default -> "error";
+                        };
+                        sample.stop(meterRegistry.timer(CALLS_METRIC, "prompt", prompt, "outcome", outcome));
+                    })
+                    .filter(response -> response.getResult() != null && response.getResult().getOutput() != null)
+                    .map(response -> response.getResult().getOutput().getText())
+                    .filter(text -> text != null && !text.isEmpty());
+        });
+    }
+
+    /**
+     * Fill the user message template of a prompt with the given content
+     * 
+     * The most used canonical feature codes are passed as the second template
+     * argument; templates that do not reference it ignore it. The content and
+     * the codes are kept within their token budgets.
+     *
+     * @param promptType The prompt template to use
+     * @param content The content to insert into the template
+     * @return The user message
+     */
+    public String formatPrompt(PromptType promptType, String content) {
+        return promptType.format(promptBudget.fitFeedback(promptType, content), knownCodes(promptType));
+    }
+
+    /**
+     * Fill the user message template of a prompt with several contents
+     * 
+     * Each content is kept within the feedback budget and preceded by its index
+     * in the format [index], as expected by the batch system message.
+     *
+     * @param promptType The prompt template to use
+     * @param contents The contents to insert, in index order
+     * @return The user message
+     */
+    public String formatBatchPrompt(PromptType promptType, List<String> contents) {
+        String indexed = IntStream.range(0, contents.size())
+                .mapToObj(i -> "[" + i + "] " + promptBudget.fitFeedback(promptType, contents.get(i)))
+                .collect(Collectors.joining("\n"));
+        return promptType.format(indexed, knownCodes(promptType));
+    }
+
+    /**
+     * Fill a prompt template with the given content, send it and bind the response
+     * 
+     * Results are served from the response cache when the same normalized
+     * content was already sent with the same prompt template version.
+     *
+     * @param promptType The prompt template to use
+     * @param content The content to insert into the template
+     * @param type The result type of the prompt
+     * @return The typed result
+     * @throws RuntimeException if the response cannot be bound to the result type
+     */
+    public <T> T sendPromptAndBind(PromptType promptType, String content, Class<T> type) {
+        return responseCache.get(promptType, content, type).orElseGet(() -> {
+            T result = responseBinder.bind(promptType, sendPrompt(promptType, formatPrompt(promptType, content)), type);
+            responseCache.put(promptType, content, result);
+            return result;
+        });
+    }
+
+    /// ======= Private methods ======= ///
+
+    /**
+     * List the most used canonical feature codes within their token budget
+     * 
+     * @param promptType The prompt the codes are listed in
+     * @return The comma-separated codes, or "(none yet)"
+     */
+    private String knownCodes(PromptType promptType) {
+        List<String> codes = featureCodeIndex.getTopCodes();
+        return codes.isEmpty() ? "(none yet)" : promptBudget.fitFeatureCodes(promptType, codes);
+    }
+
+    /**
+     * Get the metric tag of a prompt type
+     * 
+     * @param promptType The prompt type
+     * @return The prompt type name in lower case, such as spam_analysis
+     */
+    String promptTag(PromptType promptType) {
+        return promptType.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Count the prompt and completion tokens reported in the response metadata
+     * 
+     * Prompt tokens the provider served from its prompt cache are also counted,
+     * as type cached, when the response carries OpenAI usage details.
+     * Also used by {@link ReactiveLLMService} for the last chunk of a stream.
+     * 
+     * @param prompt The prompt type tag
+     * @param aiResponse The model response
+     */
+    void recordTokens(String prompt, ChatResponse aiResponse) {
+        Usage usage = aiResponse.getMetadata() != null ? aiResponse.getMetadata().getUsage() : null;
+        if (usage == null) {
+            return;
+        }
+        if (usage.getPromptTokens() != null) {
+            meterRegistry.counter(TOKENS_METRIC, "prompt", prompt, "type", "prompt").increment(usage.getPromptTokens());
+        }
+        if (usage.getCompletionTokens() != null) {
+            meterRegistry.counter(TOKENS_METRIC, "prompt", prompt, "type", "completion").increment(usage.getCompletionTokens());
+        }
+        if (usage.getNativeUsage() instanceof OpenAiApi.Usage openAiUsage && openAiUsage.promptTokensDetails() != null
+                && openAiUsage.promptTokensDetails().cachedTokens() != null) {
+            int cachedTokens = openAiUsage.promptTokensDetails().cachedTokens();
+            meterRegistry.counter(TOKENS_METRIC, "prompt", prompt, "type", "cached").increment(cachedTokens);
+            promptBudget.recordCachedPromptTokens(cachedTokens);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,167 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.LiveTopFeaturesResponse;
+import com.alura.alumind.dto.LiveTopFeaturesResponse.LiveFeatureDto;
+import com.alura.alumind.repository.DailyFeatureCountRepository.FeatureTotal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximate all-time top requested features, kept in memory with the Space-Saving algorithm
+ * 
+ * At most alumind.report.live-features.capacity feature codes are tracked, each
+ * with a counter and the maximum overestimation of that counter. A code seen
+ * while all counters are taken replaces the code with the lowest counter and
+ * inherits its count as error, so counters never underestimate: the real count
+ * of a tracked code lies between count - error and count, and a code that is
+ * not tracked was requested at most as often as the lowest counter. Both bounds
+ * are returned with the top features, so dashboards can poll it without
+ * running the grouped query over the requested features.
+ * 
+ * The tracker is loaded with the exact totals of the most requested codes from
+ * the feature rollups on startup and after each rebuild, then fed with the
+ * feature codes of every committed feedback, each code once per feedback.
+ * 
+ * The tracker only sees the feedbacks saved by this instance, so with several
+ * instances each one answers differently and the error bounds no longer hold.
+ * It is disabled by default (alumind.report.live-features.enabled), which
+ * answers 404 on the live endpoint; enable it only for a single-instance
+ * deployment. GET /reports keeps the exact counts of the shared rollups.
+ */
+@Component
+public class LiveFeatureTracker {
+
+    private final boolean enabled;
+    private final int capacity;
+    private final Map<String, Counter> counters = new HashMap<>();
+    private long totalRequests;
+
+    public LiveFeatureTracker(
+            @Value("${alumind.report.live-features.enabled:false}") boolean enabled,
+            @Value("${alumind.report.live-features.capacity:200}") int capacity) {
+        this.enabled = enabled;
+        this.capacity = Math.max(1, capacity);
+    }
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Count one request of each of the given feature codes
+     * 
+     * @param codes The feature codes requested by a feedback, without duplicates
+     */
+    public synchronized void record(Collection<String> codes) {
+        if (!enabled) {
+            return;
+        }
+        for (String code : codes) {
+            totalRequests++;
+            Counter counter = counters.get(code);
+            if (counter != null) {
+                counter.count++;
+            } else if (counters.size() < capacity) {
+                counters.put(code, new Counter(code, 1, 0));
+            } else {
+                Counter lowest = lowestCounter();
+                counters.remove(lowest.code);
+                counters.put(code, new Counter(code, lowest.count + 1, lowest.count));
+            }
+        }
+    }
+
+    /**
+     * Replace the counters with exact totals
+     * 
+     * @param totals The most requested feature codes with their exact totals, at most capacity of them
+     * @param totalRequests The number of feature requests of all codes
+     */
+    public synchronized void load(List<FeatureTotal> totals, long totalRequests) {
+        counters.clear();
+        totals.stream()
+                .limit(capacity)
+                .forEach(total -> counters.put(total.getCode(), new Counter(total.getCode(), total.getTotal(), 0)));
+        this.totalRequests = totalRequests;
+    }
+
+    /**
+     * Get the most requested feature codes with their error bounds
+     * 
+     * A feature is guaranteed to belong to the returned top when its minimum
+     * count is at least the count of any feature left out.
+     * 
+     * @param limit The number of features to return
+     * @return The top features, most requested first
+     * @throws ResponseStatusException 404 if the tracker is disabled
+     * @throws IllegalArgumentException if the limit is not between 1 and the capacity
+     */
+    public synchronized LiveTopFeaturesResponse getTopFeatures(int limit) {
+        if (!enabled) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Live top features are disabled");
+        }
+        if (limit < 1 || limit > capacity) {
+            throw new IllegalArgumentException("limit must be between 1 and " + capacity);
+        }
+
+        List<Counter> sorted = counters.values().stream()
+                .sorted(Comparator.comparingLong((Counter counter) -> counter.count).reversed()
+                        .thenComparing(counter -> counter.code))
+                .toList();
+        long maxError = counters.size() < capacity ? 0 : lowestCounter().count;
+        long threshold = Math.max(maxError, sorted.size() > limit ? sorted.get(limit).count : 0);
+
+        return LiveTopFeaturesResponse.builder()
+                .totalRequests(totalRequests)
+                .capacity(capacity)
+                .maxError(maxError)
+                .features(sorted.stream()
+                        .limit(limit)
+                        .map(counter -> LiveFeatureDto.builder()
+                                .code(counter.code)
+                                .count(counter.count)
+                                .minCount(counter.count - counter.error)
+                                .error(counter.error)
+                                .guaranteed(counter.count - counter.error >= threshold)
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /// ======= Private methods ======= ///
+
+    private Counter lowestCounter() {
+        return counters.values().stream()
+                .min(Comparator.comparingLong(counter -> counter.count))
+                .orElseThrow();
+    }
+
+    /**
+     * Counter of a tracked feature code
+     */
+    private static final class Counter {
+        private final String code;
+        private long count;
+        private final long error;
+
+        private Counter(String code, long count, long error) {
+            this.code = code;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
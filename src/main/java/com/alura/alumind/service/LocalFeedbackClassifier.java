@@ -0,0 +1,253 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.CascadeStatsResponse;
+import com.alura.alumind.dto.FeedbackAnalysis;
+import com.alura.alumind.model.Feedback.SentimentType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Local first-stage classifier run before the LLM
+ * 
+ * Uses link and keyword heuristics to recognize obvious spam, and a small
+ * Portuguese sentiment lexicon (with simple negation handling) to recognize
+ * obviously positive or negative feedback. A verdict is only returned when its
+ * confidence reaches alumind.cascade.confidence-threshold; everything else is
+ * left to the LLM.
+ * 
+ * Feedback is only accepted locally when it is on topic, carries an opinion and
+ * contains no offensive term, since the LLM spam check also rejects offensive
+ * content. Text without letters is always left to the LLM.
+ * 
+ * Sentiment is only decided locally when the feedback contains no request cues,
+ * since feature extraction still needs the LLM.
+ */
+@Component
+@Slf4j
+public class LocalFeedbackClassifier {
+
+    private static final Pattern LINK = Pattern.compile(
+            "(https?://|www\\.)\\S+|\\b[a-z0-9-]+\\.(com|net|org|br|io|xyz|info|biz)\\b");
+    private static final Pattern TOKEN_SPLIT = Pattern.compile("[^a-z0-9?]+");
+    private static final Pattern CONSONANT_RUN = Pattern.compile("[bcdfghjklmnpqrstvwxz]{5,}");
+    private static final Pattern REPEATED_CHAR = Pattern.compile("(.)\\1{4,}");
+
+    private static final List<String> PROMO_TERMS = List.of(
+            "promocao", "desconto", "compre", "ganhe", "gratis", "clique", "oferta", "cupom",
+            "seguidores", "cassino", "aposta", "bitcoin", "renda extra", "lucro", "whatsapp");
+    private static final Set<String> APP_TERMS = Set.of(
+            "app", "aplicativo", "alumind", "meditacao", "meditar", "exercicio", "exercicios", "sessao",
+            "sessoes", "terapia", "humor", "ansiedade", "diario", "notificacao", "notificacoes",
+            "funcionalidade", "recurso", "interface", "tela");
+    private static final Set<String> POSITIVE_TERMS = Set.of(
+            "adorei", "amei", "amo", "otimo", "otima", "otimos", "otimas", "excelente", "maravilhoso", "maravilhosa", "incrivel",
+            "perfeito", "perfeita", "gosto", "gostei", "ajudou", "ajuda", "recomendo", "bom", "boa", "bons", "boas", "melhor",
+            "fantastico", "parabens", "feliz", "util", "eficiente", "lindo", "linda", "top");
+    private static final Set<String> NEGATIVE_TERMS = Set.of(
+            "odeio", "odiei", "pessimo", "pessima", "horrivel", "ruim", "terrivel", "lento", "lenta", "travando",
+            "trava", "bug", "bugs", "erro", "erros", "problema", "problemas", "decepcionado", "decepcionante",
+            "frustrante", "pior", "inutil", "dificil", "confuso", "quebrado", "falha", "chato");
+    private static final Set<String> OFFENSIVE_TERMS = Set.of(
+            "idiota", "idiotas", "imbecil", "imbecis", "burro", "burra", "burros", "otario", "otarios", "babaca",
+            "babacas", "estupido", "estupida", "estupidos", "merda", "porra", "caralho", "desgraca", "desgracado",
+            "desgracados", "vagabundo", "vagabundos", "lixo", "fdp", "vsf");
+    private static final Set<String> NEGATIONS = Set.of("nao", "nunca", "nem");
+    private static final Set<String> REQUEST_CUES = Set.of(
+            "seria", "poderia", "poderiam", "gostaria", "deveria", "deveriam", "queria", "falta", "faltando",
+            "precisa", "precisava", "adicionar", "incluir", "implementar", "sugiro", "sugestao", "tivesse", "?");
+
+    private final boolean enabled;
+    private final double confidenceThreshold;
+
+    private final LongAdder spamChecks = new LongAdder();
+    private final LongAdder spamRejected = new LongAdder();
+    private final LongAdder spamAccepted = new LongAdder();
+    private final LongAdder sentimentChecks = new LongAdder();
+    private final LongAdder sentimentClassified = new LongAdder();
+
+    public LocalFeedbackClassifier(
+            @Value("${alumind.cascade.enabled:false}") boolean enabled,
+            @Value("${alumind.cascade.confidence-threshold:0.8}") double confidenceThreshold) {
+        this.enabled = enabled;
+        this.confidenceThreshold = confidenceThreshold;
+    }
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Decide locally whether the content is spam
+     * 
+     * @param content The feedback content to classify
+     * @return true for confident spam, false for confidently legitimate feedback,
+     *         or empty when the LLM should decide
+     */
+    public Optional<Boolean> classifySpam(String content) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        spamChecks.increment();
+
+        String text = normalize(content);
+        List<String> tokens = tokenize(text);
+        if (tokens.stream().noneMatch(LocalFeedbackClassifier::hasLetter)) {
+            return Optional.empty();
+        }
+
+        double spamScore = 0;
+        if (LINK.matcher(text).find()) {
+            spamScore += 0.5;
+        }
+        String words = " " + String.join(" ", tokens) + " ";
+        spamScore += 0.3 * PROMO_TERMS.stream().filter(term -> words.contains(" " + term + " ")).count();
+        if (isGibberish(tokens)) {
+            spamScore += 0.9;
+        }
+        spamScore = Math.min(1, spamScore);
+
+        if (spamScore >= confidenceThreshold) {
+            spamRejected.increment();
+            return Optional.of(true);
+        }
+
+        // Clean, on-topic text carrying sentiment is legitimate, more confidently with more evidence
+        if (tokens.stream().anyMatch(OFFENSIVE_TERMS::contains)) {
+            return Optional.empty();
+        }
+        long onTopic = tokens.stream().filter(APP_TERMS::contains).count();
+        long opinions = tokens.stream().filter(t -> POSITIVE_TERMS.contains(t) || NEGATIVE_TERMS.contains(t)).count();
+        double legitConfidence = onTopic > 0 && opinions > 0
+                ? (1 - spamScore) * (1 - Math.pow(0.5, onTopic + opinions))
+                : 0;
+        if (legitConfidence >= confidenceThreshold) {
+            spamAccepted.increment();
+            return Optional.of(false);
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Decide locally the sentiment of a feedback without feature requests
+     * 
+     * @param content The feedback content to classify
+     * @return An analysis with the sentiment and no requested features,
+     *         or empty when the LLM should decide
+     */
+    public Optional<FeedbackAnalysis> classifySentiment(String content) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        sentimentChecks.increment();
+
+        List<String> tokens = tokenize(normalize(content));
+        if (tokens.stream().anyMatch(REQUEST_CUES::contains)) {
+            return Optional.empty();
+        }
+
+        int positive = 0;
+        int negative = 0;
+        boolean negated = false;
+        for (String token : tokens) {
+            boolean isPositive = POSITIVE_TERMS.contains(token);
+            boolean isNegative = NEGATIVE_TERMS.contains(token);
+            if (isPositive || isNegative) {
+                if (isPositive != negated) {
+                    positive++;
+                } else {
+                    negative++;
+                }
+            }
+            negated = NEGATIONS.contains(token);
+        }
+
+        int total = positive + negative;
+        if (total == 0) {
+            return Optional.empty();
+        }
+
+        // Agreement between hits, weighted by how much evidence there is
+        double confidence = (double) Math.abs(positive - negative) / total * (1 - Math.pow(0.5, total));
+        if (confidence < confidenceThreshold) {
+            return Optional.empty();
+        }
+
+        sentimentClassified.increment();
+        SentimentType sentiment = positive > negative ? SentimentType.POSITIVO : SentimentType.NEGATIVO;
+        return Optional.of(new FeedbackAnalysis(false, sentiment, List.of()));
+    }
+
+    /**
+     * Get how many spam checks and sentiment analyses bypassed the LLM
+     * 
+     * @return The current cascade statistics
+     */
+    public CascadeStatsResponse getStats() {
+        long spam = spamChecks.sum();
+        long sentiment = sentimentChecks.sum();
+        long spamBypassed = spamRejected.sum() + spamAccepted.sum();
+
+        return CascadeStatsResponse.builder()
+                .enabled(enabled)
+                .confidenceThreshold(confidenceThreshold)
+                .spamChecks(spam)
+                .spamRejected(spamRejected.sum())
+                .spamAccepted(spamAccepted.sum())
+                .spamBypassRate(spam > 0 ? (double) spamBypassed / spam : 0)
+                .sentimentChecks(sentiment)
+                .sentimentClassified(sentimentClassified.sum())
+                .sentimentBypassRate(sentiment > 0 ? (double) sentimentClassified.sum() / sentiment : 0)
+                .build();
+    }
+
+    /// ======= Private methods ======= ///
+
+    /**
+     * Lowercase the content and strip accents
+     * 
+     * @param content The raw feedback content
+     * @return The normalized text
+     */
+    private static String normalize(String content) {
+        String decomposed = Normalizer.normalize(content == null ? "" : content, Normalizer.Form.NFD);
+        return decomposed.replaceAll("\\p{M}", "").toLowerCase();
+    }
+
+    private static List<String> tokenize(String text) {
+        return Arrays.stream(TOKEN_SPLIT.split(text.replace("?", " ? ")))
+                .filter(token -> !token.isBlank())
+                .toList();
+    }
+
+    private static boolean hasLetter(String token) {
+        return token.chars().anyMatch(Character::isLetter);
+    }
+
+    /**
+     * Detect keyboard mashing and other nonsensical text
+     * 
+     * @param tokens The tokens of the text
+     * @return true if most tokens with letters look like gibberish
+     */
+    private static boolean isGibberish(List<String> tokens) {
+        List<String> words = tokens.stream().filter(LocalFeedbackClassifier::hasLetter).toList();
+        if (words.isEmpty()) {
+            return false;
+        }
+
+        long gibberish = words.stream()
+                .filter(word -> CONSONANT_RUN.matcher(word).find()
+                        || REPEATED_CHAR.matcher(word).find()
+                        || (word.length() > 3 && word.chars().noneMatch(c -> "aeiouy".indexOf(c) >= 0)))
+                .count();
+        return words.size() >= 2 ? gibberish * 2 > words.size() : gibberish == 1;
+    }
+}
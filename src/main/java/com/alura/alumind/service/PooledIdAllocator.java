@@ -0,0 +1,70 @@
+package com.alura.alumind.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Hands out ids from blocks reserved on a pooled sequence, like Hibernate's pooled optimizer
+ * 
+ * Each call to the sequence returns a value v and reserves the block of ids
+ * from v - blockSize + 1 to v. The unused ids of a block are kept for the next
+ * allocations, so the sequence is only called once per blockSize ids. Blocks
+ * reserved by concurrent allocations are all kept, so no id is skipped while
+ * the application runs.
+ */
+class PooledIdAllocator {
+
+    private final Supplier<Mono<Long>> nextIdBlock;
+    private final int blockSize;
+    private final Deque<long[]> blocks = new ArrayDeque<>();
+
+    /**
+     * @param nextIdBlock Reads the next value of the sequence
+     * @param blockSize The increment of the sequence
+     */
+    PooledIdAllocator(Supplier<Mono<Long>> nextIdBlock, int blockSize) {
+        this.nextIdBlock = nextIdBlock;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Reserve ids, reading the sequence only when the reserved blocks run out
+     * 
+     * @param count The number of ids needed
+     * @return The ids, in ascending order within each block
+     */
+    Flux<Long> allocate(int count) {
+        return Flux.defer(() -> {
+            List<Long> ids = take(count);
+            if (ids.size() == count) {
+                return Flux.fromIterable(ids);
+            }
+            return Flux.fromIterable(ids)
+                    .concatWith(nextIdBlock.get().doOnNext(this::addBlock).thenMany(allocate(count - ids.size())));
+        });
+    }
+
+    /// ======= Private methods ======= ///
+
+    private synchronized List<Long> take(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count && !blocks.isEmpty()) {
+            long[] block = blocks.peekFirst();
+            ids.add(block[0]++);
+            if (block[0] > block[1]) {
+                blocks.removeFirst();
+            }
+        }
+        return ids;
+    }
+
+    private synchronized void addBlock(long last) {
+        blocks.addLast(new long[] {last - blockSize + 1, last});
+    }
+}
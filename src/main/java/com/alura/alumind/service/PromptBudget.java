@@ -0,0 +1,300 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.PromptStatsResponse;
+import com.alura.alumind.dto.PromptStatsResponse.PromptTypeStatsDto;
+import com.alura.alumind.dto.ReportResponse.TopFeaturesDto;
+import com.alura.alumind.utils.LLMPrompts.PromptType;
+import com.alura.alumind.utils.TokenEstimator;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Token budgets for the variable parts of LLM prompts
+ * 
+ * Sizes are estimated with {@link TokenEstimator}. Inputs over their budget are
+ * cut down before they reach the prompt:
+ * - a feedback keeps its beginning and its end, joined by a [...] marker
+ * - the list of feature codes already in use keeps the most used codes
+ * - the top features of the weekly summary keep the most requested features
+ *   and summarize the rest in a single line
+ * 
+ * Every prompt sent is recorded, so the estimated size of the fixed system
+ * message (the cacheable prefix), of the variable user message and the tokens
+ * saved by the budgets can be reported per prompt type.
+ */
+@Component
+@Slf4j
+public class PromptBudget {
+
+    public static final String TRUNCATION_MARKER = " [...] ";
+    public static final String TOKENS_SAVED_METRIC = "alumind.llm.prompt.tokens.saved";
+
+    private static final Pattern WORD = Pattern.compile("\\S+\\s*");
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final int feedbackTokens;
+    private final int featureCodesTokens;
+    private final int weeklyFeaturesTokens;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<PromptType, Counters> counters = new EnumMap<>(PromptType.class);
+    private final LongAdder cachedPromptTokens = new LongAdder();
+
+    public PromptBudget(
+            @Value("${alumind.llm.budget.feedback-tokens:500}") int feedbackTokens,
+            @Value("${alumind.llm.budget.feature-codes-tokens:300}") int featureCodesTokens,
+            @Value("${alumind.llm.budget.weekly-features-tokens:400}") int weeklyFeaturesTokens,
+            MeterRegistry meterRegistry) {
+        this.feedbackTokens = feedbackTokens;
+        this.featureCodesTokens = featureCodesTokens;
+        this.weeklyFeaturesTokens = weeklyFeaturesTokens;
+        this.meterRegistry = meterRegistry;
+        for (PromptType promptType : PromptType.values()) {
+            counters.put(promptType, new Counters());
+        }
+    }
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Fit a feedback into alumind.llm.budget.feedback-tokens
+     * 
+     * An oversized feedback keeps about two thirds of the budget from its
+     * beginning and the rest from its end, cut at word boundaries, since
+     * requests and conclusions tend to sit at either end of long texts.
+     * 
+     * @param promptType The prompt the feedback is inserted into
+     * @param content The feedback content
+     * @return The content, shortened when over the budget
+     */
+    public String fitFeedback(PromptType promptType, String content) {
+        int tokens = TokenEstimator.estimate(content);
+        if (tokens <= feedbackTokens) {
+            return content;
+        }
+
+        int available = feedbackTokens - TokenEstimator.estimate(TRUNCATION_MARKER);
+        String head = leadingWithin(content, available * 2 / 3);
+        String tail = trailingWithin(content.substring(head.length()), available - TokenEstimator.estimate(head));
+        String fitted = head.strip() + TRUNCATION_MARKER + tail.strip();
+
+        recordSaved(promptType, tokens - TokenEstimator.estimate(fitted));
+        log.debug("Feedback of {} estimated tokens truncated for {}", tokens, promptType);
+        return fitted;
+    }
+
+    /**
+     * Fit the feature codes already in use into alumind.llm.budget.feature-codes-tokens
+     * 
+     * @param promptType The prompt the codes are listed in
+     * @param codes The codes, most used first
+     * @return The comma-separated codes that fit, most used first
+     */
+    public String fitFeatureCodes(PromptType promptType, List<String> codes) {
+        String all = String.join(", ", codes);
+        int tokens = TokenEstimator.estimate(all);
+        if (tokens <= featureCodesTokens) {
+            return all;
+        }
+
+        List<String> kept = new ArrayList<>();
+        int used = 0;
+        for (String code : codes) {
+            int codeTokens = TokenEstimator.estimate(code) + 1;
+            if (used + codeTokens > featureCodesTokens) {
+                break;
+            }
+            kept.add(code);
+            used += codeTokens;
+        }
+
+        String fitted = String.join(", ", kept);
+        recordSaved(promptType, tokens - TokenEstimator.estimate(fitted));
+        return fitted;
+    }
+
+    /**
+     * Fit the top features of the weekly summary into alumind.llm.budget.weekly-features-tokens
+     * 
+     * Features are listed one per line as "- CODE: count". Features beyond the
+     * budget are summarized in a last line with their number and total requests.
+     * 
+     * @param features The top features, most requested first
+     * @return The feature lines, or "(none)" when there are no features
+     */
+    public String fitTopFeatures(List<TopFeaturesDto> features) {
+        if (features.isEmpty()) {
+            return "(none)";
+        }
+
+        List<String> lines = features.stream()
+                .map(feature -> "- " + feature.getCode() + ": " + feature.getFeedbacksCounter())
+                .toList();
+        String all = String.join("\n", lines);
+        int tokens = TokenEstimator.estimate(all);
+        if (tokens <= weeklyFeaturesTokens) {
+            return all;
+        }
+
+        // Reserve room for the summary line of the features left out
+        int available = weeklyFeaturesTokens - TokenEstimator.estimate(remainderLine(features.size(), Long.MAX_VALUE));
+        StringBuilder fitted = new StringBuilder();
+        int used = 0;
+        int kept = 0;
+        while (kept < lines.size() && used + TokenEstimator.estimate(lines.get(kept)) <= available) {
+            fitted.append(lines.get(kept)).append('\n');
+            used += TokenEstimator.estimate(lines.get(kept));
+            kept++;
+        }
+        long remainingRequests = features.subList(kept, features.size()).stream()
+                .mapToLong(TopFeaturesDto::getFeedbacksCounter)
+                .sum();
+        fitted.append(remainderLine(features.size() - kept, remainingRequests));
+
+        recordSaved(PromptType.WEEKLY_SUMMARY, tokens - TokenEstimator.estimate(fitted.toString()));
+        return fitted.toString();
+    }
+
+    /**
+     * Record the estimated size of a prompt that is about to be sent
+     * 
+     * @param promptType The prompt type
+     * @param systemMessage The fixed system message
+     * @param userMessage The variable user message
+     */
+    public void recordPrompt(PromptType promptType, String systemMessage, String userMessage) {
+        Counters typeCounters = counters.get(promptType);
+        typeCounters.calls.increment();
+        typeCounters.systemTokens.add(TokenEstimator.estimate(systemMessage));
+        typeCounters.userTokens.add(TokenEstimator.estimate(userMessage));
+    }
+
+    /**
+     * Record prompt tokens the provider reported as served from its prompt cache
+     * 
+     * @param tokens The cached prompt tokens of a response
+     */
+    public void recordCachedPromptTokens(long tokens) {
+        cachedPromptTokens.add(tokens);
+    }
+
+    /**
+     * Get prompt sizes and tokens saved, per prompt type
+     * 
+     * @return The current prompt statistics
+     */
+    public PromptStatsResponse getStats() {
+        Map<String, PromptTypeStatsDto> promptTypes = new LinkedHashMap<>();
+        long calls = 0;
+        long truncations = 0;
+        long tokensSaved = 0;
+        for (Map.Entry<PromptType, Counters> entry : counters.entrySet()) {
+            Counters typeCounters = entry.getValue();
+            promptTypes.put(entry.getKey().name(), PromptTypeStatsDto.builder()
+                    .calls(typeCounters.calls.sum())
+                    .systemTokens(typeCounters.systemTokens.sum())
+                    .userTokens(typeCounters.userTokens.sum())
+                    .truncations(typeCounters.truncations.sum())
+                    .tokensSaved(typeCounters.tokensSaved.sum())
+                    .build());
+            calls += typeCounters.calls.sum();
+            truncations += typeCounters.truncations.sum();
+            tokensSaved += typeCounters.tokensSaved.sum();
+        }
+
+        return PromptStatsResponse.builder()
+                .calls(calls)
+                .truncations(truncations)
+                .tokensSaved(tokensSaved)
+                .cachedPromptTokens(cachedPromptTokens.sum())
+                .promptTypes(promptTypes)
+                .build();
+    }
+
+    /// ======= Private methods ======= ///
+
+    /**
+     * Take the longest run of whole words from the start of a text within a token budget
+     * 
+     * A first word longer than the whole budget is cut by characters.
+     * 
+     * @param text The text
+     * @param maxTokens The token budget
+     * @return The leading words, including their trailing whitespace
+     */
+    private String leadingWithin(String text, int maxTokens) {
+        Matcher words = WORD.matcher(text);
+        int used = 0;
+        int end = 0;
+        while (words.find()) {
+            int wordTokens = TokenEstimator.estimate(words.group());
+            if (used + wordTokens > maxTokens) {
+                break;
+            }
+            used += wordTokens;
+            end = words.end();
+        }
+        if (end == 0) {
+            return text.substring(0, Math.min(text.length(), Math.max(0, maxTokens) * CHARS_PER_TOKEN));
+        }
+        return text.substring(0, end);
+    }
+
+    /**
+     * Take the longest run of whole words from the end of a text within a token budget
+     * 
+     * @param text The text
+     * @param maxTokens The token budget
+     * @return The trailing words
+     */
+    private String trailingWithin(String text, int maxTokens) {
+        List<int[]> spans = new ArrayList<>();
+        Matcher words = WORD.matcher(text);
+        while (words.find()) {
+            spans.add(new int[]{words.start(), words.end()});
+        }
+
+        int used = 0;
+        int start = text.length();
+        for (int i = spans.size() - 1; i >= 0; i--) {
+            int wordTokens = TokenEstimator.estimate(text.substring(spans.get(i)[0], spans.get(i)[1]));
+            if (used + wordTokens > maxTokens) {
+                break;
+            }
+            used += wordTokens;
+            start = spans.get(i)[0];
+        }
+        return text.substring(start);
+    }
+
+    private String remainderLine(int features, long requests) {
+        return String.format(Locale.ROOT, "- (%d other features, %d requests in total)", features, requests);
+    }
+
+    private void recordSaved(PromptType promptType, int tokens) {
+        Counters typeCounters = counters.get(promptType);
+        typeCounters.truncations.increment();
+        typeCounters.tokensSaved.add(tokens);
+        meterRegistry.counter(TOKENS_SAVED_METRIC, "prompt", promptType.name().toLowerCase(Locale.ROOT)).increment(tokens);
+    }
+
+    private static final class Counters {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder systemTokens = new LongAdder();
+        private final LongAdder userTokens = new LongAdder();
+        private final LongAdder truncations = new LongAdder();
+        private final LongAdder tokensSaved = new LongAdder();
+    }
+}
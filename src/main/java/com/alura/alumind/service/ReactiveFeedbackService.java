@@ -0,0 +1,289 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.FeedbackAnalysis;
+import com.alura.alumind.dto.FeedbackRequest;
+import com.alura.alumind.dto.FeedbackResponse.FeedbackFullDto;
+import com.alura.alumind.dto.FeedbackResponse.FeedbackShortDto;
+import com.alura.alumind.dto.FeedbackResponse.RequestedFeatures;
+import com.alura.alumind.dto.SpamVerdict;
+import com.alura.alumind.model.Feedback;
+import com.alura.alumind.model.FeedbackRecord;
+import com.alura.alumind.model.RequestedFeature;
+import com.alura.alumind.model.RequestedFeatureRecord;
+import com.alura.alumind.repository.ReactiveFeedbackRepository;
+import com.alura.alumind.repository.ReactiveRequestedFeaturesRepository;
+import com.alura.alumind.utils.LLMPrompts.PromptType;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.alura.alumind.repository.ReactiveFeedbackRepository.ID_BLOCK_SIZE;
+
+/**
+ * Non-blocking counterpart of {@link FeedbackService}, used by the reactive profile
+ * 
+ * The analysis follows the same steps as the blocking service: the local
+ * classifier answers first and the LLM is only called, through
+ * {@link ReactiveLLMService}, for the steps it is not confident about, either
+ * as a spam check followed by the analysis or as a single fused call.
+ * 
+ * The feedback, its requested features and the rollup increments are written
+ * through R2DBC in one reactive transaction, and the feedback is added to
+ * {@link SentimentTrendBuffer} and {@link LiveFeatureTracker} once it commits. Feature code
+ * canonicalization may persist a new alias through JPA, so it runs on the
+ * bounded elastic scheduler. Ids are taken from the sequences of the JPA
+ * entities through {@link PooledIdAllocator}, one sequence call per 50 ids.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveFeedbackService {
+
+    private final ReactiveLLMService reactiveLLMService;
+    private final LocalFeedbackClassifier localClassifier;
+    private final FeedbackService feedbackService;
+    private final ReactiveFeedbackRepository feedbackRepository;
+    private final ReactiveRequestedFeaturesRepository requestedFeaturesRepository;
+    private final R2dbcEntityTemplate entityTemplate;
+    private final TransactionalOperator transactionalOperator;
+    private final SentimentTrendBuffer trendBuffer;
+    private final LiveFeatureTracker featureTracker;
+    private final MeterRegistry meterRegistry;
+
+    private final PooledIdAllocator feedbackIds = new PooledIdAllocator(this::nextFeedbackIdBlock, ID_BLOCK_SIZE);
+    private final PooledIdAllocator requestedFeatureIds = new PooledIdAllocator(this::nextRequestedFeatureIdBlock, ID_BLOCK_SIZE);
+
+    @Value("${alumind.llm.fused-analysis:false}")
+    private boolean fusedAnalysis;
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Analyze and store user feedback
+     * 
+     * @param request The feedback request containing user feedback text
+     * @return A Mono with the feedback analysis results, failing with
+     *         IllegalArgumentException if the content is empty or classified as spam
+     */
+    public Mono<FeedbackShortDto> analyzeFeedback(FeedbackRequest request) {
+        String content = request.getFeedback();
+        if (content == null || content.isBlank()) {
+            return Mono.error(new IllegalArgumentException("Feedback content cannot be empty"));
+        }
+
+        return analyzeContent(content)
+                .publishOn(Schedulers.boundedElastic())
+                .map(analysis -> feedbackService.buildAnalyzedFeedback(content, analysis))
+                .flatMap(this::save)
+                .map(feedbackService::toShortDto);
+    }
+
+    /**
+     * Retrieve detailed feedback information by ID
+     * 
+     * @param id The unique identifier of the feedback
+     * @return A Mono with complete feedback information, failing with 404 if the feedback is not found
+     */
+    public Mono<FeedbackFullDto> getFeedbackById(Long id) {
+        return feedbackRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Feedback not found")))
+                .zipWith(requestedFeaturesRepository.findByFeedbackIdOrderById(id)
+                        .map(feature -> new RequestedFeatures(feature.getCode(), feature.getReason()))
+                        .collectList())
+                .map(tuple -> toFullDto(tuple.getT1(), tuple.getT2()));
+    }
+
+    /// ======= Private methods ======= ///
+
+    /**
+     * Run the spam check and the LLM analysis for a feedback content
+     * 
+     * @param content The feedback content to analyze
+     * @return A Mono with the sentiment and requested features
+     */
+    private Mono<FeedbackAnalysis> analyzeContent(String content) {
+        Optional<Boolean> localSpamVerdict = localClassifier.classifySpam(content);
+        if (localSpamVerdict.orElse(false)) {
+            log.warn("Spam detected locally: {}", content);
+            meterRegistry.counter(FeedbackService.SPAM_REJECTED_METRIC, "classifier", "local").increment();
+            return Mono.error(new SpamDetectedException());
+        }
+
+        Optional<FeedbackAnalysis> localAnalysis = localClassifier.classifySentiment(content);
+        Mono<FeedbackAnalysis> analysis = Mono.defer(() -> localAnalysis.map(Mono::just)
+                .orElseGet(() -> analyzeWithLLM(content)));
+        if (localSpamVerdict.isEmpty()) {
+            if (fusedAnalysis && localAnalysis.isEmpty()) {
+                return analyzeFusedWithLLM(content);
+            }
+            return checkSpam(content).then(analysis);
+        }
+        return analysis;
+    }
+
+    /**
+     * Check with the LLM if the feedback content is spam or inappropriate
+     * 
+     * @param content The feedback content to check
+     * @return An empty Mono, failing with SpamDetectedException if the content is classified as spam
+     */
+    private Mono<Void> checkSpam(String content) {
+        return reactiveLLMService.sendPromptAndBind(PromptType.SPAM_ANALYSIS, content, SpamVerdict.class)
+                .doOnError(e -> log.error("Error checking spam: {}", e.getMessage(), e))
+                .flatMap(verdict -> rejectIfSpam(content, verdict.spam()));
+    }
+
+    /**
+     * Analyze feedback content using the LLM
+     * 
+     * @param content The feedback content to analyze
+     * @return A Mono with the analysis results
+     */
+    private Mono<FeedbackAnalysis> analyzeWithLLM(String content) {
+        return reactiveLLMService.sendPromptAndBind(PromptType.FEEDBACK_ANALYSIS, content, FeedbackAnalysis.class)
+                .onErrorMap(e -> !(e instanceof ResponseStatusException), e -> analysisFailed("LLM analysis error", e));
+    }
+
+    /**
+     * Check spam, classify sentiment and extract feature requests in a single LLM call
+     * 
+     * @param content The feedback content to analyze
+     * @return A Mono with the analysis results, failing with SpamDetectedException
+     *         if the content is classified as spam
+     */
+    private Mono<FeedbackAnalysis> analyzeFusedWithLLM(String content) {
+        return reactiveLLMService.sendPromptAndBind(PromptType.FUSED_FEEDBACK_ANALYSIS, content, FeedbackAnalysis.class)
+                .onErrorMap(e -> !(e instanceof ResponseStatusException), e -> analysisFailed("LLM fused analysis error", e))
+                .flatMap(result -> rejectIfSpam(content, result.spam()).thenReturn(result));
+    }
+
+    /**
+     * Log an analysis failure and map it to a 500, like {@link FeedbackService} does
+     * 
+     * @param message The log message
+     * @param e The error raised by the LLM call or the binder
+     * @return The exception to propagate
+     */
+    private ResponseStatusException analysisFailed(String message, Throwable e) {
+        log.error("{}: {}", message, e.getMessage(), e);
+        return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "LLM analysis failed: " + e.getMessage());
+    }
+
+    /**
+     * Reject the feedback if the LLM result flags it as spam
+     * 
+     * @param content The feedback content that was analyzed
+     * @param spam The spam flag of the LLM result
+     * @return An empty Mono, failing with SpamDetectedException if the content is classified as spam
+     */
+    private Mono<Void> rejectIfSpam(String content, boolean spam) {
+        if (spam) {
+            log.warn("Spam detected: {}", content);
+            meterRegistry.counter(FeedbackService.SPAM_REJECTED_METRIC, "classifier", "llm").increment();
+            return Mono.error(new SpamDetectedException());
+        }
+        return Mono.empty();
+    }
+
+    /**
+     * Insert an analyzed feedback and its requested features and add them to the rollups
+     * 
+     * @param feedback The analyzed feedback; its id and the ids of its requested features are set
+     * @return A Mono with the persisted feedback
+     */
+    private Mono<Feedback> save(Feedback feedback) {
+        List<RequestedFeature> features = feedback.getRequestedFeatures();
+        LocalDate day = feedback.getCreatedAt().toLocalDate();
+        Set<String> codes = new LinkedHashSet<>();
+        features.forEach(feature -> codes.add(feature.getCode()));
+
+        Mono<Feedback> inserts = feedbackIds.allocate(1).next()
+                .flatMap(id -> {
+                    feedback.setId(id);
+                    return entityTemplate.insert(toRecord(feedback));
+                })
+                // Zipped inside thenMany: an empty feature list would otherwise cancel the feedback insert
+                .thenMany(requestedFeatureIds.allocate(features.size()).zipWithIterable(features))
+                .concatMap(idAndFeature -> {
+                    RequestedFeature feature = idAndFeature.getT2();
+                    feature.setId(idAndFeature.getT1());
+                    return entityTemplate.insert(toRecord(feedback, feature));
+                })
+                .then(feedbackRepository.incrementSentimentCount(day, feedback.getSentiment().name(), 1))
+                .then(feedbackRepository.incrementHourlySentimentCount(
+                        feedback.getCreatedAt().truncatedTo(ChronoUnit.HOURS), feedback.getSentiment().name(), 1))
+                .thenMany(Flux.fromIterable(codes)
+                        .concatMap(code -> requestedFeaturesRepository.incrementFeatureCount(day, code, 1)))
+                .then(Mono.just(feedback));
+
+        return transactionalOperator.transactional(inserts)
+                .doOnSuccess(saved -> {
+                    trendBuffer.record(saved.getCreatedAt(), saved.getSentiment(), 1);
+                    featureTracker.record(codes);
+                });
+    }
+
+    private Mono<Long> nextFeedbackIdBlock() {
+        return feedbackRepository.nextIdBlock();
+    }
+
+    private Mono<Long> nextRequestedFeatureIdBlock() {
+        return requestedFeaturesRepository.nextIdBlock();
+    }
+
+    private FeedbackRecord toRecord(Feedback feedback) {
+        return FeedbackRecord.builder()
+                .id(feedback.getId())
+                .content(feedback.getContent())
+                .sentiment(feedback.getSentiment())
+                .status(feedback.getStatus())
+                .createdAt(feedback.getCreatedAt())
+                .build();
+    }
+
+    private RequestedFeatureRecord toRecord(Feedback feedback, RequestedFeature feature) {
+        return RequestedFeatureRecord.builder()
+                .id(feature.getId())
+                .feedbackId(feedback.getId())
+                .code(feature.getCode())
+                .reason(feature.getReason())
+                .createdAt(feedback.getCreatedAt())
+                .build();
+    }
+
+    /**
+     * Convert a feedback row and its requested features to a full DTO
+     * 
+     * @param feedback The feedback row
+     * @param features The requested features of the feedback
+     * @return A full DTO with complete feedback information
+     */
+    private FeedbackFullDto toFullDto(FeedbackRecord feedback, List<RequestedFeatures> features) {
+        return FeedbackFullDto.builder()
+                .id(feedback.getId())
+                .content(feedback.getContent())
+                .status(feedback.getStatus().name())
+                .sentiment(feedback.getSentiment() != null ? feedback.getSentiment().name() : null)
+                .createdAt(feedback.getCreatedAt().toString())
+                .requestedFeatures(features)
+                .build();
+    }
+}
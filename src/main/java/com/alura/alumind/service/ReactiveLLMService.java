@@ -0,0 +1,117 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.utils.LLMPrompts.PromptType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking counterpart of {@link LLMService}, used by the reactive profile
+ * 
+ * Prompts are sent through the streaming chat API, whose HTTP client does not
+ * hold a thread while the model generates, and the chunks are joined into a
+ * single response. Prompts are formatted by {@link LLMService}, so budgets and
+ * known feature codes are the same in both stacks, and calls go through
+ * {@link LLMCallGuard#executeAsync}. Typed results share the response cache.
+ * 
+ * Calls are timed in alumind.llm.calls and their token usage is counted in
+ * alumind.llm.tokens, like the blocking calls. The provider only reports the
+ * usage of a stream when spring.ai.openai.chat.options.stream-usage is set.
+ * Micro-batching is not applied: a waiting call costs no thread here.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveLLMService {
+
+    private final ChatModel chatModel;
+    private final LLMService llmService;
+    private final LLMResponseBinder responseBinder;
+    private final LLMResponseCache responseCache;
+    private final LLMCallGuard callGuard;
+    private final PromptBudget promptBudget;
+    private final MeterRegistry meterRegistry;
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Send a prompt with the system message of its type and get the whole response
+     * 
+     * The timer covers the whole guarded call, including waiting for permits and
+     * retries, and is recorded when the returned Mono terminates.
+     * 
+     * @param promptType The prompt type, selecting the system message and the bulkhead the call runs in
+     * @param userMessage The variable part of the prompt
+     * @return A Mono with the raw text response from the model
+     */
+    public Mono<String> sendPrompt(PromptType promptType, String userMessage) {
+        String systemMessage = promptType.getSystemMessage();
+        Prompt chatPrompt = new Prompt(List.of(new SystemMessage(systemMessage), new UserMessage(userMessage)));
+        String prompt = llmService.promptTag(promptType);
+
+        return Mono.defer(() -> {
+            promptBudget.recordPrompt(promptType, systemMessage, userMessage);
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return callGuard.executeAsync(promptType, () -> aggregate(prompt, chatModel.stream(chatPrompt)))
+                    .doOnSuccess(response -> sample.stop(meterRegistry.timer(LLMService.CALLS_METRIC, "prompt", prompt, "outcome", "success")))
+                    .doOnError(e -> sample.stop(meterRegistry.timer(LLMService.CALLS_METRIC, "prompt", prompt, "outcome", "error")));
+        });
+    }
+
+    /**
+     * Fill a prompt template with the given content, send it and bind the response
+     * 
+     * Results are served from the response cache when the same normalized
+     * content was already sent with the same prompt template version.
+     * 
+     * @param promptType The prompt template to use
+     * @param content The content to insert into the template
+     * @param type The result type of the prompt
+     * @return A Mono with the typed result, failing if the response cannot be bound
+     */
+    public <T> Mono<T> sendPromptAndBind(PromptType promptType, String content, Class<T> type) {
+        return Mono.defer(() -> Mono.justOrEmpty(responseCache.get(promptType, content, type)))
+                .switchIfEmpty(Mono.defer(() -> sendPrompt(promptType, llmService.formatPrompt(promptType, content))
+                        .map(response -> {
+                            T result = responseBinder.bind(promptType, response, type);
+                            responseCache.put(promptType, content, result);
+                            return result;
+                        })));
+    }
+
+    /// ======= Private methods ======= ///
+
+    /**
+     * Join the text chunks of a streamed response, counting the tokens of its last chunk
+     * 
+     * @param prompt The prompt type tag
+     * @param stream The streamed chat responses
+     * @return A Mono with the trimmed response text
+     */
+    private Mono<String> aggregate(String prompt, Flux<ChatResponse> stream) {
+        return stream.collectList().map(responses -> {
+            if (!responses.isEmpty()) {
+                llmService.recordTokens(prompt, responses.get(responses.size() - 1));
+            }
+            return responses.stream()
+                    .filter(response -> response.getResult() != null && response.getResult().getOutput() != null)
+                    .map(response -> response.getResult().getOutput().getText())
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.joining())
+                    .trim();
+        });
+    }
+}
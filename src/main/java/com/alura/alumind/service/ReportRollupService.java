@@ -0,0 +1,233 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.model.Feedback;
+import com.alura.alumind.model.Feedback.SentimentType;
+import com.alura.alumind.model.RequestedFeature;
+import com.alura.alumind.repository.DailyFeatureCountRepository;
+import com.alura.alumind.repository.DailyFeatureCountRepository.FeatureTotal;
+import com.alura.alumind.repository.DailySentimentCountRepository;
+import com.alura.alumind.repository.DailySentimentCountRepository.SentimentTotal;
+import com.alura.alumind.repository.FeedbackPartitionManager;
+import com.alura.alumind.repository.HourlySentimentCountRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Service for maintaining the daily report rollups
+ * 
+ * The rollup tables hold the number of analyzed feedbacks per day and sentiment,
+ * per hour and sentiment, and per day and requested feature code. They are
+ * incremented in the same transaction that saves an analyzed feedback, and can
+ * be rebuilt from the feedbacks table by the backfill job. Reports read only the rows of the
+ * requested range, so their cost depends on the range length, not on the
+ * number of feedbacks. Rollups of archived months are never rebuilt, so they
+ * outlive the feedbacks they count.
+ * 
+ * Committed feedbacks are also added to {@link SentimentTrendBuffer} and
+ * {@link LiveFeatureTracker}, which are loaded from the rollups on startup and
+ * after each rebuild.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReportRollupService {
+
+    private final DailySentimentCountRepository sentimentCountRepository;
+    private final HourlySentimentCountRepository hourlySentimentCountRepository;
+    private final DailyFeatureCountRepository featureCountRepository;
+    private final FeedbackPartitionManager partitionManager;
+    private final SentimentTrendBuffer trendBuffer;
+    private final LiveFeatureTracker featureTracker;
+
+    /// ======= Lifecycle ======= ///
+
+    @PostConstruct
+    void initialize() {
+        loadTrendBuffer();
+        loadFeatureTracker();
+    }
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Add an analyzed feedback to the rollups
+     * 
+     * Must be called inside the transaction that persists the feedback.
+     * Each feature code is counted once per feedback. The trend buffer and the
+     * live feature tracker are updated once the transaction commits.
+     * 
+     * @param feedback The analyzed feedback
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordFeedback(Feedback feedback) {
+        recordFeedbacks(List.of(feedback));
+    }
+
+    /**
+     * Add a batch of analyzed feedbacks to the rollups
+     * 
+     * Must be called inside the transaction that persists the feedbacks. The
+     * counts are summed per rollup row first, so each (day, sentiment), (hour,
+     * sentiment) and (day, code) row is upserted once per batch, in key order so
+     * that concurrent batches lock the rows in the same order.
+     * 
+     * @param feedbacks The analyzed feedbacks
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordFeedbacks(List<Feedback> feedbacks) {
+        Map<SentimentKey<LocalDate>, Long> daily = new TreeMap<>();
+        Map<SentimentKey<LocalDateTime>, Long> hourly = new TreeMap<>();
+        Map<FeatureKey, Long> features = new TreeMap<>();
+        List<Set<String>> codesByFeedback = new ArrayList<>();
+        for (Feedback feedback : feedbacks) {
+            LocalDateTime createdAt = feedback.getCreatedAt();
+            LocalDate day = createdAt.toLocalDate();
+            daily.merge(new SentimentKey<>(day, feedback.getSentiment()), 1L, Long::sum);
+            hourly.merge(new SentimentKey<>(createdAt.truncatedTo(ChronoUnit.HOURS), feedback.getSentiment()), 1L, Long::sum);
+
+            Set<String> codes = new LinkedHashSet<>();
+            for (RequestedFeature feature : feedback.getRequestedFeatures()) {
+                codes.add(feature.getCode());
+            }
+            codes.forEach(code -> features.merge(new FeatureKey(day, code), 1L, Long::sum));
+            codesByFeedback.add(codes);
+        }
+
+        daily.forEach((key, delta) -> sentimentCountRepository.increment(key.period(), key.sentiment().name(), delta));
+        hourly.forEach((key, delta) -> hourlySentimentCountRepository.increment(key.period(), key.sentiment().name(), delta));
+        features.forEach((key, delta) -> featureCountRepository.increment(key.day(), key.code(), delta));
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                hourly.forEach((key, delta) -> trendBuffer.record(key.period(), key.sentiment(), delta));
+                codesByFeedback.forEach(featureTracker::record);
+            }
+        });
+    }
+
+    /**
+     * Rebuild the rollup tables from the feedbacks table and reload the in-memory counts
+     * 
+     * Only the days after the archived partitions are rebuilt; the rollups of
+     * archived days are kept as they are.
+     */
+    @Transactional
+    public void rebuild() {
+        LocalDate archivedUntil = partitionManager.getArchivedUntil();
+        LocalDate since = archivedUntil != null ? archivedUntil : LocalDate.EPOCH;
+        sentimentCountRepository.deleteRollupsSince(since);
+        hourlySentimentCountRepository.deleteRollupsSince(since.atStartOfDay());
+        featureCountRepository.deleteRollupsSince(since);
+        int sentimentRows = sentimentCountRepository.rebuildFromFeedbacks(since.atStartOfDay());
+        int hourlyRows = hourlySentimentCountRepository.rebuildFromFeedbacks(since.atStartOfDay());
+        int featureRows = featureCountRepository.rebuildFromFeedbacks(since.atStartOfDay());
+        loadTrendBuffer();
+        loadFeatureTracker();
+        log.info("Report rollups rebuilt since {}: {} sentiment rows, {} hourly rows, {} feature rows",
+                since, sentimentRows, hourlyRows, featureRows);
+    }
+
+    /**
+     * Check whether the rollups hold any data
+     * 
+     * @return true if no sentiment rollup rows exist
+     */
+    public boolean isEmpty() {
+        return sentimentCountRepository.count() == 0;
+    }
+
+    /**
+     * Get the number of analyzed feedbacks per sentiment
+     * 
+     * @param start The first day of the range (inclusive), or null for all time
+     * @param end The last day of the range (inclusive), or null for all time
+     * @return The count for every sentiment, zero when absent
+     */
+    public Map<SentimentType, Long> countBySentiment(LocalDate start, LocalDate end) {
+        List<SentimentTotal> totals = start == null || end == null
+                ? sentimentCountRepository.sumBySentiment()
+                : sentimentCountRepository.sumBySentimentForDateRange(start, end);
+
+        Map<SentimentType, Long> counts = new EnumMap<>(SentimentType.class);
+        for (SentimentType sentiment : SentimentType.values()) {
+            counts.put(sentiment, 0L);
+        }
+        totals.forEach(total -> counts.put(total.getSentiment(), total.getTotal()));
+        return counts;
+    }
+
+    /**
+     * Get a page of the number of analyzed feedbacks per requested feature code, most requested first
+     * 
+     * @param start The first day of the range (inclusive), or null for all time
+     * @param end The last day of the range (inclusive), or null for all time
+     * @param limit The maximum number of feature codes to return
+     * @param offset The number of feature codes to skip
+     * @return The feature codes with their feedback count
+     */
+    public List<FeatureTotal> countByFeature(LocalDate start, LocalDate end, int limit, int offset) {
+        return start == null || end == null
+                ? featureCountRepository.sumByCode(limit, offset)
+                : featureCountRepository.sumByCodeForDateRange(start, end, limit, offset);
+    }
+
+    /// ======= Private methods ======= ///
+
+    private void loadTrendBuffer() {
+        LocalDateTime oldest = trendBuffer.getOldestHour();
+        if (oldest != null) {
+            trendBuffer.load(hourlySentimentCountRepository.findForHourRange(oldest, oldest.plusYears(1)));
+        }
+    }
+
+    private void loadFeatureTracker() {
+        if (!featureTracker.isEnabled()) {
+            return;
+        }
+        featureTracker.load(featureCountRepository.sumByCode(featureTracker.getCapacity(), 0),
+                featureCountRepository.sumAll());
+    }
+
+    /**
+     * Key of a sentiment rollup row: a day or an hour, and a sentiment
+     */
+    private record SentimentKey<T extends Comparable<? super T>>(T period, SentimentType sentiment)
+            implements Comparable<SentimentKey<T>> {
+
+        @Override
+        public int compareTo(SentimentKey<T> other) {
+            int byPeriod = period.compareTo(other.period);
+            return byPeriod != 0 ? byPeriod : sentiment.compareTo(other.sentiment);
+        }
+    }
+
+    /**
+     * Key of a feature rollup row: a day and a feature code
+     */
+    private record FeatureKey(LocalDate day, String code) implements Comparable<FeatureKey> {
+
+        @Override
+        public int compareTo(FeatureKey other) {
+            int byDay = day.compareTo(other.day);
+            return byDay != 0 ? byDay : code.compareTo(other.code);
+        }
+    }
+}
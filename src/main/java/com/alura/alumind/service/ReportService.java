@@ -4,16 +4,28 @@ import com.alura.alumind.dto.ReportResponse;
 import com.alura.alumind.dto.ReportResponse.StatisticsDto;
 import com.alura.alumind.dto.ReportResponse.TopFeaturesDto;
 import com.alura.alumind.model.Feedback.SentimentType;
+import com.alura.alumind.repository.DailyFeatureCountRepository.FeatureTotal;
 import com.alura.alumind.repository.FeedbackRepository;
+import com.alura.alumind.repository.FeedbackRepository.SentimentCounts;
 import com.alura.alumind.repository.RequestedFeaturesRepository;
+import com.alura.alumind.repository.RequestedFeaturesRepository.FeatureIdsRow;
+import com.alura.alumind.repository.RequestedFeaturesRepository.TopFeatureRow;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 import lombok.extern.slf4j.Slf4j;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Service for generating feedback reports and statistics
@@ -23,14 +35,39 @@ import java.util.List;
  * - Creating weekly reports with sentiment analysis
  * - Aggregating top requested features from users
  * - Computing percentages for different sentiment categories
+ * 
+ * Counts are read from the daily rollups maintained by {@link ReportRollupService}
+ * instead of scanning the feedbacks table. With alumind.report.live-aggregation
+ * they are computed from the feedbacks table instead, in a single grouped query.
+ * 
+ * Report generation is timed in alumind.report.generation, tagged by report kind.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ReportService {
 
+    private final ReportRollupService reportRollupService;
     private final FeedbackRepository feedbackRepository;
     private final RequestedFeaturesRepository requestedFeatureRepository;
+    private final MeterRegistry meterRegistry;
+
+    public static final String GENERATION_METRIC = "alumind.report.generation";
+
+    @Value("${alumind.report.live-aggregation:false}")
+    private boolean liveAggregation;
+
+    @Value("${alumind.report.top-features.default-limit:20}")
+    private int defaultLimit;
+
+    @Value("${alumind.report.top-features.max-limit:100}")
+    private int maxLimit;
+
+    @Value("${alumind.report.top-features.default-max-ids:50}")
+    private int defaultMaxIds;
+
+    @Value("${alumind.report.top-features.max-ids-cap:500}")
+    private int maxIdsCap;
 
     /// ======= Public methods ======= ///
 
@@ -40,36 +77,41 @@ public class ReportService {
      * This method collects statistics on all feedback in the system including:
      * - Total number of feedback entries
      * - Percentage breakdown by sentiment (positive/negative/inconclusive)
-     * - Top requested features with their reasons
+     * - A page of the top requested features, each with at most maxIdsPerFeature
+     *   of its most recent feedback ids
      * 
+     * @param limit The maximum number of features to return
+     * @param offset The number of features to skip
+     * @param maxIdsPerFeature The maximum number of feedback ids per feature
      * @return A ReportResponse DTO containing statistics and top features
+     * @throws IllegalArgumentException if the paging parameters are out of range
      * @throws RuntimeException if an error occurs during report generation
      */
-    public ReportResponse generateReport() {
-        try {
-            long totalFeedbacks = feedbackRepository.count();
-            long posCount = feedbackRepository.countBySentiment(SentimentType.POSITIVO);
-            long negCount = feedbackRepository.countBySentiment(SentimentType.NEGATIVO);
-            long incCount = feedbackRepository.countBySentiment(SentimentType.INCONCLUSIVO);
-
-            StatisticsDto statistics = computeStatistics(totalFeedbacks, posCount, negCount, incCount);
-            List<TopFeaturesDto> topFeatures = requestedFeatureRepository.findRFWithFeedbackIds();
-
-            return ReportResponse.builder()
-                    .statistics(statistics)
-                    .topFeatures(topFeatures)
-                    .build();
-        } catch (Exception e) {
-            log.error("Error generating report", e);
-            throw new RuntimeException("Error generating report", e);
-        }
+    public ReportResponse generateReport(int limit, int offset, int maxIdsPerFeature) {
+        validatePaging(limit, offset, maxIdsPerFeature);
+
+        return meterRegistry.timer(GENERATION_METRIC, "report", "full").record(() -> {
+            try {
+                if (liveAggregation) {
+                    return buildLiveReport(feedbackRepository.countSentiments(),
+                            requestedFeatureRepository.findRFWithFeedbackIds(limit, offset, maxIdsPerFeature));
+                }
+                return buildRollupReport(null, null, limit, offset,
+                        codes -> requestedFeatureRepository.findFeedbackIdsByCodes(codes.toArray(String[]::new), maxIdsPerFeature));
+            } catch (Exception e) {
+                log.error("Error generating report", e);
+                throw new RuntimeException("Error generating report", e);
+            }
+        });
     }
 
     /**
      * Generate a weekly report for a specific date range
      * 
      * This method is similar to generateReport but limits the data to a specific
-     * time period, typically used for weekly reports.
+     * time period, typically used for weekly reports. Statistics are read from
+     * the daily rollups, so the range is applied at day granularity. The top
+     * features use the configured default limit and ids per feature.
      * 
      * @param startDate The start date for the report period (inclusive)
      * @param endDate The end date for the report period (inclusive)
@@ -77,28 +119,127 @@ public class ReportService {
      * @throws RuntimeException if an error occurs during report generation
      */
     public ReportResponse generateWeeklyReport(LocalDateTime startDate, LocalDateTime endDate) {
-        try {
-            long totalFeedbacks = feedbackRepository.countByDate(startDate, endDate);
-            long posCount = feedbackRepository.countByDateAndSentiment(startDate, endDate, SentimentType.POSITIVO);
-            long negCount = feedbackRepository.countByDateAndSentiment(startDate, endDate, SentimentType.NEGATIVO);
-            long incCount = feedbackRepository.countByDateAndSentiment(startDate, endDate,
-                    SentimentType.INCONCLUSIVO);
-
-            StatisticsDto statistics = computeStatistics(totalFeedbacks, posCount, negCount, incCount);
-            List<TopFeaturesDto> topFeatures = requestedFeatureRepository.findRFWithFeedbackIdsForDateRange(startDate, endDate);
-
-            return ReportResponse.builder()
-                    .statistics(statistics)
-                    .topFeatures(topFeatures)
-                    .build();
-        } catch (Exception e) {
-            log.error("Error generating weekly report", e);
-            throw new RuntimeException("Error generating weekly report", e);
-        }
+        return meterRegistry.timer(GENERATION_METRIC, "report", "weekly").record(() -> {
+            try {
+                if (liveAggregation) {
+                    return buildLiveReport(feedbackRepository.countSentimentsForDateRange(startDate, endDate),
+                            requestedFeatureRepository.findRFWithFeedbackIdsForDateRange(
+                                    startDate, endDate, defaultLimit, 0, defaultMaxIds));
+                }
+                return buildRollupReport(startDate.toLocalDate(), endDate.toLocalDate(), defaultLimit, 0,
+                        codes -> requestedFeatureRepository.findFeedbackIdsByCodesForDateRange(
+                                codes.toArray(String[]::new), startDate, endDate, defaultMaxIds));
+            } catch (Exception e) {
+                log.error("Error generating weekly report", e);
+                throw new RuntimeException("Error generating weekly report", e);
+            }
+        });
+    }
+
+    /**
+     * Get the configured default number of top features per report
+     * 
+     * @return The default limit
+     */
+    public int getDefaultLimit() {
+        return defaultLimit;
+    }
+
+    /**
+     * Get the configured default number of feedback ids per feature
+     * 
+     * @return The default maximum ids per feature
+     */
+    public int getDefaultMaxIds() {
+        return defaultMaxIds;
     }
 
     /// ======= Private methods ======= ///
 
+    /**
+     * Validate top-features paging parameters against the configured bounds
+     * 
+     * @param limit The maximum number of features to return
+     * @param offset The number of features to skip
+     * @param maxIdsPerFeature The maximum number of feedback ids per feature
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    private void validatePaging(int limit, int offset, int maxIdsPerFeature) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit);
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset must not be negative");
+        }
+        if (maxIdsPerFeature < 0 || maxIdsPerFeature > maxIdsCap) {
+            throw new IllegalArgumentException("maxIdsPerFeature must be between 0 and " + maxIdsCap);
+        }
+    }
+
+    /**
+     * Build a report from the daily rollups
+     * 
+     * Sentiment counts and the page of feature counters come from the rollups;
+     * the bounded feedback id lists are then looked up only for the feature
+     * codes in that page.
+     * 
+     * @param start The first day of the range (inclusive), or null for all time
+     * @param end The last day of the range (inclusive), or null for all time
+     * @param limit The maximum number of features to return
+     * @param offset The number of features to skip
+     * @param feedbackIdsLookup Loads the feedback ids of the given feature codes
+     * @return A ReportResponse DTO containing statistics and top features
+     */
+    private ReportResponse buildRollupReport(LocalDate start, LocalDate end, int limit, int offset,
+            Function<List<String>, List<FeatureIdsRow>> feedbackIdsLookup) {
+        Map<SentimentType, Long> sentimentCounts = reportRollupService.countBySentiment(start, end);
+        long posCount = sentimentCounts.get(SentimentType.POSITIVO);
+        long negCount = sentimentCounts.get(SentimentType.NEGATIVO);
+        long incCount = sentimentCounts.get(SentimentType.INCONCLUSIVO);
+        long totalFeedbacks = posCount + negCount + incCount;
+
+        StatisticsDto statistics = computeStatistics(totalFeedbacks, posCount, negCount, incCount);
+
+        List<FeatureTotal> featureTotals = reportRollupService.countByFeature(start, end, limit, offset);
+        Map<String, Long[]> feedbackIdsByCode = new HashMap<>();
+        if (!featureTotals.isEmpty()) {
+            List<String> codes = featureTotals.stream().map(FeatureTotal::getCode).toList();
+            feedbackIdsLookup.apply(codes)
+                    .forEach(row -> feedbackIdsByCode.put(row.getCode(), row.getFeedbackIds()));
+        }
+
+        List<TopFeaturesDto> topFeatures = featureTotals.stream()
+                .map(total -> new TopFeaturesDto(total.getCode(),
+                        toIdList(feedbackIdsByCode.get(total.getCode())), total.getTotal()))
+                .toList();
+
+        return ReportResponse.builder()
+                .statistics(statistics)
+                .topFeatures(topFeatures)
+                .build();
+    }
+
+    /**
+     * Build a report from live aggregation over the feedbacks table
+     * 
+     * @param counts The total and per-sentiment counts, computed in a single pass
+     * @param topFeatureRows The page of top requested features with their bounded feedback ids
+     * @return A ReportResponse DTO containing statistics and top features
+     */
+    private ReportResponse buildLiveReport(SentimentCounts counts, List<TopFeatureRow> topFeatureRows) {
+        StatisticsDto statistics = computeStatistics(counts.getTotal(), counts.getPositive(),
+                counts.getNegative(), counts.getInconclusive());
+
+        List<TopFeaturesDto> topFeatures = topFeatureRows.stream()
+                .map(row -> new TopFeaturesDto(row.getCode(), toIdList(row.getFeedbackIds()), row.getFeedbacksCounter()))
+                .toList();
+
+        return ReportResponse.builder()
+                .statistics(statistics)
+                .topFeatures(topFeatures)
+                .build();
+    }
+
     /**
      * Compute statistics based on feedback counts
      * 
@@ -123,6 +264,16 @@ public class ReportService {
                 .build();
     }
 
+    /**
+     * Convert a native bigint array to a list of ids
+     * 
+     * @param ids The array returned by the database, possibly null
+     * @return The ids as a list, empty when null
+     */
+    private List<Long> toIdList(Long[] ids) {
+        return ids == null ? List.of() : Arrays.asList(ids);
+    }
+
     /**
      * Compute percentage safely
      * 
@@ -0,0 +1,119 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.model.Feedback.SentimentType;
+import com.alura.alumind.model.HourlySentimentCount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * In-memory ring buffer of the hourly sentiment counts of the last hours
+ * 
+ * Holds one slot per hour for the last alumind.report.trend.buffer-hours hours,
+ * the current one included. Each slot remembers the hour it counts, so a slot
+ * left over from an hour that fell out of the window reads as empty and is
+ * reset when the new hour is first recorded; nothing has to be shifted as time
+ * passes. Feedbacks are added once their transaction commits, and the buffer is
+ * loaded from the hourly rollups on startup and after each rebuild.
+ * 
+ * The buffer only sees the feedbacks saved by this instance, so with several
+ * instances each one undercounts the recent hours. It is disabled by default
+ * (zero hours), which reads every bucket from the rollup tables shared by all
+ * instances; enable it only for a single-instance deployment.
+ */
+@Component
+public class SentimentTrendBuffer {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final int capacity;
+    private final long[] slotHours;
+    private final long[][] counts;
+
+    public SentimentTrendBuffer(@Value("${alumind.report.trend.buffer-hours:0}") int capacity) {
+        this.capacity = Math.max(0, capacity);
+        this.slotHours = new long[this.capacity];
+        this.counts = new long[this.capacity][SentimentType.values().length];
+        Arrays.fill(slotHours, EMPTY);
+    }
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Add feedbacks to the hour they were created in
+     * 
+     * Feedbacks created before the window are ignored.
+     * 
+     * @param createdAt The creation time of the feedbacks
+     * @param sentiment Their sentiment
+     * @param delta The number of feedbacks
+     */
+    public synchronized void record(LocalDateTime createdAt, SentimentType sentiment, long delta) {
+        long hour = epochHour(createdAt);
+        if (capacity == 0 || hour < oldestEpochHour()) {
+            return;
+        }
+
+        int slot = slot(hour);
+        if (slotHours[slot] != hour) {
+            slotHours[slot] = hour;
+            Arrays.fill(counts[slot], 0);
+        }
+        counts[slot][sentiment.ordinal()] += delta;
+    }
+
+    /**
+     * Replace the content of the buffer with the given hourly counts
+     * 
+     * @param rows The hourly counts; rows before the window are ignored
+     */
+    public synchronized void load(List<HourlySentimentCount> rows) {
+        Arrays.fill(slotHours, EMPTY);
+        rows.forEach(row -> record(row.getHour(), row.getSentiment(), row.getFeedbackCount()));
+    }
+
+    /**
+     * Get the counts of an hour of the window
+     * 
+     * @param hour The start of the hour
+     * @return The count of each sentiment, indexed by ordinal; zeros for an hour without feedbacks or outside the window
+     */
+    public synchronized long[] getCounts(LocalDateTime hour) {
+        long epochHour = epochHour(hour);
+        if (capacity == 0 || epochHour < oldestEpochHour() || slotHours[slot(epochHour)] != epochHour) {
+            return new long[SentimentType.values().length];
+        }
+        return counts[slot(epochHour)].clone();
+    }
+
+    /**
+     * Get the first hour of the window
+     * 
+     * @return The start of the oldest hour held, or null when the buffer is disabled
+     */
+    public LocalDateTime getOldestHour() {
+        if (capacity == 0) {
+            return null;
+        }
+        return LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(capacity - 1L);
+    }
+
+    /// ======= Private methods ======= ///
+
+    private long oldestEpochHour() {
+        return epochHour(LocalDateTime.now()) - capacity + 1;
+    }
+
+    private int slot(long epochHour) {
+        return (int) Math.floorMod(epochHour, (long) capacity);
+    }
+
+    private static long epochHour(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 3600L);
+    }
+}
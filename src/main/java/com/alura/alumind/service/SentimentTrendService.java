@@ -0,0 +1,185 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.TrendResponse;
+import com.alura.alumind.dto.TrendResponse.TrendBucketDto;
+import com.alura.alumind.model.Feedback.SentimentType;
+import com.alura.alumind.repository.DailySentimentCountRepository;
+import com.alura.alumind.repository.HourlySentimentCountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Service for the sentiment trend over time
+ * 
+ * The series is built from pre-bucketed counts only, never from the feedbacks
+ * table. Buckets are read in a single query from the hourly rollups for hourly
+ * buckets, or from the daily rollups for daily and weekly buckets. When
+ * {@link SentimentTrendBuffer} is enabled (single instance only), the whole
+ * days it covers are read from memory instead.
+ * Weeks start on Monday, like the weekly report, and every bucket of the range
+ * is returned, empty ones included.
+ * 
+ * Trend generation is timed in alumind.report.generation with report=trend.
+ */
+@Service
+@RequiredArgsConstructor
+public class SentimentTrendService {
+
+    private final SentimentTrendBuffer trendBuffer;
+    private final HourlySentimentCountRepository hourlySentimentCountRepository;
+    private final DailySentimentCountRepository dailySentimentCountRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${alumind.report.trend.max-buckets:2000}")
+    private int maxBuckets;
+
+    /**
+     * Size of the buckets of a trend
+     */
+    public enum Granularity {
+        HOUR, DAY, WEEK
+    }
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Get the number of analyzed feedbacks per sentiment in each bucket of a range
+     * 
+     * With weekly buckets the range is extended to whole weeks.
+     * 
+     * @param from The first day of the range (inclusive)
+     * @param to The last day of the range (inclusive)
+     * @param granularity hour, day or week
+     * @return The buckets of the range in chronological order
+     * @throws IllegalArgumentException if the granularity is unknown, the range is
+     *         reversed or it holds more than alumind.report.trend.max-buckets buckets
+     */
+    public TrendResponse getTrend(LocalDate from, LocalDate to, String granularity) {
+        Granularity size = parseGranularity(granularity);
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+
+        LocalDateTime start = bucketStart(from.atStartOfDay(), size);
+        LocalDateTime end = size == Granularity.HOUR
+                ? to.plusDays(1).atStartOfDay()
+                : next(bucketStart(to.atStartOfDay(), size), size);
+        long buckets = unit(size).between(start, end);
+        if (buckets > maxBuckets) {
+            throw new IllegalArgumentException(String.format(
+                    "The range holds %d buckets, more than the maximum of %d", buckets, maxBuckets));
+        }
+
+        return meterRegistry.timer(ReportService.GENERATION_METRIC, "report", "trend")
+                .record(() -> buildTrend(start, end, size));
+    }
+
+    /// ======= Private methods ======= ///
+
+    private TrendResponse buildTrend(LocalDateTime start, LocalDateTime end, Granularity size) {
+        Map<LocalDateTime, long[]> series = new LinkedHashMap<>();
+        for (LocalDateTime bucket = start; bucket.isBefore(end); bucket = next(bucket, size)) {
+            series.put(bucket, new long[SentimentType.values().length]);
+        }
+
+        LocalDateTime cutoff = bufferCutoff(end);
+        LocalDateTime rollupEnd = cutoff.isBefore(end) ? cutoff : end;
+        if (start.isBefore(rollupEnd)) {
+            if (size == Granularity.HOUR) {
+                hourlySentimentCountRepository.findForHourRange(start, rollupEnd).forEach(row ->
+                        add(series, bucketStart(row.getHour(), size), row.getSentiment(), row.getFeedbackCount()));
+            } else {
+                dailySentimentCountRepository.findForDateRange(start.toLocalDate(), rollupEnd.toLocalDate().minusDays(1))
+                        .forEach(row -> add(series, bucketStart(row.getDay().atStartOfDay(), size),
+                                row.getSentiment(), row.getFeedbackCount()));
+            }
+        }
+
+        LocalDateTime bufferEnd = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        for (LocalDateTime hour = start.isAfter(cutoff) ? start : cutoff;
+                hour.isBefore(end) && hour.isBefore(bufferEnd); hour = hour.plusHours(1)) {
+            long[] counts = trendBuffer.getCounts(hour);
+            for (SentimentType sentiment : SentimentType.values()) {
+                add(series, bucketStart(hour, size), sentiment, counts[sentiment.ordinal()]);
+            }
+        }
+
+        List<TrendBucketDto> buckets = new ArrayList<>();
+        series.forEach((bucket, counts) -> buckets.add(TrendBucketDto.builder()
+                .start(size == Granularity.HOUR ? bucket.toString() : bucket.toLocalDate().toString())
+                .totalFeedbacks(Arrays.stream(counts).sum())
+                .positive(counts[SentimentType.POSITIVO.ordinal()])
+                .negative(counts[SentimentType.NEGATIVO.ordinal()])
+                .inconclusive(counts[SentimentType.INCONCLUSIVO.ordinal()])
+                .build()));
+
+        return TrendResponse.builder()
+                .granularity(size.name().toLowerCase(Locale.ROOT))
+                .from(start.toLocalDate().toString())
+                .to(end.toLocalDate().minusDays(1).toString())
+                .buckets(buckets)
+                .build();
+    }
+
+    /**
+     * Get the first instant read from the buffer: the start of its first whole day
+     * 
+     * @param end The end of the range, returned when the buffer is disabled
+     */
+    private LocalDateTime bufferCutoff(LocalDateTime end) {
+        LocalDateTime oldest = trendBuffer.getOldestHour();
+        if (oldest == null) {
+            return end;
+        }
+        return oldest.getHour() == 0 ? oldest : oldest.toLocalDate().plusDays(1).atStartOfDay();
+    }
+
+    private static void add(Map<LocalDateTime, long[]> series, LocalDateTime bucket, SentimentType sentiment, long count) {
+        long[] counts = series.get(bucket);
+        if (counts != null && sentiment != null) {
+            counts[sentiment.ordinal()] += count;
+        }
+    }
+
+    private static Granularity parseGranularity(String granularity) {
+        try {
+            return Granularity.valueOf(granularity.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("granularity must be hour, day or week");
+        }
+    }
+
+    static LocalDateTime bucketStart(LocalDateTime time, Granularity size) {
+        return switch (size) {
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+            case WEEK -> time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        };
+    }
+
+    private static LocalDateTime next(LocalDateTime bucket, Granularity size) {
+        return bucket.plus(1, unit(size));
+    }
+
+    private static ChronoUnit unit(Granularity size) {
+        return switch (size) {
+            case HOUR -> ChronoUnit.HOURS;
+            case DAY -> ChronoUnit.DAYS;
+            case WEEK -> ChronoUnit.WEEKS;
+        };
+    }
+}
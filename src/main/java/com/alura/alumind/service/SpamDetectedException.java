@@ -0,0 +1,16 @@
+package com.alura.alumind.service;
+
+/**
+ * Thrown when a feedback content is classified as spam
+ *
+ * Only the spam verdict of the local classifier or of the LLM raises it; a
+ * spam check that fails because the LLM is unavailable or its response cannot
+ * be parsed propagates its own exception instead. It extends
+ * IllegalArgumentException, so the synchronous endpoints still answer 400.
+ */
+public class SpamDetectedException extends IllegalArgumentException {
+
+    public SpamDetectedException() {
+        super("Content classified as spam");
+    }
+}
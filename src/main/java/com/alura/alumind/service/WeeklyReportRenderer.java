@@ -0,0 +1,178 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.ReportResponse;
+import com.alura.alumind.dto.ReportResponse.StatisticsDto;
+import com.alura.alumind.dto.ReportResponse.TopFeaturesDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Server-side renderer of the weekly report email HTML
+ * 
+ * The header, statistics and top features sections are built directly from the
+ * {@link ReportResponse}, so their size and rendering time depend only on the
+ * report data. Only the summary paragraph comes from the LLM; all text is
+ * HTML-escaped. At most alumind.report.email.max-features features are listed.
+ * 
+ * The email is rendered in two halves around the summary text, so the summary
+ * can be streamed between them.
+ */
+@Component
+public class WeeklyReportRenderer {
+
+    /**
+     * Bumped whenever the markup changes, so stored emails are regenerated
+     */
+    public static final String TEMPLATE_VERSION = "1";
+
+    private final int maxFeatures;
+
+    public WeeklyReportRenderer(@Value("${alumind.report.email.max-features:10}") int maxFeatures) {
+        this.maxFeatures = maxFeatures;
+    }
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Render the complete email
+     * 
+     * @param reportData The report data of the period
+     * @param periodLabel The report period, e.g. "2025-04-07 - 2025-04-13"
+     * @param summary The summary paragraph, as plain text
+     * @return The email HTML
+     */
+    public String render(ReportResponse reportData, String periodLabel, String summary) {
+        return renderOpening(periodLabel) + escape(summary) + renderClosing(reportData);
+    }
+
+    /**
+     * Render the email up to the start of the summary paragraph
+     * 
+     * @param periodLabel The report period
+     * @return The opening HTML, ending inside the summary paragraph
+     */
+    public String renderOpening(String periodLabel) {
+        return """
+                <!DOCTYPE html>
+                <html lang="pt-BR">
+                <head><meta charset="UTF-8"><title>AluMind - Relatório Semanal</title></head>
+                <body style="margin:0;padding:24px;background:#f4f6f8;font-family:Arial,Helvetica,sans-serif;color:#2d3748;">
+                <div style="max-width:640px;margin:0 auto;background:#ffffff;border-radius:8px;padding:24px;">
+                <h1 style="margin:0;color:#5a67d8;">AluMind</h1>
+                <h2 style="margin:4px 0 16px;font-size:18px;font-weight:normal;">Relatório Semanal de Feedbacks &middot; %s</h2>
+                <p style="line-height:1.5;">""".formatted(escape(periodLabel));
+    }
+
+    /**
+     * Render the email from the end of the summary paragraph
+     * 
+     * @param reportData The report data of the period
+     * @return The closing HTML, with the statistics and top features sections
+     */
+    public String renderClosing(ReportResponse reportData) {
+        StringBuilder html = new StringBuilder("</p>\n");
+        appendStatistics(html, reportData.getStatistics());
+        appendTopFeatures(html, reportData.getTopFeatures());
+        html.append("""
+                <p style="margin-top:24px;">Obrigado por continuar cuidando da experiência de quem usa o AluMind!</p>
+                </div>
+                </body>
+                </html>
+                """);
+        return html.toString();
+    }
+
+    /**
+     * Build a summary from the report data alone, used when the LLM is unavailable
+     * 
+     * @param reportData The report data of the period
+     * @return The summary paragraph, as plain text
+     */
+    public String fallbackSummary(ReportResponse reportData) {
+        StatisticsDto statistics = reportData.getStatistics();
+        String summary = String.format(Locale.ROOT,
+                "Nesta semana recebemos %d feedbacks: %.1f%% positivos, %.1f%% negativos e %.1f%% inconclusivos.",
+                statistics.getTotalFeedbacks(), statistics.getPercentPositive(),
+                statistics.getPercentNegative(), statistics.getPercentInconclusive());
+
+        List<TopFeaturesDto> topFeatures = reportData.getTopFeatures();
+        if (topFeatures != null && !topFeatures.isEmpty()) {
+            TopFeaturesDto top = topFeatures.get(0);
+            summary += String.format(" A funcionalidade mais pedida foi %s, com %d pedidos.",
+                    humanize(top.getCode()), top.getFeedbacksCounter());
+        }
+        return summary;
+    }
+
+    /**
+     * Escape plain text for inclusion in the email HTML
+     * 
+     * @param text The plain text, possibly null
+     * @return The escaped text, empty when null
+     */
+    public String escape(String text) {
+        return text == null ? "" : HtmlUtils.htmlEscape(text, "UTF-8");
+    }
+
+    /// ======= Private methods ======= ///
+
+    private void appendStatistics(StringBuilder html, StatisticsDto statistics) {
+        html.append("<h3 style=\"margin-top:24px;\">Sentimento dos feedbacks</h3>\n")
+                .append("<table style=\"width:100%;border-collapse:collapse;\">\n<tr>");
+        appendStatistic(html, "Total", String.valueOf(statistics.getTotalFeedbacks()), "#2d3748");
+        appendStatistic(html, "Positivos", percent(statistics.getPercentPositive()), "#2f855a");
+        appendStatistic(html, "Negativos", percent(statistics.getPercentNegative()), "#c53030");
+        appendStatistic(html, "Inconclusivos", percent(statistics.getPercentInconclusive()), "#718096");
+        html.append("</tr>\n</table>\n");
+    }
+
+    private void appendStatistic(StringBuilder html, String label, String value, String color) {
+        html.append("<td style=\"padding:12px;text-align:center;border:1px solid #e2e8f0;\">")
+                .append("<div style=\"font-size:22px;font-weight:bold;color:").append(color).append(";\">")
+                .append(value).append("</div>")
+                .append("<div style=\"font-size:12px;color:#718096;\">").append(label).append("</div></td>");
+    }
+
+    private void appendTopFeatures(StringBuilder html, List<TopFeaturesDto> topFeatures) {
+        html.append("<h3 style=\"margin-top:24px;\">Funcionalidades mais pedidas</h3>\n");
+        if (topFeatures == null || topFeatures.isEmpty()) {
+            html.append("<p>Nenhuma funcionalidade foi pedida nesta semana.</p>\n");
+            return;
+        }
+
+        html.append("<table style=\"width:100%;border-collapse:collapse;\">\n")
+                .append("<tr><th style=\"text-align:left;padding:8px;border-bottom:2px solid #e2e8f0;\">Funcionalidade</th>")
+                .append("<th style=\"text-align:right;padding:8px;border-bottom:2px solid #e2e8f0;\">Pedidos</th></tr>\n");
+        topFeatures.stream().limit(maxFeatures).forEach(feature -> html
+                .append("<tr><td style=\"padding:8px;border-bottom:1px solid #e2e8f0;\">")
+                .append(escape(humanize(feature.getCode())))
+                .append(" <code style=\"font-size:11px;color:#718096;\">").append(escape(feature.getCode())).append("</code></td>")
+                .append("<td style=\"text-align:right;padding:8px;border-bottom:1px solid #e2e8f0;\">")
+                .append(feature.getFeedbacksCounter()).append("</td></tr>\n"));
+        html.append("</table>\n");
+
+        if (topFeatures.size() > maxFeatures) {
+            html.append("<p style=\"font-size:12px;color:#718096;\">E mais ")
+                    .append(topFeatures.size() - maxFeatures).append(" funcionalidades.</p>\n");
+        }
+    }
+
+    /**
+     * Turn a feature code such as ADICIONAR_NOTIFICACOES into "Adicionar notificacoes"
+     */
+    private String humanize(String code) {
+        if (code == null || code.isBlank()) {
+            return "";
+        }
+        String words = code.replace('_', ' ').toLowerCase(Locale.ROOT).trim();
+        return Character.toUpperCase(words.charAt(0)) + words.substring(1);
+    }
+
+    private String percent(double value) {
+        return String.format(Locale.ROOT, "%.1f%%", value);
+    }
+}
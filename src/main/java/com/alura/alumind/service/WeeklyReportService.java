@@ -0,0 +1,304 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.ReportResponse;
+import com.alura.alumind.model.WeeklyReportEmail;
+import com.alura.alumind.repository.WeeklyReportEmailRepository;
+import com.alura.alumind.utils.LLMPrompts.PromptType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service producing the weekly feedback report email
+ * 
+ * Shared by the weekly scheduler and the report endpoints. The email is rendered
+ * by {@link WeeklyReportRenderer} from the report data; the LLM only writes the
+ * short summary paragraph, and a summary built from the data is used instead when
+ * the model is unavailable or alumind.report.email.llm-summary is false.
+ * 
+ * The HTML is stored per report period together with a fingerprint of the
+ * report statistics, top features and template version; while the fingerprint
+ * is unchanged, the stored HTML is reused. Emails with a fallback summary are
+ * not stored, so the next send tries the LLM again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WeeklyReportService {
+
+    private final ReportService reportService;
+    private final LLMService llmService;
+    private final EmailService emailService;
+    private final WeeklyReportEmailRepository weeklyReportEmailRepository;
+    private final WeeklyReportRenderer renderer;
+    private final ObjectMapper objectMapper;
+    private final PromptBudget promptBudget;
+
+    @Value("${alumind.report.email.llm-summary:true}")
+    private boolean llmSummary;
+
+    @Value("${alumind.report.email.max-summary-chars:600}")
+    private int maxSummaryChars;
+
+    /// ======= Public methods ======= ///
+
+    /**
+     * Generate the weekly report email for the week of the given date and send it
+     * 
+     * @param referenceDate Any date in the report week (Monday to Sunday)
+     */
+    public void sendWeeklyReport(LocalDate referenceDate) {
+        ReportPeriod period = ReportPeriod.of(referenceDate);
+        String emailContent = generateEmailContent(referenceDate);
+
+        String subject = "AluMind - Relatório Semanal de Feedbacks (" + period.label() + ")";
+        emailService.sendEmail(subject, emailContent);
+    }
+
+    /**
+     * Get the weekly report email HTML for the week of the given date
+     * 
+     * The stored HTML of the period is returned when its fingerprint matches the
+     * current report data. Otherwise the HTML is rendered by {@link WeeklyReportRenderer}
+     * around a summary paragraph written by the LLM, and stored; when the summary
+     * cannot be generated, the template-only summary is used and nothing is stored.
+     * 
+     * @param referenceDate Any date in the report week (Monday to Sunday)
+     * @return HTML-formatted email content
+     */
+    public String generateEmailContent(LocalDate referenceDate) {
+        ReportPeriod period = ReportPeriod.of(referenceDate);
+        ReportResponse reportData = reportService.generateWeeklyReport(period.start(), period.end());
+        String fingerprint = fingerprint(reportData);
+
+        return findStored(period, fingerprint).orElseGet(() -> {
+            String summary = generateSummary(reportData, period);
+            if (summary == null) {
+                return renderer.render(reportData, period.label(), renderer.fallbackSummary(reportData));
+            }
+
+            String html = renderer.render(reportData, period.label(), summary);
+            store(period, fingerprint, html);
+            return html;
+        });
+    }
+
+    /**
+     * Stream the weekly report email HTML for the week of the given date
+     * 
+     * Stored HTML with a matching fingerprint is emitted as a single chunk.
+     * Otherwise the rendered opening is emitted right away, followed by the summary
+     * chunks as the LLM generates them and by the rendered closing; the complete
+     * HTML is stored on the bounded elastic scheduler once the stream finishes.
+     * A summary longer than alumind.report.email.max-summary-chars is cut at a
+     * word boundary and ended with "…", like the generated one. If the summary
+     * stream fails before its first chunk, the fallback summary is emitted instead;
+     * if it fails later, the summary ends with "…" after the chunks already
+     * emitted. Either way nothing is stored.
+     * 
+     * @param referenceDate Any date in the report week (Monday to Sunday)
+     * @return A Flux of HTML chunks
+     */
+    public Flux<String> streamEmailContent(LocalDate referenceDate) {
+        return Flux.defer(() -> {
+            ReportPeriod period = ReportPeriod.of(referenceDate);
+            ReportResponse reportData = reportService.generateWeeklyReport(period.start(), period.end());
+            String fingerprint = fingerprint(reportData);
+
+            Optional<String> stored = findStored(period, fingerprint);
+            if (stored.isPresent()) {
+                return Flux.just(stored.get());
+            }
+
+            String opening = renderer.renderOpening(period.label());
+            String closing = renderer.renderClosing(reportData);
+            if (!llmSummary) {
+                return Flux.just(opening, renderer.escape(renderer.fallbackSummary(reportData)), closing);
+            }
+
+            StringBuilder summary = new StringBuilder();
+            Flux<String> summaryChunks = llmService.streamPrompt(PromptType.WEEKLY_SUMMARY, buildPrompt(reportData, period))
+                    .<String>handle((chunk, sink) -> {
+                        if (summary.length() + chunk.length() <= maxSummaryChars) {
+                            summary.append(chunk);
+                            sink.next(chunk);
+                            return;
+                        }
+                        String received = summary + chunk;
+                        String tail = received.substring(summary.length(), Math.max(cutIndex(received), summary.length())) + "…";
+                        summary.append(tail);
+                        sink.next(tail);
+                        sink.complete();
+                    })
+                    .map(renderer::escape)
+                    .concatWith(Mono.<String>fromRunnable(() -> store(period, fingerprint,
+                                    opening + renderer.escape(summary.toString()) + closing))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .onErrorResume(e -> {
+                                log.warn("Error storing weekly report HTML for {}: {}", period.label(), e.getMessage());
+                                return Mono.empty();
+                            }))
+                    .onErrorResume(e -> {
+                        if (summary.length() > 0) {
+                            log.warn("Weekly report summary stream failed, ending the summary early: {}", e.getMessage());
+                            return Flux.just("…");
+                        }
+                        log.warn("Weekly report summary stream failed, using template-only summary: {}", e.getMessage());
+                        return Flux.just(renderer.escape(renderer.fallbackSummary(reportData)));
+                    });
+            return Flux.concat(Flux.just(opening), summaryChunks, Flux.just(closing));
+        });
+    }
+
+    /// ======= Private methods ======= ///
+
+    /**
+     * Ask the LLM for the summary paragraph of the email
+     * 
+     * @param reportData The report data of the period
+     * @param period The report period
+     * @return The summary as plain text, or null when disabled or the LLM is unavailable
+     */
+    private String generateSummary(ReportResponse reportData, ReportPeriod period) {
+        if (!llmSummary) {
+            return null;
+        }
+        try {
+            return truncate(llmService.sendPrompt(PromptType.WEEKLY_SUMMARY, buildPrompt(reportData, period)));
+        } catch (Exception e) {
+            log.warn("Weekly report summary generation failed, using template-only summary: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Bound the summary to alumind.report.email.max-summary-chars, cutting at a word boundary
+     * 
+     * @param summary The summary returned by the LLM
+     * @return The trimmed and bounded summary
+     */
+    private String truncate(String summary) {
+        String trimmed = summary.strip();
+        if (trimmed.length() <= maxSummaryChars) {
+            return trimmed;
+        }
+        return trimmed.substring(0, cutIndex(trimmed)) + "…";
+    }
+
+    /**
+     * Find where to cut a summary longer than alumind.report.email.max-summary-chars
+     * 
+     * @param summary The summary
+     * @return The index of the last space within the limit, or the limit when there is none
+     */
+    private int cutIndex(String summary) {
+        int cut = summary.lastIndexOf(' ', maxSummaryChars);
+        return cut > 0 ? cut : maxSummaryChars;
+    }
+
+    /**
+     * Look up the stored HTML of a period, if it was generated from the same data
+     * 
+     * @param period The report period
+     * @param fingerprint The fingerprint of the current report data
+     * @return The stored HTML, or empty if missing or outdated
+     */
+    private Optional<String> findStored(ReportPeriod period, String fingerprint) {
+        return weeklyReportEmailRepository.findById(period.start().toLocalDate())
+                .filter(email -> email.getFingerprint().equals(fingerprint))
+                .map(email -> {
+                    log.info("Reusing weekly report HTML for {}, report data unchanged", period.label());
+                    return email.getHtml();
+                });
+    }
+
+    /**
+     * Store the generated HTML of a period, replacing any previous version
+     * 
+     * @param period The report period
+     * @param fingerprint The fingerprint of the report data the HTML was generated from
+     * @param html The generated HTML
+     */
+    private void store(ReportPeriod period, String fingerprint, String html) {
+        weeklyReportEmailRepository.save(WeeklyReportEmail.builder()
+                .periodStart(period.start().toLocalDate())
+                .periodEnd(period.end().toLocalDate())
+                .fingerprint(fingerprint)
+                .html(html)
+                .generatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Fill the weekly summary prompt with the report data
+     * 
+     * Only feature codes and counters are sent; the feedback ids are not needed
+     * for the summary. The feature list is kept within its token budget.
+     * 
+     * @param reportData The report data of the period
+     * @param period The report period
+     * @return The user message to send to the LLM
+     */
+    private String buildPrompt(ReportResponse reportData, ReportPeriod period) {
+        return PromptType.WEEKLY_SUMMARY.format(
+                period.label(),
+                reportData.getStatistics().getTotalFeedbacks(),
+                reportData.getStatistics().getPercentPositive(),
+                reportData.getStatistics().getPercentNegative(),
+                reportData.getStatistics().getPercentInconclusive(),
+                promptBudget.fitTopFeatures(reportData.getTopFeatures()));
+    }
+
+    /**
+     * Compute a SHA-256 fingerprint of the report statistics and top features
+     * 
+     * The template and summary prompt versions are included, so changing either
+     * regenerates the stored emails.
+     * 
+     * @param reportData The report data of the period
+     * @return The hex-encoded fingerprint
+     */
+    private String fingerprint(ReportResponse reportData) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(List.of(
+                    WeeklyReportRenderer.TEMPLATE_VERSION + ":" + PromptType.WEEKLY_SUMMARY.getVersion(),
+                    reportData.getStatistics(), reportData.getTopFeatures()));
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Error fingerprinting weekly report", e);
+        }
+    }
+
+    /**
+     * A report week, from Monday 00:00 to Sunday 23:59:59.999999999
+     */
+    private record ReportPeriod(LocalDateTime start, LocalDateTime end) {
+
+        static ReportPeriod of(LocalDate referenceDate) {
+            return new ReportPeriod(
+                    referenceDate.with(DayOfWeek.MONDAY).atTime(LocalTime.MIN),
+                    referenceDate.with(DayOfWeek.SUNDAY).atTime(LocalTime.MAX));
+        }
+
+        String label() {
+            return start.toLocalDate() + " - " + end.toLocalDate();
+        }
+    }
+}
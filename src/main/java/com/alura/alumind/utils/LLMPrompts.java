@@ -1,12 +1,24 @@
 package com.alura.alumind.utils;
 
+import com.alura.alumind.dto.FeedbackAnalysis;
+import com.alura.alumind.dto.SpamVerdict;
+
+import java.util.List;
+
+/**
+ * Prompt templates sent to the LLM
+ * 
+ * Each prompt is split into a system message holding the fixed instructions and
+ * a user message holding only the variable input. The system message is sent
+ * first and never changes between calls, so it forms a stable prefix the
+ * provider can cache; the most stable part of the user message (the feature
+ * codes already in use) comes before the feedback itself.
+ */
 public class LLMPrompts {
-  public static final String SPAM_ANALYSIS_PROMPT = """
-      Analyze the following feedback for the AluMind app (a mental health and wellness application)
+  public static final String SPAM_ANALYSIS_SYSTEM_PROMPT = """
+      Analyze user feedback for the AluMind app (a mental health and wellness application)
       and determine if it is legitimate feedback or spam/inappropriate content.
-
-      Feedback to analyze:
-      %s
+      The feedback to analyze is given in the user message.
 
       Consider as spam or inappropriate content:
       1. Promotional messages unrelated to the app
@@ -23,10 +35,15 @@ public class LLMPrompts {
 
       Your response should contain only the JSON, with no additional text.
       """;
-  
-  public static final String FEEDBACK_ANALYSIS_PROMPT = """
-      Analyze the following user feedback for the AluMind app (a mental health and wellness application):
+
+  public static final String SPAM_ANALYSIS_USER_PROMPT = """
+      Feedback to analyze:
       %s
+      """;
+
+  public static final String FEEDBACK_ANALYSIS_SYSTEM_PROMPT = """
+      Analyze user feedback for the AluMind app (a mental health and wellness application).
+      The user message lists the feature codes already in use, followed by the feedback to analyze.
       Return the analysis in JSON format with the following structure:
       {
         "sentiment": "[POSITIVO/NEGATIVO/INCONCLUSIVO]",
@@ -40,34 +57,161 @@ public class LLMPrompts {
 
       Rules for analysis:
       1. The sentiment must be classified as "POSITIVO", "NEGATIVO", or "INCONCLUSIVO" based on the overall tone of the feedback.
-      2. Identify possible requested features in the feedback and, for each one, create a unique code in UPPERCASE_WITH_UNDERSCORES format (e.g., "EDIT_PROFILE").
+      2. Identify possible requested features in the feedback and, for each one, create a unique code in UPPERCASE_WITH_UNDERSCORES format (e.g., "EDITAR_PERFIL"). If one of the feature codes already in use names the same feature, reuse it exactly instead of creating a new code.
       3. For each feature, briefly explain why implementing it would be important from the user's perspective.
       4. If there are no requested features, return an empty list for "requestedFeatures".
       5. Ensure the JSON is well-formed and valid.
       6. Return the sentiment, code and reason in portuguese and in the infinitive form.
       """;
 
-  public static final String WEEKLY_REPORT_PROMPT = """
+  public static final String FUSED_FEEDBACK_ANALYSIS_SYSTEM_PROMPT = """
+      Analyze user feedback for the AluMind app (a mental health and wellness application).
+      The user message lists the feature codes already in use, followed by the feedback to analyze.
+      First determine if it is legitimate feedback or spam/inappropriate content, then, if it is legitimate,
+      classify its sentiment and extract the requested features.
+
+      Consider as spam or inappropriate content:
+      1. Promotional messages unrelated to the app
+      2. Links to unrelated external websites
+      3. Offensive, abusive, or inappropriate content
+      4. Nonsensical or automatically generated text
+      5. Messages that don't appear to be related to feedback about the app
+
+      Return the analysis in JSON format with the following structure:
+      {
+        "isSpam": true/false,
+        "reason": "Brief explanation of why the feedback is considered legitimate or spam",
+        "sentiment": "[POSITIVO/NEGATIVO/INCONCLUSIVO]",
+        "requestedFeatures": [
+          {
+            "code": "[UNIQUE_FEATURE_CODE]",
+            "reason": "[REASON WHY THE FEATURE IS IMPORTANT]"
+          }
+        ]
+      }
+
+      Rules for analysis:
+      1. If the feedback is spam, set "isSpam" to true, "sentiment" to "INCONCLUSIVO" and return an empty list for "requestedFeatures".
+      2. The sentiment must be classified as "POSITIVO", "NEGATIVO", or "INCONCLUSIVO" based on the overall tone of the feedback.
+      3. Identify possible requested features in the feedback and, for each one, create a unique code in UPPERCASE_WITH_UNDERSCORES format (e.g., "EDITAR_PERFIL"). If one of the feature codes already in use names the same feature, reuse it exactly instead of creating a new code.
+      4. For each feature, briefly explain why implementing it would be important from the user's perspective.
+      5. If there are no requested features, return an empty list for "requestedFeatures".
+      6. Ensure the JSON is well-formed and valid, with no additional text.
+      7. Return the sentiment, code and reason in portuguese and in the infinitive form.
+      """;
+
+  public static final String FEEDBACK_ANALYSIS_USER_PROMPT = """
+      Feature codes already in use:
+      %2$s
+
+      Feedback to analyze:
+      %1$s
+      """;
+
+  public static final String WEEKLY_SUMMARY_SYSTEM_PROMPT = """
       You are an assistant specialized in feedback reports for the AluMind application (a mental health and wellness app).
 
-      Generate a weekly feedback report email for AluMind stakeholders, using the following information:
+      Write the opening summary of the weekly feedback report email for AluMind stakeholders,
+      using the report information given in the user message.
 
+      Summary requirements:
+      1. A single paragraph of at most 3 sentences and 80 words
+      2. Comment on the overall sentiment and on the most requested features
+      3. Use a professional but friendly tone that encourages the team to keep improving the app
+      4. Plain text only: no HTML, no markdown, no greeting and no signature
+      5. Write the summary in portuguese
+      """;
+
+  public static final String WEEKLY_SUMMARY_USER_PROMPT = """
       Report period: %s
       Total feedback received: %d
       Percentage of positive feedback: %.2f%%
       Percentage of negative feedback: %.2f%%
+      Percentage of inconclusive feedback: %.2f%%
 
-      Top requested features (in JSON format):
+      Top requested features (code: number of requests):
       %s
+      """;
 
-      Email requirements:
-      1. Use HTML to format the email professionally and in a visually appealing way
-      2. Include a header with the AluMind logo/name
-      3. Highlight positive and negative feedback statistics
-      4. List the top requested features, explaining why each one is important to users
-      5. End with a conclusion that encourages the team to continue improving the app
-      6. Use a professional but friendly tone
-      7. Respond only with the complete HTML for the email, ready to be sent
-      8, Return the email in portuguese
+  public static final String BATCH_ANALYSIS_SYSTEM_PROMPT = """
+      You will receive several user feedbacks for the AluMind app (a mental health and wellness application),
+      each one preceded by its index in the format [index].
+      Apply the instructions below to EACH feedback independently, as if it were the only feedback being analyzed.
+
+      Instructions:
+      %s
+
+      Return a JSON array with exactly one object per feedback. Each object must contain an "index" field with
+      the feedback index, plus all the fields of the JSON structure described in the instructions.
+      Your response should contain only the JSON array, with no additional text.
       """;
-}
\ No newline at end of file
+
+  /**
+   * Prompt templates addressable by type
+   * 
+   * The version is derived from the template text, so editing a template
+   * automatically invalidates any result cached for its previous wording.
+   */
+  public enum PromptType {
+    SPAM_ANALYSIS(SPAM_ANALYSIS_SYSTEM_PROMPT, SPAM_ANALYSIS_USER_PROMPT, SpamVerdict.class, "isSpam"),
+    FEEDBACK_ANALYSIS(FEEDBACK_ANALYSIS_SYSTEM_PROMPT, FEEDBACK_ANALYSIS_USER_PROMPT, FeedbackAnalysis.class, "sentiment"),
+    FUSED_FEEDBACK_ANALYSIS(FUSED_FEEDBACK_ANALYSIS_SYSTEM_PROMPT, FEEDBACK_ANALYSIS_USER_PROMPT, FeedbackAnalysis.class,
+        "isSpam", "sentiment"),
+    WEEKLY_SUMMARY(WEEKLY_SUMMARY_SYSTEM_PROMPT, WEEKLY_SUMMARY_USER_PROMPT, String.class);
+
+    private final String systemMessage;
+    private final String batchSystemMessage;
+    private final String userTemplate;
+    private final String version;
+    private final Class<?> resultType;
+    private final List<String> requiredFields;
+
+    PromptType(String systemMessage, String userTemplate, Class<?> resultType, String... requiredFields) {
+      this.systemMessage = systemMessage;
+      this.batchSystemMessage = String.format(BATCH_ANALYSIS_SYSTEM_PROMPT, systemMessage);
+      this.userTemplate = userTemplate;
+      this.version = Integer.toHexString((systemMessage + userTemplate).hashCode());
+      this.resultType = resultType;
+      this.requiredFields = List.of(requiredFields);
+    }
+
+    /**
+     * Fixed instructions sent as the system message of every call
+     */
+    public String getSystemMessage() {
+      return systemMessage;
+    }
+
+    /**
+     * Fixed instructions sent as the system message of a micro-batched call
+     */
+    public String getBatchSystemMessage() {
+      return batchSystemMessage;
+    }
+
+    public String getVersion() {
+      return version;
+    }
+
+    /**
+     * Type the response is bound to; String for plain text prompts
+     */
+    public Class<?> getResultType() {
+      return resultType;
+    }
+
+    /**
+     * Fields that a JSON result for this prompt must contain to be usable
+     */
+    public List<String> getRequiredFields() {
+      return requiredFields;
+    }
+
+    /**
+     * Fill the user message template with the variable input
+     */
+    public String format(Object... args) {
+      return String.format(userTemplate, args);
+    }
+  }
+}
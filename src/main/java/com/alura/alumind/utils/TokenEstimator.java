@@ -0,0 +1,50 @@
+package com.alura.alumind.utils;
+
+/**
+ * Cheap estimate of the number of tokens a text takes in an LLM prompt
+ * 
+ * BPE tokenizers split text into word pieces of about four characters and
+ * give most punctuation marks a token of their own. Each run of letters or
+ * digits is counted as one token per started group of four characters, and
+ * every other non-blank character as one token. The estimate errs on the
+ * high side for Portuguese text, which is what budgets need.
+ */
+public final class TokenEstimator {
+
+  private static final int CHARS_PER_TOKEN = 4;
+
+  private TokenEstimator() {
+  }
+
+  /**
+   * Estimate the token count of a text
+   * 
+   * @param text The text, possibly null
+   * @return The estimated number of tokens, 0 for null or blank text
+   */
+  public static int estimate(String text) {
+    if (text == null) {
+      return 0;
+    }
+
+    int tokens = 0;
+    int wordLength = 0;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (Character.isLetterOrDigit(c)) {
+        wordLength++;
+        continue;
+      }
+      tokens += wordTokens(wordLength);
+      wordLength = 0;
+      if (!Character.isWhitespace(c)) {
+        tokens++;
+      }
+    }
+    return tokens + wordTokens(wordLength);
+  }
+
+  private static int wordTokens(int wordLength) {
+    return (wordLength + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+  }
+}
@@ -2,8 +2,13 @@ package com.alura.alumind.controller;
 
 import com.alura.alumind.dto.FeedbackRequest;
 import com.alura.alumind.dto.FeedbackResponse.FeedbackFullDto;
+import com.alura.alumind.dto.FeedbackResponse.FeedbackPageDto;
 import com.alura.alumind.dto.FeedbackResponse.FeedbackShortDto;
 import com.alura.alumind.dto.FeedbackResponse.RequestedFeatures;
+import com.alura.alumind.service.EntityCacheService;
+import com.alura.alumind.service.FeedbackBulkImportService;
+import com.alura.alumind.service.FeedbackIngestionService;
+import com.alura.alumind.service.FeedbackQueryService;
 import com.alura.alumind.service.FeedbackService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +18,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -28,6 +34,8 @@ public class FeedbackControllerTest {
 
     private MockMvc mockMvc;
     private FeedbackService feedbackService;
+    private FeedbackIngestionService feedbackIngestionService;
+    private FeedbackQueryService feedbackQueryService;
     private ObjectMapper objectMapper;
 
     private FeedbackShortDto mockShortDto;
@@ -36,8 +44,11 @@ public class FeedbackControllerTest {
     @BeforeEach
     void setUp() {
         feedbackService = mock(FeedbackService.class);
+        feedbackIngestionService = mock(FeedbackIngestionService.class);
+        feedbackQueryService = mock(FeedbackQueryService.class);
         objectMapper = new ObjectMapper();
-        FeedbackController feedbackController = new FeedbackController(feedbackService);
+        FeedbackController feedbackController = new FeedbackController(feedbackService, feedbackIngestionService,
+                mock(FeedbackBulkImportService.class), feedbackQueryService, mock(EntityCacheService.class));
         mockMvc = MockMvcBuilders.standaloneSetup(feedbackController).build();
 
         // Setup mock data
@@ -77,6 +88,41 @@ public class FeedbackControllerTest {
                 .andExpect(jsonPath("$.requestedFeatures[0].reason").value("Melhorar engajamento do usuário"));
     }
 
+    @Test
+    void submitFeedback_AsyncEnabled_ReturnsAccepted() throws Exception {
+        FeedbackRequest request = new FeedbackRequest();
+        request.setFeedback("Adorei o aplicativo, mas seria bom ter notificações");
+        when(feedbackIngestionService.isEnabled()).thenReturn(true);
+        when(feedbackIngestionService.submit(any(FeedbackRequest.class)))
+                .thenReturn(FeedbackShortDto.builder().id(1L).status("PENDING").build());
+
+        mockMvc.perform(post("/feedbacks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andExpect(jsonPath("$.sentiment").doesNotExist());
+    }
+
+    @Test
+    void listFeedbacks_Filters_PassedToQueryService() throws Exception {
+        when(feedbackQueryService.listFeedbacks("NEGATIVO", LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 30),
+                "MODO_OFFLINE", "abc", 10))
+                .thenReturn(FeedbackPageDto.builder().feedbacks(List.of(mockFullDto)).nextCursor("def").build());
+
+        mockMvc.perform(get("/feedbacks")
+                .param("sentiment", "NEGATIVO")
+                .param("from", "2025-04-01")
+                .param("to", "2025-04-30")
+                .param("featureCode", "MODO_OFFLINE")
+                .param("cursor", "abc")
+                .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.feedbacks[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("def"));
+    }
+
     @Test
     void getFeedbackById_ExistingId_ReturnsOk() throws Exception {
         Long feedbackId = 1L;
@@ -0,0 +1,142 @@
+package com.alura.alumind.controller;
+
+import com.alura.alumind.dto.FeedbackRequest;
+import com.alura.alumind.dto.FeedbackResponse.FeedbackFullDto;
+import com.alura.alumind.dto.FeedbackResponse.FeedbackShortDto;
+import com.alura.alumind.dto.FeedbackResponse.RequestedFeatures;
+import com.alura.alumind.service.EntityCacheService;
+import com.alura.alumind.service.FeedbackBulkImportService;
+import com.alura.alumind.service.FeedbackIngestionService;
+import com.alura.alumind.service.FeedbackQueryService;
+import com.alura.alumind.service.ReactiveFeedbackService;
+import com.alura.alumind.service.SpamDetectedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReactiveFeedbackControllerTest {
+
+    private WebTestClient webTestClient;
+    private ReactiveFeedbackService reactiveFeedbackService;
+    private FeedbackIngestionService feedbackIngestionService;
+
+    private FeedbackShortDto mockShortDto;
+    private FeedbackFullDto mockFullDto;
+
+    @BeforeEach
+    void setUp() {
+        reactiveFeedbackService = mock(ReactiveFeedbackService.class);
+        feedbackIngestionService = mock(FeedbackIngestionService.class);
+        ReactiveFeedbackController feedbackController = new ReactiveFeedbackController(reactiveFeedbackService,
+                feedbackIngestionService, mock(FeedbackBulkImportService.class), mock(FeedbackQueryService.class),
+                mock(EntityCacheService.class));
+        webTestClient = WebTestClient.bindToController(feedbackController)
+                .controllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        RequestedFeatures feature = RequestedFeatures.builder()
+                .code("ADICIONAR_NOTIFICACOES")
+                .reason("Melhorar engajamento do usuário")
+                .build();
+
+        mockShortDto = FeedbackShortDto.builder()
+                .id(1L)
+                .status("ANALYZED")
+                .sentiment("POSITIVO")
+                .requestedFeatures(List.of(feature))
+                .build();
+
+        mockFullDto = FeedbackFullDto.builder()
+                .id(1L)
+                .content("Adorei o aplicativo, mas seria bom ter notificações")
+                .status("ANALYZED")
+                .sentiment("POSITIVO")
+                .createdAt("2023-05-10T15:30:00")
+                .requestedFeatures(List.of(feature))
+                .build();
+    }
+
+    @Test
+    void submitFeedback_ValidRequest_ReturnsOk() {
+        FeedbackRequest request = new FeedbackRequest();
+        request.setFeedback("Adorei o aplicativo, mas seria bom ter notificações");
+        when(reactiveFeedbackService.analyzeFeedback(any(FeedbackRequest.class))).thenReturn(Mono.just(mockShortDto));
+
+        webTestClient.post().uri("/feedbacks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.sentiment").isEqualTo("POSITIVO")
+                .jsonPath("$.requestedFeatures[0].code").isEqualTo("ADICIONAR_NOTIFICACOES");
+    }
+
+    @Test
+    void submitFeedback_Spam_ReturnsBadRequest() {
+        FeedbackRequest request = new FeedbackRequest();
+        request.setFeedback("Compre agora!!!");
+        when(reactiveFeedbackService.analyzeFeedback(any(FeedbackRequest.class)))
+                .thenReturn(Mono.error(new SpamDetectedException()));
+
+        webTestClient.post().uri("/feedbacks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Content classified as spam");
+    }
+
+    @Test
+    void submitFeedback_AsyncEnabled_ReturnsAccepted() {
+        FeedbackRequest request = new FeedbackRequest();
+        request.setFeedback("Adorei o aplicativo, mas seria bom ter notificações");
+        when(feedbackIngestionService.isEnabled()).thenReturn(true);
+        when(feedbackIngestionService.submit(any(FeedbackRequest.class)))
+                .thenReturn(FeedbackShortDto.builder().id(1L).status("PENDING").build());
+
+        webTestClient.post().uri("/feedbacks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("PENDING")
+                .jsonPath("$.sentiment").doesNotExist();
+    }
+
+    @Test
+    void getFeedbackById_ExistingId_ReturnsOk() {
+        when(reactiveFeedbackService.getFeedbackById(1L)).thenReturn(Mono.just(mockFullDto));
+
+        webTestClient.get().uri("/feedbacks/{id}", 1L)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content").isEqualTo("Adorei o aplicativo, mas seria bom ter notificações")
+                .jsonPath("$.createdAt").isEqualTo("2023-05-10T15:30:00");
+    }
+
+    @Test
+    void getFeedbackById_NonExistingId_ReturnsNotFound() {
+        when(reactiveFeedbackService.getFeedbackById(anyLong()))
+                .thenReturn(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Feedback not found")));
+
+        webTestClient.get().uri("/feedbacks/{id}", 999L)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -1,11 +1,16 @@
 package com.alura.alumind.controller;
 
+import com.alura.alumind.dto.LiveTopFeaturesResponse;
+import com.alura.alumind.dto.LiveTopFeaturesResponse.LiveFeatureDto;
 import com.alura.alumind.dto.ReportResponse;
 import com.alura.alumind.dto.ReportResponse.StatisticsDto;
 import com.alura.alumind.dto.ReportResponse.TopFeaturesDto;
-import com.alura.alumind.service.EmailService;
-import com.alura.alumind.service.LLMService;
+import com.alura.alumind.dto.TrendResponse;
+import com.alura.alumind.dto.TrendResponse.TrendBucketDto;
+import com.alura.alumind.service.LiveFeatureTracker;
 import com.alura.alumind.service.ReportService;
+import com.alura.alumind.service.SentimentTrendService;
+import com.alura.alumind.service.WeeklyReportService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,18 +18,29 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
 
-import java.time.LocalDateTime;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ReportController.class)
@@ -38,10 +54,13 @@ public class ReportControllerTest {
     private ReportService reportService;
 
     @MockitoBean
-    private EmailService emailService;
+    private WeeklyReportService weeklyReportService;
 
     @MockitoBean
-    private LLMService llmService;
+    private SentimentTrendService sentimentTrendService;
+
+    @MockitoBean
+    private LiveFeatureTracker liveFeatureTracker;
 
     private ReportResponse mockReport;
 
@@ -57,12 +76,12 @@ public class ReportControllerTest {
 
         TopFeaturesDto feature1 = new TopFeaturesDto();
         feature1.setCode("ADICIONAR_NOTIFICACOES");
-        feature1.setFeedbackIds("1,2,3");
+        feature1.setFeedbackIds(List.of(1L, 2L, 3L));
         feature1.setFeedbacksCounter(3L);
 
         TopFeaturesDto feature2 = new TopFeaturesDto();
         feature2.setCode("MELHORAR_INTERFACE");
-        feature2.setFeedbackIds("4,5");
+        feature2.setFeedbackIds(List.of(4L, 5L));
         feature2.setFeedbacksCounter(2L);
 
         List<TopFeaturesDto> topFeatures = Arrays.asList(feature1, feature2);
@@ -76,7 +95,7 @@ public class ReportControllerTest {
     @Test
     void getReport_ValidRequest_ReturnsReport() throws Exception {
         // Arrange
-        when(reportService.generateReport()).thenReturn(mockReport);
+        when(reportService.generateReport(anyInt(), anyInt(), anyInt())).thenReturn(mockReport);
 
         // Act & Assert
         mockMvc.perform(get("/reports"))
@@ -99,20 +118,95 @@ public class ReportControllerTest {
     }
 
     @Test
-    void sendEmail_ValidRequest_SendsEmailAndReturnsOk() throws Exception {
-        // Arrange
-        String htmlContent = "<html><body><h1>Weekly Report</h1></body></html>";
+    void getReport_PagingParameters_PassedToService() throws Exception {
+        when(reportService.generateReport(5, 10, 3)).thenReturn(mockReport);
+
+        mockMvc.perform(get("/reports")
+                .param("limit", "5")
+                .param("offset", "10")
+                .param("maxIdsPerFeature", "3"))
+                .andExpect(status().isOk());
 
-        when(reportService.generateWeeklyReport(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(mockReport);
-        when(llmService.sendPrompt(anyString())).thenReturn(htmlContent);
+        verify(reportService).generateReport(5, 10, 3);
+    }
 
-        // Act & Assert
+    @Test
+    void getLiveTopFeatures_NoLimit_UsesDefaultLimit() throws Exception {
+        when(reportService.getDefaultLimit()).thenReturn(20);
+        when(liveFeatureTracker.getTopFeatures(20)).thenReturn(LiveTopFeaturesResponse.builder()
+                .totalRequests(12)
+                .capacity(200)
+                .maxError(0)
+                .features(List.of(LiveFeatureDto.builder()
+                        .code("ADICIONAR_NOTIFICACOES").count(3).minCount(3).guaranteed(true).build()))
+                .build());
+
+        mockMvc.perform(get("/reports/top-features/live"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRequests").value(12))
+                .andExpect(jsonPath("$.features[0].code").value("ADICIONAR_NOTIFICACOES"))
+                .andExpect(jsonPath("$.features[0].guaranteed").value(true));
+
+        verify(reportService, never()).generateReport(anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getTrend_RangeAndGranularity_ReturnsBuckets() throws Exception {
+        TrendResponse trend = TrendResponse.builder()
+                .granularity("week")
+                .from("2026-09-28")
+                .to("2026-10-11")
+                .buckets(List.of(
+                        TrendBucketDto.builder().start("2026-09-28").totalFeedbacks(5).positive(3).negative(2).build(),
+                        TrendBucketDto.builder().start("2026-10-05").totalFeedbacks(1).inconclusive(1).build()))
+                .build();
+        when(sentimentTrendService.getTrend(LocalDate.of(2026, 10, 1), LocalDate.of(2026, 10, 10), "week")).thenReturn(trend);
+
+        mockMvc.perform(get("/reports/trend")
+                .param("from", "2026-10-01")
+                .param("to", "2026-10-10")
+                .param("granularity", "week"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.buckets[0].start").value("2026-09-28"))
+                .andExpect(jsonPath("$.buckets[0].positive").value(3))
+                .andExpect(jsonPath("$.buckets[1].inconclusive").value(1));
+    }
+
+    @Test
+    void getTrend_InvalidDate_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/reports/trend").param("from", "ontem"))
+                .andExpect(status().isBadRequest());
+
+        verify(sentimentTrendService, never()).getTrend(any(), any(), eq("day"));
+    }
+
+    @Test
+    void sendEmail_ValidRequest_SendsWeeklyReportAndReturnsOk() throws Exception {
         mockMvc.perform(get("/reports/sendEmail"))
                 .andExpect(status().isOk());
 
-        verify(reportService).generateWeeklyReport(any(LocalDateTime.class), any(LocalDateTime.class));
-        verify(llmService).sendPrompt(anyString());
-        verify(emailService).sendEmail(anyString(), anyString());
+        verify(weeklyReportService).sendWeeklyReport(any(LocalDate.class));
+    }
+
+    @Test
+    void streamWeeklyReport_DelayedChunks_PushedAsServerSentEvents() throws Exception {
+        when(weeklyReportService.streamEmailContent(any(LocalDate.class)))
+                .thenReturn(Flux.just("<html>", "<h1>Relatório</h1>", "</html>").delayElements(Duration.ofMillis(20)));
+
+        MvcResult result = mockMvc.perform(get("/reports/weekly/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals("event:chunk\ndata:<html>\n\n"
+                + "event:chunk\ndata:<h1>Relatório</h1>\n\n"
+                + "event:chunk\ndata:</html>\n\n"
+                + "event:done\ndata:\n\n", body);
+
+        verify(weeklyReportService, never()).sendWeeklyReport(any(LocalDate.class));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,99 @@
+package com.alura.alumind.repository;
+
+import com.alura.alumind.model.CacheRegions;
+import com.alura.alumind.model.Feedback;
+import com.alura.alumind.model.Feedback.FeedbackStatus;
+import com.alura.alumind.model.Feedback.SentimentType;
+import com.alura.alumind.model.RequestedFeature;
+import com.alura.alumind.service.EntityCacheService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({EntityCacheConfigurer.class, EntityCacheService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EntityCacheTest {
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    @Autowired
+    private DailySentimentCountRepository dailySentimentCountRepository;
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Long id;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        Feedback feedback = Feedback.builder()
+                .content("Feedback de teste")
+                .sentiment(SentimentType.POSITIVO)
+                .status(FeedbackStatus.ANALYZED)
+                .createdAt(LocalDateTime.of(2025, 4, 7, 10, 0))
+                .build();
+        feedback.addRequestedFeature(RequestedFeature.builder().code("MODO_OFFLINE").reason("Sem internet").build());
+        id = feedbackRepository.save(feedback).getId();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        feedbackRepository.deleteAll();
+    }
+
+    @Test
+    void findById_AfterFetchJoinLoad_IsServedFromSecondLevelCache() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        assertFalse(entityCacheService.isCached(Feedback.class, id));
+        transaction.executeWithoutResult(status -> feedbackRepository.findWithRequestedFeaturesById(id));
+        assertTrue(entityCacheService.isCached(Feedback.class, id));
+
+        statistics.clear();
+        String code = transaction.execute(status ->
+                feedbackRepository.findById(id).orElseThrow().getRequestedFeatures().get(0).getCode());
+
+        assertEquals("MODO_OFFLINE", code);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(entityCacheService.getStats().getRegions().stream()
+                .anyMatch(region -> region.getRegion().equals(CacheRegions.FEEDBACK) && region.getHits() > 0));
+    }
+
+    @Test
+    void rollupNativeQuery_DoesNotEvictFeedbackRegion() {
+        transaction.executeWithoutResult(status -> feedbackRepository.findWithRequestedFeaturesById(id));
+
+        transaction.executeWithoutResult(status -> dailySentimentCountRepository.deleteAllRollups());
+
+        assertTrue(entityCacheService.isCached(Feedback.class, id));
+    }
+}
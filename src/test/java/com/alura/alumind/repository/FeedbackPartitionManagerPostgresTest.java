@@ -0,0 +1,131 @@
+package com.alura.alumind.repository;
+
+import com.alura.alumind.model.Feedback;
+import com.alura.alumind.model.Feedback.FeedbackStatus;
+import com.alura.alumind.model.Feedback.SentimentType;
+import com.alura.alumind.model.RequestedFeature;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Conversion and maintenance of the monthly feedback partitions on PostgreSQL
+ * 
+ * The tables are created plain by Hibernate, filled, then converted; the second
+ * test archives and creates partitions on the converted tables, so the tests
+ * run in order. Skipped when Docker is not available.
+ */
+@DataJpaTest(properties = "alumind.partitions.enabled=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(FeedbackPartitionManager.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class FeedbackPartitionManagerPostgresTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final YearMonth CURRENT = YearMonth.now();
+    private static final YearMonth EXPIRED = CURRENT.minusMonths(30);
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    @Autowired
+    private FeedbackPartitionManager partitionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @Order(1)
+    void initialize_PlainTablesWithRows_ConvertedToMonthlyPartitions() {
+        save(EXPIRED.atDay(10).atTime(9, 0), "EXPORTAR_DIARIO");
+        save(CURRENT.atDay(1).atTime(9, 0), "MODO_ESCURO");
+        ReflectionTestUtils.setField(partitionManager, "enabled", true);
+
+        partitionManager.initialize();
+        partitionManager.initialize();
+
+        for (String table : List.of("feedbacks", "requested_features")) {
+            assertEquals("p", jdbcTemplate.queryForObject("SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?)",
+                    String.class, table));
+            List<String> partitions = partitions(table);
+            assertTrue(partitions.contains(FeedbackPartitionManager.partitionName(table, EXPIRED)), partitions.toString());
+            assertTrue(partitions.contains(FeedbackPartitionManager.partitionName(table, CURRENT.plusMonths(3))));
+            assertTrue(partitions.contains(table + "_default"));
+            assertEquals(2, count(table));
+        }
+    }
+
+    @Test
+    @Order(2)
+    void maintain_ExpiredAndDefaultRows_ArchivedAndMovedToTheirPartition() {
+        YearMonth unpartitioned = CURRENT.plusMonths(6);
+        save(unpartitioned.atDay(5).atTime(9, 0), "LEMBRETES");
+        assertEquals(1, count("feedbacks_default"));
+        ReflectionTestUtils.setField(partitionManager, "monthsAhead", 6);
+        ReflectionTestUtils.setField(partitionManager, "retentionMonths", 24);
+
+        partitionManager.maintain();
+
+        for (String table : List.of("feedbacks", "requested_features")) {
+            // Every partition from the oldest row to 25 months ago is past the retention window
+            assertEquals(FeedbackPartitionManager.months(EXPIRED, CURRENT.minusMonths(25)).stream()
+                    .map(month -> FeedbackPartitionManager.partitionName(table, month))
+                    .toList(), partitions(table + "_archive"));
+            assertTrue(partitions(table).contains(FeedbackPartitionManager.partitionName(table, unpartitioned)));
+            assertEquals(0, count(table + "_default"));
+            assertEquals(2, count(table));
+        }
+        assertEquals(CURRENT.minusMonths(24).atDay(1), partitionManager.getArchivedUntil());
+        assertEquals(2, feedbackRepository.count());
+    }
+
+    private void save(LocalDateTime createdAt, String code) {
+        Feedback feedback = Feedback.builder()
+                .content("Feedback de teste")
+                .sentiment(SentimentType.POSITIVO)
+                .status(FeedbackStatus.ANALYZED)
+                .createdAt(createdAt)
+                .build();
+        feedback.addRequestedFeature(RequestedFeature.builder().code(code).reason("Motivo").build());
+        feedbackRepository.saveAndFlush(feedback);
+    }
+
+    private List<String> partitions(String table) {
+        return jdbcTemplate.queryForList("""
+                    SELECT c.relname
+                    FROM pg_inherits i
+                    JOIN pg_class c ON c.oid = i.inhrelid
+                    WHERE i.inhparent = to_regclass(?)
+                    ORDER BY c.relname
+                """, String.class, table);
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
@@ -0,0 +1,45 @@
+package com.alura.alumind.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FeedbackPartitionManagerTest {
+
+    @Test
+    void months_AnyWeek_SpansAtMostTwoPartitions() {
+        for (LocalDate monday = LocalDate.of(2024, 1, 1); monday.getYear() < 2027; monday = monday.plusWeeks(1)) {
+            List<YearMonth> months = FeedbackPartitionManager.months(
+                    YearMonth.from(monday), YearMonth.from(monday.plusDays(6)));
+
+            assertTrue(months.size() == 1 || months.size() == 2, "week of " + monday + " spans " + months);
+        }
+        assertEquals(List.of(YearMonth.of(2025, 12), YearMonth.of(2026, 1)),
+                FeedbackPartitionManager.months(YearMonth.of(2025, 12), YearMonth.of(2026, 1)));
+    }
+
+    @Test
+    void isExpired_OnlyMonthsBeforeTheRetentionWindow() {
+        YearMonth current = YearMonth.of(2026, 10);
+
+        assertTrue(FeedbackPartitionManager.isExpired(YearMonth.of(2024, 9), current, 24));
+        assertFalse(FeedbackPartitionManager.isExpired(YearMonth.of(2024, 10), current, 24));
+        assertFalse(FeedbackPartitionManager.isExpired(current, current, 0));
+    }
+
+    @Test
+    void partitionName_MonthOf_RoundTrip() {
+        String name = FeedbackPartitionManager.partitionName("requested_features", YearMonth.of(2025, 3));
+
+        assertEquals("requested_features_p2025_03", name);
+        assertEquals(YearMonth.of(2025, 3), FeedbackPartitionManager.monthOf(name));
+        assertNull(FeedbackPartitionManager.monthOf("feedbacks_unpartitioned"));
+    }
+}
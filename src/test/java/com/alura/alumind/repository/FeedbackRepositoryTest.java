@@ -0,0 +1,127 @@
+package com.alura.alumind.repository;
+
+import com.alura.alumind.model.Feedback;
+import com.alura.alumind.model.Feedback.FeedbackStatus;
+import com.alura.alumind.model.Feedback.SentimentType;
+import com.alura.alumind.model.RequestedFeature;
+import com.alura.alumind.repository.FeedbackRepository.FeedbackRow;
+import com.alura.alumind.repository.FeedbackRepository.SentimentCounts;
+import com.alura.alumind.repository.RequestedFeaturesRepository.FeatureRow;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class FeedbackRepositoryTest {
+
+    private static final LocalDateTime MIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    @Autowired
+    private RequestedFeaturesRepository requestedFeaturesRepository;
+
+    @Test
+    void countSentimentsForDateRange_CountsAnalyzedFeedbackInOnePass() {
+        LocalDateTime monday = LocalDateTime.of(2025, 4, 7, 10, 0);
+        save(SentimentType.POSITIVO, FeedbackStatus.ANALYZED, monday);
+        save(SentimentType.POSITIVO, FeedbackStatus.ANALYZED, monday.plusDays(1));
+        save(SentimentType.NEGATIVO, FeedbackStatus.ANALYZED, monday.plusDays(2));
+        save(null, FeedbackStatus.PENDING, monday.plusDays(2));
+        save(SentimentType.INCONCLUSIVO, FeedbackStatus.ANALYZED, monday.plusDays(10));
+
+        SentimentCounts counts = feedbackRepository.countSentimentsForDateRange(monday, monday.plusDays(6));
+
+        assertEquals(3, counts.getTotal());
+        assertEquals(2, counts.getPositive());
+        assertEquals(1, counts.getNegative());
+        assertEquals(0, counts.getInconclusive());
+        assertEquals(4, feedbackRepository.countSentiments().getTotal());
+    }
+
+    @Test
+    void findPage_KeysetCursor_WalksNewestFirstWithoutGapsOrRepeats() {
+        LocalDateTime monday = LocalDateTime.of(2025, 4, 7, 10, 0);
+        Feedback first = save(SentimentType.POSITIVO, FeedbackStatus.ANALYZED, monday);
+        Feedback sameTime = save(SentimentType.POSITIVO, FeedbackStatus.ANALYZED, monday);
+        Feedback negative = save(SentimentType.NEGATIVO, FeedbackStatus.ANALYZED, monday.plusDays(1));
+        Feedback latest = save(SentimentType.POSITIVO, FeedbackStatus.ANALYZED, monday.plusDays(2));
+        save(null, FeedbackStatus.PENDING, monday.plusDays(3));
+        EnumSet<SentimentType> all = EnumSet.allOf(SentimentType.class);
+
+        List<FeedbackRow> page1 = feedbackRepository.findPage(all, MIN, MAX, MAX, Long.MAX_VALUE, 2);
+        FeedbackRow last = page1.get(1);
+        List<FeedbackRow> page2 = feedbackRepository.findPage(all, MIN, MAX, last.getCreatedAt(), last.getId(), 2);
+
+        assertEquals(List.of(latest.getId(), negative.getId()), page1.stream().map(FeedbackRow::getId).toList());
+        assertEquals(List.of(sameTime.getId(), first.getId()), page2.stream().map(FeedbackRow::getId).toList());
+        assertEquals(List.of(negative.getId()), feedbackRepository.findPage(
+                EnumSet.of(SentimentType.NEGATIVO), MIN, MAX, MAX, Long.MAX_VALUE, 10).stream().map(FeedbackRow::getId).toList());
+        assertEquals(2, feedbackRepository.findPage(all, monday, monday.plusDays(1), MAX, Long.MAX_VALUE, 10).size());
+    }
+
+    @Test
+    void findPageByFeatureCode_ReturnsFeedbacksRequestingTheCodeWithTheirFeatures() {
+        LocalDateTime monday = LocalDateTime.of(2025, 4, 7, 10, 0);
+        Feedback withFeature = save(SentimentType.POSITIVO, FeedbackStatus.ANALYZED, monday);
+        withFeature.addRequestedFeature(RequestedFeature.builder().code("MODO_OFFLINE").reason("Sem internet").build());
+        withFeature.addRequestedFeature(RequestedFeature.builder().code("EXPORTAR_DIARIO").reason("Backup").build());
+        feedbackRepository.save(withFeature);
+        save(SentimentType.POSITIVO, FeedbackStatus.ANALYZED, monday.plusDays(1));
+
+        List<FeedbackRow> page = feedbackRepository.findPageByFeatureCode(
+                EnumSet.allOf(SentimentType.class), MIN, MAX, MAX, Long.MAX_VALUE, "MODO_OFFLINE", 10);
+        List<FeatureRow> features = requestedFeaturesRepository.findByFeedbackIds(List.of(withFeature.getId()), monday, monday);
+
+        assertEquals(List.of(withFeature.getId()), page.stream().map(FeedbackRow::getId).toList());
+        assertEquals(List.of("MODO_OFFLINE", "EXPORTAR_DIARIO"), features.stream().map(FeatureRow::getCode).toList());
+    }
+
+    @Test
+    void save_RequestedFeatures_CopyTheFeedbackCreationTime() {
+        LocalDateTime monday = LocalDateTime.of(2025, 4, 7, 10, 0);
+        Feedback feedback = Feedback.builder()
+                .content("Feedback de teste")
+                .sentiment(SentimentType.POSITIVO)
+                .createdAt(monday)
+                .build();
+        feedback.addRequestedFeature(RequestedFeature.builder().code("MODO_OFFLINE").reason("Sem internet").build());
+        feedbackRepository.saveAndFlush(feedback);
+
+        assertEquals(List.of(monday), requestedFeaturesRepository.findAll().stream().map(RequestedFeature::getCreatedAt).toList());
+        assertEquals(1, requestedFeaturesRepository.findByFeedbackIds(List.of(feedback.getId()), monday, monday).size());
+        assertEquals(0, requestedFeaturesRepository.findByFeedbackIds(List.of(feedback.getId()), MIN, monday.minusDays(1)).size());
+    }
+
+    @Test
+    void claimPending_ClaimedTwice_OnlyTheFirstClaimUpdatesTheRow() {
+        Feedback pending = feedbackRepository.saveAndFlush(Feedback.builder()
+                .content("Feedback de teste")
+                .status(FeedbackStatus.PENDING)
+                .createdAt(LocalDateTime.of(2025, 4, 7, 10, 0))
+                .build());
+
+        assertEquals(1, feedbackRepository.claimPending(pending.getId(), FeedbackStatus.ANALYZED));
+        assertEquals(0, feedbackRepository.claimPending(pending.getId(), FeedbackStatus.REJECTED));
+        assertEquals(0, feedbackRepository.findPending(MAX, 10).size());
+    }
+
+    private Feedback save(SentimentType sentiment, FeedbackStatus status, LocalDateTime createdAt) {
+        return feedbackRepository.save(Feedback.builder()
+                .content("Feedback de teste")
+                .sentiment(sentiment)
+                .status(status)
+                .createdAt(createdAt)
+                .build());
+    }
+}
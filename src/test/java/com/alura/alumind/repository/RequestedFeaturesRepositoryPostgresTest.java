@@ -0,0 +1,109 @@
+package com.alura.alumind.repository;
+
+import com.alura.alumind.model.Feedback;
+import com.alura.alumind.model.Feedback.FeedbackStatus;
+import com.alura.alumind.model.Feedback.SentimentType;
+import com.alura.alumind.model.RequestedFeature;
+import com.alura.alumind.repository.RequestedFeaturesRepository.FeatureIdsRow;
+import com.alura.alumind.repository.RequestedFeaturesRepository.TopFeatureRow;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Native top features queries run against PostgreSQL
+ * 
+ * H2 accepts ARRAY[:codes] and array slices that PostgreSQL rejects once
+ * Hibernate has expanded the parameters, so these queries are checked on a
+ * PostgreSQL container. Skipped when Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+public class RequestedFeaturesRepositoryPostgresTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2025, 4, 7, 10, 0);
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    @Autowired
+    private RequestedFeaturesRepository requestedFeaturesRepository;
+
+    @Test
+    void findFeedbackIdsByCodes_SeveralCodes_NewestIdsOfEachCode() {
+        Feedback first = save(MONDAY, "MODO_ESCURO", "EXPORTAR_DIARIO");
+        Feedback second = save(MONDAY.plusDays(1), "MODO_ESCURO");
+        Feedback third = save(MONDAY.plusDays(2), "MODO_ESCURO", "EXPORTAR_DIARIO", "LEMBRETES");
+
+        Map<String, List<Long>> ids = byCode(requestedFeaturesRepository.findFeedbackIdsByCodes(
+                new String[] {"MODO_ESCURO", "EXPORTAR_DIARIO", "LEMBRETES"}, 2));
+
+        assertEquals(List.of(third.getId(), second.getId()), ids.get("MODO_ESCURO"));
+        assertEquals(List.of(third.getId(), first.getId()), ids.get("EXPORTAR_DIARIO"));
+        assertEquals(List.of(third.getId()), ids.get("LEMBRETES"));
+    }
+
+    @Test
+    void findFeedbackIdsByCodesForDateRange_SeveralCodes_OnlyIdsInTheRange() {
+        Feedback first = save(MONDAY, "MODO_ESCURO", "EXPORTAR_DIARIO");
+        save(MONDAY.plusDays(8), "MODO_ESCURO", "EXPORTAR_DIARIO");
+
+        Map<String, List<Long>> ids = byCode(requestedFeaturesRepository.findFeedbackIdsByCodesForDateRange(
+                new String[] {"MODO_ESCURO", "EXPORTAR_DIARIO"}, MONDAY, MONDAY.plusDays(6), 10));
+
+        assertEquals(List.of(first.getId()), ids.get("MODO_ESCURO"));
+        assertEquals(List.of(first.getId()), ids.get("EXPORTAR_DIARIO"));
+    }
+
+    @Test
+    void findRFWithFeedbackIds_SlicesIdsAndPagesCodes() {
+        save(MONDAY, "MODO_ESCURO", "EXPORTAR_DIARIO");
+        Feedback second = save(MONDAY.plusDays(1), "MODO_ESCURO");
+        Feedback third = save(MONDAY.plusDays(2), "MODO_ESCURO");
+
+        List<TopFeatureRow> rows = requestedFeaturesRepository.findRFWithFeedbackIds(1, 0, 2);
+        List<TopFeatureRow> weekly = requestedFeaturesRepository.findRFWithFeedbackIdsForDateRange(
+                MONDAY, MONDAY.plusDays(6), 10, 1, 1);
+
+        assertEquals(1, rows.size());
+        assertEquals("MODO_ESCURO", rows.get(0).getCode());
+        assertEquals(List.of(third.getId(), second.getId()), Arrays.asList(rows.get(0).getFeedbackIds()));
+        assertEquals(3, rows.get(0).getFeedbacksCounter());
+        assertEquals(List.of("EXPORTAR_DIARIO"), weekly.stream().map(TopFeatureRow::getCode).toList());
+    }
+
+    private Feedback save(LocalDateTime createdAt, String... codes) {
+        Feedback feedback = Feedback.builder()
+                .content("Feedback de teste")
+                .sentiment(SentimentType.POSITIVO)
+                .status(FeedbackStatus.ANALYZED)
+                .createdAt(createdAt)
+                .build();
+        for (String code : codes) {
+            feedback.addRequestedFeature(RequestedFeature.builder().code(code).reason("Motivo").build());
+        }
+        return feedbackRepository.saveAndFlush(feedback);
+    }
+
+    private static Map<String, List<Long>> byCode(List<FeatureIdsRow> rows) {
+        return rows.stream().collect(Collectors.toMap(FeatureIdsRow::getCode, row -> Arrays.asList(row.getFeedbackIds())));
+    }
+}
@@ -0,0 +1,61 @@
+package com.alura.alumind.service;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatModel;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Local stand-in for the OpenAI chat API that injects latency and failures
+ * 
+ * Each call consumes the next scripted step; once the script is exhausted the
+ * last step is repeated.
+ */
+public final class FaultInjectingChatModelStub {
+
+    private FaultInjectingChatModelStub() {
+    }
+
+    /**
+     * A scripted reaction to one call: wait, then answer or fail
+     */
+    public record Step(Duration latency, String response, RuntimeException failure) {
+
+        public static Step respond(Duration latency, String response) {
+            return new Step(latency, response, null);
+        }
+
+        public static Step fail(Duration latency, RuntimeException failure) {
+            return new Step(latency, null, failure);
+        }
+    }
+
+    /**
+     * Create a chat model that follows the given script
+     * 
+     * @param steps The reaction to each successive call
+     * @return The stub chat model
+     */
+    public static OpenAiChatModel scripted(Step... steps) {
+        AtomicInteger calls = new AtomicInteger();
+        OpenAiChatModel chatModel = mock(OpenAiChatModel.class);
+        when(chatModel.call(any(Prompt.class))).thenAnswer(invocation -> {
+            Step step = steps[Math.min(calls.getAndIncrement(), steps.length - 1)];
+            Thread.sleep(step.latency().toMillis());
+            if (step.failure() != null) {
+                throw step.failure();
+            }
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(step.response()))));
+        });
+        return chatModel;
+    }
+}
@@ -0,0 +1,130 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.model.FeatureCodeAlias;
+import com.alura.alumind.repository.FeatureCodeAliasRepository;
+import com.alura.alumind.repository.RequestedFeaturesRepository;
+import com.alura.alumind.repository.RequestedFeaturesRepository.CodeCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FeatureCodeIndexTest {
+
+    private FeatureCodeAliasRepository aliasRepository;
+    private RequestedFeaturesRepository requestedFeaturesRepository;
+    private ReportRollupService reportRollupService;
+    private FeatureCodeIndex featureCodeIndex;
+
+    @BeforeEach
+    void setUp() {
+        aliasRepository = mock(FeatureCodeAliasRepository.class);
+        requestedFeaturesRepository = mock(RequestedFeaturesRepository.class);
+        reportRollupService = mock(ReportRollupService.class);
+        featureCodeIndex = new FeatureCodeIndex(aliasRepository, requestedFeaturesRepository, reportRollupService, 0.8, 30, true);
+    }
+
+    @Test
+    void canonicalize_NearDuplicateCodes_CollapseIntoFirstCode() {
+        assertEquals("EDITAR_FOTO_PERFIL", featureCodeIndex.canonicalize("EDITAR_FOTO_PERFIL"));
+        assertEquals("EDITAR_FOTO_PERFIL", featureCodeIndex.canonicalize("EDITAR_FOTO_PERFIL_USUARIO"));
+        assertEquals("EDITAR_FOTO_PERFIL", featureCodeIndex.canonicalize("editar foto do perfil"));
+        assertEquals("ADICIONAR_NOTIFICACOES", featureCodeIndex.canonicalize("ADICIONAR_NOTIFICAÇÕES"));
+        assertEquals("ADICIONAR_NOTIFICACOES", featureCodeIndex.canonicalize("ADICIONAR_NOTIFICACAO"));
+
+        verify(aliasRepository).save(argThat(alias ->
+                alias.getAlias().equals("EDITAR_FOTO_PERFIL_USUARIO") && alias.getCanonicalCode().equals("EDITAR_FOTO_PERFIL")));
+        assertEquals(List.of("EDITAR_FOTO_PERFIL", "ADICIONAR_NOTIFICACOES"), featureCodeIndex.getTopCodes());
+    }
+
+    @Test
+    void canonicalize_DifferentFeatures_StaySeparate() {
+        assertEquals("ADICIONAR_NOTIFICACOES", featureCodeIndex.canonicalize("ADICIONAR_NOTIFICACOES"));
+        assertEquals("ADICIONAR_MODO_ESCURO", featureCodeIndex.canonicalize("ADICIONAR_MODO_ESCURO"));
+        assertEquals("EXPORTAR_DIARIO", featureCodeIndex.canonicalize("EXPORTAR_DIARIO"));
+
+        verify(aliasRepository, never()).save(any(FeatureCodeAlias.class));
+    }
+
+    @Test
+    void canonicalize_OppositeOrNarrowerCodes_StaySeparate() {
+        assertEquals("ATIVAR_NOTIFICACOES", featureCodeIndex.canonicalize("ATIVAR_NOTIFICACOES"));
+        assertEquals("DESATIVAR_NOTIFICACOES", featureCodeIndex.canonicalize("DESATIVAR_NOTIFICACOES"));
+        assertEquals("MODO_ESCURO", featureCodeIndex.canonicalize("MODO_ESCURO"));
+        assertEquals("DESATIVAR_MODO_ESCURO", featureCodeIndex.canonicalize("DESATIVAR_MODO_ESCURO"));
+        assertEquals("MODO_ESCURO_AUTOMATICO", featureCodeIndex.canonicalize("MODO_ESCURO_AUTOMATICO"));
+        assertEquals("LEMBRETE_DIARIO_ATIVADO", featureCodeIndex.canonicalize("LEMBRETE_DIARIO_ATIVADO"));
+        assertEquals("LEMBRETE_DIARIO_DESATIVADO", featureCodeIndex.canonicalize("LEMBRETE_DIARIO_DESATIVADO"));
+        assertEquals("EXPORTAR_RELATORIO_PDF", featureCodeIndex.canonicalize("EXPORTAR_RELATORIO_PDF"));
+        assertEquals("EXPORTAR_RELATORIO_CSV", featureCodeIndex.canonicalize("EXPORTAR_RELATORIO_CSV"));
+
+        assertEquals(0, featureCodeIndex.similarity("ATIVAR_NOTIFICACOES", "DESATIVAR_NOTIFICACOES"));
+        assertEquals(0, featureCodeIndex.similarity("MODO_ESCURO", "DESATIVAR_MODO_ESCURO"));
+        verify(aliasRepository, never()).save(any(FeatureCodeAlias.class));
+    }
+
+    @Test
+    void load_HistoricalVariants_RenamedToCanonicalCode() {
+        when(requestedFeaturesRepository.countByCode()).thenReturn(List.of(
+                codeCount("EDITAR_FOTO_PERFIL", 5),
+                codeCount("ADICIONAR_NOTIFICACOES", 3),
+                codeCount("EDITAR_FOTO_PERFIL_USUARIO", 2)));
+
+        featureCodeIndex.load();
+
+        verify(requestedFeaturesRepository).renameCode("EDITAR_FOTO_PERFIL_USUARIO", "EDITAR_FOTO_PERFIL");
+        verify(reportRollupService).rebuild();
+        assertEquals(List.of("EDITAR_FOTO_PERFIL", "ADICIONAR_NOTIFICACOES"), featureCodeIndex.getTopCodes());
+    }
+
+    @Test
+    void load_RenameOnStartupDisabled_StoredCodesLeftUntouched() {
+        featureCodeIndex = new FeatureCodeIndex(aliasRepository, requestedFeaturesRepository, reportRollupService, 0.8, 30, false);
+        when(requestedFeaturesRepository.countByCode()).thenReturn(List.of(
+                codeCount("EDITAR_FOTO_PERFIL", 5),
+                codeCount("EDITAR_FOTO_PERFIL_USUARIO", 2)));
+
+        featureCodeIndex.load();
+
+        verify(requestedFeaturesRepository, never()).renameCode(any(), any());
+        verify(reportRollupService, never()).rebuild();
+        assertEquals("EDITAR_FOTO_PERFIL", featureCodeIndex.canonicalize("EDITAR_FOTO_PERFIL_USUARIO"));
+    }
+
+    @Test
+    void load_PersistedOppositeAlias_Dropped() {
+        FeatureCodeAlias opposite = FeatureCodeAlias.builder()
+                .alias("DESATIVAR_NOTIFICACOES")
+                .canonicalCode("ATIVAR_NOTIFICACOES")
+                .similarity(0.88)
+                .build();
+        when(aliasRepository.findAll()).thenReturn(List.of(opposite));
+
+        featureCodeIndex.load();
+
+        verify(aliasRepository).delete(opposite);
+        assertEquals("DESATIVAR_NOTIFICACOES", featureCodeIndex.canonicalize("DESATIVAR_NOTIFICACOES"));
+    }
+
+    private CodeCount codeCount(String code, long total) {
+        return new CodeCount() {
+            @Override
+            public String getCode() {
+                return code;
+            }
+
+            @Override
+            public long getTotal() {
+                return total;
+            }
+        };
+    }
+}
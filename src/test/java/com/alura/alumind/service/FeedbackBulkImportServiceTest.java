@@ -0,0 +1,111 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.FeedbackAnalysis;
+import com.alura.alumind.model.Feedback;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FeedbackBulkImportServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private FeedbackService feedbackService;
+    private FeedbackBulkImportService bulkImportService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        feedbackService = mock(FeedbackService.class);
+        bulkImportService = new FeedbackBulkImportService(feedbackService, objectMapper);
+        ReflectionTestUtils.setField(bulkImportService, "concurrency", 2);
+        ReflectionTestUtils.setField(bulkImportService, "batchSize", 2);
+
+        FeedbackAnalysis analysis = new FeedbackAnalysis(false, Feedback.SentimentType.POSITIVO, List.of());
+        when(feedbackService.analyzeContent(anyString())).thenAnswer(invocation -> {
+            if (invocation.<String>getArgument(0).contains("promoção")) {
+                throw new SpamDetectedException();
+            }
+            if (invocation.<String>getArgument(0).contains("exportar")) {
+                throw new TransientAiException("503 Service Unavailable");
+            }
+            return analysis;
+        });
+        when(feedbackService.buildAnalyzedFeedback(anyString(), any(FeedbackAnalysis.class))).thenAnswer(invocation ->
+                Feedback.builder()
+                        .content(invocation.getArgument(0))
+                        .sentiment(Feedback.SentimentType.POSITIVO)
+                        .build());
+
+        AtomicLong ids = new AtomicLong();
+        when(feedbackService.saveAnalyzedFeedbacks(anyList())).thenAnswer(invocation -> {
+            List<Feedback> feedbacks = invocation.getArgument(0);
+            feedbacks.forEach(feedback -> feedback.setId(ids.incrementAndGet()));
+            return feedbacks;
+        });
+    }
+
+    @Test
+    void importNdjsonReportsEveryLineAndPersistsInBatches() throws Exception {
+        String input = String.join("\n",
+                "{\"feedback\": \"Gostei muito do app\"}",
+                "{\"feedback\": \"Aproveite a promoção\"}",
+                "not json",
+                "",
+                "{\"feedback\": \"O app é ótimo\"}",
+                "{\"feedback\": \"Queria notificações\"}",
+                "{\"feedback\": \"\"}",
+                "{\"feedback\": \"Queria exportar meus dados\"}");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        bulkImportService.importNdjson(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        List<JsonNode> results = output.toString(StandardCharsets.UTF_8).lines()
+                .map(this::readTree)
+                .sorted(Comparator.comparingLong(node -> node.get("line").asLong()))
+                .toList();
+
+        assertEquals(7, results.size());
+        assertEquals(List.of(1L, 2L, 3L, 5L, 6L, 7L, 8L),
+                results.stream().map(node -> node.get("line").asLong()).toList());
+        assertEquals("ANALYZED", results.get(0).get("status").asText());
+        assertTrue(results.get(0).has("id"));
+        assertEquals("POSITIVO", results.get(0).get("sentiment").asText());
+        assertEquals("REJECTED", results.get(1).get("status").asText());
+        assertEquals("ERROR", results.get(2).get("status").asText());
+        assertEquals("ANALYZED", results.get(3).get("status").asText());
+        assertEquals("ANALYZED", results.get(4).get("status").asText());
+        assertEquals("ERROR", results.get(5).get("status").asText());
+        assertEquals("ERROR", results.get(6).get("status").asText());
+        assertEquals("Analysis failed", results.get(6).get("error").asText());
+
+        verify(feedbackService, times(2)).saveAnalyzedFeedbacks(anyList());
+    }
+
+    private JsonNode readTree(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
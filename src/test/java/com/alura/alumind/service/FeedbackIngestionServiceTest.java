@@ -0,0 +1,145 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.FeedbackRequest;
+import com.alura.alumind.dto.FeedbackResponse.FeedbackShortDto;
+import com.alura.alumind.dto.SpamVerdict;
+import com.alura.alumind.model.Feedback;
+import com.alura.alumind.model.Feedback.FeedbackStatus;
+import com.alura.alumind.repository.FeedbackRepository;
+import com.alura.alumind.repository.FeedbackRepository.FeedbackRow;
+import com.alura.alumind.utils.LLMPrompts.PromptType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FeedbackIngestionServiceTest {
+
+    private FeedbackService feedbackService;
+    private FeedbackIngestionService ingestionService;
+
+    @BeforeEach
+    void setUp() {
+        feedbackService = mock(FeedbackService.class);
+        ingestionService = new FeedbackIngestionService(feedbackService);
+        ReflectionTestUtils.setField(ingestionService, "enabled", true);
+        ReflectionTestUtils.setField(ingestionService, "workers", 1);
+        ReflectionTestUtils.setField(ingestionService, "queueCapacity", 10);
+        ingestionService.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        ingestionService.stop();
+    }
+
+    @Test
+    void submit_Spam_Rejected() {
+        when(feedbackService.createPendingFeedback(any())).thenReturn(pending(1L));
+        when(feedbackService.analyzeContent("Compre já")).thenThrow(new SpamDetectedException());
+
+        ingestionService.submit(request("Compre já"));
+
+        verify(feedbackService, timeout(2000)).rejectPendingFeedback(1L);
+    }
+
+    @Test
+    void submit_TransientFailure_LeftPendingAndQueuedAgain() throws InterruptedException {
+        when(feedbackService.createPendingFeedback(any())).thenReturn(pending(2L));
+        when(feedbackService.analyzeContent("Gostaria de exportar meus dados"))
+                .thenThrow(new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "LLM call timed out"));
+
+        ingestionService.submit(request("Gostaria de exportar meus dados"));
+        ingestionService.stop();
+
+        assertEquals(1, ingestionService.getStats().getFailed());
+        verify(feedbackService, never()).rejectPendingFeedback(any());
+
+        ingestionService.start();
+        FeedbackRow row = mock(FeedbackRow.class);
+        when(row.getId()).thenReturn(2L);
+        when(row.getContent()).thenReturn("Gostaria de exportar meus dados");
+        when(feedbackService.findPendingFeedbacks(any(LocalDateTime.class), anyInt())).thenReturn(List.of(row));
+
+        assertEquals(1, ingestionService.requeuePending(LocalDateTime.now()));
+        verify(feedbackService, timeout(2000).times(2)).analyzeContent(eq("Gostaria de exportar meus dados"));
+    }
+
+    @Test
+    void submit_SpamCheckFailsAfterRetries_LeftPending() throws InterruptedException {
+        assertSpamCheckFailureLeavesPending(new TransientAiException("503 Service Unavailable"));
+    }
+
+    @Test
+    void submit_SpamCheckResponseUnparseable_LeftPending() throws InterruptedException {
+        assertSpamCheckFailureLeavesPending(new RuntimeException("Error parsing AI response: no JSON object in response"));
+    }
+
+    /**
+     * Run a feedback through the real FeedbackService with a spam check that fails
+     * 
+     * @param failure The exception raised by the spam check LLM call
+     */
+    private void assertSpamCheckFailureLeavesPending(RuntimeException failure) throws InterruptedException {
+        Feedback stored = new Feedback();
+        FeedbackRepository feedbackRepository = mock(FeedbackRepository.class);
+        when(feedbackRepository.save(any(Feedback.class))).thenAnswer(invocation -> {
+            Feedback feedback = invocation.getArgument(0);
+            feedback.setId(3L);
+            stored.setStatus(feedback.getStatus());
+            return feedback;
+        });
+        when(feedbackRepository.findById(3L)).thenReturn(Optional.of(stored));
+        LLMBatchService llmBatchService = mock(LLMBatchService.class);
+        when(llmBatchService.sendPromptAndBind(PromptType.SPAM_ANALYSIS, "Gostaria de exportar meus dados", SpamVerdict.class))
+                .thenThrow(failure);
+        FeedbackService realService = new FeedbackService(feedbackRepository, llmBatchService,
+                new LocalFeedbackClassifier(false, 0.8), mock(ReportRollupService.class), mock(FeatureCodeIndex.class),
+                mock(EntityCacheService.class), new SimpleMeterRegistry());
+
+        ingestionService.stop();
+        ingestionService = new FeedbackIngestionService(realService);
+        ReflectionTestUtils.setField(ingestionService, "enabled", true);
+        ReflectionTestUtils.setField(ingestionService, "workers", 1);
+        ReflectionTestUtils.setField(ingestionService, "queueCapacity", 10);
+        ingestionService.start();
+
+        ingestionService.submit(request("Gostaria de exportar meus dados"));
+        ingestionService.stop();
+
+        assertEquals(FeedbackStatus.PENDING, stored.getStatus());
+        assertEquals(1, ingestionService.getStats().getFailed());
+        assertEquals(0, ingestionService.getStats().getRejected());
+    }
+
+    private static FeedbackRequest request(String content) {
+        FeedbackRequest request = new FeedbackRequest();
+        request.setFeedback(content);
+        return request;
+    }
+
+    private static FeedbackShortDto pending(Long id) {
+        return FeedbackShortDto.builder()
+                .id(id)
+                .status("PENDING")
+                .build();
+    }
+}
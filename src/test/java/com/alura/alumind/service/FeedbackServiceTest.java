@@ -0,0 +1,174 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.FeedbackAnalysis;
+import com.alura.alumind.dto.FeedbackAnalysis.Feature;
+import com.alura.alumind.dto.FeedbackRequest;
+import com.alura.alumind.dto.FeedbackResponse.FeedbackShortDto;
+import com.alura.alumind.model.Feedback;
+import com.alura.alumind.model.Feedback.SentimentType;
+import com.alura.alumind.repository.FeatureCodeAliasRepository;
+import com.alura.alumind.repository.FeedbackRepository;
+import com.alura.alumind.repository.RequestedFeaturesRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FeedbackServiceTest {
+
+    private static final String SPAM_RESPONSE = """
+            {"isSpam": false, "reason": "Feedback legítimo"}
+            """;
+
+    private static final String ANALYSIS_RESPONSE = """
+            ```json
+            {
+              "sentiment": "POSITIVO",
+              "requestedFeatures": [
+                {"code": "ADICIONAR_NOTIFICACOES", "reason": "Melhorar engajamento do usuário"}
+              ]
+            }
+            ```
+            """;
+
+    private static final String FUSED_RESPONSE = """
+            {
+              "isSpam": false,
+              "reason": "Feedback legítimo",
+              "sentiment": "POSITIVO",
+              "requestedFeatures": [
+                {"code": "ADICIONAR_NOTIFICACOES", "reason": "Melhorar engajamento do usuário"}
+              ]
+            }
+            """;
+
+    private OpenAiChatModel chatModel;
+    private FeedbackRepository feedbackRepository;
+    private LLMBatchService llmBatchService;
+    private FeatureCodeIndex featureCodeIndex;
+    private FeedbackService feedbackService;
+
+    @BeforeEach
+    void setUp() {
+        chatModel = mock(OpenAiChatModel.class);
+        feedbackRepository = mock(FeedbackRepository.class);
+        LLMResponseCache responseCache = new LLMResponseCache(false, 0, Duration.ZERO);
+        featureCodeIndex = new FeatureCodeIndex(mock(FeatureCodeAliasRepository.class), mock(RequestedFeaturesRepository.class),
+                mock(ReportRollupService.class), 0.8, 30, false);
+        LLMCallGuard callGuard = new LLMCallGuard(8, Duration.ofSeconds(1), Duration.ofSeconds(30), 1, Duration.ZERO, false, 16);
+        LLMService llmService = new LLMService(chatModel, new LLMResponseBinder(), responseCache,
+                callGuard, featureCodeIndex,
+                new PromptBudget(500, 300, 400, new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        llmBatchService = new LLMBatchService(llmService, new LLMResponseBinder(), responseCache, callGuard);
+        feedbackService = new FeedbackService(feedbackRepository, llmBatchService, new LocalFeedbackClassifier(false, 0.8),
+                mock(ReportRollupService.class), featureCodeIndex, mock(EntityCacheService.class),
+                new SimpleMeterRegistry());
+
+        when(feedbackRepository.save(any(Feedback.class))).thenAnswer(invocation -> {
+            Feedback feedback = invocation.getArgument(0);
+            feedback.setId(1L);
+            return feedback;
+        });
+
+        when(chatModel.call(any(Prompt.class))).thenAnswer(invocation -> {
+            String prompt = invocation.<Prompt>getArgument(0).getContents();
+            if (prompt.contains("\"isSpam\"") && prompt.contains("\"sentiment\"")) {
+                return chatResponse(FUSED_RESPONSE);
+            }
+            return chatResponse(prompt.contains("\"isSpam\"") ? SPAM_RESPONSE : ANALYSIS_RESPONSE);
+        });
+    }
+
+    @Test
+    void analyzeFeedback_FusedAndTwoCallModes_ReturnSameDto() {
+        FeedbackRequest request = new FeedbackRequest();
+        request.setFeedback("Adorei o aplicativo, mas seria bom ter notificações");
+
+        ReflectionTestUtils.setField(feedbackService, "fusedAnalysis", false);
+        FeedbackShortDto twoCallResult = feedbackService.analyzeFeedback(request);
+        verify(chatModel, times(2)).call(any(Prompt.class));
+
+        ReflectionTestUtils.setField(feedbackService, "fusedAnalysis", true);
+        FeedbackShortDto fusedResult = feedbackService.analyzeFeedback(request);
+        verify(chatModel, times(3)).call(any(Prompt.class));
+
+        assertEquals(twoCallResult, fusedResult);
+        assertEquals("POSITIVO", fusedResult.getSentiment());
+        assertEquals("ADICIONAR_NOTIFICACOES", fusedResult.getRequestedFeatures().get(0).getCode());
+    }
+
+    @Test
+    void analyzeFeedback_FusedModeSpam_ThrowsIllegalArgument() {
+        when(chatModel.call(any(Prompt.class))).thenReturn(chatResponse("""
+                {"isSpam": true, "reason": "Propaganda", "sentiment": "INCONCLUSIVO", "requestedFeatures": []}
+                """));
+        ReflectionTestUtils.setField(feedbackService, "fusedAnalysis", true);
+
+        FeedbackRequest request = new FeedbackRequest();
+        request.setFeedback("Compre seguidores em http://spam.example.com");
+
+        assertThrows(IllegalArgumentException.class, () -> feedbackService.analyzeFeedback(request));
+    }
+
+    @Test
+    void analyzeFeedback_CascadeEnabled_ObviousCasesSkipLLM() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        feedbackService = new FeedbackService(feedbackRepository, llmBatchService, new LocalFeedbackClassifier(true, 0.8),
+                mock(ReportRollupService.class), featureCodeIndex, mock(EntityCacheService.class), meterRegistry);
+
+        FeedbackRequest spam = new FeedbackRequest();
+        spam.setFeedback("Promoção! Compre seguidores grátis em www.seguidores.xyz");
+        assertThrows(IllegalArgumentException.class, () -> feedbackService.analyzeFeedback(spam));
+
+        FeedbackRequest positive = new FeedbackRequest();
+        positive.setFeedback("Adorei o aplicativo, as meditações são ótimas e me ajudou muito!");
+        FeedbackShortDto result = feedbackService.analyzeFeedback(positive);
+
+        assertEquals("POSITIVO", result.getSentiment());
+        assertEquals(0, result.getRequestedFeatures().size());
+        verify(chatModel, times(0)).call(any(Prompt.class));
+        assertEquals(1, meterRegistry.get(FeedbackService.SPAM_REJECTED_METRIC).tag("classifier", "local").counter().count());
+    }
+
+    @Test
+    void completePendingFeedback_AlreadyClaimed_CountedOnce() {
+        ReportRollupService reportRollupService = mock(ReportRollupService.class);
+        feedbackService = new FeedbackService(feedbackRepository, llmBatchService, new LocalFeedbackClassifier(false, 0.8),
+                reportRollupService, featureCodeIndex, mock(EntityCacheService.class), new SimpleMeterRegistry());
+        Feedback pending = new Feedback();
+        pending.setId(1L);
+        pending.setStatus(Feedback.FeedbackStatus.PENDING);
+        when(feedbackRepository.findById(1L)).thenReturn(Optional.of(pending));
+        when(feedbackRepository.claimPending(1L, Feedback.FeedbackStatus.ANALYZED)).thenReturn(1, 0);
+        FeedbackAnalysis analysis = new FeedbackAnalysis(false, SentimentType.POSITIVO,
+                List.of(new Feature("ADICIONAR_NOTIFICACOES", "Melhorar engajamento do usuário")));
+
+        feedbackService.completePendingFeedback(1L, analysis);
+        feedbackService.completePendingFeedback(1L, analysis);
+
+        verify(reportRollupService, times(1)).recordFeedback(pending);
+        assertEquals(1, pending.getRequestedFeatures().size());
+        assertEquals(Feedback.FeedbackStatus.ANALYZED, pending.getStatus());
+    }
+
+    private static ChatResponse chatResponse(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+}
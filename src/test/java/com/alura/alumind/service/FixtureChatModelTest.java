@@ -0,0 +1,112 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.FeedbackAnalysis;
+import com.alura.alumind.dto.SpamVerdict;
+import com.alura.alumind.service.FaultInjectingChatModelStub.Step;
+import com.alura.alumind.utils.LLMPrompts.PromptType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.retry.NonTransientAiException;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class FixtureChatModelTest {
+
+    private static final String ANALYSIS = """
+            {"sentiment": "POSITIVO", "requestedFeatures": [{"code": "EDITAR_PERFIL", "reason": "Manter os dados atualizados"}]}""";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void call_RecordThenReplay_SameResponseWithoutOpenAi() {
+        OpenAiChatModel openAi = FaultInjectingChatModelStub.scripted(Step.respond(Duration.ZERO, ANALYSIS));
+        Prompt prompt = prompt(PromptType.FEEDBACK_ANALYSIS, "Quero editar meu perfil");
+        new FixtureChatModel(openAi, FixtureChatModel.Mode.RECORD, directory, false, Duration.ZERO, Duration.ZERO)
+                .call(prompt);
+
+        OpenAiChatModel offline = mock(OpenAiChatModel.class);
+        FixtureChatModel replay = new FixtureChatModel(offline, FixtureChatModel.Mode.REPLAY, directory, false,
+                Duration.ZERO, Duration.ZERO);
+
+        assertEquals(ANALYSIS, replay.call(prompt).getResult().getOutput().getText());
+        assertEquals(ANALYSIS, text(replay.stream(prompt).collectList().block()));
+        verify(offline, never()).call(any(Prompt.class));
+    }
+
+    @Test
+    void call_ReplayWithoutFixture_Fails() {
+        FixtureChatModel replay = new FixtureChatModel(mock(OpenAiChatModel.class), FixtureChatModel.Mode.REPLAY,
+                directory, false, Duration.ZERO, Duration.ZERO);
+
+        assertThrows(NonTransientAiException.class,
+                () -> replay.call(prompt(PromptType.SPAM_ANALYSIS, "Feedback nunca gravado")));
+    }
+
+    @Test
+    void call_Synthetic_BindsToEachPromptTypeDeterministically() {
+        FixtureChatModel synthetic = new FixtureChatModel(mock(OpenAiChatModel.class), FixtureChatModel.Mode.SYNTHETIC,
+                directory, false, Duration.ofMillis(1), Duration.ofMillis(5));
+        LLMResponseBinder binder = new LLMResponseBinder();
+        Prompt analysisPrompt = prompt(PromptType.FEEDBACK_ANALYSIS, "Gostaria de um modo escuro");
+
+        String analysis = synthetic.call(analysisPrompt).getResult().getOutput().getText();
+        SpamVerdict verdict = binder.bind(PromptType.SPAM_ANALYSIS,
+                synthetic.call(prompt(PromptType.SPAM_ANALYSIS, "Gostaria de um modo escuro")).getResult().getOutput().getText(),
+                SpamVerdict.class);
+        ChatResponse streamedLast = synthetic.stream(analysisPrompt).blockLast();
+
+        assertNotNull(binder.bind(PromptType.FEEDBACK_ANALYSIS, analysis, FeedbackAnalysis.class).sentiment());
+        assertFalse(verdict.spam());
+        assertEquals(analysis, synthetic.call(analysisPrompt).getResult().getOutput().getText());
+        assertNotNull(streamedLast.getMetadata().getUsage().getPromptTokens());
+    }
+
+    @Test
+    void call_SyntheticBatch_OneResultPerItem() {
+        FixtureChatModel synthetic = new FixtureChatModel(mock(OpenAiChatModel.class), FixtureChatModel.Mode.SYNTHETIC,
+                directory, false, Duration.ZERO, Duration.ZERO);
+        Prompt prompt = new Prompt(List.of(new SystemMessage(PromptType.FEEDBACK_ANALYSIS.getBatchSystemMessage()),
+                new UserMessage(PromptType.FEEDBACK_ANALYSIS.format("[0] Adorei\n[1] Quero notificações\n[2] Travou", "(none yet)"))));
+
+        Map<Integer, Object> results = new LLMResponseBinder()
+                .bindBatch(PromptType.FEEDBACK_ANALYSIS, synthetic.call(prompt).getResult().getOutput().getText());
+
+        assertEquals(3, results.size());
+    }
+
+    @Test
+    void latencySigma_P99NotAboveMedian_FixedLatency() {
+        assertEquals(0, FixtureChatModel.latencySigma(Duration.ofSeconds(1), Duration.ofSeconds(1)));
+        assertEquals(Math.log(3) / 2.3263, FixtureChatModel.latencySigma(Duration.ofSeconds(1), Duration.ofSeconds(3)), 1e-9);
+    }
+
+    private static Prompt prompt(PromptType promptType, String feedback) {
+        return new Prompt(List.of(new SystemMessage(promptType.getSystemMessage()),
+                new UserMessage(promptType.format(feedback, "(none yet)"))));
+    }
+
+    private static String text(List<ChatResponse> responses) {
+        return responses.stream()
+                .map(response -> response.getResult().getOutput().getText())
+                .collect(Collectors.joining());
+    }
+}
@@ -0,0 +1,173 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.SpamVerdict;
+import com.alura.alumind.utils.LLMPrompts.PromptType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LLMBatchServiceTest {
+
+    private static final Pattern BATCH_ITEM = Pattern.compile("(?m)^\\s*\\[(\\d+)\\] (.*)$");
+
+    private OpenAiChatModel chatModel;
+    private LLMBatchService llmBatchService;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        chatModel = mock(OpenAiChatModel.class);
+        LLMResponseCache responseCache = new LLMResponseCache(false, 0, Duration.ZERO);
+        LLMCallGuard callGuard = new LLMCallGuard(8, Duration.ofSeconds(1), Duration.ofSeconds(30), 1, Duration.ZERO, false, 16);
+        LLMService llmService = new LLMService(chatModel, new LLMResponseBinder(), responseCache,
+                callGuard, mock(FeatureCodeIndex.class),
+                new PromptBudget(500, 300, 400, new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        llmBatchService = new LLMBatchService(llmService, new LLMResponseBinder(), responseCache, callGuard);
+
+        ReflectionTestUtils.setField(llmBatchService, "enabled", true);
+        ReflectionTestUtils.setField(llmBatchService, "maxBatchSize", 3);
+        ReflectionTestUtils.setField(llmBatchService, "maxWaitMs", 5000L);
+        ReflectionTestUtils.setField(llmBatchService, "maxConcurrentBatches", 2);
+        llmBatchService.start();
+        callers = Executors.newFixedThreadPool(3);
+
+        when(chatModel.call(any(Prompt.class))).thenAnswer(invocation -> {
+            String prompt = invocation.<Prompt>getArgument(0).getContents();
+            if (!prompt.contains("JSON array")) {
+                return chatResponse("{\"isSpam\": false, \"reason\": \"single\"}");
+            }
+
+            // Batch answer: spam for "promoção", a malformed item for "quebrado"
+            StringBuilder array = new StringBuilder("[");
+            Matcher matcher = BATCH_ITEM.matcher(prompt);
+            while (matcher.find()) {
+                String index = matcher.group(1);
+                String content = matcher.group(2);
+                if (array.length() > 1) {
+                    array.append(',');
+                }
+                if (content.contains("quebrado")) {
+                    array.append("{\"index\": ").append(index).append('}');
+                } else {
+                    array.append("{\"index\": ").append(index)
+                            .append(", \"isSpam\": ").append(content.contains("promoção"))
+                            .append(", \"reason\": \"batch\"}");
+                }
+            }
+            return chatResponse(array.append(']').toString());
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        llmBatchService.stop();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void sendPromptAndBind_FullBatch_SendsOnePromptAndFallsBackForMalformedItem() {
+        CompletableFuture<SpamVerdict> legit = submitAsync("Adorei o aplicativo");
+        CompletableFuture<SpamVerdict> spam = submitAsync("Grande promoção de seguidores");
+        CompletableFuture<SpamVerdict> malformed = submitAsync("Feedback quebrado");
+
+        assertFalse(legit.join().spam());
+        assertEquals("batch", legit.join().reason());
+        assertTrue(spam.join().spam());
+        assertEquals("single", malformed.join().reason());
+
+        // One batch prompt plus one single-item fallback
+        verify(chatModel, times(2)).call(any(Prompt.class));
+        assertEquals(1, llmBatchService.getStats().getBatches());
+        assertEquals(1, llmBatchService.getStats().getFallbacks());
+    }
+
+    @Test
+    void sendPromptAndBind_BatchNotFull_FlushedAfterMaxWait() {
+        ReflectionTestUtils.setField(llmBatchService, "maxWaitMs", 20L);
+
+        SpamVerdict result = llmBatchService.sendPromptAndBind(PromptType.SPAM_ANALYSIS, "Adorei o aplicativo", SpamVerdict.class);
+
+        assertEquals("single", result.reason());
+        verify(chatModel, times(1)).call(any(Prompt.class));
+    }
+
+    @Test
+    void sendPromptAndBind_BatchCallFails_EveryCallerFailsWithoutSingleCalls() {
+        when(chatModel.call(any(Prompt.class))).thenThrow(new TransientAiException("503 Service Unavailable"));
+
+        List<CompletableFuture<SpamVerdict>> results = List.of(submitAsync("Adorei o aplicativo"),
+                submitAsync("Queria um modo escuro"), submitAsync("Faltam notificações"));
+
+        for (CompletableFuture<SpamVerdict> result : results) {
+            CompletionException e = assertThrows(CompletionException.class, result::join);
+            assertInstanceOf(TransientAiException.class, e.getCause());
+        }
+        verify(chatModel, times(1)).call(any(Prompt.class));
+        assertEquals(0, llmBatchService.getStats().getFallbacks());
+    }
+
+    @Test
+    void sendPromptAndBind_SenderStuck_CallerTimesOut() {
+        llmBatchService.stop();
+        LLMResponseCache responseCache = new LLMResponseCache(false, 0, Duration.ZERO);
+        LLMService llmService = new LLMService(chatModel, new LLMResponseBinder(), responseCache,
+                new LLMCallGuard(8, Duration.ofSeconds(1), Duration.ofSeconds(30), 1, Duration.ZERO, false, 16),
+                mock(FeatureCodeIndex.class), new PromptBudget(500, 300, 400, new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        LLMCallGuard callGuard = mock(LLMCallGuard.class);
+        when(callGuard.getMaxCallDuration()).thenReturn(Duration.ofMillis(50));
+        llmBatchService = new LLMBatchService(llmService, new LLMResponseBinder(), responseCache, callGuard);
+        ReflectionTestUtils.setField(llmBatchService, "enabled", true);
+        ReflectionTestUtils.setField(llmBatchService, "maxBatchSize", 3);
+        ReflectionTestUtils.setField(llmBatchService, "maxWaitMs", 20L);
+        ReflectionTestUtils.setField(llmBatchService, "maxConcurrentBatches", 1);
+        llmBatchService.start();
+        when(chatModel.call(any(Prompt.class))).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return chatResponse("{\"isSpam\": false, \"reason\": \"late\"}");
+        });
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () ->
+                llmBatchService.sendPromptAndBind(PromptType.SPAM_ANALYSIS, "Adorei o aplicativo", SpamVerdict.class));
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, e.getStatusCode());
+    }
+
+    private CompletableFuture<SpamVerdict> submitAsync(String content) {
+        return CompletableFuture.supplyAsync(
+                () -> llmBatchService.sendPromptAndBind(PromptType.SPAM_ANALYSIS, content, SpamVerdict.class), callers);
+    }
+
+    private static ChatResponse chatResponse(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+}
@@ -0,0 +1,195 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.service.FaultInjectingChatModelStub.Step;
+import com.alura.alumind.utils.LLMPrompts.PromptType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class LLMCallGuardTest {
+
+    private static final Duration NONE = Duration.ZERO;
+
+    private LLMCallGuard callGuard;
+
+    @AfterEach
+    void tearDown() {
+        callGuard.stop();
+    }
+
+    @Test
+    void sendPrompt_TimeoutThenSuccess_Retried() {
+        callGuard = new LLMCallGuard(8, Duration.ofSeconds(1), Duration.ofMillis(100), 3, NONE, false, 16);
+        LLMService llmService = llmService(FaultInjectingChatModelStub.scripted(
+                Step.respond(Duration.ofSeconds(2), "lento"),
+                Step.respond(NONE, "ok")));
+
+        assertEquals("ok", llmService.sendPrompt(PromptType.WEEKLY_SUMMARY, "relatório"));
+        assertEquals(1, callGuard.getStats().getTimeouts());
+        assertEquals(1, callGuard.getStats().getRetries());
+        assertEquals(1, callGuard.getStats().getSuccesses());
+    }
+
+    @Test
+    void sendPrompt_NonTransientError_NotRetried() {
+        callGuard = new LLMCallGuard(8, Duration.ofSeconds(1), Duration.ofSeconds(1), 3, NONE, false, 16);
+        OpenAiChatModel chatModel = FaultInjectingChatModelStub.scripted(
+                Step.fail(NONE, new NonTransientAiException("400 - invalid request")));
+        LLMService llmService = llmService(chatModel);
+
+        assertThrows(NonTransientAiException.class, () -> llmService.sendPrompt(PromptType.WEEKLY_SUMMARY, "relatório"));
+        verify(chatModel, times(1)).call(any(Prompt.class));
+        assertEquals(0, callGuard.getStats().getRetries());
+        assertEquals(1, callGuard.getStats().getFailures());
+    }
+
+    @Test
+    void sendPrompt_RateLimited_HalvesLimitAndRetries() {
+        callGuard = new LLMCallGuard(8, Duration.ofSeconds(1), Duration.ofSeconds(1), 3, NONE, false, 16);
+        LLMService llmService = llmService(FaultInjectingChatModelStub.scripted(
+                Step.fail(NONE, new NonTransientAiException("429 - Rate limit reached")),
+                Step.fail(NONE, new NonTransientAiException("429 - Rate limit reached")),
+                Step.respond(NONE, "ok")));
+
+        assertEquals("ok", llmService.sendPrompt(PromptType.WEEKLY_SUMMARY, "relatório"));
+        assertEquals(2, callGuard.getStats().getRateLimited());
+        assertEquals(2, callGuard.getStats().getRetries());
+        assertEquals(4, callGuard.getStats().getConcurrencyLimit());
+    }
+
+    @Test
+    void sendPrompt_BulkheadFull_RejectedWithoutBlockingOtherPromptTypes() throws Exception {
+        callGuard = new LLMCallGuard(1, Duration.ofMillis(50), Duration.ofSeconds(2), 1, NONE, false, 16);
+        LLMService llmService = llmService(FaultInjectingChatModelStub.scripted(
+                Step.respond(Duration.ofMillis(500), "lento"),
+                Step.respond(NONE, "rápido")));
+
+        CompletableFuture<String> slow = CompletableFuture.supplyAsync(
+                () -> llmService.sendPrompt(PromptType.WEEKLY_SUMMARY, "relatório"));
+        while (callGuard.getStats().getPromptTypes().get(PromptType.WEEKLY_SUMMARY.name()).getInFlight() == 0) {
+            Thread.sleep(5);
+        }
+
+        ResponseStatusException rejected = assertThrows(ResponseStatusException.class,
+                () -> llmService.sendPrompt(PromptType.WEEKLY_SUMMARY, "relatório"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+        assertEquals("rápido", llmService.sendPrompt(PromptType.SPAM_ANALYSIS, "feedback"));
+        assertEquals("lento", slow.get());
+        assertEquals(1, callGuard.getStats().getBulkheadRejections());
+    }
+
+    @Test
+    void sendPrompt_SlowerThanP95_HedgedRequestWins() {
+        callGuard = new LLMCallGuard(8, Duration.ofSeconds(1), Duration.ofSeconds(5), 1, NONE, true, 16);
+        List<Step> script = new ArrayList<>(Collections.nCopies(20, Step.respond(Duration.ofMillis(10), "rápido")));
+        script.add(Step.respond(Duration.ofSeconds(3), "lento"));
+        script.add(Step.respond(Duration.ofMillis(10), "hedge"));
+        LLMService llmService = llmService(FaultInjectingChatModelStub.scripted(script.toArray(Step[]::new)));
+        for (int i = 0; i < 20; i++) {
+            llmService.sendPrompt(PromptType.SPAM_ANALYSIS, "feedback " + i);
+        }
+
+        long start = System.nanoTime();
+        String result = llmService.sendPrompt(PromptType.SPAM_ANALYSIS, "feedback lento");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("hedge", result);
+        assertTrue(elapsedMillis < 1000, "hedged call took " + elapsedMillis + " ms");
+        assertEquals(1, callGuard.getStats().getHedges());
+        assertEquals(1, callGuard.getStats().getHedgeWins());
+    }
+
+    @Test
+    void execute_TimedOutCallStillRunning_KeepsItsPermit() throws InterruptedException {
+        callGuard = new LLMCallGuard(1, Duration.ofMillis(50), Duration.ofMillis(100), 1, NONE, false, 16);
+        CompletableFuture<Void> release = new CompletableFuture<>();
+
+        ResponseStatusException timedOut = assertThrows(ResponseStatusException.class,
+                () -> callGuard.execute(PromptType.WEEKLY_SUMMARY, () -> {
+                    // Ignores the interruption, like a blocking socket read
+                    while (!release.isDone()) {
+                        Thread.onSpinWait();
+                    }
+                    return "lento";
+                }));
+        ResponseStatusException rejected = assertThrows(ResponseStatusException.class,
+                () -> callGuard.execute(PromptType.WEEKLY_SUMMARY, () -> "rápido"));
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, timedOut.getStatusCode());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+        assertEquals(1, callGuard.getStats().getInFlight());
+
+        release.complete(null);
+        Thread.sleep(100);
+        assertEquals("rápido", callGuard.execute(PromptType.WEEKLY_SUMMARY, () -> "rápido"));
+        assertEquals(0, callGuard.getStats().getInFlight());
+    }
+
+    @Test
+    void executeAsync_TimeoutThenSuccess_Retried() {
+        callGuard = new LLMCallGuard(8, Duration.ofSeconds(1), Duration.ofMillis(100), 3, NONE, false, 16);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = callGuard.executeAsync(PromptType.WEEKLY_SUMMARY, () -> attempts.incrementAndGet() == 1
+                ? Mono.just("lento").delayElement(Duration.ofSeconds(2))
+                : Mono.just("ok")).block();
+
+        assertEquals("ok", result);
+        assertEquals(2, attempts.get());
+        assertEquals(1, callGuard.getStats().getTimeouts());
+        assertEquals(1, callGuard.getStats().getRetries());
+    }
+
+    @Test
+    void executeAsync_BulkheadFull_WaitsThenRejects() {
+        callGuard = new LLMCallGuard(1, Duration.ofMillis(100), Duration.ofSeconds(2), 1, NONE, false, 16);
+        Mono<String> slow = callGuard.executeAsync(PromptType.WEEKLY_SUMMARY,
+                () -> Mono.just("lento").delayElement(Duration.ofMillis(500)));
+        Mono<String> queued = callGuard.executeAsync(PromptType.WEEKLY_SUMMARY,
+                () -> Mono.just("rápido").delaySubscription(Duration.ofMillis(10)));
+
+        CompletableFuture<String> slowResult = slow.toFuture();
+        ResponseStatusException rejected = assertThrows(ResponseStatusException.class, queued::block);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+        assertEquals("lento", slowResult.join());
+        assertEquals("rápido", queued.block());
+        assertEquals(1, callGuard.getStats().getBulkheadRejections());
+        assertEquals(1, callGuard.getStats().getFailures());
+    }
+
+    @Test
+    void getMaxCallDuration_PermitWaitsTimeoutsAndBackoffsOfEveryAttempt() {
+        callGuard = new LLMCallGuard(8, Duration.ofMillis(100), Duration.ofSeconds(1), 3, Duration.ofMillis(200), false, 16);
+
+        // 3 x (2 x 100 + 1000) + 200 + 400
+        assertEquals(Duration.ofMillis(4200), callGuard.getMaxCallDuration());
+    }
+
+    private LLMService llmService(OpenAiChatModel chatModel) {
+        return new LLMService(chatModel, new LLMResponseBinder(), new LLMResponseCache(false, 0, NONE), callGuard,
+                mock(FeatureCodeIndex.class), new PromptBudget(500, 300, 400, new SimpleMeterRegistry()),
+                new SimpleMeterRegistry());
+    }
+}
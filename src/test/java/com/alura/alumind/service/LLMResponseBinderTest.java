@@ -0,0 +1,84 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.FeedbackAnalysis;
+import com.alura.alumind.dto.FeedbackAnalysis.Feature;
+import com.alura.alumind.dto.SpamVerdict;
+import com.alura.alumind.model.Feedback.SentimentType;
+import com.alura.alumind.utils.LLMPrompts.PromptType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LLMResponseBinderTest {
+
+    private final LLMResponseBinder binder = new LLMResponseBinder();
+
+    @Test
+    void bind_WellFormedAnalysis_BindsWithoutRepair() {
+        FeedbackAnalysis analysis = binder.bind(PromptType.FEEDBACK_ANALYSIS, """
+                {"sentiment": "POSITIVO", "extra": {"ignored": [1, 2]}, "requestedFeatures": [
+                  {"code": "ADICIONAR_NOTIFICACOES", "reason": "Melhorar engajamento"}
+                ]}""", FeedbackAnalysis.class);
+
+        assertEquals(SentimentType.POSITIVO, analysis.sentiment());
+        assertEquals(List.of(new Feature("ADICIONAR_NOTIFICACOES", "Melhorar engajamento")), analysis.requestedFeatures());
+        assertEquals(0, binder.getStats().getRepaired());
+    }
+
+    @Test
+    void bind_FencesTrailingTextAndWrongCase_Repaired() {
+        FeedbackAnalysis analysis = binder.bind(PromptType.FUSED_FEEDBACK_ANALYSIS, """
+                Aqui está a análise:
+                ```json
+                {"is_spam": "false", "Sentiment": "negativo", "requested_features": [
+                  {"code": "MODO_OFFLINE", "reason": "Usar sem internet",},
+                ],}
+                ```
+                Espero ter ajudado!""", FeedbackAnalysis.class);
+
+        assertFalse(analysis.spam());
+        assertEquals(SentimentType.NEGATIVO, analysis.sentiment());
+        assertEquals("MODO_OFFLINE", analysis.requestedFeatures().get(0).code());
+        assertEquals(1, binder.getStats().getRepaired());
+        assertEquals(0, binder.getStats().getFailures());
+    }
+
+    @Test
+    void bind_TruncatedAfterRequiredFields_KeepsCompleteFeatures() {
+        FeedbackAnalysis analysis = binder.bind(PromptType.FEEDBACK_ANALYSIS, """
+                {"sentiment": "POSITIVO", "requestedFeatures": [
+                  {"code": "EXPORTAR_DIARIO", "reason": "Guardar registros"},
+                  {"code": "MODO_ESC""", FeedbackAnalysis.class);
+
+        assertEquals(List.of(new Feature("EXPORTAR_DIARIO", "Guardar registros")), analysis.requestedFeatures());
+    }
+
+    @Test
+    void bind_MissingRequiredField_Fails() {
+        assertThrows(RuntimeException.class,
+                () -> binder.bind(PromptType.FEEDBACK_ANALYSIS, "{\"requestedFeatures\": []}", FeedbackAnalysis.class));
+        assertThrows(RuntimeException.class,
+                () -> binder.bind(PromptType.SPAM_ANALYSIS, "Não consegui analisar", SpamVerdict.class));
+        assertEquals(2, binder.getStats().getFailures());
+    }
+
+    @Test
+    void bindBatch_InvalidItemsLeftOut() {
+        Map<Integer, Object> results = binder.bindBatch(PromptType.SPAM_ANALYSIS, """
+                ```json
+                [{"index": 0, "isSpam": false, "reason": "ok"},
+                 {"index": 1},
+                 {"index": "2", "isSpam": true, "reason": "promo"}]
+                ```""");
+
+        assertEquals(new SpamVerdict(false, "ok"), results.get(0));
+        assertFalse(results.containsKey(1));
+        assertTrue(((SpamVerdict) results.get(2)).spam());
+    }
+}
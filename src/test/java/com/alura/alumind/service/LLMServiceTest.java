@@ -0,0 +1,151 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.FeedbackAnalysis;
+import com.alura.alumind.dto.SpamVerdict;
+import com.alura.alumind.utils.LLMPrompts.PromptType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatModel;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LLMServiceTest {
+
+    private OpenAiChatModel chatModel;
+    private LLMResponseCache responseCache;
+    private SimpleMeterRegistry meterRegistry;
+    private LLMService llmService;
+
+    @BeforeEach
+    void setUp() {
+        chatModel = mock(OpenAiChatModel.class);
+        responseCache = new LLMResponseCache(true, 2, Duration.ofHours(1));
+        meterRegistry = new SimpleMeterRegistry();
+        llmService = new LLMService(chatModel, new LLMResponseBinder(), responseCache,
+                new LLMCallGuard(8, Duration.ofSeconds(1), Duration.ofSeconds(30), 1, Duration.ZERO, false, 16), mock(FeatureCodeIndex.class),
+                new PromptBudget(500, 300, 400, meterRegistry), meterRegistry);
+
+        when(chatModel.call(any(Prompt.class))).thenReturn(new ChatResponse(List.of(
+                new Generation(new AssistantMessage("```json\n{\"isSpam\": false, \"sentiment\": \"POSITIVO\"}\n```")))));
+    }
+
+    @Test
+    void sendPromptAndBind_WhitespaceVariant_ServedFromCache() {
+        SpamVerdict first = llmService.sendPromptAndBind(PromptType.SPAM_ANALYSIS, "Adorei o aplicativo", SpamVerdict.class);
+        SpamVerdict second = llmService.sendPromptAndBind(PromptType.SPAM_ANALYSIS, "  Adorei   o\naplicativo ", SpamVerdict.class);
+
+        assertFalse(first.spam());
+        assertEquals(first, second);
+        verify(chatModel, times(1)).call(any(Prompt.class));
+        assertEquals(1, responseCache.getStats().getHits());
+        assertEquals(1, responseCache.getStats().getMisses());
+    }
+
+    @Test
+    void sendPromptAndBind_DifferentPromptType_CallsModel() {
+        llmService.sendPromptAndBind(PromptType.SPAM_ANALYSIS, "Adorei o aplicativo", SpamVerdict.class);
+        llmService.sendPromptAndBind(PromptType.FEEDBACK_ANALYSIS, "Adorei o aplicativo", FeedbackAnalysis.class);
+
+        verify(chatModel, times(2)).call(any(Prompt.class));
+    }
+
+    @Test
+    void sendPromptAndBind_CacheFull_EvictsLeastRecentlyUsed() {
+        llmService.sendPromptAndBind(PromptType.SPAM_ANALYSIS, "primeiro", SpamVerdict.class);
+        llmService.sendPromptAndBind(PromptType.SPAM_ANALYSIS, "segundo", SpamVerdict.class);
+        llmService.sendPromptAndBind(PromptType.SPAM_ANALYSIS, "primeiro", SpamVerdict.class);
+        llmService.sendPromptAndBind(PromptType.SPAM_ANALYSIS, "terceiro", SpamVerdict.class);
+        llmService.sendPromptAndBind(PromptType.SPAM_ANALYSIS, "segundo", SpamVerdict.class);
+
+        verify(chatModel, times(4)).call(any(Prompt.class));
+        assertEquals(2, responseCache.getStats().getEvictions());
+    }
+
+    @Test
+    void sendPromptAndBind_SendsFixedSystemMessageBeforeVariableUserMessage() {
+        llmService.sendPromptAndBind(PromptType.SPAM_ANALYSIS, "Adorei o aplicativo", SpamVerdict.class);
+        llmService.sendPromptAndBind(PromptType.SPAM_ANALYSIS, "Faltam lembretes", SpamVerdict.class);
+
+        ArgumentCaptor<Prompt> prompts = ArgumentCaptor.forClass(Prompt.class);
+        verify(chatModel, times(2)).call(prompts.capture());
+        Prompt first = prompts.getAllValues().get(0);
+        Prompt second = prompts.getAllValues().get(1);
+
+        assertEquals(MessageType.SYSTEM, first.getInstructions().get(0).getMessageType());
+        assertEquals(PromptType.SPAM_ANALYSIS.getSystemMessage(), first.getInstructions().get(0).getText());
+        assertEquals(first.getInstructions().get(0).getText(), second.getInstructions().get(0).getText());
+        assertEquals(MessageType.USER, second.getInstructions().get(1).getMessageType());
+        assertTrue(second.getInstructions().get(1).getText().contains("Faltam lembretes"));
+    }
+
+    @Test
+    void sendPrompt_RecordsTimerAndTokenUsageByPromptType() {
+        when(chatModel.call(any(Prompt.class))).thenReturn(new ChatResponse(
+                List.of(new Generation(new AssistantMessage("Semana positiva."))),
+                ChatResponseMetadata.builder().usage(new DefaultUsage(120, 30)).build()));
+
+        llmService.sendPrompt(PromptType.WEEKLY_SUMMARY, "Resumo");
+        llmService.sendPrompt(PromptType.WEEKLY_SUMMARY, "Resumo");
+
+        assertEquals(2, meterRegistry.get(LLMService.CALLS_METRIC)
+                .tags("prompt", "weekly_summary", "outcome", "success").timer().count());
+        assertEquals(240, meterRegistry.get(LLMService.TOKENS_METRIC)
+                .tags("prompt", "weekly_summary", "type", "prompt").counter().count());
+        assertEquals(60, meterRegistry.get(LLMService.TOKENS_METRIC)
+                .tags("prompt", "weekly_summary", "type", "completion").counter().count());
+    }
+
+    @Test
+    void streamPrompt_DelayedTokens_EmittedAsTheyArrive() {
+        OpenAiChatModel streamingModel = StreamingChatModelStub.emitting(Duration.ofMillis(100),
+                "<html>", "", "<body>", "</body></html>");
+        LLMService streamingService = new LLMService(streamingModel, new LLMResponseBinder(), responseCache,
+                new LLMCallGuard(8, Duration.ofSeconds(1), Duration.ofSeconds(30), 1, Duration.ZERO, false, 16), mock(FeatureCodeIndex.class),
+                new PromptBudget(500, 300, 400, new SimpleMeterRegistry()), new SimpleMeterRegistry());
+
+        long start = System.nanoTime();
+        List<Long> arrivals = new ArrayList<>();
+        List<String> chunks = streamingService.streamPrompt(PromptType.WEEKLY_SUMMARY, "Gere o relatório")
+                .doOnNext(chunk -> arrivals.add(System.nanoTime() - start))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(List.of("<html>", "<body>", "</body></html>"), chunks);
+        assertTrue(arrivals.get(0) < arrivals.get(2) - Duration.ofMillis(150).toNanos());
+        verify(chatModel, never()).call(any(Prompt.class));
+    }
+
+    @Test
+    void streamPrompt_Completed_RecordsTimer() {
+        OpenAiChatModel streamingModel = StreamingChatModelStub.emitting(Duration.ZERO, "<html>", "</html>");
+        LLMService streamingService = new LLMService(streamingModel, new LLMResponseBinder(), responseCache,
+                new LLMCallGuard(8, Duration.ofSeconds(1), Duration.ofSeconds(30), 1, Duration.ZERO, false, 16), mock(FeatureCodeIndex.class),
+                new PromptBudget(500, 300, 400, meterRegistry), meterRegistry);
+
+        streamingService.streamPrompt(PromptType.WEEKLY_SUMMARY, "Gere o relatório").blockLast(Duration.ofSeconds(5));
+
+        assertEquals(1, meterRegistry.get(LLMService.CALLS_METRIC)
+                .tags("prompt", "weekly_summary", "outcome", "success").timer().count());
+    }
+}
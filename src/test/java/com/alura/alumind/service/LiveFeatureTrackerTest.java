@@ -0,0 +1,108 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.LiveTopFeaturesResponse;
+import com.alura.alumind.dto.LiveTopFeaturesResponse.LiveFeatureDto;
+import com.alura.alumind.repository.DailyFeatureCountRepository.FeatureTotal;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LiveFeatureTrackerTest {
+
+    @Test
+    void getTopFeatures_FewerCodesThanCapacity_ExactCounts() {
+        LiveFeatureTracker tracker = new LiveFeatureTracker(true, 10);
+        tracker.record(List.of("EDITAR_PERFIL", "MODO_ESCURO"));
+        tracker.record(List.of("EDITAR_PERFIL"));
+        tracker.record(List.of("ADICIONAR_NOTIFICACOES"));
+
+        LiveTopFeaturesResponse top = tracker.getTopFeatures(2);
+
+        assertEquals(4, top.getTotalRequests());
+        assertEquals(0, top.getMaxError());
+        assertEquals("EDITAR_PERFIL", top.getFeatures().get(0).getCode());
+        assertEquals(2, top.getFeatures().get(0).getCount());
+        assertTrue(top.getFeatures().get(0).isGuaranteed());
+        assertEquals("ADICIONAR_NOTIFICACOES", top.getFeatures().get(1).getCode());
+        assertEquals(0, top.getFeatures().get(1).getError());
+    }
+
+    @Test
+    void getTopFeatures_MoreCodesThanCapacity_RealCountsWithinBounds() {
+        LiveFeatureTracker tracker = new LiveFeatureTracker(true, 20);
+        Map<String, Long> realCounts = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            int rank = (int) Math.floor(Math.pow(random.nextDouble(), 3) * 200);
+            String code = "FEATURE_" + rank;
+            realCounts.merge(code, 1L, Long::sum);
+            tracker.record(List.of(code));
+        }
+
+        LiveTopFeaturesResponse top = tracker.getTopFeatures(5);
+
+        assertEquals(5000, top.getTotalRequests());
+        assertTrue(top.getMaxError() > 0);
+        assertTrue(top.getMaxError() <= 5000 / 20);
+        for (LiveFeatureDto feature : top.getFeatures()) {
+            long real = realCounts.get(feature.getCode());
+            assertTrue(feature.getMinCount() <= real && real <= feature.getCount(), feature.getCode());
+        }
+        assertEquals("FEATURE_0", top.getFeatures().get(0).getCode());
+        assertTrue(top.getFeatures().get(0).isGuaranteed());
+    }
+
+    @Test
+    void load_ExactTotals_ReplaceCounters() {
+        LiveFeatureTracker tracker = new LiveFeatureTracker(true, 2);
+        tracker.record(List.of("ANTIGO"));
+
+        tracker.load(List.of(total("EDITAR_PERFIL", 9), total("MODO_ESCURO", 4), total("EXPORTAR_HISTORICO", 1)), 15);
+        tracker.record(List.of("MEDITACOES_GUIADAS"));
+        LiveTopFeaturesResponse top = tracker.getTopFeatures(2);
+
+        assertEquals(16, top.getTotalRequests());
+        assertEquals(9, top.getFeatures().get(0).getCount());
+        assertEquals("MEDITACOES_GUIADAS", top.getFeatures().get(1).getCode());
+        assertEquals(5, top.getFeatures().get(1).getCount());
+        assertEquals(4, top.getFeatures().get(1).getError());
+        assertFalse(top.getFeatures().get(1).isGuaranteed());
+        assertThrows(IllegalArgumentException.class, () -> tracker.getTopFeatures(3));
+    }
+
+    @Test
+    void getTopFeatures_Disabled_NotFoundAndNothingRecorded() {
+        LiveFeatureTracker tracker = new LiveFeatureTracker(false, 10);
+        tracker.record(List.of("MODO_ESCURO"));
+        tracker.load(List.of(total("EDITAR_PERFIL", 3)), 3);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> tracker.getTopFeatures(5));
+
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+        assertFalse(tracker.isEnabled());
+    }
+
+    private static FeatureTotal total(String code, long total) {
+        return new FeatureTotal() {
+            @Override
+            public String getCode() {
+                return code;
+            }
+
+            @Override
+            public long getTotal() {
+                return total;
+            }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.FeedbackAnalysis;
+import com.alura.alumind.model.Feedback.SentimentType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LocalFeedbackClassifierTest {
+
+    private final LocalFeedbackClassifier classifier = new LocalFeedbackClassifier(true, 0.8);
+
+    @Test
+    void classifySpam_LinkWithPromotion_ReturnsSpam() {
+        assertEquals(Optional.of(true), classifier.classifySpam("Ganhe desconto clicando em https://promo.example.com"));
+    }
+
+    @Test
+    void classifySpam_Gibberish_ReturnsSpam() {
+        assertEquals(Optional.of(true), classifier.classifySpam("asdfghjkl qwrtzxcvb"));
+    }
+
+    @Test
+    void classifySpam_OnTopicOpinion_ReturnsLegitimate() {
+        assertEquals(Optional.of(false), classifier.classifySpam("Adorei o aplicativo, é muito bom"));
+    }
+
+    @Test
+    void classifySpam_PromoTermInsideWordOrNoLetters_DefersToLLM() {
+        assertTrue(classifier.classifySpam("Não compreendo como exportar meu diário, vi no site alumind.com.br").isEmpty());
+        assertTrue(classifier.classifySpam("10/10").isEmpty());
+    }
+
+    @Test
+    void classifySpam_OffensiveOpinion_DefersToLLM() {
+        assertTrue(classifier.classifySpam("Adorei o app, mas vocês são uns idiotas").isEmpty());
+    }
+
+    @Test
+    void classifySpam_Ambiguous_DefersToLLM() {
+        assertTrue(classifier.classifySpam("Visitei o site ontem").isEmpty());
+    }
+
+    @Test
+    void classifySentiment_ObviousNegativeWithNegation_ReturnsNegativo() {
+        Optional<FeedbackAnalysis> result = classifier.classifySentiment("Não gostei, o app é lento e cheio de bugs");
+
+        assertEquals(SentimentType.NEGATIVO, result.orElseThrow().sentiment());
+        assertTrue(result.get().requestedFeatures().isEmpty());
+    }
+
+    @Test
+    void classifySentiment_FeatureRequest_DefersToLLM() {
+        assertTrue(classifier.classifySentiment("Adorei, ótimo e excelente, mas seria bom ter notificações").isEmpty());
+    }
+
+    @Test
+    void getStats_ReportsBypassRate() {
+        classifier.classifySpam("Ganhe desconto clicando em https://promo.example.com");
+        classifier.classifySpam("Visitei o site ontem");
+
+        assertEquals(0.5, classifier.getStats().getSpamBypassRate());
+    }
+}
@@ -0,0 +1,39 @@
+package com.alura.alumind.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PooledIdAllocatorTest {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong sequenceCalls = new AtomicLong();
+    private final PooledIdAllocator allocator = new PooledIdAllocator(() -> Mono.fromSupplier(() -> {
+        sequenceCalls.incrementAndGet();
+        return sequence.addAndGet(50);
+    }), 50);
+
+    @Test
+    void allocate_SingleIds_SequenceCalledOncePerBlock() {
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i + 1, allocator.allocate(1).blockLast());
+        }
+
+        assertEquals(2, sequenceCalls.get());
+    }
+
+    @Test
+    void allocate_SpanningBlocks_NoIdSkipped() {
+        List<Long> first = allocator.allocate(30).collectList().block();
+        List<Long> second = allocator.allocate(45).collectList().block();
+
+        assertEquals(LongStream.rangeClosed(1, 30).boxed().toList(), first);
+        assertEquals(LongStream.rangeClosed(31, 75).boxed().toList(), second);
+        assertEquals(2, sequenceCalls.get());
+    }
+}
@@ -0,0 +1,72 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.ReportResponse.TopFeaturesDto;
+import com.alura.alumind.utils.LLMPrompts.PromptType;
+import com.alura.alumind.utils.TokenEstimator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PromptBudgetTest {
+
+    private PromptBudget promptBudget;
+
+    @BeforeEach
+    void setUp() {
+        promptBudget = new PromptBudget(60, 20, 40, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void fitFeedback_OverBudget_KeepsBeginningAndEnd() {
+        String middle = "as meditações guiadas são boas mas ".repeat(30);
+        String content = "Adorei o aplicativo. " + middle + "Seria ótimo poder exportar meu diário.";
+
+        String fitted = promptBudget.fitFeedback(PromptType.FEEDBACK_ANALYSIS, content);
+
+        assertTrue(TokenEstimator.estimate(fitted) <= 60);
+        assertTrue(fitted.startsWith("Adorei o aplicativo."));
+        assertTrue(fitted.endsWith("exportar meu diário."));
+        assertTrue(fitted.contains(PromptBudget.TRUNCATION_MARKER));
+        assertEquals("Curto e direto", promptBudget.fitFeedback(PromptType.FEEDBACK_ANALYSIS, "Curto e direto"));
+
+        var stats = promptBudget.getStats().getPromptTypes().get(PromptType.FEEDBACK_ANALYSIS.name());
+        assertEquals(1, stats.getTruncations());
+        assertEquals(TokenEstimator.estimate(content) - TokenEstimator.estimate(fitted), stats.getTokensSaved());
+    }
+
+    @Test
+    void fitFeatureCodes_OverBudget_KeepsMostUsedCodes() {
+        List<String> codes = List.of("EDITAR_PERFIL", "MODO_OFFLINE", "EXPORTAR_DIARIO", "LEMBRETES_DIARIOS",
+                "MEDITACOES_GUIADAS", "MODO_ESCURO");
+
+        String fitted = promptBudget.fitFeatureCodes(PromptType.FEEDBACK_ANALYSIS, codes);
+
+        assertTrue(fitted.startsWith("EDITAR_PERFIL, MODO_OFFLINE"));
+        assertFalse(fitted.contains("MODO_ESCURO"));
+        assertTrue(TokenEstimator.estimate(fitted) <= 20);
+    }
+
+    @Test
+    void fitTopFeatures_OverBudget_SummarizesRemainingFeatures() {
+        List<TopFeaturesDto> features = IntStream.range(0, 20)
+                .mapToObj(i -> new TopFeaturesDto("FUNCIONALIDADE_" + i, List.of(), 100L - i))
+                .toList();
+
+        String fitted = promptBudget.fitTopFeatures(features);
+        String[] lines = fitted.split("\n");
+        int kept = lines.length - 1;
+        long remaining = features.subList(kept, 20).stream().mapToLong(TopFeaturesDto::getFeedbacksCounter).sum();
+
+        assertTrue(TokenEstimator.estimate(fitted) <= 40);
+        assertEquals("- FUNCIONALIDADE_0: 100", lines[0]);
+        assertEquals("- (" + (20 - kept) + " other features, " + remaining + " requests in total)", lines[kept]);
+        assertEquals("(none)", promptBudget.fitTopFeatures(List.of()));
+    }
+}
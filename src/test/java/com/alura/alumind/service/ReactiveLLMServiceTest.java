@@ -0,0 +1,90 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.FeedbackAnalysis;
+import com.alura.alumind.utils.LLMPrompts.PromptType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.retry.TransientAiException;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ReactiveLLMServiceTest {
+
+    private static final String[] ANALYSIS_TOKENS = {
+            "{\"sentiment\": \"POSITIVO\", ",
+            "\"requestedFeatures\": [{\"code\": \"EDITAR_PERFIL\", ",
+            "\"reason\": \"Usuário quer editar o perfil\"}]}"
+    };
+
+    private OpenAiChatModel chatModel;
+    private LLMCallGuard callGuard;
+    private SimpleMeterRegistry meterRegistry;
+    private ReactiveLLMService reactiveLLMService;
+
+    @BeforeEach
+    void setUp() {
+        chatModel = mock(OpenAiChatModel.class);
+        callGuard = new LLMCallGuard(8, Duration.ofSeconds(1), Duration.ofSeconds(5), 3, Duration.ZERO, false, 16);
+        meterRegistry = new SimpleMeterRegistry();
+        LLMResponseBinder responseBinder = new LLMResponseBinder();
+        LLMResponseCache responseCache = new LLMResponseCache(true, 10, Duration.ofHours(1));
+        PromptBudget promptBudget = new PromptBudget(500, 300, 400, meterRegistry);
+        LLMService llmService = new LLMService(chatModel, responseBinder, responseCache, callGuard,
+                mock(FeatureCodeIndex.class), promptBudget, meterRegistry);
+        reactiveLLMService = new ReactiveLLMService(chatModel, llmService, responseBinder, responseCache, callGuard,
+                promptBudget, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callGuard.stop();
+    }
+
+    @Test
+    void sendPromptAndBind_StreamedChunks_JoinedBoundAndCached() {
+        when(chatModel.stream(any(Prompt.class)))
+                .thenAnswer(invocation -> StreamingChatModelStub.tokens(Duration.ofMillis(5), ANALYSIS_TOKENS));
+
+        FeedbackAnalysis first = reactiveLLMService
+                .sendPromptAndBind(PromptType.FEEDBACK_ANALYSIS, "Quero editar meu perfil", FeedbackAnalysis.class)
+                .block();
+        FeedbackAnalysis second = reactiveLLMService
+                .sendPromptAndBind(PromptType.FEEDBACK_ANALYSIS, "Quero editar meu perfil", FeedbackAnalysis.class)
+                .block();
+
+        assertEquals("POSITIVO", first.sentiment().name());
+        assertEquals("EDITAR_PERFIL", first.requestedFeatures().get(0).code());
+        assertEquals(first, second);
+        verify(chatModel, times(1)).stream(any(Prompt.class));
+        assertEquals(1, meterRegistry.get(LLMService.CALLS_METRIC)
+                .tags("prompt", "feedback_analysis", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void sendPrompt_TransientStreamError_Retried() {
+        AtomicInteger attempts = new AtomicInteger();
+        when(chatModel.stream(any(Prompt.class))).thenAnswer(invocation -> attempts.incrementAndGet() == 1
+                ? Flux.error(new TransientAiException("503 - Service Unavailable"))
+                : StreamingChatModelStub.tokens(Duration.ZERO, "rel", "atório"));
+
+        String response = reactiveLLMService.sendPrompt(PromptType.WEEKLY_SUMMARY, "dados").block();
+
+        assertEquals("relatório", response);
+        assertEquals(2, attempts.get());
+        assertEquals(1, callGuard.getStats().getRetries());
+        assertEquals(1, callGuard.getStats().getSuccesses());
+    }
+}
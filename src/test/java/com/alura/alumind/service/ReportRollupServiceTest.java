@@ -0,0 +1,86 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.model.Feedback;
+import com.alura.alumind.model.Feedback.SentimentType;
+import com.alura.alumind.model.RequestedFeature;
+import com.alura.alumind.repository.DailyFeatureCountRepository;
+import com.alura.alumind.repository.DailySentimentCountRepository;
+import com.alura.alumind.repository.FeedbackPartitionManager;
+import com.alura.alumind.repository.HourlySentimentCountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ReportRollupServiceTest {
+
+    private DailySentimentCountRepository sentimentCountRepository;
+    private HourlySentimentCountRepository hourlySentimentCountRepository;
+    private DailyFeatureCountRepository featureCountRepository;
+    private SentimentTrendBuffer trendBuffer;
+    private LiveFeatureTracker featureTracker;
+    private ReportRollupService rollupService;
+
+    @BeforeEach
+    void setUp() {
+        sentimentCountRepository = mock(DailySentimentCountRepository.class);
+        hourlySentimentCountRepository = mock(HourlySentimentCountRepository.class);
+        featureCountRepository = mock(DailyFeatureCountRepository.class);
+        trendBuffer = new SentimentTrendBuffer(48);
+        featureTracker = new LiveFeatureTracker(true, 10);
+        rollupService = new ReportRollupService(sentimentCountRepository, hourlySentimentCountRepository,
+                featureCountRepository, mock(FeedbackPartitionManager.class), trendBuffer, featureTracker);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void recordFeedbacks_Batch_OneUpsertPerRollupRow() {
+        LocalDateTime now = LocalDateTime.now();
+        rollupService.recordFeedbacks(List.of(
+                feedback(now, SentimentType.POSITIVO, "MODO_ESCURO", "EXPORTAR_DIARIO"),
+                feedback(now, SentimentType.POSITIVO, "MODO_ESCURO"),
+                feedback(now, SentimentType.NEGATIVO, "MODO_ESCURO", "MODO_ESCURO")));
+
+        verify(sentimentCountRepository).increment(now.toLocalDate(), "POSITIVO", 2);
+        verify(sentimentCountRepository).increment(now.toLocalDate(), "NEGATIVO", 1);
+        verify(hourlySentimentCountRepository, times(2)).increment(any(), anyString(), anyLong());
+        verify(featureCountRepository).increment(now.toLocalDate(), "MODO_ESCURO", 3);
+        verify(featureCountRepository).increment(now.toLocalDate(), "EXPORTAR_DIARIO", 1);
+        verify(featureCountRepository, times(2)).increment(any(), anyString(), anyLong());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(2, trendBuffer.getCounts(now)[SentimentType.POSITIVO.ordinal()]);
+        assertEquals(1, trendBuffer.getCounts(now)[SentimentType.NEGATIVO.ordinal()]);
+        assertEquals(4, featureTracker.getTopFeatures(10).getTotalRequests());
+    }
+
+    private static Feedback feedback(LocalDateTime createdAt, SentimentType sentiment, String... codes) {
+        Feedback feedback = Feedback.builder()
+                .content("Feedback de teste")
+                .sentiment(sentiment)
+                .createdAt(createdAt)
+                .build();
+        for (String code : codes) {
+            feedback.addRequestedFeature(RequestedFeature.builder().code(code).reason("Motivo").build());
+        }
+        return feedback;
+    }
+}
@@ -0,0 +1,100 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.ReportResponse;
+import com.alura.alumind.model.Feedback.SentimentType;
+import com.alura.alumind.repository.DailyFeatureCountRepository.FeatureTotal;
+import com.alura.alumind.repository.FeedbackRepository;
+import com.alura.alumind.repository.RequestedFeaturesRepository;
+import com.alura.alumind.repository.RequestedFeaturesRepository.FeatureIdsRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReportServiceTest {
+
+    private ReportRollupService reportRollupService;
+    private RequestedFeaturesRepository requestedFeaturesRepository;
+    private ReportService reportService;
+
+    @BeforeEach
+    void setUp() {
+        reportRollupService = mock(ReportRollupService.class);
+        requestedFeaturesRepository = mock(RequestedFeaturesRepository.class);
+        reportService = new ReportService(reportRollupService, mock(FeedbackRepository.class), requestedFeaturesRepository,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(reportService, "defaultLimit", 20);
+        ReflectionTestUtils.setField(reportService, "maxLimit", 100);
+        ReflectionTestUtils.setField(reportService, "defaultMaxIds", 50);
+        ReflectionTestUtils.setField(reportService, "maxIdsCap", 500);
+    }
+
+    @Test
+    void generateWeeklyReport_ReadsRollupsForRange() {
+        LocalDate monday = LocalDate.of(2025, 4, 7);
+        LocalDate sunday = LocalDate.of(2025, 4, 13);
+        when(reportRollupService.countBySentiment(monday, sunday)).thenReturn(Map.of(
+                SentimentType.POSITIVO, 6L,
+                SentimentType.NEGATIVO, 3L,
+                SentimentType.INCONCLUSIVO, 1L));
+        when(reportRollupService.countByFeature(monday, sunday, 20, 0))
+                .thenReturn(List.of(featureTotal("ADICIONAR_NOTIFICACOES", 3)));
+        when(requestedFeaturesRepository.findFeedbackIdsByCodesForDateRange(any(String[].class), any(), any(), eq(50)))
+                .thenReturn(List.of(featureIds("ADICIONAR_NOTIFICACOES", 3L, 2L, 1L)));
+
+        ReportResponse report = reportService.generateWeeklyReport(monday.atStartOfDay(), sunday.atTime(23, 59));
+
+        assertEquals(10, report.getStatistics().getTotalFeedbacks());
+        assertEquals(60.0, report.getStatistics().getPercentPositive());
+        assertEquals(30.0, report.getStatistics().getPercentNegative());
+        assertEquals(10.0, report.getStatistics().getPercentInconclusive());
+        assertEquals(3L, report.getTopFeatures().get(0).getFeedbacksCounter());
+        assertEquals(List.of(3L, 2L, 1L), report.getTopFeatures().get(0).getFeedbackIds());
+    }
+
+    @Test
+    void generateReport_LimitAboveMax_ThrowsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> reportService.generateReport(1000, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> reportService.generateReport(10, -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> reportService.generateReport(10, 0, 1000));
+    }
+
+    private static FeatureIdsRow featureIds(String code, Long... ids) {
+        return new FeatureIdsRow() {
+            @Override
+            public String getCode() {
+                return code;
+            }
+
+            @Override
+            public Long[] getFeedbackIds() {
+                return ids;
+            }
+        };
+    }
+
+    private static FeatureTotal featureTotal(String code, long total) {
+        return new FeatureTotal() {
+            @Override
+            public String getCode() {
+                return code;
+            }
+
+            @Override
+            public long getTotal() {
+                return total;
+            }
+        };
+    }
+}
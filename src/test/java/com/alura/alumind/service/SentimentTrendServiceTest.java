@@ -0,0 +1,126 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.TrendResponse;
+import com.alura.alumind.model.DailySentimentCount;
+import com.alura.alumind.model.Feedback.SentimentType;
+import com.alura.alumind.model.HourlySentimentCount;
+import com.alura.alumind.repository.DailySentimentCountRepository;
+import com.alura.alumind.repository.HourlySentimentCountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SentimentTrendServiceTest {
+
+    private SentimentTrendBuffer trendBuffer;
+    private HourlySentimentCountRepository hourlyRepository;
+    private DailySentimentCountRepository dailyRepository;
+    private SentimentTrendService trendService;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        trendBuffer = new SentimentTrendBuffer(48);
+        hourlyRepository = mock(HourlySentimentCountRepository.class);
+        dailyRepository = mock(DailySentimentCountRepository.class);
+        trendService = new SentimentTrendService(trendBuffer, hourlyRepository, dailyRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(trendService, "maxBuckets", 2000);
+    }
+
+    @Test
+    void getTrend_Daily_RecentDaysFromBufferOlderDaysFromRollups() {
+        LocalDate yesterday = today.minusDays(1);
+        when(dailyRepository.findForDateRange(today.minusDays(3), today.minusDays(2))).thenReturn(List.of(
+                new DailySentimentCount(today.minusDays(3), SentimentType.POSITIVO, 4),
+                new DailySentimentCount(today.minusDays(2), SentimentType.NEGATIVO, 1)));
+        trendBuffer.record(LocalDateTime.now(), SentimentType.POSITIVO, 2);
+        trendBuffer.record(LocalDateTime.now(), SentimentType.NEGATIVO, 1);
+        trendBuffer.record(yesterday.atTime(12, 0), SentimentType.INCONCLUSIVO, 3);
+
+        TrendResponse trend = trendService.getTrend(today.minusDays(3), today, "day");
+
+        assertEquals(4, trend.getBuckets().size());
+        assertEquals(4, trend.getBuckets().get(0).getPositive());
+        assertEquals(1, trend.getBuckets().get(1).getNegative());
+        assertEquals(3, trend.getBuckets().get(2).getInconclusive());
+        assertEquals(today.toString(), trend.getBuckets().get(3).getStart());
+        assertEquals(3, trend.getBuckets().get(3).getTotalFeedbacks());
+        verify(hourlyRepository, never()).findForHourRange(any(), any());
+    }
+
+    @Test
+    void getTrend_Hourly_OlderHoursFromHourlyRollups() {
+        LocalDate day = today.minusDays(10);
+        when(hourlyRepository.findForHourRange(day.atStartOfDay(), day.plusDays(1).atStartOfDay())).thenReturn(List.of(
+                new HourlySentimentCount(day.atTime(9, 0), SentimentType.POSITIVO, 7)));
+
+        TrendResponse trend = trendService.getTrend(day, day, "HOUR");
+
+        assertEquals(24, trend.getBuckets().size());
+        assertEquals(day.atTime(9, 0).toString(), trend.getBuckets().get(9).getStart());
+        assertEquals(7, trend.getBuckets().get(9).getPositive());
+        assertEquals(7, trend.getBuckets().stream().mapToLong(TrendResponse.TrendBucketDto::getTotalFeedbacks).sum());
+    }
+
+    @Test
+    void getTrend_BufferDisabled_TodayFromRollups() {
+        SentimentTrendBuffer disabled = new SentimentTrendBuffer(0);
+        disabled.record(LocalDateTime.now(), SentimentType.POSITIVO, 5);
+        trendService = new SentimentTrendService(disabled, hourlyRepository, dailyRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(trendService, "maxBuckets", 2000);
+        when(dailyRepository.findForDateRange(today.minusDays(1), today)).thenReturn(List.of(
+                new DailySentimentCount(today, SentimentType.NEGATIVO, 2)));
+
+        TrendResponse trend = trendService.getTrend(today.minusDays(1), today, "day");
+
+        assertEquals(2, trend.getBuckets().size());
+        assertEquals(0, trend.getBuckets().get(0).getTotalFeedbacks());
+        assertEquals(2, trend.getBuckets().get(1).getTotalFeedbacks());
+        assertEquals(2, trend.getBuckets().get(1).getNegative());
+    }
+
+    @Test
+    void getTrend_Weekly_RangeExtendedToWholeWeeks() {
+        LocalDate wednesday = LocalDate.of(2026, 9, 30);
+
+        TrendResponse trend = trendService.getTrend(wednesday, wednesday.plusDays(7), "week");
+
+        assertEquals("2026-09-28", trend.getFrom());
+        assertEquals("2026-10-11", trend.getTo());
+        assertEquals(2, trend.getBuckets().size());
+        verify(dailyRepository).findForDateRange(LocalDate.of(2026, 9, 28), LocalDate.of(2026, 10, 11));
+    }
+
+    @Test
+    void getTrend_InvalidRequest_Rejected() {
+        assertThrows(IllegalArgumentException.class, () -> trendService.getTrend(today, today, "month"));
+        assertThrows(IllegalArgumentException.class, () -> trendService.getTrend(today, today.minusDays(1), "day"));
+        assertThrows(IllegalArgumentException.class, () -> trendService.getTrend(today.minusDays(100), today, "hour"));
+    }
+
+    @Test
+    void record_HourBeforeWindow_Ignored() {
+        LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        trendBuffer.record(hour.minusHours(48), SentimentType.POSITIVO, 1);
+        trendBuffer.record(hour.minusHours(47), SentimentType.POSITIVO, 1);
+
+        assertEquals(0, trendBuffer.getCounts(hour.minusHours(48))[SentimentType.POSITIVO.ordinal()]);
+        assertEquals(1, trendBuffer.getCounts(hour.minusHours(47))[SentimentType.POSITIVO.ordinal()]);
+        assertEquals(0, trendBuffer.getCounts(hour.plusHours(1))[SentimentType.POSITIVO.ordinal()]);
+    }
+}
@@ -0,0 +1,53 @@
+package com.alura.alumind.service;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatModel;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Local stand-in for the OpenAI streaming API
+ * 
+ * Emits the given tokens one ChatResponse at a time, waiting the configured
+ * delay before each one, like a model generating text.
+ */
+public final class StreamingChatModelStub {
+
+    private StreamingChatModelStub() {
+    }
+
+    /**
+     * Create a chat model whose stream call emits the given tokens
+     * 
+     * @param delay The delay before each token
+     * @param tokens The tokens to emit, in order
+     * @return The stub chat model
+     */
+    public static OpenAiChatModel emitting(Duration delay, String... tokens) {
+        OpenAiChatModel chatModel = mock(OpenAiChatModel.class);
+        when(chatModel.stream(any(Prompt.class))).thenAnswer(invocation -> tokens(delay, tokens));
+        return chatModel;
+    }
+
+    /**
+     * Build the Flux of chat responses emitted by the stub
+     * 
+     * @param delay The delay before each token
+     * @param tokens The tokens to emit, in order
+     * @return The delayed stream of chat responses
+     */
+    public static Flux<ChatResponse> tokens(Duration delay, String... tokens) {
+        return Flux.fromArray(tokens)
+                .delayElements(delay)
+                .map(token -> new ChatResponse(List.of(new Generation(new AssistantMessage(token)))));
+    }
+}
@@ -0,0 +1,62 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.ReportResponse;
+import com.alura.alumind.dto.ReportResponse.StatisticsDto;
+import com.alura.alumind.dto.ReportResponse.TopFeaturesDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WeeklyReportRendererTest {
+
+    private final WeeklyReportRenderer renderer = new WeeklyReportRenderer(3);
+
+    @Test
+    void render_EscapesSummaryAndListsAtMostMaxFeatures() {
+        List<TopFeaturesDto> features = IntStream.range(0, 5)
+                .mapToObj(i -> new TopFeaturesDto("FUNCIONALIDADE_" + i, List.of((long) i), 10L - i))
+                .toList();
+
+        String html = renderer.render(report(features), "2025-04-07 - 2025-04-13", "<script>alert(1)</script>");
+
+        assertTrue(html.contains("&lt;script&gt;alert(1)&lt;/script&gt;"));
+        assertFalse(html.contains("<script>"));
+        assertTrue(html.contains("Funcionalidade 2"));
+        assertFalse(html.contains("FUNCIONALIDADE_3"));
+        assertTrue(html.contains("E mais 2 funcionalidades."));
+        assertTrue(html.contains("60.0%"));
+    }
+
+    @Test
+    void render_SameData_SameHtml() {
+        ReportResponse report = report(List.of(new TopFeaturesDto("ADICIONAR_NOTIFICACOES", List.of(1L), 1L)));
+
+        assertEquals(renderer.render(report, "periodo", "resumo"), renderer.render(report, "periodo", "resumo"));
+    }
+
+    @Test
+    void fallbackSummary_UsesStatisticsAndTopFeature() {
+        ReportResponse report = report(List.of(new TopFeaturesDto("ADICIONAR_NOTIFICACOES", List.of(1L, 2L), 2L)));
+
+        assertEquals("Nesta semana recebemos 10 feedbacks: 60.0% positivos, 30.0% negativos e 10.0% inconclusivos."
+                        + " A funcionalidade mais pedida foi Adicionar notificacoes, com 2 pedidos.",
+                renderer.fallbackSummary(report));
+    }
+
+    private static ReportResponse report(List<TopFeaturesDto> topFeatures) {
+        return ReportResponse.builder()
+                .statistics(StatisticsDto.builder()
+                        .totalFeedbacks(10)
+                        .percentPositive(60.0)
+                        .percentNegative(30.0)
+                        .percentInconclusive(10.0)
+                        .build())
+                .topFeatures(topFeatures)
+                .build();
+    }
+}
@@ -0,0 +1,180 @@
+package com.alura.alumind.service;
+
+import com.alura.alumind.dto.ReportResponse;
+import com.alura.alumind.dto.ReportResponse.StatisticsDto;
+import com.alura.alumind.dto.ReportResponse.TopFeaturesDto;
+import com.alura.alumind.model.WeeklyReportEmail;
+import com.alura.alumind.repository.WeeklyReportEmailRepository;
+import com.alura.alumind.utils.LLMPrompts.PromptType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WeeklyReportServiceTest {
+
+    private static final LocalDate WEDNESDAY = LocalDate.of(2025, 4, 9);
+    private static final LocalDate MONDAY = LocalDate.of(2025, 4, 7);
+
+    private ReportService reportService;
+    private LLMService llmService;
+    private EmailService emailService;
+    private WeeklyReportService weeklyReportService;
+    private final Map<LocalDate, WeeklyReportEmail> storedEmails = new HashMap<>();
+    private volatile String storingThread;
+
+    @BeforeEach
+    void setUp() {
+        reportService = mock(ReportService.class);
+        llmService = mock(LLMService.class);
+        emailService = mock(EmailService.class);
+        WeeklyReportEmailRepository repository = mock(WeeklyReportEmailRepository.class);
+        weeklyReportService = new WeeklyReportService(reportService, llmService, emailService, repository,
+                new WeeklyReportRenderer(10), new ObjectMapper(), new PromptBudget(500, 300, 400, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(weeklyReportService, "llmSummary", true);
+        ReflectionTestUtils.setField(weeklyReportService, "maxSummaryChars", 600);
+
+        when(repository.findById(any(LocalDate.class)))
+                .thenAnswer(invocation -> Optional.ofNullable(storedEmails.get(invocation.<LocalDate>getArgument(0))));
+        when(repository.save(any(WeeklyReportEmail.class))).thenAnswer(invocation -> {
+            WeeklyReportEmail email = invocation.getArgument(0);
+            storingThread = Thread.currentThread().getName();
+            storedEmails.put(email.getPeriodStart(), email);
+            return email;
+        });
+        when(reportService.generateWeeklyReport(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(report(10));
+        when(llmService.sendPrompt(eq(PromptType.WEEKLY_SUMMARY), anyString())).thenReturn("Semana positiva.");
+    }
+
+    @Test
+    void sendWeeklyReport_UnchangedData_ReusesStoredHtml() {
+        weeklyReportService.sendWeeklyReport(WEDNESDAY);
+        weeklyReportService.sendWeeklyReport(MONDAY);
+
+        verify(llmService, times(1)).sendPrompt(eq(PromptType.WEEKLY_SUMMARY), anyString());
+        ArgumentCaptor<String> content = ArgumentCaptor.forClass(String.class);
+        verify(emailService, times(2)).sendEmail(
+                eq("AluMind - Relatório Semanal de Feedbacks (2025-04-07 - 2025-04-13)"), content.capture());
+        assertEquals(content.getAllValues().get(0), content.getAllValues().get(1));
+        assertTrue(content.getValue().contains("Semana positiva."));
+        assertEquals(1, storedEmails.size());
+    }
+
+    @Test
+    void generateEmailContent_ChangedData_RegeneratesHtml() {
+        weeklyReportService.generateEmailContent(WEDNESDAY);
+
+        when(reportService.generateWeeklyReport(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(report(11));
+        when(llmService.sendPrompt(eq(PromptType.WEEKLY_SUMMARY), anyString())).thenReturn("Semana ainda melhor.");
+
+        String html = weeklyReportService.generateEmailContent(WEDNESDAY);
+        assertTrue(html.contains("Semana ainda melhor."));
+        assertTrue(html.contains(">11<"));
+        assertEquals(html, storedEmails.get(MONDAY).getHtml());
+        verify(llmService, times(2)).sendPrompt(eq(PromptType.WEEKLY_SUMMARY), anyString());
+    }
+
+    @Test
+    void generateEmailContent_LLMUnavailable_FallsBackToTemplateOnly() {
+        when(llmService.sendPrompt(eq(PromptType.WEEKLY_SUMMARY), anyString()))
+                .thenThrow(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE));
+
+        String html = weeklyReportService.generateEmailContent(WEDNESDAY);
+
+        assertTrue(html.contains("Nesta semana recebemos 10 feedbacks"));
+        assertTrue(html.contains("ADICIONAR_NOTIFICACOES"));
+        assertTrue(storedEmails.isEmpty());
+    }
+
+    @Test
+    void streamEmailContent_SummaryStreamedBetweenTemplateParts_ThenServedFromStore() {
+        when(llmService.streamPrompt(eq(PromptType.WEEKLY_SUMMARY), anyString())).thenReturn(Flux.just("Semana ", "<positiva>."));
+
+        List<String> first = weeklyReportService.streamEmailContent(WEDNESDAY).collectList().block();
+        List<String> second = weeklyReportService.streamEmailContent(WEDNESDAY).collectList().block();
+
+        assertEquals(4, first.size());
+        assertTrue(first.get(0).startsWith("<!DOCTYPE html>"));
+        assertEquals(List.of("Semana ", "&lt;positiva&gt;."), first.subList(1, 3));
+        assertTrue(first.get(3).contains("ADICIONAR_NOTIFICACOES"));
+        assertEquals(List.of(String.join("", first)), second);
+        verify(llmService, times(1)).streamPrompt(eq(PromptType.WEEKLY_SUMMARY), anyString());
+        verify(llmService, never()).sendPrompt(any(PromptType.class), anyString());
+    }
+
+    @Test
+    void streamEmailContent_LongSummary_CutAtWordBoundaryAndStoredOffTheCallerThread() {
+        ReflectionTestUtils.setField(weeklyReportService, "maxSummaryChars", 21);
+        when(llmService.streamPrompt(eq(PromptType.WEEKLY_SUMMARY), anyString()))
+                .thenReturn(Flux.just("Semana muito ", "positiva para ", "o produto."));
+
+        List<String> chunks = weeklyReportService.streamEmailContent(WEDNESDAY).collectList().block();
+
+        assertEquals(List.of("Semana muito ", "positiva…"), chunks.subList(1, 3));
+        assertEquals(String.join("", chunks), storedEmails.get(MONDAY).getHtml());
+        assertTrue(storingThread.startsWith("boundedElastic"), storingThread);
+    }
+
+    @Test
+    void streamEmailContent_StreamFailsMidway_SummaryEndedWithoutFallbackOrStore() {
+        when(llmService.streamPrompt(eq(PromptType.WEEKLY_SUMMARY), anyString())).thenReturn(Flux.concat(
+                Flux.just("Semana muito "), Flux.error(new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT))));
+
+        List<String> chunks = weeklyReportService.streamEmailContent(WEDNESDAY).collectList().block();
+
+        assertEquals(List.of("Semana muito ", "…"), chunks.subList(1, 3));
+        assertFalse(String.join("", chunks).contains("Nesta semana recebemos"));
+        assertTrue(chunks.get(3).contains("ADICIONAR_NOTIFICACOES"));
+        assertTrue(storedEmails.isEmpty());
+    }
+
+    @Test
+    void streamEmailContent_StreamFailsBeforeFirstChunk_FallbackSummary() {
+        when(llmService.streamPrompt(eq(PromptType.WEEKLY_SUMMARY), anyString()))
+                .thenReturn(Flux.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE)));
+
+        List<String> chunks = weeklyReportService.streamEmailContent(WEDNESDAY).collectList().block();
+
+        assertEquals(3, chunks.size());
+        assertTrue(chunks.get(1).contains("Nesta semana recebemos 10 feedbacks"));
+        assertTrue(storedEmails.isEmpty());
+    }
+
+    private static ReportResponse report(long totalFeedbacks) {
+        return ReportResponse.builder()
+                .statistics(StatisticsDto.builder()
+                        .totalFeedbacks(totalFeedbacks)
+                        .percentPositive(60.0)
+                        .percentNegative(30.0)
+                        .percentInconclusive(10.0)
+                        .build())
+                .topFeatures(List.of(new TopFeaturesDto("ADICIONAR_NOTIFICACOES", List.of(1L, 2L), 2L)))
+                .build();
+    }
+}